@@ -0,0 +1,32 @@
+package com.example.orcamento;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utilitarios comuns dos benchmarks.
+ */
+public final class SuporteBenchmark {
+
+    private SuporteBenchmark() {
+    }
+
+    /**
+     * Reduz os logs a ERROR. O logger {@code com.example.orcamento} tem nivel proprio no
+     * {@code logback.xml}, entao baixar so o root nao basta.
+     */
+    public static void silenciarLogs() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+        ((Logger) LoggerFactory.getLogger("com.example.orcamento")).setLevel(Level.ERROR);
+    }
+
+    /**
+     * Mock que so responde ao que foi configurado, sem registrar as chamadas: um mock comum guarda
+     * cada invocacao e cresceria sem limite durante a medicao.
+     */
+    public static <T> T stub(Class<T> tipo) {
+        return Mockito.mock(tipo, Mockito.withSettings().stubOnly());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.orcamento.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisicao autenticada no {@link JwtUtil}: parse com verificacao da assinatura HS256,
+ * {@code validateToken} (dois parses, como no filtro) e geracao de token no login.
+ *
+ * <p>Execucao: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="JwtUtilBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private UserDetails usuario;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", "Jm9eL/WB+KdOdPMFqg6XjQlvFZHYck1/b6+zp9h9x8A=");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", TimeUnit.DAYS.toMillis(1));
+        token = jwtUtil.generateToken("usuario.benchmark", "tenantA");
+        usuario = new User("usuario.benchmark", "", List.of());
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, usuario);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("usuario.benchmark", "tenantA");
+    }
+}
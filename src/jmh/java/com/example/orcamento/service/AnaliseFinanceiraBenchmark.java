@@ -0,0 +1,105 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.SuporteBenchmark;
+import com.example.orcamento.dto.GastoMensalAgrupadoDTO;
+import com.example.orcamento.dto.GastoRecorrenteDTO;
+import com.example.orcamento.dto.PrevisaoGastoDTO;
+import com.example.orcamento.dto.SugestaoEconomiaDTO;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.security.TenantContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Analises do {@link AnaliseFinanceiraService} (gastos recorrentes por nome/subcategoria, sugestoes
+ * e previsoes por subcategoria e mes) sobre as linhas ja agregadas que o banco devolveria para
+ * {@code despesas} lancamentos: {@value #NOMES} nomes distintos em {@value #SUBCATEGORIAS}
+ * subcategorias, espalhados pelos ultimos seis meses. O custo da consulta agregada fica de fora.
+ *
+ * <p>Execucao: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="AnaliseFinanceiraBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnaliseFinanceiraBenchmark {
+
+    static final int NOMES = 200;
+    static final int SUBCATEGORIAS = 20;
+    private static final String TENANT = "tenantA";
+
+    @Param({"1000", "100000"})
+    public int despesas;
+
+    private AnaliseFinanceiraService service;
+
+    @Setup
+    public void setup() {
+        SuporteBenchmark.silenciarLogs();
+        // Simula o que o banco devolve: uma linha por nome, subcategoria e mes de vencimento
+        LocalDate hoje = LocalDate.now();
+        Map<List<Object>, GastoMensalAgrupadoDTO> agregados = new LinkedHashMap<>();
+        for (int i = 0; i < despesas; i++) {
+            String nome = "Despesa " + i % NOMES;
+            String subcategoria = "Subcategoria " + (i % NOMES % SUBCATEGORIAS + 1);
+            BigDecimal valor = BigDecimal.valueOf(5_000 + i % 20_000, 2);
+            LocalDate vencimento = hoje.minusDays(i % 180);
+            GastoMensalAgrupadoDTO linha = new GastoMensalAgrupadoDTO(nome, subcategoria, vencimento.getYear(),
+                    vencimento.getMonthValue(), valor, 1L, vencimento, vencimento, (long) i);
+            agregados.merge(List.of(nome, subcategoria, YearMonth.from(vencimento)), linha, (a, b) -> new GastoMensalAgrupadoDTO(
+                    a.nome(), a.subcategoria(), a.ano(), a.mes(), a.total().add(b.total()), a.quantidade() + b.quantidade(),
+                    a.primeiroVencimento().isBefore(b.primeiroVencimento()) ? a.primeiroVencimento() : b.primeiroVencimento(),
+                    a.ultimoVencimento().isAfter(b.ultimoVencimento()) ? a.ultimoVencimento() : b.ultimoVencimento(),
+                    Math.max(a.ultimoId(), b.ultimoId())));
+        }
+        List<GastoMensalAgrupadoDTO> linhas = new ArrayList<>(agregados.values());
+
+        DespesaRepository despesaRepository = SuporteBenchmark.stub(DespesaRepository.class);
+        when(despesaRepository.agruparPorNomeSubcategoriaEMes(eq(TENANT), any(), any(), any())).thenReturn(linhas);
+        service = new AnaliseFinanceiraService();
+        ReflectionTestUtils.setField(service, "despesaRepository", despesaRepository);
+    }
+
+    @Benchmark
+    public List<GastoRecorrenteDTO> gastosRecorrentes() {
+        TenantContext.setTenantId(TENANT);
+        return service.analisarGastosRecorrentes(6, null);
+    }
+
+    @Benchmark
+    public List<SugestaoEconomiaDTO> sugestoes() {
+        TenantContext.setTenantId(TENANT);
+        return service.gerarSugestoes(6, null);
+    }
+
+    @Benchmark
+    public List<PrevisaoGastoDTO> previsoes() {
+        TenantContext.setTenantId(TENANT);
+        return service.gerarPrevisoes(6, null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.SuporteBenchmark;
+import com.example.orcamento.dto.conciliacao.ConciliacaoOfxRelatorioDTO;
+import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.model.Receita;
+import com.example.orcamento.repository.ConciliacaoOfxProcessamentoRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.MovimentacaoRepository;
+import com.example.orcamento.repository.ReceitaRepository;
+import com.example.orcamento.security.TenantContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conciliacao OFX completa ({@link ConciliacaoOfxService#conciliar}) com repositorios em memoria:
+ * metade dos debitos do extrato tem despesa paga correspondente (com ate um dia de diferenca), um
+ * quarto dos movimentos sao creditos com receita e o resto fica sem par. Mede leitura do arquivo,
+ * indices e casamento; o custo do banco de dados fica de fora.
+ *
+ * <p>Execucao: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ConciliacaoOfxBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConciliacaoOfxBenchmark {
+
+    private static final String TENANT = "tenantA";
+    private static final long CONTA_ID = 2L;
+    private static final LocalDate INICIO = LocalDate.of(2026, 1, 1);
+
+    @Param({"1000", "10000", "100000"})
+    public int movimentos;
+
+    private ConciliacaoOfxService service;
+    private MockMultipartFile arquivo;
+
+    @Setup
+    public void setup() {
+        SuporteBenchmark.silenciarLogs();
+        ContaCorrente conta = new ContaCorrente(CONTA_ID, "0001", "10962115", "077", "Inter", BigDecimal.ZERO, 1L, TENANT, true);
+        List<Despesa> despesas = new ArrayList<>();
+        List<Receita> receitas = new ArrayList<>();
+        StringBuilder ofx = new StringBuilder(movimentos * 160)
+                .append("OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\n\n<OFX>\n<BANKMSGSRSV1>\n<STMTTRNRS>\n<STMTRS>\n")
+                .append("<BANKACCTFROM>\n<BANKID>077\n<ACCTID>10962115\n</BANKACCTFROM>\n")
+                .append("<BANKTRANLIST>\n<DTSTART>20260101\n<DTEND>20261231\n");
+        for (int i = 0; i < movimentos; i++) {
+            LocalDate data = INICIO.plusDays(i % 365);
+            BigDecimal valor = BigDecimal.valueOf(1000 + i % 9973, 2);
+            boolean credito = i % 4 == 2;
+            ofx.append("<STMTTRN>\n<DTPOSTED>").append(data.toString().replace("-", ""))
+                    .append("\n<TRNAMT>").append(credito ? "" : "-").append(valor.toPlainString())
+                    .append("\n<FITID>").append(202600000000L + i)
+                    .append("\n<MEMO>").append(credito ? "TED RECEBIDA " : "PIX ENVIADO FORNECEDOR ").append(i)
+                    .append("\n</STMTTRN>\n");
+            if (i % 4 < 2) {
+                despesas.add(Despesa.builder()
+                        .id((long) i)
+                        .tenantId(TENANT)
+                        .nome("Despesa " + i)
+                        .valorPrevisto(valor)
+                        .valorPago(valor)
+                        .dataVencimento(data)
+                        .dataPagamento(data.plusDays(i % 3 - 1))
+                        .contaCorrente(conta)
+                        .build());
+            } else if (credito) {
+                receitas.add(Receita.builder()
+                        .id((long) i)
+                        .tenantId(TENANT)
+                        .descricao("Receita " + i)
+                        .valor(valor)
+                        .dataRecebimento(data)
+                        .contaCorrente(conta)
+                        .build());
+            }
+        }
+        ofx.append("</BANKTRANLIST>\n</STMTRS>\n</STMTTRNRS>\n</BANKMSGSRSV1>\n</OFX>\n");
+        arquivo = new MockMultipartFile("file", "extrato.ofx", "application/x-ofx", ofx.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+        ContaCorrenteService contaCorrenteService = SuporteBenchmark.stub(ContaCorrenteService.class);
+        ConciliacaoOfxProcessamentoRepository processamentoRepository = SuporteBenchmark.stub(ConciliacaoOfxProcessamentoRepository.class);
+        DespesaRepository despesaRepository = SuporteBenchmark.stub(DespesaRepository.class);
+        ReceitaRepository receitaRepository = SuporteBenchmark.stub(ReceitaRepository.class);
+        MovimentacaoRepository movimentacaoRepository = SuporteBenchmark.stub(MovimentacaoRepository.class);
+        when(contaCorrenteService.buscarPorId(CONTA_ID)).thenReturn(Optional.of(conta));
+        when(processamentoRepository.findTopByTenantIdAndContaCorrenteIdAndHashArquivoOrderByProcessadoEmDesc(eq(TENANT), eq(CONTA_ID), any()))
+                .thenReturn(Optional.empty());
+        when(despesaRepository.findByTenantIdAndDataVencimentoBetween(eq(TENANT), any(), any())).thenReturn(despesas);
+        when(receitaRepository.findByContaCorrenteIdAndTenantIdAndDataRecebimentoBetween(eq(CONTA_ID), eq(TENANT), any(), any()))
+                .thenReturn(receitas);
+        when(movimentacaoRepository.findByContaCorrenteIdAndTenantIdAndDataRecebimentoBetween(eq(CONTA_ID), eq(TENANT), any(), any()))
+                .thenReturn(List.of());
+
+        service = new ConciliacaoOfxService(contaCorrenteService, processamentoRepository, despesaRepository,
+                receitaRepository, movimentacaoRepository, SuporteBenchmark.stub(ConciliacaoOfxRelatorioArmazenamentoService.class));
+    }
+
+    @Benchmark
+    public ConciliacaoOfxRelatorioDTO conciliar() {
+        // O estado do JMH pode ser preparado em outra thread; o tenant e definido na thread medida.
+        TenantContext.setTenantId(TENANT);
+        return service.conciliar(CONTA_ID, 2, BigDecimal.ZERO, new BigDecimal("1000.00"), arquivo, true);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.SuporteBenchmark;
+import com.example.orcamento.config.CalendarioProperties;
+import com.example.orcamento.dto.FechamentoMensalResponseDTO;
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.StatusCartao;
+import com.example.orcamento.repository.AgregadoMensalRepository;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.ContaCorrenteSaldoDiaRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.FechamentoMensalHistoricoRepository;
+import com.example.orcamento.repository.FechamentoMensalRepository;
+import com.example.orcamento.repository.GeracaoFaturaCartaoRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.repository.ReceitaRepository;
+import com.example.orcamento.security.TenantContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Projecao de {@value #MESES} meses em aberto ({@link FechamentoMensalService#listarProjecao}), que
+ * calcula o resumo de cada mes: totais do {@link AgregadoMensalService} (sem linha consolidada, a
+ * partir das somas e das despesas de fatura) e a {@link CompetenciaSnapshot} dos cartoes. As consultas
+ * devolvem listas em memoria, entao o resultado mede so a agregacao em Java.
+ *
+ * <p>Execucao: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="FechamentoMensalBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FechamentoMensalBenchmark {
+
+    static final int MESES = 24;
+    private static final String TENANT = "tenantA";
+
+    @Param({"5", "50"})
+    public int cartoes;
+
+    @Param({"100", "5000"})
+    public int despesasFatura;
+
+    private FechamentoMensalService service;
+    private YearMonth alvo;
+
+    @Setup
+    public void setup() {
+        SuporteBenchmark.silenciarLogs();
+        List<CartaoCredito> listaCartoes = new ArrayList<>();
+        List<Object[]> somasPorCartao = new ArrayList<>();
+        for (long id = 1; id <= cartoes; id++) {
+            CartaoCredito cartao = new CartaoCredito();
+            cartao.setId(id);
+            cartao.setNome("Cartao " + id);
+            cartao.setLimite(new BigDecimal("10000.00"));
+            cartao.setDiaVencimento(10);
+            cartao.setStatus(StatusCartao.ATIVO);
+            cartao.setTenantId(TENANT);
+            listaCartoes.add(cartao);
+            somasPorCartao.add(new Object[]{id, 0, BigDecimal.valueOf(150_000 + id, 2), BigDecimal.valueOf(20_000, 2)});
+        }
+        List<Object[]> faturasPorVencimento = new ArrayList<>();
+        List<Object[]> faturasLancadas = new ArrayList<>();
+        for (int i = 0; i < despesasFatura; i++) {
+            String nome = "Fatura Cartao Cartao " + (i % cartoes + 1) + " parcela " + i;
+            faturasPorVencimento.add(new Object[]{nome, BigDecimal.valueOf(10_000 + i, 2)});
+            faturasLancadas.add(new Object[]{nome, LocalDate.of(2026, i % 12 + 1, 10)});
+        }
+
+        DespesaRepository despesaRepository = SuporteBenchmark.stub(DespesaRepository.class);
+        ReceitaRepository receitaRepository = SuporteBenchmark.stub(ReceitaRepository.class);
+        LancamentoCartaoRepository lancamentoCartaoRepository = SuporteBenchmark.stub(LancamentoCartaoRepository.class);
+        CartaoCreditoRepository cartaoCreditoRepository = SuporteBenchmark.stub(CartaoCreditoRepository.class);
+        when(despesaRepository.somarTotaisPorVencimento(eq(TENANT), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{new BigDecimal("8000.00"), new BigDecimal("6000.00"), new BigDecimal("1500.00")}));
+        when(despesaRepository.findNomeEValorPrevistoDeFaturasPorVencimento(eq(TENANT), any(), any())).thenReturn(faturasPorVencimento);
+        when(despesaRepository.findNomeEVencimentoDeFaturasLancadas(eq(TENANT), any(), any())).thenReturn(faturasLancadas);
+        when(receitaRepository.somarRealizadasPorPeriodo(eq(TENANT), any(), any())).thenReturn(new BigDecimal("9000.00"));
+        when(lancamentoCartaoRepository.somarTotaisDaFatura(any(), eq(TENANT)))
+                .thenReturn(List.<Object[]>of(new Object[]{new BigDecimal("3000.00"), new BigDecimal("400.00")}));
+        when(lancamentoCartaoRepository.somarFaturasPorCartaoECompetencia(eq(TENANT), any(), any())).thenReturn(somasPorCartao);
+        when(cartaoCreditoRepository.findByTenantId(TENANT)).thenReturn(listaCartoes);
+
+        AgregadoMensalService agregadoMensalService = new AgregadoMensalService(
+                SuporteBenchmark.stub(AgregadoMensalRepository.class), despesaRepository, receitaRepository, lancamentoCartaoRepository);
+        DespesaService despesaService = new DespesaService(despesaRepository, null, null, null, null, null);
+        CompetenciaSnapshotService competenciaSnapshotService = new CompetenciaSnapshotService(
+                cartaoCreditoRepository, lancamentoCartaoRepository, SuporteBenchmark.stub(GeracaoFaturaCartaoRepository.class), despesaService);
+        service = new FechamentoMensalService(
+                SuporteBenchmark.stub(FechamentoMensalRepository.class),
+                SuporteBenchmark.stub(ContaCorrenteService.class),
+                SuporteBenchmark.stub(ContaCorrenteSaldoDiaRepository.class),
+                SuporteBenchmark.stub(FechamentoMensalHistoricoRepository.class),
+                agregadoMensalService,
+                competenciaSnapshotService,
+                new CalendarioDiasUteis(new CalendarioProperties()));
+        alvo = YearMonth.now().plusMonths(MESES - 1);
+    }
+
+    @Benchmark
+    public List<FechamentoMensalResponseDTO> listarProjecao() {
+        TenantContext.setTenantId(TENANT);
+        return service.listarProjecao(alvo.getYear(), alvo.getMonthValue());
+    }
+}
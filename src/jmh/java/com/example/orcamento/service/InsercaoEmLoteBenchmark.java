@@ -0,0 +1,113 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.OrcamentoApplication;
+import com.example.orcamento.SuporteBenchmark;
+import com.example.orcamento.dto.DespesaParceladaDTO;
+import com.example.orcamento.model.CategoriaDespesa;
+import com.example.orcamento.model.SubcategoriaDespesa;
+import com.example.orcamento.repository.CategoriaDespesaRepository;
+import com.example.orcamento.repository.SubcategoriaDespesaRepository;
+import com.example.orcamento.security.TenantContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravacao de uma despesa parcelada ({@link DespesaParceladaService#salvarDespesaParcelada}) no contexto
+ * completo da aplicacao, sobre o H2 em modo MySQL do perfil de teste. Com {@code lote = 1} cada parcela
+ * e um INSERT proprio; com {@code lote = 50} as parcelas saem num unico lote, ja que os ids vem em
+ * blocos da sequence e nao dependem do retorno de cada INSERT. As despesas geradas sao apagadas ao fim
+ * de cada iteracao para que o recalculo dos agregados nao cresca durante a medicao.
+ *
+ * <p>Execucao: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="InsercaoEmLoteBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercaoEmLoteBenchmark {
+
+    private static final String TENANT = "tenantBenchmarkLote";
+
+    @Param({"1", "50"})
+    public int lote;
+
+    @Param({"12", "48"})
+    public int parcelas;
+
+    private ConfigurableApplicationContext contexto;
+    private DespesaParceladaService service;
+    private JdbcTemplate jdbcTemplate;
+    private Long subcategoriaId;
+
+    @Setup
+    public void setup() {
+        SuporteBenchmark.silenciarLogs();
+        contexto = new SpringApplicationBuilder(OrcamentoApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + lote)
+                .run();
+        SuporteBenchmark.silenciarLogs();
+        service = contexto.getBean(DespesaParceladaService.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+
+        CategoriaDespesa categoria = new CategoriaDespesa();
+        categoria.setId(1L);
+        categoria.setNome("Moradia");
+        categoria.setTenantId(TENANT);
+        contexto.getBean(CategoriaDespesaRepository.class).save(categoria);
+        SubcategoriaDespesa subcategoria = new SubcategoriaDespesa();
+        subcategoria.setId(1L);
+        subcategoria.setNome("Financiamento");
+        subcategoria.setTenantId(TENANT);
+        subcategoria.setCategoria(categoria);
+        subcategoriaId = contexto.getBean(SubcategoriaDespesaRepository.class).save(subcategoria).getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void limparDespesas() {
+        jdbcTemplate.update("DELETE FROM despesas WHERE tenant_id = ?", TENANT);
+        jdbcTemplate.update("DELETE FROM despesa_parcelada WHERE tenant_id = ?", TENANT);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object salvarDespesaParcelada() {
+        TenantContext.setTenantId(TENANT);
+        DespesaParceladaDTO dto = new DespesaParceladaDTO();
+        dto.setDescricao("Reforma");
+        dto.setValorTotal(new BigDecimal("12000.00"));
+        dto.setNumeroParcelas(parcelas);
+        dto.setDataInicial(LocalDate.of(2026, 1, 10));
+        dto.setMesPrimeiraParcela(Month.FEBRUARY);
+        dto.setSubcategoriaId(subcategoriaId);
+        dto.setProprietario("Proprio");
+        return service.salvarDespesaParcelada(dto);
+    }
+}
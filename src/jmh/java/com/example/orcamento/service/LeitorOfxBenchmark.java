@@ -0,0 +1,170 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.conciliacao.MovimentoOfxDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a leitura de passagem unica ({@link LeitorOfx}) com o fluxo anterior da conciliacao:
+ * SHA-256 sobre o arquivo inteiro em memoria (feito duas vezes por upload) e parse linha a linha
+ * com {@code trim()/substring}.
+ *
+ * <p>Execucao: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="LeitorOfxBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeitorOfxBenchmark {
+
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    @Param({"1000", "100000"})
+    public int movimentos;
+
+    private byte[] arquivo;
+
+    @Setup
+    public void setup() {
+        StringBuilder ofx = new StringBuilder(movimentos * 160)
+                .append("OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\nENCODING:USASCII\nCHARSET:1252\n\n")
+                .append("<OFX>\n<BANKMSGSRSV1>\n<STMTTRNRS>\n<STMTRS>\n")
+                .append("<BANKACCTFROM>\n<BANKID>0341\n<ACCTID>12345-6\n</BANKACCTFROM>\n")
+                .append("<BANKTRANLIST>\n<DTSTART>20260101000000[-3:BRT]\n<DTEND>20261231000000[-3:BRT]\n");
+        LocalDate inicio = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < movimentos; i++) {
+            LocalDate data = inicio.plusDays(i % 365);
+            ofx.append("<STMTTRN>\n")
+                    .append("<TRNTYPE>DEBIT\n")
+                    .append("<DTPOSTED>").append(data.getYear())
+                    .append(String.format("%02d%02d", data.getMonthValue(), data.getDayOfMonth()))
+                    .append("100000[-3:BRT]\n")
+                    .append("<TRNAMT>-").append(i % 5000).append('.').append(String.format("%02d", i % 100)).append('\n')
+                    .append("<FITID>").append(202600000000L + i).append('\n')
+                    .append("<MEMO>PIX ENVIADO FORNECEDOR ").append(i).append('\n')
+                    .append("</STMTTRN>\n");
+        }
+        ofx.append("</BANKTRANLIST>\n</STMTRS>\n</STMTTRNRS>\n</BANKMSGSRSV1>\n</OFX>\n");
+        arquivo = ofx.toString().getBytes(WINDOWS_1252);
+    }
+
+    @Benchmark
+    public LeitorOfx.Extrato passagemUnica() throws IOException {
+        return LeitorOfx.ler(new ByteArrayInputStream(arquivo));
+    }
+
+    @Benchmark
+    public List<MovimentoOfxDTO> legado() throws IOException, NoSuchAlgorithmException {
+        // conciliar() calculava o hash no inicio e de novo ao salvar o processamento.
+        hashLegado(arquivo);
+        hashLegado(arquivo);
+        return parseLegado(arquivo);
+    }
+
+    private static String hashLegado(byte[] bytes) throws NoSuchAlgorithmException {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+        StringBuilder builder = new StringBuilder();
+        for (byte b : hash) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    /** Copia do antigo {@code ConciliacaoOfxService.parseOfx}, mantida apenas como referencia de desempenho. */
+    private static List<MovimentoOfxDTO> parseLegado(byte[] bytes) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), WINDOWS_1252))) {
+            List<MovimentoOfxDTO> movimentos = new ArrayList<>();
+            MovimentoOfxDTO.MovimentoOfxDTOBuilder atual = null;
+            LocalDate periodoInicio = null;
+            LocalDate periodoFim = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if ("<STMTTRN>".equalsIgnoreCase(trimmed)) {
+                    atual = MovimentoOfxDTO.builder();
+                    continue;
+                }
+                if ("</STMTTRN>".equalsIgnoreCase(trimmed)) {
+                    if (atual != null) {
+                        movimentos.add(atual.build());
+                    }
+                    atual = null;
+                    continue;
+                }
+                if (atual != null) {
+                    if (trimmed.startsWith("<DTPOSTED>")) {
+                        atual.data(parseData(extrairValor(trimmed)));
+                    } else if (trimmed.startsWith("<TRNAMT>")) {
+                        atual.valor(new BigDecimal(extrairValor(trimmed)));
+                    } else if (trimmed.startsWith("<FITID>")) {
+                        atual.fitId(extrairValor(trimmed));
+                    } else if (trimmed.startsWith("<MEMO>")) {
+                        atual.memo(extrairValor(trimmed));
+                    }
+                    continue;
+                }
+                if (trimmed.startsWith("<DTSTART>")) {
+                    periodoInicio = parseData(extrairValor(trimmed));
+                } else if (trimmed.startsWith("<DTEND>")) {
+                    periodoFim = parseData(extrairValor(trimmed));
+                }
+            }
+            if (periodoInicio == null || periodoFim == null) {
+                throw new IllegalArgumentException("Nao foi possivel identificar o periodo do OFX");
+            }
+            return movimentos;
+        }
+    }
+
+    private static String extrairValor(String line) {
+        int idx = line.indexOf('>');
+        if (idx < 0) {
+            return "";
+        }
+        String value = line.substring(idx + 1).trim();
+        int closeIdx = value.indexOf("</");
+        if (closeIdx >= 0) {
+            value = value.substring(0, closeIdx).trim();
+        }
+        return value;
+    }
+
+    private static LocalDate parseData(String raw) {
+        if (raw == null || raw.length() < 8) {
+            return null;
+        }
+        String base = raw.substring(0, 8);
+        return LocalDate.of(
+                Integer.parseInt(base.substring(0, 4)),
+                Integer.parseInt(base.substring(4, 6)),
+                Integer.parseInt(base.substring(6, 8))
+        );
+    }
+}
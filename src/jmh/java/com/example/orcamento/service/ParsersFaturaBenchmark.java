@@ -0,0 +1,81 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.SuporteBenchmark;
+import com.example.orcamento.model.Transaction;
+import com.example.orcamento.service.extractor.BradescoAmazonPrimePdfExtractor;
+import com.example.orcamento.service.extractor.GenialPdfExtractor;
+import com.example.orcamento.service.extractor.PdfCartaoExtractor;
+import com.example.orcamento.service.extractor.PdfCartaoExtractorCartao1;
+import com.example.orcamento.service.extractor.PdfCartaoExtractorCartao3;
+import com.example.orcamento.service.extractor.PdfCartaoExtractorCartao5;
+import com.example.orcamento.service.extractor.PdfCartaoExtractorRegistry;
+import com.example.orcamento.service.extractor.SantanderPdfExtractor;
+import com.example.orcamento.service.extractor.ZaffariCardPdfExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse do texto ja extraido de cada fatura do corpus de testes ({@code faturas/<modelo>.txt}): cada
+ * extrator de {@code service/extractor} contra o parser generico {@link PdfService#processarRegistros}
+ * sobre as mesmas linhas. Sem PDFBox; a leitura do PDF esta em {@code PdfExtracaoBenchmark}.
+ *
+ * <p>Execucao: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ParsersFaturaBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsersFaturaBenchmark {
+
+    @Param({"bradesco", "itau", "cartao3", "inter", "santander", "zaffari", "genial"})
+    public String modelo;
+
+    private List<String> linhas;
+    private PdfCartaoExtractor extractor;
+
+    @Setup
+    public void setup() throws IOException {
+        SuporteBenchmark.silenciarLogs();
+        try (InputStream entrada = ParsersFaturaBenchmark.class.getResourceAsStream("/faturas/" + modelo + ".txt")) {
+            if (entrada == null) {
+                throw new IllegalStateException("Corpus nao encontrado: " + modelo);
+            }
+            linhas = new String(entrada.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+        extractor = new PdfCartaoExtractorRegistry(List.of(
+                new BradescoAmazonPrimePdfExtractor(),
+                new PdfCartaoExtractorCartao1(),
+                new PdfCartaoExtractorCartao3(),
+                new PdfCartaoExtractorCartao5(),
+                new SantanderPdfExtractor(),
+                new ZaffariCardPdfExtractor(),
+                new GenialPdfExtractor())).getExtractor(modelo);
+    }
+
+    @Benchmark
+    public List<Transaction> extrator() {
+        return extractor.extrairDasLinhas(linhas);
+    }
+
+    @Benchmark
+    public List<Transaction> pdfService() {
+        return PdfService.processarRegistros(linhas);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.SuporteBenchmark;
+import com.example.orcamento.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paginas por segundo de cada extrator sobre uma fatura sintetica de {@value #PAGINAS} paginas
+ * ({@link FaturaPdfFixture}): leitura sequencial ({@link PdfCartaoExtractor#extrair}) contra o
+ * {@link PdfExtracaoPipeline}. Os logs sao reduzidos a ERROR para medir so a extracao e o parse.
+ *
+ * <p>Execucao: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="PdfExtracaoBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PdfExtracaoBenchmark {
+
+    static final int PAGINAS = 200;
+
+    @Param({"santander", "cartao1", "cartao3", "inter", "genial", "bradesco", "zaffari"})
+    public String modelo;
+
+    @Param({"4"})
+    public int threads;
+
+    @Param({"8"})
+    public int paginasPorIntervalo;
+
+    private byte[] fatura;
+    private PdfCartaoExtractor extractor;
+    private PdfExtracaoPipeline pipeline;
+
+    @Setup
+    public void setup() throws IOException {
+        SuporteBenchmark.silenciarLogs();
+        fatura = FaturaPdfFixture.gerar(PAGINAS, 50);
+        extractor = FaturaPdfFixture.registro().getExtractor(modelo);
+        pipeline = new PdfExtracaoPipeline();
+        ReflectionTestUtils.setField(pipeline, "threads", threads);
+        ReflectionTestUtils.setField(pipeline, "paginasPorIntervalo", paginasPorIntervalo);
+        pipeline.iniciar();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.encerrar();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGINAS)
+    public List<Transaction> sequencial() {
+        return extractor.extrair(new ByteArrayInputStream(fatura));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGINAS)
+    public List<Transaction> pipeline() throws IOException {
+        return pipeline.extrair(extractor, new ByteArrayInputStream(fatura));
+    }
+}
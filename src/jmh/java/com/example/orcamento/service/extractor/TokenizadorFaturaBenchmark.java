@@ -0,0 +1,123 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Linhas por segundo do parse das faturas dos cartoes 1/3: o fluxo anterior ({@code replaceAll},
+ * {@code String.matches} e {@code Pattern.compile} por linha/token) contra {@link TokenizadorFatura}.
+ * As linhas imitam o texto extraido do PDF: compras com e sem parcela, estornos e linhas de
+ * cabecalho que nao comecam com data.
+ *
+ * <p>Execucao: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="TokenizadorFaturaBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizadorFaturaBenchmark {
+
+    static final int LINHAS = 10_000;
+
+    private List<String> linhas;
+
+    @Setup
+    public void setup() {
+        linhas = new ArrayList<>(LINHAS);
+        for (int i = 0; i < LINHAS; i++) {
+            switch (i % 5) {
+                case 0 -> linhas.add("Lançamentos: compras e saques   pagina " + i);
+                case 1 -> linhas.add("  " + FaturaPdfFixture.compra(i) + "  ");
+                case 2 -> linhas.add(String.format("%02d/10 PARC=112REDLAR   HIP%02d/12 %d,%02d", i % 28 + 1, i % 12 + 1, i % 900, i % 100));
+                case 3 -> linhas.add(String.format("%02d/11 ESTORNO\tLOJA %d - %d,%02d", i % 28 + 1, i, i % 90, i % 100));
+                default -> linhas.add(FaturaPdfFixture.compra(i));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public List<Transaction> regex() {
+        List<Transaction> transacoes = new ArrayList<>();
+        for (String linha : linhas) {
+            String linhaLimpa = linha.trim().replaceAll("\\s+", " ");
+            if (linhaLimpa.matches("^\\d{1,2}/\\d{1,2}.*")) {
+                Transaction transacao = parseLegado(linhaLimpa);
+                if (transacao != null) {
+                    transacoes.add(transacao);
+                }
+            }
+        }
+        return transacoes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public List<Transaction> tokenizador() {
+        List<Transaction> transacoes = new ArrayList<>();
+        for (String linha : linhas) {
+            String linhaLimpa = TokenizadorFatura.normalizarEspacos(linha);
+            if (TokenizadorFatura.comecaComDiaMes(linhaLimpa)) {
+                Transaction transacao = TokenizadorFatura.lerCompra(linhaLimpa, false);
+                if (transacao != null) {
+                    transacoes.add(transacao);
+                }
+            }
+        }
+        return transacoes;
+    }
+
+    /** Parse dos cartoes 1/3 e do {@code PdfService} antes do {@link TokenizadorFatura}. */
+    private static Transaction parseLegado(String linha) {
+        String[] tokens = linha.split(" ");
+        if (tokens.length < 3) return null;
+        String data = tokens[0];
+        String valor = "";
+        String parcela = null;
+        String estabelecimento = "";
+        for (int i = tokens.length - 1; i >= 0; i--) {
+            if (tokens[i].matches("\\d+,\\d{2}")) {
+                valor = tokens[i];
+                if (i > 0 && tokens[i - 1].equals("-")) {
+                    valor = "-" + valor;
+                    i--;
+                }
+                for (int j = i - 1; j > 0; j--) {
+                    if (tokens[j].matches("\\d{2}/\\d{2}")) {
+                        parcela = tokens[j];
+                        estabelecimento = String.join(" ", Arrays.copyOfRange(tokens, 1, j));
+                        break;
+                    }
+                }
+                if (parcela == null) {
+                    String restoLinha = String.join(" ", Arrays.copyOfRange(tokens, 1, i));
+                    Matcher matcher = Pattern.compile("\\d{2}/\\d{2}").matcher(restoLinha);
+                    parcela = matcher.find() ? matcher.group() : null;
+                    estabelecimento = parcela != null ? restoLinha.replace(parcela, "").trim() : restoLinha;
+                }
+                break;
+            }
+        }
+        if (valor.isEmpty()) return null;
+        return new Transaction(data, estabelecimento, parcela, valor);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.orcamento.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra {@value #BUSCA_PREFIXO}(coluna, expressao): maior que zero quando a coluna normalizada
+ * satisfaz a expressao booleana {@code '+termo1* +termo2*'}, isto e, quando cada termo e inicio de
+ * alguma palavra da coluna. No MySQL vira um unico MATCH ... AGAINST em modo booleano e usa o indice
+ * FULLTEXT da coluna; nos demais bancos (H2 dos testes) a expressao e convertida numa expressao
+ * regular com um lookahead por termo. Registrado em META-INF/services.
+ */
+public class BuscaTextoFunctionContributor implements FunctionContributor {
+
+    public static final String BUSCA_PREFIXO = "busca_prefixo";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        String padrao = functionContributions.getDialect() instanceof MySQLDialect
+                ? "match(?1) against(?2 in boolean mode)"
+                // '+a* +b*' vira '^(?=.* a)(?=.* b)'; o '?' sai de char(63) porque o padrao o reserva para os argumentos
+                : "case when regexp_like(concat(' ', ?1), concat('^', replace(replace(replace(?2, ' ', ''), '*', ')'), "
+                        + "'+', concat('(', char(63), '=.* ')))) then 1 else 0 end";
+        functionContributions.getFunctionRegistry().registerPattern(
+                BUSCA_PREFIXO,
+                padrao,
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
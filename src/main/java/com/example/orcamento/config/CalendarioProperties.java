@@ -0,0 +1,23 @@
+package com.example.orcamento.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.calendario")
+public class CalendarioProperties {
+
+    // Feriados estaduais/municipais somados aos nacionais: "MM-dd" repete todo ano, "yyyy-MM-dd" vale so naquela data
+    private List<String> feriadosRegionais = new ArrayList<>();
+
+    public List<String> getFeriadosRegionais() {
+        return feriadosRegionais;
+    }
+
+    public void setFeriadosRegionais(List<String> feriadosRegionais) {
+        this.feriadosRegionais = feriadosRegionais;
+    }
+}
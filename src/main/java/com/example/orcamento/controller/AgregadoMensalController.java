@@ -0,0 +1,31 @@
+package com.example.orcamento.controller;
+
+import com.example.orcamento.dto.AgregadoMensalVerificacaoDTO;
+import com.example.orcamento.service.AgregadoMensalService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/agregados-mensais")
+@RequiredArgsConstructor
+public class AgregadoMensalController {
+
+    private final AgregadoMensalService agregadoMensalService;
+
+    @GetMapping("/{ano}/verificar")
+    public ResponseEntity<List<AgregadoMensalVerificacaoDTO>> verificar(@PathVariable int ano) {
+        return ResponseEntity.ok(agregadoMensalService.verificar(ano));
+    }
+
+    @PostMapping("/{ano}/reconstruir")
+    public ResponseEntity<List<AgregadoMensalVerificacaoDTO>> reconstruir(@PathVariable int ano) {
+        return ResponseEntity.ok(agregadoMensalService.reconstruir(ano));
+    }
+}
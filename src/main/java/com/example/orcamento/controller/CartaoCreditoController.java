@@ -3,6 +3,7 @@ package com.example.orcamento.controller;
 import com.example.orcamento.model.CartaoCredito;
 import com.example.orcamento.model.ContaCorrente;
 import com.example.orcamento.service.CartaoCreditoService;
+import com.example.orcamento.service.extractor.PdfCartaoExtractorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +17,7 @@ import java.util.List;
 @Slf4j
 public class CartaoCreditoController {
     private final CartaoCreditoService cartaoCreditoService;
+    private final PdfCartaoExtractorService pdfCartaoExtractorService;
 
     @GetMapping
     public ResponseEntity<List<CartaoCredito>> listarCartoes() {
@@ -39,6 +41,9 @@ public class CartaoCreditoController {
     @PutMapping("/{id}")
     public ResponseEntity<CartaoCredito> atualizarCartao(@PathVariable Long id, @RequestBody CartaoCredito cartaoAtualizado) {
         log.info("Requisição PUT em /api/v1/cartoes-credito/{id}, atualizarCartao");
-        return ResponseEntity.ok(cartaoCreditoService.atualizarCartao(id, cartaoAtualizado));
+        CartaoCredito cartaoSalvo = cartaoCreditoService.atualizarCartao(id, cartaoAtualizado);
+        // O modelo de importacao pode ter mudado: a deteccao guardada para o cartao deixa de valer
+        pdfCartaoExtractorService.descartarDeteccao(id);
+        return ResponseEntity.ok(cartaoSalvo);
     }
 }
@@ -1,7 +1,9 @@
 package com.example.orcamento.controller;
 
+import com.example.orcamento.dto.conciliacao.ConciliacaoOfxJobDTO;
 import com.example.orcamento.dto.conciliacao.ConciliacaoOfxProcessamentoDTO;
 import com.example.orcamento.dto.conciliacao.ConciliacaoOfxRelatorioDTO;
+import com.example.orcamento.service.ConciliacaoOfxJobService;
 import com.example.orcamento.service.ConciliacaoOfxProcessamentoService;
 import com.example.orcamento.service.ConciliacaoOfxService;
 import lombok.RequiredArgsConstructor;
@@ -9,13 +11,16 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -26,6 +31,7 @@ public class ConciliacaoOfxController {
 
     private final ConciliacaoOfxService conciliacaoOfxService;
     private final ConciliacaoOfxProcessamentoService conciliacaoOfxProcessamentoService;
+    private final ConciliacaoOfxJobService conciliacaoOfxJobService;
 
     @GetMapping("/processamentos")
     public ResponseEntity<List<ConciliacaoOfxProcessamentoDTO>> listarProcessamentos(
@@ -48,6 +54,7 @@ public class ConciliacaoOfxController {
             @RequestParam(required = false, defaultValue = "2") Integer toleranciaDias,
             @RequestParam(required = false, defaultValue = "0.00") BigDecimal toleranciaValor,
             @RequestParam(required = false, defaultValue = "1000.00") BigDecimal toleranciaValorMinimo,
+            @RequestParam(required = false, defaultValue = "false") boolean reprocessar,
             @RequestParam("file") MultipartFile file
     ) {
         return ResponseEntity.ok(conciliacaoOfxService.conciliar(
@@ -55,7 +62,8 @@ public class ConciliacaoOfxController {
                 toleranciaDias,
                 toleranciaValor,
                 toleranciaValorMinimo,
-                file
+                file,
+                reprocessar
         ));
     }
 
@@ -65,6 +73,7 @@ public class ConciliacaoOfxController {
             @RequestParam(required = false, defaultValue = "2") Integer toleranciaDias,
             @RequestParam(required = false, defaultValue = "0.00") BigDecimal toleranciaValor,
             @RequestParam(required = false, defaultValue = "1000.00") BigDecimal toleranciaValorMinimo,
+            @RequestParam(required = false, defaultValue = "false") boolean reprocessar,
             @RequestParam("file") MultipartFile file
     ) {
         return ResponseEntity.ok(conciliacaoOfxService.conciliar(
@@ -72,7 +81,40 @@ public class ConciliacaoOfxController {
                 toleranciaDias,
                 toleranciaValor,
                 toleranciaValorMinimo,
-                file
+                file,
+                reprocessar
         ));
     }
+
+    @PostMapping(value = "/extrato/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ConciliacaoOfxJobDTO> submeterConciliacaoExtrato(
+            @RequestParam Long contaCorrenteId,
+            @RequestParam(required = false, defaultValue = "2") Integer toleranciaDias,
+            @RequestParam(required = false, defaultValue = "0.00") BigDecimal toleranciaValor,
+            @RequestParam(required = false, defaultValue = "1000.00") BigDecimal toleranciaValorMinimo,
+            @RequestParam(required = false, defaultValue = "false") boolean reprocessar,
+            @RequestParam("file") MultipartFile file
+    ) {
+        ConciliacaoOfxJobDTO job = conciliacaoOfxJobService.submeter(
+                contaCorrenteId,
+                toleranciaDias,
+                toleranciaValor,
+                toleranciaValorMinimo,
+                reprocessar,
+                file
+        );
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/conciliacao/ofx/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ConciliacaoOfxJobDTO> buscarJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(conciliacaoOfxJobService.buscar(jobId));
+    }
+
+    @GetMapping(value = "/jobs/{jobId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharJob(@PathVariable String jobId) {
+        return conciliacaoOfxJobService.acompanhar(jobId);
+    }
 }
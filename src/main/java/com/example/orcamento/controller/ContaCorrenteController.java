@@ -1,8 +1,13 @@
 package com.example.orcamento.controller;
 
 import com.example.orcamento.dto.ContaCorrenteSaldoDiaResponseDTO;
+import com.example.orcamento.dto.FechamentoPeriodoContaDTO;
 import com.example.orcamento.dto.FecharSaldoDiaRequestDTO;
+import com.example.orcamento.dto.FecharSaldoPeriodoRequestDTO;
+import com.example.orcamento.dto.SaldoDiarioContaDTO;
 import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.service.ContaCorrenteMovimentoDiaService;
+import com.example.orcamento.service.ContaCorrenteSaldoDiaLoteService;
 import com.example.orcamento.service.ContaCorrenteSaldoDiaService;
 import com.example.orcamento.service.ContaCorrenteService;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +25,8 @@ public class ContaCorrenteController {
 
     private final ContaCorrenteService contaCorrenteService;
     private final ContaCorrenteSaldoDiaService contaCorrenteSaldoDiaService;
+    private final ContaCorrenteMovimentoDiaService contaCorrenteMovimentoDiaService;
+    private final ContaCorrenteSaldoDiaLoteService contaCorrenteSaldoDiaLoteService;
 
     @PostMapping
     public ResponseEntity<ContaCorrente> criarConta(@RequestBody ContaCorrente conta) {
@@ -60,6 +67,23 @@ public class ContaCorrenteController {
         return ResponseEntity.ok(contaCorrenteSaldoDiaService.listarPorPeriodo(id, dataInicio, dataFim));
     }
 
+    @GetMapping("/{id}/saldo")
+    public ResponseEntity<SaldoDiarioContaDTO> buscarSaldoNaData(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data
+    ) {
+        return ResponseEntity.ok(contaCorrenteMovimentoDiaService.saldoEm(id, data));
+    }
+
+    @GetMapping("/{id}/saldos-diarios")
+    public ResponseEntity<List<SaldoDiarioContaDTO>> listarSaldosDiarios(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim
+    ) {
+        return ResponseEntity.ok(contaCorrenteMovimentoDiaService.saldosDiarios(id, dataInicio, dataFim));
+    }
+
     @PostMapping("/{id}/saldo-dia/fechar")
     public ResponseEntity<ContaCorrenteSaldoDiaResponseDTO> fecharSaldoDia(
             @PathVariable Long id,
@@ -67,4 +91,19 @@ public class ContaCorrenteController {
     ) {
         return ResponseEntity.ok(contaCorrenteSaldoDiaService.fecharDia(id, request));
     }
+
+    @PostMapping("/{id}/saldo-dia/fechar-periodo")
+    public ResponseEntity<List<ContaCorrenteSaldoDiaResponseDTO>> fecharSaldoPeriodo(
+            @PathVariable Long id,
+            @RequestBody FecharSaldoPeriodoRequestDTO request
+    ) {
+        return ResponseEntity.ok(contaCorrenteSaldoDiaService.fecharPeriodo(id, request));
+    }
+
+    @PostMapping("/saldo-dia/fechar-periodo")
+    public ResponseEntity<List<FechamentoPeriodoContaDTO>> fecharSaldoPeriodoContasAtivas(
+            @RequestBody FecharSaldoPeriodoRequestDTO request
+    ) {
+        return ResponseEntity.ok(contaCorrenteSaldoDiaLoteService.fecharPeriodoContasAtivas(request));
+    }
 }
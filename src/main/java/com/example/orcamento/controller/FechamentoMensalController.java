@@ -39,6 +39,14 @@ public class FechamentoMensalController {
         return ResponseEntity.ok(fechamentoMensalService.listarFechamentos(ano));
     }
 
+    @GetMapping("/{ano}/{mes}/projecao")
+    public ResponseEntity<List<FechamentoMensalResponseDTO>> listarProjecao(
+            @PathVariable int ano,
+            @PathVariable int mes
+    ) {
+        return ResponseEntity.ok(fechamentoMensalService.listarProjecao(ano, mes));
+    }
+
     @GetMapping("/{ano}/{mes}/historico")
     public ResponseEntity<List<FechamentoMensalHistoricoDTO>> listarHistorico(
             @PathVariable int ano,
@@ -1,9 +1,11 @@
 package com.example.orcamento.controller;
 
 import com.example.orcamento.model.Transaction;
-import com.example.orcamento.service.CartaoCreditoService;
+import com.example.orcamento.service.extractor.FaturaPdfAnalisada;
+import com.example.orcamento.service.extractor.FaturaPdfCache;
 import com.example.orcamento.service.extractor.PdfCartaoExtractor;
-import com.example.orcamento.service.extractor.PdfCartaoExtractorFactory;
+import com.example.orcamento.service.extractor.PdfCartaoExtractorService;
+import com.example.orcamento.service.extractor.PdfExtracaoPipeline;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -16,7 +18,6 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -27,11 +28,23 @@ import java.util.Map;
 @Slf4j
 public class PdfController {
 
-    private CartaoCreditoService cartaoCreditoService;
+    private PdfCartaoExtractorService pdfCartaoExtractorService;
+    private PdfExtracaoPipeline pdfExtracaoPipeline;
+    private FaturaPdfCache faturaPdfCache;
 
     @Autowired
-    public void setCartaoCreditoService(CartaoCreditoService cartaoCreditoService) {
-        this.cartaoCreditoService = cartaoCreditoService;
+    public void setPdfCartaoExtractorService(PdfCartaoExtractorService pdfCartaoExtractorService) {
+        this.pdfCartaoExtractorService = pdfCartaoExtractorService;
+    }
+
+    @Autowired
+    public void setPdfExtracaoPipeline(PdfExtracaoPipeline pdfExtracaoPipeline) {
+        this.pdfExtracaoPipeline = pdfExtracaoPipeline;
+    }
+
+    @Autowired
+    public void setFaturaPdfCache(FaturaPdfCache faturaPdfCache) {
+        this.faturaPdfCache = faturaPdfCache;
     }
 
     @PostMapping("/analisar")
@@ -44,24 +57,33 @@ public class PdfController {
         log.info("Analisando pdf");
         log.info("modeloImportacao enviado: {}", modeloImportacao);
         try {
-            // Se modeloImportacao não vier no request, busca do cartão
-            if (modeloImportacao == null || modeloImportacao.isBlank()) {
-                modeloImportacao = cartaoCreditoService.buscarPorId(cartaoId).getModeloImportacao();
+            // Se modeloImportacao não vier no request, detecta pela primeira página (ou usa o do cartão)
+            modeloImportacao = pdfCartaoExtractorService.resolverModelo(cartaoId, modeloImportacao, file);
+            String hashArquivo;
+            try (InputStream pdfInputStream = file.getInputStream()) {
+                hashArquivo = FaturaPdfCache.sha256(pdfInputStream);
+            }
+            PdfCartaoExtractor extractor = pdfCartaoExtractorService.getExtractor(modeloImportacao);
+            FaturaPdfAnalisada analise = faturaPdfCache.buscar(modeloImportacao, extractor, hashArquivo).orElse(null);
+            if (analise == null) {
+                List<Transaction> transacoes;
+                try (InputStream pdfInputStream = file.getInputStream()) {
+                    transacoes = pdfExtracaoPipeline.extrair(extractor, pdfInputStream);
+                }
+                analise = FaturaPdfAnalisada.de(transacoes);
+                if (transacoes.isEmpty()) {
+                    pdfCartaoExtractorService.descartarDeteccao(cartaoId);
+                }
+                faturaPdfCache.guardar(modeloImportacao, extractor, hashArquivo, analise);
+            } else {
+                log.info("Fatura já analisada, usando resultado em cache: {}", hashArquivo);
             }
-            InputStream pdfInputStream = file.getInputStream();
-            PdfCartaoExtractor extractor = PdfCartaoExtractorFactory.getExtractor(modeloImportacao);
-            List<Transaction> transacoes = extractor.extrair(pdfInputStream);
-            BigDecimal total = transacoes.stream()
-                    .map(t -> new BigDecimal(t.getValor()))
-                    .filter(valor -> valor.signum() > 0)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            total = total.setScale(2, BigDecimal.ROUND_HALF_UP);
             Map<String, Object> resposta = new HashMap<>();
-            resposta.put("transacoes", transacoes);
-            resposta.put("total", total.toString());
-            resposta.put("quantidade", transacoes.size());
-            log.info("Transações encontradas: {}", transacoes.size());
-            log.info("Total calculado: R$ {}", total);
+            resposta.put("transacoes", analise.transacoes());
+            resposta.put("total", analise.total());
+            resposta.put("quantidade", analise.transacoes().size());
+            log.info("Transações encontradas: {}", analise.transacoes().size());
+            log.info("Total calculado: R$ {}", analise.total());
             return ResponseEntity.ok(resposta);
         } catch (IOException e) {
             log.error("Erro ao processar arquivo PDF", e);
@@ -1,24 +1,30 @@
 // src/main/java/com/example/orcamento/controller/TransacaoFinanceiraController.java
 package com.example.orcamento.controller;
 
+import com.example.orcamento.dto.PaginaTransacoesDTO;
 import com.example.orcamento.dto.TransacaoFinanceiraDTO;
 import com.example.orcamento.service.DespesaService;
 import com.example.orcamento.service.LancamentoCartaoService;
 import com.example.orcamento.service.TransacaoFinanceiraService;
+import com.example.orcamento.util.CompetenciaFatura;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
-import java.time.format.TextStyle;
-import java.util.Locale;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/v1/transacoes")
@@ -26,9 +32,13 @@ import java.util.Locale;
 @Slf4j
 public class TransacaoFinanceiraController {
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    private static final int TAMANHO_FLUSH = 100;
+
     private final DespesaService despesaService;
     private final LancamentoCartaoService lancamentoCartaoService;
     private final TransacaoFinanceiraService transacaoFinanceiraService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public ResponseEntity<List<TransacaoFinanceiraDTO>> listarTransacoes() {
@@ -39,6 +49,55 @@ public class TransacaoFinanceiraController {
         return ResponseEntity.ok(transacoes);
     }
 
+    /**
+     * Mesmo feed em NDJSON (uma transacao por linha), escrito conforme os blocos sao lidos do banco:
+     * a memoria nao cresce com o historico e a primeira linha sai apos o primeiro bloco.
+     */
+    @GetMapping(value = "/transmitir", produces = MEDIA_TYPE_NDJSON)
+    public void transmitirTransacoes(
+            @RequestParam(required = false) String descricao,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Long subcategoriaId,
+            @RequestParam(required = false) String dataInicio,
+            @RequestParam(required = false) String dataFim,
+            @RequestParam(required = false) String origem,
+            HttpServletResponse response) throws IOException {
+        log.info("Requisição GET em /api/v1/transacoes/transmitir, transmitirTransacoes");
+        Map<String, Object> filtros = montarFiltrosFeed(descricao, categoriaId, subcategoriaId, dataInicio, dataFim, origem);
+
+        response.setContentType(MEDIA_TYPE_NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream saida = response.getOutputStream();
+        int linhas = 0;
+        try (Stream<TransacaoFinanceiraDTO> transacoes = transacaoFinanceiraService.transmitir(filtros)) {
+            Iterator<TransacaoFinanceiraDTO> iterator = transacoes.iterator();
+            while (iterator.hasNext()) {
+                saida.write(objectMapper.writeValueAsBytes(iterator.next()));
+                saida.write('\n');
+                if (++linhas % TAMANHO_FLUSH == 0) {
+                    saida.flush();
+                }
+            }
+        }
+        saida.flush();
+        log.info("transacoes.ndjson linhas={}", linhas);
+    }
+
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaTransacoesDTO> listarPaginaTransacoes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") Integer limite,
+            @RequestParam(required = false) String descricao,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Long subcategoriaId,
+            @RequestParam(required = false) String dataInicio,
+            @RequestParam(required = false) String dataFim,
+            @RequestParam(required = false) String origem) {
+        log.info("Requisição GET em /api/v1/transacoes/pagina, limite={}", limite);
+        Map<String, Object> filtros = montarFiltrosFeed(descricao, categoriaId, subcategoriaId, dataInicio, dataFim, origem);
+        return ResponseEntity.ok(transacaoFinanceiraService.listarPagina(filtros, cursor, limite));
+    }
+
     @GetMapping("/filtrar-dinamico")
     public ResponseEntity<List<TransacaoFinanceiraDTO>> listarTransacoesPorFiltrosDinamicos(
             @RequestParam(required = false) Long id,
@@ -80,7 +139,8 @@ public class TransacaoFinanceiraController {
             if (fim.isBefore(inicio)) {
                 throw new IllegalArgumentException("dataFim não pode ser menor que dataInicio");
             }
-            filtros.put("mesAnoFaturaList", gerarMesesFatura(inicio, fim));
+            filtros.put("competenciaInicial", CompetenciaFatura.paraInteiro(YearMonth.from(inicio)));
+            filtros.put("competenciaFinal", CompetenciaFatura.paraInteiro(YearMonth.from(fim)));
         } else {
             if (dataInicio != null) {
                 filtros.put("dataCompraInicial", parseDate(dataInicio, "dataInicio"));
@@ -94,19 +154,23 @@ public class TransacaoFinanceiraController {
         return ResponseEntity.ok(transacoes);
     }
 
-    private List<String> gerarMesesFatura(LocalDate inicio, LocalDate fim) {
-        List<String> meses = new ArrayList<>();
-        YearMonth atual = YearMonth.from(inicio);
-        YearMonth ultimo = YearMonth.from(fim);
-        Locale localePtBr = new Locale("pt", "BR");
-
-        while (!atual.isAfter(ultimo)) {
-            String nomeMes = atual.getMonth().getDisplayName(TextStyle.FULL, localePtBr).toUpperCase(localePtBr);
-            meses.add(nomeMes + "/" + atual.getYear());
-            atual = atual.plusMonths(1);
+    // No feed os lancamentos sao ordenados pela fatura, entao o periodo deles e sempre por competencia
+    private Map<String, Object> montarFiltrosFeed(String descricao, Long categoriaId, Long subcategoriaId,
+                                                  String dataInicio, String dataFim, String origem) {
+        Map<String, Object> filtros = new HashMap<>();
+        if (descricao != null) filtros.put("descricao", descricao);
+        if (categoriaId != null) filtros.put("categoriaId", categoriaId);
+        if (subcategoriaId != null) filtros.put("subcategoriaId", subcategoriaId);
+        if (origem != null) filtros.put("origem", origem);
+        if (dataInicio != null) {
+            filtros.put("dataInicio", dataInicio);
+            filtros.put("competenciaInicial", CompetenciaFatura.paraInteiro(YearMonth.from(parseDate(dataInicio, "dataInicio"))));
         }
-
-        return meses;
+        if (dataFim != null) {
+            filtros.put("dataFim", dataFim);
+            filtros.put("competenciaFinal", CompetenciaFatura.paraInteiro(YearMonth.from(parseDate(dataFim, "dataFim"))));
+        }
+        return filtros;
     }
 
     private LocalDate parseDate(String valor, String campo) {
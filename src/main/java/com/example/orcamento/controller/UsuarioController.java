@@ -8,6 +8,7 @@ import com.example.orcamento.dto.UsuarioAcessosDTO;
 import com.example.orcamento.model.Usuario;
 import com.example.orcamento.model.RefreshToken;
 import com.example.orcamento.security.JwtUtil;
+import com.example.orcamento.security.UsuarioStatusCache;
 import com.example.orcamento.service.AcessoUsuarioService;
 import com.example.orcamento.service.RefreshTokenService;
 import com.example.orcamento.service.UsuarioService;
@@ -34,6 +35,7 @@ public class UsuarioController {
     private final AcessoUsuarioService acessoUsuarioService;
     private final RefreshTokenService refreshTokenService;
     private final JwtUtil jwtUtil;
+    private final UsuarioStatusCache usuarioStatusCache;
 
     // 🔹 Login de usuário
     @PostMapping("/login")
@@ -272,6 +274,14 @@ public class UsuarioController {
     public ResponseEntity<?> logout(@RequestParam Long acessoId) {
         log.info("Logout solicitado para o acessoId: {}", acessoId);
         acessoUsuarioService.registrarLogout(acessoId);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null) {
+            // No modo stateless o token continuaria valido ate expirar; a revogacao o recusa a partir daqui
+            usuarioStatusCache.revogarTokens(authentication.getName());
+            // Sem apagar os refresh tokens, POST /refresh emitiria um access token novo logo apos o logout
+            Usuario usuario = usuarioService.obterUsuarioPorUsername(authentication.getName());
+            refreshTokenService.deleteByUsuarioIdAndTenantId(usuario.getId(), usuario.getTenantId());
+        }
         return ResponseEntity.ok(Map.of("message", "Logout registrado com sucesso"));
     }
 
@@ -0,0 +1,29 @@
+package com.example.orcamento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgregadoMensalVerificacaoDTO {
+    private Integer ano;
+    private Integer mes;
+    private Boolean existente;
+    private Boolean divergente;
+    private List<String> camposDivergentes;
+    private BigDecimal receitasRealizadas;
+    private BigDecimal despesasDoMes;
+    private BigDecimal despesasPagas;
+    private BigDecimal despesasPagasNoCaixa;
+    private BigDecimal despesasPagasCartao;
+    private BigDecimal despesasFaturaCartao;
+    private BigDecimal totalFaturas;
+    private BigDecimal totalTerceirosFaturas;
+}
@@ -0,0 +1,23 @@
+package com.example.orcamento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FechamentoPeriodoContaDTO {
+    private Long contaCorrenteId;
+    private String nomeBanco;
+    private int diasFechados;
+    private LocalDate ultimoDiaFechado;
+    private BigDecimal saldoFechamento;
+    // Preenchido quando a conta nao pode ser fechada; as demais contas seguem normalmente
+    private String erro;
+}
@@ -0,0 +1,14 @@
+package com.example.orcamento.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class FecharSaldoPeriodoRequestDTO {
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    // So para o primeiro fechamento da conta; nos demais vale o saldo do ultimo dia fechado
+    private BigDecimal saldoAbertura;
+}
@@ -0,0 +1,30 @@
+package com.example.orcamento.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Linha da agregacao de despesas por nome, subcategoria e mes de vencimento, montada pelo
+ * banco em {@code DespesaRepository#agruparPorNomeSubcategoriaEMes}.
+ */
+public record GastoMensalAgrupadoDTO(
+        String nome,
+        String subcategoria,
+        Integer ano,
+        Integer mes,
+        BigDecimal total,
+        Long quantidade,
+        LocalDate primeiroVencimento,
+        LocalDate ultimoVencimento,
+        Long ultimoId) {
+
+    public GastoMensalAgrupadoDTO {
+        // SUM de uma coluna so com nulos devolve null
+        total = total != null ? total : BigDecimal.ZERO;
+    }
+
+    public YearMonth competencia() {
+        return YearMonth.of(ano, mes);
+    }
+}
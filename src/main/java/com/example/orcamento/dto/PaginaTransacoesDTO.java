@@ -0,0 +1,18 @@
+package com.example.orcamento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaTransacoesDTO {
+
+    private List<TransacaoFinanceiraDTO> itens;
+    // Opaco para o cliente: repassar em ?cursor= para a proxima pagina; nulo na ultima
+    private String proximoCursor;
+
+}
@@ -0,0 +1,19 @@
+package com.example.orcamento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoDiarioContaDTO {
+
+    private LocalDate data;
+    // Saldo ao fim do dia, considerando as movimentacoes com dataRecebimento ate essa data
+    private BigDecimal saldo;
+
+}
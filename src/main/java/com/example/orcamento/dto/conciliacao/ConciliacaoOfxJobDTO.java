@@ -0,0 +1,26 @@
+package com.example.orcamento.dto.conciliacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConciliacaoOfxJobDTO {
+    private String id;
+    private Long contaCorrenteId;
+    private String nomeArquivo;
+    private StatusConciliacaoOfxJob status;
+    private EtapaConciliacaoOfx etapa;
+    private Integer percentual;
+    private String mensagemErro;
+    private LocalDateTime criadoEm;
+    private LocalDateTime iniciadoEm;
+    private LocalDateTime finalizadoEm;
+    private ConciliacaoOfxRelatorioDTO relatorio;
+}
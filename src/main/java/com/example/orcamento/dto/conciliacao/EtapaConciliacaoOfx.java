@@ -0,0 +1,17 @@
+package com.example.orcamento.dto.conciliacao;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum EtapaConciliacaoOfx {
+    AGUARDANDO(0),
+    LENDO_ARQUIVO(10),
+    CARREGANDO_LANCAMENTOS(30),
+    CONCILIANDO(60),
+    SALVANDO_RELATORIO(90),
+    FINALIZADO(100);
+
+    private final int percentual;
+}
@@ -0,0 +1,8 @@
+package com.example.orcamento.dto.conciliacao;
+
+public enum StatusConciliacaoOfxJob {
+    PENDENTE,
+    PROCESSANDO,
+    CONCLUIDO,
+    ERRO
+}
@@ -18,6 +18,7 @@ import org.springframework.web.context.request.WebRequest;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -77,6 +78,12 @@ public class GlobalExceptionHandler {
         return createErrorResponse("NOT_FOUND", ex.getMessage(), HttpStatus.NOT_FOUND, request, null);
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiErrorResponse> handleRejectedExecution(RejectedExecutionException ex, WebRequest request) {
+        logClientError(ex, HttpStatus.SERVICE_UNAVAILABLE, request);
+        return createErrorResponse("SERVICE_UNAVAILABLE", ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, request, null);
+    }
+
     @ExceptionHandler(MyFileNotFoundException.class)
     public ResponseEntity<ApiErrorResponse> handleMyFileNotFound(MyFileNotFoundException ex, WebRequest request) {
         logClientError(ex, HttpStatus.NOT_FOUND, request);
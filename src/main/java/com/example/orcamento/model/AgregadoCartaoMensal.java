@@ -0,0 +1,96 @@
+package com.example.orcamento.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lancamentos de cartao de uma competencia consolidados por cartao, subcategoria e descricao
+ * normalizada. As linhas da competencia sao refeitas pelos fluxos de escrita de lancamentos e
+ * compras, e a analise de gastos de cartao le apenas a janela de meses que precisa.
+ */
+@Entity
+@Table(
+        name = "agregado_cartao_mensal",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_agregado_cartao_mensal_tenant_competencia_grupo",
+                        columnNames = {"tenant_id", "competencia", "cartao_credito_id", "subcategoria_id", "descricao_normalizada"}
+                )
+        },
+        indexes = {
+                @Index(name = "idx_agregado_cartao_mensal_tenant_competencia", columnList = "tenant_id, competencia")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgregadoCartaoMensal {
+
+    // Lancamentos sem subcategoria; a coluna nao aceita NULL para que a chave unica valha para eles
+    public static final long SEM_SUBCATEGORIA = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    // Competencia da fatura no formato yyyymm, a mesma de LancamentoCartao.competencia
+    @Column(nullable = false)
+    private Integer competencia;
+
+    @Column(name = "cartao_credito_id", nullable = false)
+    private Long cartaoCreditoId;
+
+    @Column(name = "subcategoria_id", nullable = false)
+    private Long subcategoriaId;
+
+    @Column(name = "descricao_normalizada", nullable = false)
+    private String descricaoNormalizada;
+
+    // Descricao original do lancamento mais recente do grupo, para exibicao
+    @Column(nullable = false)
+    private String descricao;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    @Column(name = "quantidade_parcelada", nullable = false)
+    private Integer quantidadeParcelada;
+
+    @Column(name = "valor_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorTotal;
+
+    @Column(name = "valor_minimo", nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorMinimo;
+
+    @Column(name = "valor_maximo", nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorMaximo;
+
+    @Column(name = "parcelamentos_ativos", nullable = false)
+    private Integer parcelamentosAtivos;
+
+    @Column(name = "parcelamentos_longos", nullable = false)
+    private Integer parcelamentosLongos;
+
+    @Column(name = "valor_comprometido", nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorComprometido;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+}
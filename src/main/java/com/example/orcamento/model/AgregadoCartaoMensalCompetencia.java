@@ -0,0 +1,50 @@
+package com.example.orcamento.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca de cada competencia ja consolidada em {@link AgregadoCartaoMensal}. Nao guarda totais: o
+ * recalculo da competencia trava esta linha para que dois recalculos do mesmo mes nao se cruzem.
+ */
+@Entity
+@Table(
+        name = "agregado_cartao_mensal_competencia",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_agregado_cartao_mensal_competencia_tenant_competencia",
+                        columnNames = {"tenant_id", "competencia"}
+                )
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgregadoCartaoMensalCompetencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    // yyyymm, a mesma de AgregadoCartaoMensal.competencia
+    @Column(nullable = false)
+    private Integer competencia;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+}
@@ -0,0 +1,77 @@
+package com.example.orcamento.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Totais consolidados de uma competencia (tenant/ano/mes), mantidos pelos fluxos de escrita
+ * de despesas, receitas e lancamentos de cartao para que o resumo mensal seja uma leitura de uma linha.
+ */
+@Entity
+@Table(
+        name = "agregado_mensal",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_agregado_mensal_tenant_ano_mes",
+                        columnNames = {"tenant_id", "ano", "mes"}
+                )
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgregadoMensal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private Integer ano;
+
+    @Column(nullable = false)
+    private Integer mes;
+
+    @Column(name = "receitas_realizadas", nullable = false, precision = 19, scale = 2)
+    private BigDecimal receitasRealizadas;
+
+    @Column(name = "despesas_do_mes", nullable = false, precision = 19, scale = 2)
+    private BigDecimal despesasDoMes;
+
+    @Column(name = "despesas_pagas", nullable = false, precision = 19, scale = 2)
+    private BigDecimal despesasPagas;
+
+    @Column(name = "despesas_pagas_no_caixa", nullable = false, precision = 19, scale = 2)
+    private BigDecimal despesasPagasNoCaixa;
+
+    @Column(name = "despesas_pagas_cartao", nullable = false, precision = 19, scale = 2)
+    private BigDecimal despesasPagasCartao;
+
+    @Column(name = "despesas_fatura_cartao", nullable = false, precision = 19, scale = 2)
+    private BigDecimal despesasFaturaCartao;
+
+    @Column(name = "total_faturas", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalFaturas;
+
+    @Column(name = "total_terceiros_faturas", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalTerceirosFaturas;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+}
@@ -1,6 +1,7 @@
 // CartaoCredito.java
 package com.example.orcamento.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -9,6 +10,7 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "cartoes_credito")
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class CartaoCredito {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -2,6 +2,7 @@
 package com.example.orcamento.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -13,13 +14,24 @@ import java.util.Set;
 
 @Entity
 @Table(name = "compras")
+@NamedEntityGraph(
+        name = Compra.GRAFO_COMPLETO,
+        attributeNodes = {
+                @NamedAttributeNode("cartaoCredito"),
+                @NamedAttributeNode(value = "subcategoria", subgraph = "subcategoria")
+        },
+        subgraphs = @NamedSubgraph(name = "subcategoria", attributeNodes = @NamedAttributeNode("categoria"))
+)
 @Getter
 @Setter
 @ToString(exclude = {"terceiros", "parcelas"}) // Exclui para evitar referência circular
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Compra {
+
+    public static final String GRAFO_COMPLETO = "Compra.completa";
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -36,11 +48,11 @@ public class Compra {
     @Column(name = "data_compra", nullable = false)
     private LocalDate dataCompra;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cartao_credito_id", nullable = false)
     private CartaoCredito cartaoCredito;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "subcategoria_id", nullable = false)
     private SubcategoriaDespesa subcategoria;
 
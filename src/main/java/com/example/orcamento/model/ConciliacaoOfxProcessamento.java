@@ -11,7 +11,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "conciliacao_ofx_processamento")
+@Table(
+        name = "conciliacao_ofx_processamento",
+        indexes = {
+                @Index(
+                        name = "idx_conciliacao_ofx_processamento_tenant_conta_hash",
+                        columnList = "tenant_id, conta_corrente_id, hash_arquivo, processado_em"
+                )
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
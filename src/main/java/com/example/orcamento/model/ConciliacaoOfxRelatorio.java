@@ -0,0 +1,40 @@
+package com.example.orcamento.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Relatorio completo de uma conciliacao OFX, em JSON compactado com gzip. Fica em tabela propria,
+ * com a mesma chave do processamento, para que a listagem do historico nao carregue os relatorios.
+ */
+@Entity
+@Table(name = "conciliacao_ofx_relatorio")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConciliacaoOfxRelatorio {
+
+    @Id
+    @Column(name = "processamento_id")
+    private Long processamentoId;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Lob
+    @ToString.Exclude
+    @Column(name = "relatorio_json_gzip", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] relatorioJsonGzip;
+
+    @Column(name = "tamanho_json", nullable = false)
+    private Long tamanhoJson;
+}
@@ -1,4 +1,5 @@
 package com.example.orcamento.model;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,6 +12,7 @@ import java.math.BigDecimal;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class ContaCorrente {
 
     @Id
@@ -29,7 +31,9 @@ public class ContaCorrente {
     @Column(name = "nome_banco", nullable = false)
     private String nomeBanco;
 
-    @Column(nullable = false)
+    // Fora do UPDATE da entidade: o saldo so muda por ContaCorrenteRepository.somarSaldo,
+    // para que uma instancia desatualizada no contexto nao sobrescreva movimentacoes concorrentes
+    @Column(nullable = false, updatable = false)
     private BigDecimal saldo;
 
     @Column(name = "usuario_id")
@@ -40,13 +44,4 @@ public class ContaCorrente {
 
     @Column(name = "conta_ativa", nullable = false)
     private boolean contaAtiva = true;
-
-    // Métodos para atualizar saldo (mantidos explicitamente)
-    public void adicionarValor(BigDecimal valor) {
-        this.saldo = this.saldo.add(valor);
-    }
-
-    public void subtrairValor(BigDecimal valor) {
-        this.saldo = this.saldo.subtract(valor);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.orcamento.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entradas e saidas de uma conta em um dia (pela dataRecebimento das movimentacoes), mantidas a cada
+ * movimentacao registrada ou excluida e a cada ajuste manual do saldo. Com o saldo atual da conta,
+ * permitem obter o saldo de qualquer data, ou uma serie diaria, sem reler as movimentacoes.
+ */
+@Entity
+@Table(
+        name = "conta_corrente_movimento_dia",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_conta_corrente_movimento_dia_tenant_conta_data",
+                        columnNames = {"tenant_id", "conta_corrente_id", "data"}
+                )
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContaCorrenteMovimentoDia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Column(name = "conta_corrente_id", nullable = false)
+    private Long contaCorrenteId;
+
+    @Column(nullable = false)
+    private LocalDate data;
+
+    @Column(name = "total_entradas", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalEntradas;
+
+    @Column(name = "total_saidas", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalSaidas;
+}
@@ -26,8 +26,11 @@ import java.time.LocalDateTime;
 @Builder
 public class ContaCorrenteSaldoDia {
 
+    // Ids reservados em blocos para que o fechamento de um periodo grave as linhas em lote (no MySQL a
+    // sequencia e emulada pela tabela conta_corrente_saldo_dia_seq)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conta_corrente_saldo_dia_seq")
+    @SequenceGenerator(name = "conta_corrente_saldo_dia_seq", sequenceName = "conta_corrente_saldo_dia_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
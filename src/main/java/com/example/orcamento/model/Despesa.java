@@ -1,6 +1,9 @@
 package com.example.orcamento.model;
 
 import com.example.orcamento.model.enums.FormaDePagamento;
+import com.example.orcamento.util.TextoBusca;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.OnDelete;
@@ -12,15 +15,39 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "despesas")
+@Table(
+        name = "despesas",
+        indexes = {
+                @Index(name = "idx_despesas_tenant_vencimento", columnList = "tenant_id, data_vencimento"),
+                @Index(name = "idx_despesas_tenant_pagamento", columnList = "tenant_id, data_pagamento")
+        }
+)
+@NamedEntityGraph(
+        name = Despesa.GRAFO_COMPLETO,
+        attributeNodes = {
+                @NamedAttributeNode("contaCorrente"),
+                @NamedAttributeNode(value = "metaEconomia", subgraph = "metaEconomia"),
+                @NamedAttributeNode(value = "subcategoria", subgraph = "subcategoria")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "metaEconomia", attributeNodes = @NamedAttributeNode("tipoInvestimento")),
+                @NamedSubgraph(name = "subcategoria", attributeNodes = @NamedAttributeNode("categoria"))
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Despesa {
 
+    /** Conta, meta e subcategoria/categoria em um unico select; usado pelas listagens e buscas por id. */
+    public static final String GRAFO_COMPLETO = "Despesa.completa";
+
+    // Ids em blocos para que parcelas e importacoes sejam gravadas em lote (ver V15)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "despesas_seq")
+    @SequenceGenerator(name = "despesas_seq", sequenceName = "despesas_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -49,11 +76,11 @@ public class Despesa {
     //private TipoDespesa tipo;
 
     // Novo campo
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "conta_corrente_id")
     private ContaCorrente contaCorrente;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "meta_economia_id")
     @OnDelete(action = OnDeleteAction.SET_NULL)
     private MetaEconomia metaEconomia;
@@ -61,7 +88,7 @@ public class Despesa {
     // Adicione este campo ao seu modelo Despesa.java existente
     private Long despesaParceladaId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "subcategoria_id")
     private SubcategoriaDespesa subcategoria;
 
@@ -79,4 +106,20 @@ public class Despesa {
     private FormaDePagamento formaDePagamento;
 
     private String anexo; // Campo para armazenar o nome do arquivo
+
+    // Copias normalizadas (TextoBusca) de nome/detalhes para os filtros textuais; indices FULLTEXT no V12
+    @JsonIgnore
+    @Column(name = "nome_busca")
+    private String nomeBusca;
+
+    @JsonIgnore
+    @Column(name = "detalhes_busca")
+    private String detalhesBusca;
+
+    @PrePersist
+    @PreUpdate
+    protected void sincronizarBusca() {
+        this.nomeBusca = TextoBusca.normalizar(nome);
+        this.detalhesBusca = TextoBusca.normalizar(detalhes);
+    }
 }
@@ -1,8 +1,11 @@
 package com.example.orcamento.model;
 
 import com.example.orcamento.config.json.CustomLocalDateTimeDeserializer;
+import com.example.orcamento.util.CompetenciaFatura;
+import com.example.orcamento.util.TextoBusca;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
@@ -12,14 +15,53 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lancamentos_cartao")
+@Table(
+        name = "lancamentos_cartao",
+        indexes = {
+                @Index(name = "idx_lancamentos_cartao_tenant_fatura_cartao", columnList = "tenant_id, mes_ano_fatura, cartao_credito_id"),
+                @Index(name = "idx_lancamentos_cartao_tenant_competencia_cartao", columnList = "tenant_id, competencia, cartao_credito_id")
+        }
+)
+@NamedEntityGraph(
+        name = LancamentoCartao.GRAFO_COMPLETO,
+        attributeNodes = {
+                @NamedAttributeNode("cartaoCredito"),
+                @NamedAttributeNode(value = "compra", subgraph = "compra"),
+                @NamedAttributeNode(value = "subcategoria", subgraph = "subcategoria")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "compra", attributeNodes = {
+                        @NamedAttributeNode("cartaoCredito"),
+                        @NamedAttributeNode(value = "subcategoria", subgraph = "subcategoria")
+                }),
+                @NamedSubgraph(name = "subcategoria", attributeNodes = @NamedAttributeNode("categoria"))
+        }
+)
+@NamedEntityGraph(
+        name = LancamentoCartao.GRAFO_COM_COMPRA,
+        attributeNodes = {
+                @NamedAttributeNode("compra"),
+                @NamedAttributeNode(value = "subcategoria", subgraph = "subcategoria")
+        },
+        subgraphs = @NamedSubgraph(name = "subcategoria", attributeNodes = @NamedAttributeNode("categoria"))
+)
 @Data
 @Builder
 @NoArgsConstructor // Necessário para o Jackson
 @AllArgsConstructor // Opcional, mas útil
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class LancamentoCartao {
+
+    /** Tudo o que a entidade serializada expoe: cartao, subcategoria/categoria e a compra com seus vinculos. */
+    public static final String GRAFO_COMPLETO = "LancamentoCartao.completo";
+
+    /** Apenas o que o LancamentoCartaoComCompraDTO le: subcategoria/categoria e a compra (cartao e subcategoria dela so por id). */
+    public static final String GRAFO_COM_COMPRA = "LancamentoCartao.comCompra";
+
+    // Ids em blocos para que parcelas e importacoes sejam gravadas em lote (ver V15)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamentos_cartao_seq")
+    @SequenceGenerator(name = "lancamentos_cartao_seq", sequenceName = "lancamentos_cartao_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -43,7 +85,11 @@ public class LancamentoCartao {
     @Column(name = "mes_ano_fatura", nullable = false)
     private String mesAnoFatura; // Novo campo "Mês/Ano da Fatura" (ex.: "MARCO/2025")
 
-    @ManyToOne
+    // Competencia da fatura no formato yyyymm (ex.: 202503), derivada de mesAnoFatura
+    @Column(name = "competencia")
+    private Integer competencia;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cartao_credito_id", nullable = false)
     private CartaoCredito cartaoCredito;
 
@@ -56,11 +102,20 @@ public class LancamentoCartao {
     @JsonDeserialize(using = CustomLocalDateTimeDeserializer.class)
     private LocalDateTime dataRegistro;
 
+    // Copias normalizadas (TextoBusca) de descricao/detalhes para os filtros textuais; indices FULLTEXT no V12
+    @JsonIgnore
+    @Column(name = "descricao_busca")
+    private String descricaoBusca;
+
+    @JsonIgnore
+    @Column(name = "detalhes_busca")
+    private String detalhesBusca;
+
     // Multi-tenant: identificação do tenant (CPF do usuário)
     @Column(name = "tenant_id", nullable = false)
     private String tenantId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "compra_id")
     @JsonIgnoreProperties({"terceiros", "parcelas"})
     private Compra compra; // Referência à compra original
@@ -75,9 +130,21 @@ public class LancamentoCartao {
     @PrePersist
     protected void onCreate() {
         this.dataRegistro = LocalDateTime.now();
+        sincronizarCampos();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        sincronizarCampos();
+    }
+
+    private void sincronizarCampos() {
+        this.competencia = CompetenciaFatura.paraInteiro(mesAnoFatura);
+        this.descricaoBusca = TextoBusca.normalizar(descricao);
+        this.detalhesBusca = TextoBusca.normalizar(detalhes);
     }
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "subcategoria_id")
     private SubcategoriaDespesa subcategoria;
 
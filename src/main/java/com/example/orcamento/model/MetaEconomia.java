@@ -1,6 +1,7 @@
 package com.example.orcamento.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -9,6 +10,7 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "metas_economia")
 @Data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class MetaEconomia {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
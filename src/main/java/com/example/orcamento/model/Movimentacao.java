@@ -1,6 +1,7 @@
 // src/main/java/com/example/orcamento/model/Movimentacao.java
 package com.example.orcamento.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,15 +10,44 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "movimentacoes")
+@Table(
+        name = "movimentacoes",
+        indexes = {
+                @Index(name = "idx_movimentacoes_conta_tenant_recebimento", columnList = "conta_corrente_id, tenant_id, data_recebimento")
+        }
+)
+@NamedEntityGraph(
+        name = Movimentacao.GRAFO_COMPLETO,
+        attributeNodes = {
+                @NamedAttributeNode("contaCorrente"),
+                @NamedAttributeNode(value = "despesa", subgraph = "despesa"),
+                @NamedAttributeNode(value = "receita", subgraph = "receita")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "despesa", attributeNodes = {
+                        @NamedAttributeNode("contaCorrente"),
+                        @NamedAttributeNode(value = "metaEconomia", subgraph = "metaEconomia"),
+                        @NamedAttributeNode(value = "subcategoria", subgraph = "subcategoria")
+                }),
+                @NamedSubgraph(name = "metaEconomia", attributeNodes = @NamedAttributeNode("tipoInvestimento")),
+                @NamedSubgraph(name = "subcategoria", attributeNodes = @NamedAttributeNode("categoria")),
+                @NamedSubgraph(name = "receita", attributeNodes = @NamedAttributeNode("contaCorrente"))
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Movimentacao {
 
+    /** Conta, despesa (com os vinculos que ela serializa) e receita, carregados junto com a movimentacao. */
+    public static final String GRAFO_COMPLETO = "Movimentacao.completa";
+
+    // Ids em blocos para que parcelas e importacoes sejam gravadas em lote (ver V15)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimentacoes_seq")
+    @SequenceGenerator(name = "movimentacoes_seq", sequenceName = "movimentacoes_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -45,15 +75,15 @@ public class Movimentacao {
     @Column(name = "transferencia_original_id")
     private String transferenciaOriginalId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "conta_corrente_id", nullable = false)
     private ContaCorrente contaCorrente;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "despesa_id", nullable = true)
     private Despesa despesa; // Referência opcional à despesa
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "receita_id", nullable = true)
     private Receita receita; // Referência opcional à receita
 }
\ No newline at end of file
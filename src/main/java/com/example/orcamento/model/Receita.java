@@ -2,6 +2,7 @@ package com.example.orcamento.model;
 
 import com.example.orcamento.model.converter.ReceitaTipoConverter;
 import com.example.orcamento.model.enums.ReceitaTipo;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
@@ -15,6 +16,7 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Receita {
 
     @Id
@@ -1,5 +1,6 @@
 package com.example.orcamento.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class Transaction {
@@ -16,7 +17,11 @@ public class Transaction {
     private String valor;
 
     // Construtor
-    public Transaction(String dataCompra, String estabelecimento, String parcela, String valor) {
+    @JsonCreator
+    public Transaction(@JsonProperty("dataCompra") String dataCompra,
+                       @JsonProperty("estabelecimento") String estabelecimento,
+                       @JsonProperty("parcela") String parcela,
+                       @JsonProperty("valor") String valor) {
         this.dataCompra = dataCompra;
         this.estabelecimento = estabelecimento;
         this.parcela = parcela;
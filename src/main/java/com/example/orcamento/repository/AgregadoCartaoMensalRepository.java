@@ -0,0 +1,28 @@
+package com.example.orcamento.repository;
+
+import com.example.orcamento.model.AgregadoCartaoMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AgregadoCartaoMensalRepository extends JpaRepository<AgregadoCartaoMensal, Long> {
+
+    List<AgregadoCartaoMensal> findByTenantIdAndCompetenciaBetween(String tenantId, Integer competenciaInicial, Integer competenciaFinal);
+
+    List<AgregadoCartaoMensal> findByTenantIdAndCompetencia(String tenantId, Integer competencia);
+
+    // Cria ou toca a marca da competencia (ver AgregadoCartaoMensalCompetencia); nos dois casos a
+    // linha fica travada ate o fim da transacao
+    @Modifying
+    @Query(value = "INSERT INTO agregado_cartao_mensal_competencia (tenant_id, competencia, atualizado_em) " +
+            "VALUES (:tenantId, :competencia, :agora) " +
+            "ON DUPLICATE KEY UPDATE atualizado_em = VALUES(atualizado_em)",
+            nativeQuery = true)
+    void travarCompetencia(@Param("tenantId") String tenantId,
+                           @Param("competencia") Integer competencia,
+                           @Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,29 @@
+package com.example.orcamento.repository;
+
+import com.example.orcamento.model.AgregadoMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AgregadoMensalRepository extends JpaRepository<AgregadoMensal, Long> {
+    Optional<AgregadoMensal> findByTenantIdAndAnoAndMes(String tenantId, Integer ano, Integer mes);
+    List<AgregadoMensal> findByTenantIdAndAnoOrderByMes(String tenantId, Integer ano);
+
+    // Cria a linha zerada ou apenas toca a existente, sem corrida no primeiro insert do mes; nos dois
+    // casos a linha fica travada ate o fim da transacao, o que enfileira recalculos da mesma competencia
+    @Modifying
+    @Query(value = "INSERT INTO agregado_mensal (tenant_id, ano, mes, receitas_realizadas, despesas_do_mes, despesas_pagas, " +
+            "despesas_pagas_no_caixa, despesas_pagas_cartao, despesas_fatura_cartao, total_faturas, total_terceiros_faturas, atualizado_em) " +
+            "VALUES (:tenantId, :ano, :mes, 0, 0, 0, 0, 0, 0, 0, 0, :agora) " +
+            "ON DUPLICATE KEY UPDATE atualizado_em = VALUES(atualizado_em)",
+            nativeQuery = true)
+    void travarCompetencia(@Param("tenantId") String tenantId,
+                           @Param("ano") Integer ano,
+                           @Param("mes") Integer mes,
+                           @Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,12 @@
+package com.example.orcamento.repository;
+
+import com.example.orcamento.model.ConciliacaoOfxRelatorio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ConciliacaoOfxRelatorioRepository extends JpaRepository<ConciliacaoOfxRelatorio, Long> {
+    Optional<ConciliacaoOfxRelatorio> findByProcessamentoIdAndTenantId(Long processamentoId, String tenantId);
+}
@@ -0,0 +1,39 @@
+package com.example.orcamento.repository;
+
+import com.example.orcamento.model.ContaCorrenteMovimentoDia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ContaCorrenteMovimentoDiaRepository extends JpaRepository<ContaCorrenteMovimentoDia, Long> {
+
+    // Upsert atomico: movimentacoes concorrentes no mesmo dia somam na mesma linha sem se sobrescrever
+    @Modifying
+    @Query(value = "INSERT INTO conta_corrente_movimento_dia (tenant_id, conta_corrente_id, data, total_entradas, total_saidas) " +
+            "VALUES (:tenantId, :contaCorrenteId, :data, :entradas, :saidas) " +
+            "ON DUPLICATE KEY UPDATE total_entradas = total_entradas + VALUES(total_entradas), " +
+            "total_saidas = total_saidas + VALUES(total_saidas)",
+            nativeQuery = true)
+    void somar(@Param("tenantId") String tenantId,
+               @Param("contaCorrenteId") Long contaCorrenteId,
+               @Param("data") LocalDate data,
+               @Param("entradas") BigDecimal entradas,
+               @Param("saidas") BigDecimal saidas);
+
+    @Query("SELECT COALESCE(SUM(m.totalEntradas - m.totalSaidas), 0) FROM ContaCorrenteMovimentoDia m " +
+            "WHERE m.tenantId = :tenantId AND m.contaCorrenteId = :contaCorrenteId AND m.data > :data")
+    BigDecimal somarLiquidoDepoisDe(@Param("tenantId") String tenantId,
+                                    @Param("contaCorrenteId") Long contaCorrenteId,
+                                    @Param("data") LocalDate data);
+
+    List<ContaCorrenteMovimentoDia> findByTenantIdAndContaCorrenteIdAndDataGreaterThanOrderByDataDesc(
+            String tenantId,
+            Long contaCorrenteId,
+            LocalDate data
+    );
+}
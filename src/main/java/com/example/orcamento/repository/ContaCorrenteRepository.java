@@ -2,8 +2,12 @@ package com.example.orcamento.repository;
 
 import com.example.orcamento.model.ContaCorrente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,9 @@ public interface ContaCorrenteRepository extends JpaRepository<ContaCorrente, Lo
     List<ContaCorrente> findByTenantId(String tenantId);
     Optional<ContaCorrente> findByIdAndTenantId(Long id, String tenantId);
     void deleteByIdAndTenantId(Long id, String tenantId);
+
+    // Soma no proprio banco: concorrentes na mesma conta so esperam o lock da linha, sem perder atualizacao
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ContaCorrente c SET c.saldo = c.saldo + :delta WHERE c.id = :id AND c.tenantId = :tenantId")
+    int somarSaldo(@Param("id") Long id, @Param("tenantId") String tenantId, @Param("delta") BigDecimal delta);
 }
\ No newline at end of file
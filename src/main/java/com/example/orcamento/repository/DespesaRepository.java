@@ -1,6 +1,9 @@
 package com.example.orcamento.repository;
 
+import com.example.orcamento.dto.GastoMensalAgrupadoDTO;
 import com.example.orcamento.model.Despesa;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -14,45 +17,57 @@ import java.util.Optional;
 @Repository
 public interface DespesaRepository extends JpaRepository<Despesa, Long>, JpaSpecificationExecutor<Despesa> {
 
-    @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND ((d.dataPagamento IS NOT NULL AND YEAR(d.dataPagamento) = :ano AND MONTH(d.dataPagamento) = :mes) OR (d.dataPagamento IS NULL AND YEAR(d.dataVencimento) = :ano AND MONTH(d.dataVencimento) = :mes))")
-    List<Despesa> findByAnoAndMes(@Param("tenantId") String tenantId, @Param("ano") int ano, @Param("mes") int mes);
+    @Override
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
+    List<Despesa> findAll();
 
-    @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.dataVencimento BETWEEN :inicio AND :fim")
-    List<Despesa> findByDataVencimentoBetween(@Param("tenantId") String tenantId, @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+    @Override
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
+    List<Despesa> findAll(Specification<Despesa> spec);
+
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
+    @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND ((d.dataPagamento >= :inicio AND d.dataPagamento < :fim) OR (d.dataPagamento IS NULL AND d.dataVencimento >= :inicio AND d.dataVencimento < :fim))")
+    List<Despesa> findByPagamentoOuVencimentoNoPeriodo(@Param("tenantId") String tenantId, @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
-    @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND YEAR(d.dataVencimento) = :ano AND d.subcategoria.id = :subcategoriaId")
-    List<Despesa> findByAnoAndSubcategoriaId(@Param("tenantId") String tenantId, @Param("ano") int ano, @Param("subcategoriaId") Long subcategoriaId);
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
+    @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.dataVencimento >= :inicio AND d.dataVencimento < :fim AND d.subcategoria.id = :subcategoriaId")
+    List<Despesa> findByVencimentoNoPeriodoAndSubcategoriaId(@Param("tenantId") String tenantId, @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim, @Param("subcategoriaId") Long subcategoriaId);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.dataVencimento BETWEEN :dataInicio AND :dataFim AND d.dataPagamento IS NULL")
     List<Despesa> findByDataVencimentoBetweenAndDataPagamentoIsNull(
             @Param("tenantId") String tenantId,
             @Param("dataInicio") LocalDate dataInicio,
             @Param("dataFim") LocalDate dataFim);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND ((d.dataVencimento < :dataReferencia OR d.dataVencimento BETWEEN :dataReferencia AND :dataFim) AND d.dataPagamento IS NULL)")
     List<Despesa> findVencidasEProximas(
             @Param("tenantId") String tenantId,
             @Param("dataReferencia") LocalDate dataReferencia,
             @Param("dataFim") LocalDate dataFim);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.dataVencimento >= :dataInicio ORDER BY d.dataVencimento DESC")
     List<Despesa> findByDataVencimentoAfterOrderByDataVencimentoDesc(@Param("tenantId") String tenantId, @Param("dataInicio") LocalDate dataInicio);
 
-    @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.dataVencimento >= :dataInicial ORDER BY d.dataVencimento DESC")
-    List<Despesa> findDespesasParaAnalise(@Param("tenantId") String tenantId, @Param("dataInicial") LocalDate dataInicial);
-
-    @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND YEAR(d.dataVencimento) = :ano")
-    List<Despesa> findDespesasByAno(@Param("tenantId") String tenantId, @Param("ano") int ano);
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
+    @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.dataVencimento >= :inicio AND d.dataVencimento < :fim")
+    List<Despesa> findByVencimentoNoPeriodo(@Param("tenantId") String tenantId, @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.despesaParceladaId = :despesaParceladaId")
     List<Despesa> findByDespesaParceladaId(@Param("tenantId") String tenantId, @Param("despesaParceladaId") Long despesaParceladaId);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.metaEconomia.id = :metaEconomiaId")
     List<Despesa> findByMetaEconomiaId(@Param("tenantId") String tenantId, @Param("metaEconomiaId") Long metaEconomiaId);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId")
     List<Despesa> findByTenantId(@Param("tenantId") String tenantId);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.contaCorrente.id = :contaCorrenteId AND d.dataPagamento BETWEEN :inicio AND :fim AND d.valorPago IS NOT NULL")
     List<Despesa> findPagasByContaCorrenteAndDataPagamentoBetween(
             @Param("tenantId") String tenantId,
@@ -60,9 +75,11 @@ public interface DespesaRepository extends JpaRepository<Despesa, Long>, JpaSpec
             @Param("inicio") LocalDate inicio,
             @Param("fim") LocalDate fim);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.dataVencimento BETWEEN :inicio AND :fim")
     List<Despesa> findByTenantIdAndDataVencimentoBetween(@Param("tenantId") String tenantId, @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     @Query("SELECT d FROM Despesa d WHERE d.tenantId = :tenantId AND d.subcategoria.id = :subcategoriaId")
     List<Despesa> findBySubcategoriaId(@Param("tenantId") String tenantId, @Param("subcategoriaId") Long subcategoriaId);
 
@@ -79,9 +96,45 @@ public interface DespesaRepository extends JpaRepository<Despesa, Long>, JpaSpec
             @Param("dataFim") LocalDate dataFim,
             @Param("subcategoriaId") Long subcategoriaId);
 
-    @Query("SELECT CASE WHEN COUNT(d) > 0 THEN TRUE ELSE FALSE END FROM Despesa d WHERE d.tenantId = :tenantId AND d.nome LIKE %:nome% AND YEAR(d.dataVencimento) = :ano AND MONTH(d.dataVencimento) = :mes")
-    boolean existsByNomeLikeAndMesAndAno(@Param("tenantId") String tenantId, @Param("nome") String nome, @Param("mes") int mes, @Param("ano") int ano);
+    @Query("SELECT new com.example.orcamento.dto.GastoMensalAgrupadoDTO(d.nome, s.nome, " +
+            "YEAR(d.dataVencimento), MONTH(d.dataVencimento), SUM(d.valorPrevisto), COUNT(d), " +
+            "MIN(d.dataVencimento), MAX(d.dataVencimento), MAX(d.id)) " +
+            "FROM Despesa d LEFT JOIN d.subcategoria s LEFT JOIN s.categoria c " +
+            "WHERE d.tenantId = :tenantId " +
+            "AND d.dataVencimento >= :dataInicio " +
+            "AND (:dataFim IS NULL OR d.dataVencimento <= :dataFim) " +
+            "AND (:categoriaId IS NULL OR c.id = :categoriaId) " +
+            "GROUP BY d.nome, s.nome, YEAR(d.dataVencimento), MONTH(d.dataVencimento)")
+    List<GastoMensalAgrupadoDTO> agruparPorNomeSubcategoriaEMes(
+            @Param("tenantId") String tenantId,
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim,
+            @Param("categoriaId") Long categoriaId);
+
+    @Query("SELECT COALESCE(SUM(d.valorPrevisto), 0), " +
+            "COALESCE(SUM(d.valorPago), 0), " +
+            "COALESCE(SUM(CASE WHEN d.formaDePagamento = com.example.orcamento.model.enums.FormaDePagamento.CREDITO THEN d.valorPago ELSE 0 END), 0) " +
+            "FROM Despesa d " +
+            "WHERE d.tenantId = :tenantId " +
+            "AND d.dataVencimento BETWEEN :inicio AND :fim")
+    List<Object[]> somarTotaisPorVencimento(
+            @Param("tenantId") String tenantId,
+            @Param("inicio") LocalDate inicio,
+            @Param("fim") LocalDate fim);
+
+    @Query("SELECT d.nome, d.valorPrevisto FROM Despesa d WHERE d.tenantId = :tenantId AND d.dataVencimento BETWEEN :inicio AND :fim AND LOWER(d.nome) LIKE 'fatura%'")
+    List<Object[]> findNomeEValorPrevistoDeFaturasPorVencimento(
+            @Param("tenantId") String tenantId,
+            @Param("inicio") LocalDate inicio,
+            @Param("fim") LocalDate fim);
+
+    @Query("SELECT CASE WHEN COUNT(d) > 0 THEN TRUE ELSE FALSE END FROM Despesa d WHERE d.tenantId = :tenantId AND d.nome LIKE %:nome% AND d.dataVencimento >= :inicio AND d.dataVencimento < :fim")
+    boolean existsByNomeLikeAndVencimentoNoPeriodo(@Param("tenantId") String tenantId, @Param("nome") String nome, @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    @Query("SELECT d.nome, d.dataVencimento FROM Despesa d WHERE d.tenantId = :tenantId AND d.dataVencimento >= :inicio AND d.dataVencimento < :fim AND d.nome LIKE '%Fatura Cartao %'")
+    List<Object[]> findNomeEVencimentoDeFaturasLancadas(@Param("tenantId") String tenantId, @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
+    @EntityGraph(Despesa.GRAFO_COMPLETO)
     Optional<Despesa> findByIdAndTenantId(Long id, String tenantId);
     void deleteByIdAndTenantId(Long id, String tenantId);
 
@@ -2,6 +2,8 @@
 package com.example.orcamento.repository;
 
 import com.example.orcamento.model.LancamentoCartao;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -15,18 +17,23 @@ import java.util.Optional;
 
 public interface LancamentoCartaoRepository extends JpaRepository<LancamentoCartao, Long> , JpaSpecificationExecutor<LancamentoCartao> {
 
+    @Override
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
+    List<LancamentoCartao> findAll(Specification<LancamentoCartao> spec);
+
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     List<LancamentoCartao> findByMesAnoFaturaAndTenantId(String mesAnoFatura, String tenantId);
 
     @Query("SELECT COALESCE(s.nome, 'Sem Subcategoria'), SUM(l.valorTotal) " +
             "FROM LancamentoCartao l " +
             "LEFT JOIN l.subcategoria s " +
-            "WHERE l.mesAnoFatura = :mesAnoFatura " +
-            "AND l.tenantId = :tenantId " +
+            "WHERE l.tenantId = :tenantId " +
+            "AND l.competencia = :competencia " +
             "AND (:cartaoId IS NULL OR l.cartaoCredito.id = :cartaoId) " +
             "AND (:proprietario IS NULL OR l.proprietario = :proprietario) " +
             "GROUP BY s.nome")
     List<Object[]> findGastosPorTipoDespesa(
-            @Param("mesAnoFatura") String mesAnoFatura,
+            @Param("competencia") Integer competencia,
             @Param("cartaoId") Long cartaoId,
             @Param("proprietario") String proprietario,
             @Param("tenantId") String tenantId);
@@ -34,24 +41,29 @@ public interface LancamentoCartaoRepository extends JpaRepository<LancamentoCart
     @Query("SELECT c.nome, SUM(l.valorTotal) " +
             "FROM LancamentoCartao l " +
             "JOIN l.cartaoCredito c " +
-            "WHERE l.mesAnoFatura = :mesAnoFatura " +
-            "AND l.tenantId = :tenantId " +
+            "WHERE l.tenantId = :tenantId " +
+            "AND l.competencia = :competencia " +
             "GROUP BY c.nome")
-    List<Object[]> findGastosPorCartaoCredito(@Param("mesAnoFatura") String mesAnoFatura, @Param("tenantId") String tenantId);
+    List<Object[]> findGastosPorCartaoCredito(@Param("competencia") Integer competencia, @Param("tenantId") String tenantId);
 
-    @Query("SELECT l FROM LancamentoCartao l WHERE YEAR(l.dataCompra) = :ano AND MONTH(l.dataCompra) = :mes AND l.tenantId = :tenantId")
-    List<LancamentoCartao> findByAnoAndMesAndTenantId(@Param("ano") int ano, @Param("mes") int mes, @Param("tenantId") String tenantId);
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
+    @Query("SELECT l FROM LancamentoCartao l WHERE l.tenantId = :tenantId AND l.dataCompra >= :inicio AND l.dataCompra < :fim")
+    List<LancamentoCartao> findByDataCompraNoPeriodoAndTenantId(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim, @Param("tenantId") String tenantId);
 
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     List<LancamentoCartao> findByDataCompraAfterAndTenantId(LocalDate data, String tenantId);
 
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     List<LancamentoCartao> findByDataCompraBetweenAndTenantId(LocalDate dataInicio, LocalDate dataFim, String tenantId);
 
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     List<LancamentoCartao> findByCartaoCreditoIdAndDataCompraBetweenAndTenantId(Long cartaoId, LocalDate dataInicio, LocalDate dataFim, String tenantId);
 
     // REMOVIDO: Método legado baseado em tipoDespesa, não compatível com o novo modelo
     // List<LancamentoCartao> findByTipoDespesaIdAndTenantId(Long tipoDespesaId, String tenantId);
 
     // Buscar lançamentos recorrentes (mesma descrição em diferentes meses)
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     @Query("SELECT l FROM LancamentoCartao l WHERE l.descricao = :descricao AND l.tenantId = :tenantId ORDER BY l.dataCompra")
     List<LancamentoCartao> findByDescricaoOrderByDataCompra(@Param("descricao") String descricao, @Param("tenantId") String tenantId);
 
@@ -81,34 +93,73 @@ public interface LancamentoCartaoRepository extends JpaRepository<LancamentoCart
 
     @Query("SELECT SUM(l.valorTotal) " +
             "FROM LancamentoCartao l " +
-            "WHERE l.cartaoCredito.id = :cartaoId " +
-            "AND l.mesAnoFatura = :mesAnoFatura " +
-            "AND l.tenantId = :tenantId")
+            "WHERE l.tenantId = :tenantId " +
+            "AND l.competencia = :competencia " +
+            "AND l.cartaoCredito.id = :cartaoId")
     BigDecimal getFaturaDoMes(@Param("cartaoId") Long cartaoId,
-                              @Param("mesAnoFatura") String mesAnoFatura,
+                              @Param("competencia") Integer competencia,
                               @Param("tenantId") String tenantId);
 
     @Query("SELECT SUM(l.valorTotal) " +
             "FROM LancamentoCartao l " +
-            "WHERE l.cartaoCredito.id = :cartaoId " +
-            "AND l.mesAnoFatura = :mesAnoFatura " +
-            "AND l.tenantId = :tenantId " +
+            "WHERE l.tenantId = :tenantId " +
+            "AND l.competencia = :competencia " +
+            "AND l.cartaoCredito.id = :cartaoId " +
             "AND l.proprietario = 'Terceiros'")
     BigDecimal getFaturaDoMesTerceiros(@Param("cartaoId") Long cartaoId,
-                              @Param("mesAnoFatura") String mesAnoFatura,
+                              @Param("competencia") Integer competencia,
                               @Param("tenantId") String tenantId);
 
+    @Query("SELECT COALESCE(SUM(l.valorTotal), 0), " +
+            "COALESCE(SUM(CASE WHEN LOWER(l.proprietario) = 'terceiros' THEN l.valorTotal ELSE 0 END), 0) " +
+            "FROM LancamentoCartao l " +
+            "WHERE l.tenantId = :tenantId " +
+            "AND l.competencia = :competencia")
+    List<Object[]> somarTotaisDaFatura(@Param("competencia") Integer competencia,
+                                       @Param("tenantId") String tenantId);
+
+    @Query("SELECT l.cartaoCredito.id, l.competencia, COALESCE(SUM(l.valorTotal), 0), " +
+            "COALESCE(SUM(CASE WHEN l.proprietario = 'Terceiros' THEN l.valorTotal ELSE 0 END), 0) " +
+            "FROM LancamentoCartao l " +
+            "WHERE l.tenantId = :tenantId " +
+            "AND l.competencia BETWEEN :competenciaInicial AND :competenciaFinal " +
+            "GROUP BY l.cartaoCredito.id, l.competencia")
+    List<Object[]> somarFaturasPorCartaoECompetencia(@Param("tenantId") String tenantId,
+                                                     @Param("competenciaInicial") Integer competenciaInicial,
+                                                     @Param("competenciaFinal") Integer competenciaFinal);
+
+    @Query("SELECT l.cartaoCredito.id, s.id, l.descricao, l.valorTotal, l.parcelaAtual, l.totalParcelas " +
+            "FROM LancamentoCartao l LEFT JOIN l.subcategoria s " +
+            "WHERE l.tenantId = :tenantId " +
+            "AND l.competencia = :competencia " +
+            "ORDER BY l.dataCompra, l.id")
+    List<Object[]> findResumoParaAgregadoCartao(@Param("tenantId") String tenantId,
+                                                 @Param("competencia") Integer competencia);
+
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     @Query("SELECT lc FROM LancamentoCartao lc WHERE (:cartaoId IS NULL OR lc.cartaoCredito.id = :cartaoId) AND (:mesAnoFatura IS NULL OR lc.mesAnoFatura = :mesAnoFatura) AND lc.tenantId = :tenantId")
     List<LancamentoCartao> findByCartaoAndMesAno(@Param("cartaoId") Long cartaoId, @Param("mesAnoFatura") String mesAnoFatura, @Param("tenantId") String tenantId);
 
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     List<LancamentoCartao> findByProprietarioAndTenantId(String proprietario, String tenantId);
 
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     List<LancamentoCartao> findByProprietarioAndMesAnoFaturaAndTenantId(String proprietario, String mesAnoFatura, String tenantId);
 
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     List<LancamentoCartao> findByTenantId(String tenantId);
+
+    @EntityGraph(LancamentoCartao.GRAFO_COM_COMPRA)
+    @Query("SELECT l FROM LancamentoCartao l WHERE l.tenantId = :tenantId")
+    List<LancamentoCartao> findComCompraByTenantId(@Param("tenantId") String tenantId);
+
+    @EntityGraph(LancamentoCartao.GRAFO_COMPLETO)
     Optional<LancamentoCartao> findByIdAndTenantId(Long id, String tenantId);
     void deleteByIdAndTenantId(Long id, String tenantId);
 
+    @Query("SELECT DISTINCT l.mesAnoFatura FROM LancamentoCartao l WHERE l.compra.id = :compraId AND l.tenantId = :tenantId")
+    List<String> findMesesAnoFaturaByCompraIdAndTenantId(@Param("compraId") Long compraId, @Param("tenantId") String tenantId);
+
     @Modifying
     @Query("DELETE FROM LancamentoCartao l WHERE l.compra.id = :compraId AND l.tenantId = :tenantId")
     void deleteByCompraIdAndTenantId(@Param("compraId") Long compraId, @Param("tenantId") String tenantId);
@@ -4,7 +4,10 @@ package com.example.orcamento.repository;
 import com.example.orcamento.model.Despesa;
 import com.example.orcamento.model.Movimentacao;
 import com.example.orcamento.model.Receita;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -13,18 +16,46 @@ import java.util.List;
 
 @Repository
 public interface MovimentacaoRepository extends JpaRepository<Movimentacao, Long> {
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByContaCorrenteId(Long contaCorrenteId);
 
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByReceita(Receita receita);
+
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByDespesa(Despesa despesa);
+
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByContaCorrenteIdAndDataRecebimentoBetween(Long contaCorrenteId, LocalDate dataInicio, LocalDate dataFim);
+
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByDataRecebimentoBetween(LocalDate dataInicio, LocalDate dataFim);
 
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByTenantId(String tenantId);
+
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByContaCorrenteIdAndTenantId(Long contaCorrenteId, String tenantId);
+
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByDataRecebimentoBetweenAndTenantId(LocalDate dataInicio, LocalDate dataFim, String tenantId);
+
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByContaCorrenteIdAndTenantIdAndDataRecebimentoBetween(Long contaCorrenteId, String tenantId, LocalDate dataInicio, LocalDate dataFim);
 
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByTransferenciaIdAndTenantId(String transferenciaId, String tenantId);
+
+    @EntityGraph(Movimentacao.GRAFO_COMPLETO)
     List<Movimentacao> findByTransferenciaOriginalIdAndTenantId(String transferenciaOriginalId, String tenantId);
-}
\ No newline at end of file
+
+    // Entradas e saidas de cada dia do periodo numa unica leitura, pelo idx_movimentacoes_conta_tenant_recebimento
+    @Query("SELECT m.dataRecebimento, m.tipo, SUM(m.valor) FROM Movimentacao m " +
+            "WHERE m.contaCorrente.id = :contaCorrenteId AND m.tenantId = :tenantId " +
+            "AND m.dataRecebimento BETWEEN :dataInicio AND :dataFim " +
+            "GROUP BY m.dataRecebimento, m.tipo")
+    List<Object[]> somarPorDiaETipo(@Param("contaCorrenteId") Long contaCorrenteId,
+                                    @Param("tenantId") String tenantId,
+                                    @Param("dataInicio") LocalDate dataInicio,
+                                    @Param("dataFim") LocalDate dataFim);
+}
@@ -3,8 +3,11 @@ package com.example.orcamento.repository;
 
 import com.example.orcamento.model.Receita;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +18,10 @@ public interface ReceitaRepository extends JpaRepository<Receita, Long> {
     List<Receita> findByTenantId(String tenantId);
     List<Receita> findByDataRecebimentoBetweenAndTenantId(LocalDate inicio, LocalDate fim, String tenantId);
     List<Receita> findByContaCorrenteIdAndTenantIdAndDataRecebimentoBetween(Long contaCorrenteId, String tenantId, LocalDate inicio, LocalDate fim);
+
+    @Query("SELECT COALESCE(SUM(r.valor), 0) FROM Receita r WHERE r.tenantId = :tenantId AND r.isPrevista = false AND r.dataRecebimento BETWEEN :inicio AND :fim")
+    BigDecimal somarRealizadasPorPeriodo(@Param("tenantId") String tenantId, @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
     Optional<Receita> findByIdAndTenantId(Long id, String tenantId);
     void deleteByIdAndTenantId(Long id, String tenantId);
 }
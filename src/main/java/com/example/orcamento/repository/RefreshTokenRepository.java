@@ -23,7 +23,9 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Transactional
     void deleteByTokenAndTenantId(String token, String tenantId);
 
+    @Transactional
     void deleteByUsuarioId(Long usuarioId);
 
+    @Transactional
     void deleteByUsuarioIdAndTenantId(Long usuarioId, String tenantId);
 }
@@ -1,13 +1,17 @@
 package com.example.orcamento.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,6 +20,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 @RequiredArgsConstructor
@@ -23,6 +28,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UsuarioStatusCache usuarioStatusCache;
+
+    // Monta o principal a partir dos claims e consulta a situacao do usuario via cache, sem ir ao banco a cada requisicao.
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean autenticacaoStateless;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -37,18 +47,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            // Tenta validar o token e autenticar o usuário
-            String username = jwtUtil.extractUsername(token);
+            // Assinatura e expiracao sao verificadas uma unica vez; os claims sao reaproveitados abaixo
+            Claims claims = jwtUtil.parseClaims(token);
+            String username = claims.getSubject();
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = autenticacaoStateless
+                        ? principalDosClaims(username, claims)
+                        : userDetailsService.loadUserByUsername(username);
 
-                if (jwtUtil.validateToken(token, userDetails)) {
+                if (userDetails != null && username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                     // Pega o tenantId do token e coloca no contexto
-                    String tenantId = jwtUtil.extractTenantId(token);
+                    String tenantId = claims.get("tenantId", String.class);
                     if (!StringUtils.hasText(tenantId)) {
                         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                         response.setContentType("application/json");
@@ -82,4 +95,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Limpa o contexto do tenant ao final da request
         TenantContext.clear();
     }
-}
\ No newline at end of file
+
+    private UserDetails principalDosClaims(String username, Claims claims) {
+        if (!usuarioStatusCache.tokenValido(username, claims.getIssuedAt())) {
+            return null;
+        }
+        return new User(username, "", Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
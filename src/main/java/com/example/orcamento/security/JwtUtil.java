@@ -1,6 +1,7 @@
 package com.example.orcamento.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -22,9 +23,33 @@ public class JwtUtil {
     @Value("${jwt.expiration.ms:1800000}")
     private long jwtExpirationMs;
 
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+
     private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+            parser = jwtParser;
+        }
+        return jwtParser;
+    }
+
+    /**
+     * Verifica assinatura e expiracao e devolve os claims. Quem precisa de varios claims do mesmo
+     * token deve chamar este metodo uma vez, em vez dos {@code extract*} (cada um refaz o parse).
+     */
+    public Claims parseClaims(String token) {
+        return getParser().parseClaimsJws(token).getBody();
     }
 
     public String extractUsername(String token) {
@@ -41,11 +66,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parseClaims(token);
     }
 
     public boolean isTokenExpired(String token) {
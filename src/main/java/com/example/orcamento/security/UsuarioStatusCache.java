@@ -0,0 +1,80 @@
+package com.example.orcamento.security;
+
+import com.example.orcamento.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Situacao dos usuarios para a autenticacao stateless ({@code jwt.stateless.enabled}): guarda por um TTL
+ * curto se o usuario do token ainda existe, evitando uma consulta ao banco a cada requisicao.
+ *
+ * <p>Logout e troca de senha revogam os tokens do usuario emitidos antes deles ({@link #revogarTokens});
+ * alteracoes cadastrais apenas descartam a entrada ({@link #invalidar}), forcando nova consulta.</p>
+ *
+ * <p>O estado fica em memoria, local a instancia: o modo stateless supoe uma unica instancia da API. Com
+ * varias, um access token revogado em uma continua aceito nas outras ate expirar ({@code jwt.expiration.ms}).
+ * Os refresh tokens ficam no banco e o logout os apaga, entao nenhuma instancia renova o acesso depois dele.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UsuarioStatusCache {
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<String, Instant> tokensRevogadosAte = new ConcurrentHashMap<>();
+
+    @Value("${jwt.stateless.status-cache-ttl:60s}")
+    private Duration ttl = Duration.ofSeconds(60);
+
+    @Value("${jwt.expiration.ms:1800000}")
+    private long jwtExpirationMs = 1800000;
+
+    public boolean tokenValido(String username, Date emitidoEm) {
+        Instant agora = Instant.now();
+        Instant revogadoAte = tokensRevogadosAte.get(username);
+        if (revogadoAte != null) {
+            if (agora.isAfter(revogadoAte.plusMillis(jwtExpirationMs))) {
+                // Todo token anterior a revogacao ja expirou.
+                tokensRevogadosAte.remove(username, revogadoAte);
+            } else if (emitidoEm == null || emitidoEm.toInstant().getEpochSecond() < revogadoAte.getEpochSecond()) {
+                return false;
+            }
+        }
+
+        Entrada entrada = entradas.get(username);
+        if (entrada == null || entrada.expiraEm().isBefore(agora)) {
+            entradas.values().removeIf(existente -> existente.expiraEm().isBefore(agora));
+            entrada = new Entrada(usuarioRepository.findByUsername(username).isPresent(), agora.plus(ttl));
+            entradas.put(username, entrada);
+        }
+        return entrada.usuarioExiste();
+    }
+
+    public void invalidar(String username) {
+        if (username != null) {
+            entradas.remove(username);
+        }
+    }
+
+    public void revogarTokens(String username) {
+        if (username == null) {
+            return;
+        }
+        tokensRevogadosAte.put(username, Instant.now());
+        entradas.remove(username);
+        log.info("auth.tokens_revogados username={}", username);
+    }
+
+    private record Entrada(boolean usuarioExiste, Instant expiraEm) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.model.AgregadoCartaoMensal;
+import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.repository.AgregadoCartaoMensalRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.security.TenantContext;
+import com.example.orcamento.util.CompetenciaFatura;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Mantem a tabela agregado_cartao_mensal, que consolida os lancamentos de cartao de cada
+ * competencia por cartao, subcategoria e descricao normalizada. Segue o mesmo fluxo do
+ * {@link AgregadoMensalService}: as escritas marcam as competencias afetadas e cada uma e
+ * refeita uma unica vez antes do commit, a partir dos lancamentos daquela competencia apenas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgregadoCartaoMensalService {
+
+    static final int PARCELAS_PARCELAMENTO_LONGO = 6;
+    private static final int TAMANHO_DESCRICAO = 255;
+
+    // "03/12", "PARC 3/10", "PARCELA 2 DE 5": marcadores que mudam a cada fatura da mesma compra
+    private static final Pattern MARCADOR_PARCELA =
+            Pattern.compile("\\b(PARC(ELA)?\\.?\\s*)?\\d{1,3}\\s*(/|DE)\\s*\\d{1,3}\\b");
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^A-Z0-9]+");
+    private static final Pattern SOMENTE_DIGITOS = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private static final Comparator<CompetenciaPendente> ORDEM_DE_TRAVA = Comparator
+            .comparing(CompetenciaPendente::tenantId)
+            .thenComparing(CompetenciaPendente::competencia);
+
+    private final AgregadoCartaoMensalRepository agregadoCartaoMensalRepository;
+    private final LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @Transactional(readOnly = true)
+    public List<AgregadoCartaoMensal> listar(String tenantId, YearMonth inicio, YearMonth fim) {
+        return agregadoCartaoMensalRepository.findByTenantIdAndCompetenciaBetween(
+                tenantId, CompetenciaFatura.paraInteiro(inicio), CompetenciaFatura.paraInteiro(fim));
+    }
+
+    public void registrarAlteracao(LancamentoCartao lancamento) {
+        if (lancamento != null) {
+            registrarAlteracaoFatura(lancamento.getTenantId(), lancamento.getMesAnoFatura());
+        }
+    }
+
+    public void registrarAlteracaoFatura(String tenantId, String mesAnoFatura) {
+        YearMonth competencia = CompetenciaFatura.parse(mesAnoFatura);
+        if (competencia != null) {
+            registrarAlteracao(tenantId, competencia);
+        }
+    }
+
+    /**
+     * Marca a competencia para ser refeita. Dentro de uma transacao o recalculo e adiado para o
+     * beforeCommit, de forma que uma compra parcelada em varias faturas refaz cada competencia uma vez.
+     * As competencias sao travadas sempre na mesma ordem, como no {@link AgregadoMensalService}.
+     */
+    public void registrarAlteracao(String tenantId, YearMonth competencia) {
+        if (tenantId == null || competencia == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recalcular(tenantId, competencia);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<CompetenciaPendente> pendentes = (Set<CompetenciaPendente>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            Set<CompetenciaPendente> novasPendentes = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, novasPendentes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    novasPendentes.stream()
+                            .sorted(ORDEM_DE_TRAVA)
+                            .toList()
+                            .forEach(pendente -> recalcular(pendente.tenantId(), pendente.competencia()));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AgregadoCartaoMensalService.this);
+                }
+            });
+            pendentes = novasPendentes;
+        }
+        pendentes.add(new CompetenciaPendente(tenantId, competencia));
+    }
+
+    /**
+     * Refaz as linhas da competencia. A marca da competencia e travada antes de ler os lancamentos,
+     * entao recalculos concorrentes do mesmo mes passam um de cada vez, cada um le o que os anteriores
+     * ja commitaram e nenhum esbarra na chave unica dos grupos gravados pelo outro.
+     */
+    @Transactional
+    public List<AgregadoCartaoMensal> recalcular(String tenantId, YearMonth competencia) {
+        int competenciaInteira = CompetenciaFatura.paraInteiro(competencia);
+        Map<ChaveAgregado, AgregadoCartaoMensal> agregados = new LinkedHashMap<>();
+        LocalDateTime agora = LocalDateTime.now();
+        agregadoCartaoMensalRepository.travarCompetencia(tenantId, competenciaInteira, agora);
+
+        for (Object[] linha : lancamentoCartaoRepository.findResumoParaAgregadoCartao(tenantId, competenciaInteira)) {
+            Long cartaoCreditoId = (Long) linha[0];
+            Long subcategoriaId = linha[1] != null ? (Long) linha[1] : AgregadoCartaoMensal.SEM_SUBCATEGORIA;
+            String descricao = (String) linha[2];
+            BigDecimal valor = linha[3] != null ? (BigDecimal) linha[3] : BigDecimal.ZERO;
+            int parcelaAtual = linha[4] != null ? (Integer) linha[4] : 1;
+            int totalParcelas = linha[5] != null ? (Integer) linha[5] : 1;
+
+            String descricaoNormalizada = normalizarDescricao(descricao);
+            AgregadoCartaoMensal agregado = agregados.computeIfAbsent(
+                    new ChaveAgregado(cartaoCreditoId, subcategoriaId, descricaoNormalizada),
+                    chave -> AgregadoCartaoMensal.builder()
+                            .tenantId(tenantId)
+                            .competencia(competenciaInteira)
+                            .cartaoCreditoId(cartaoCreditoId)
+                            .subcategoriaId(subcategoriaId)
+                            .descricaoNormalizada(descricaoNormalizada)
+                            .quantidade(0)
+                            .quantidadeParcelada(0)
+                            .valorTotal(BigDecimal.ZERO)
+                            .valorMinimo(valor)
+                            .valorMaximo(valor)
+                            .parcelamentosAtivos(0)
+                            .parcelamentosLongos(0)
+                            .valorComprometido(BigDecimal.ZERO)
+                            .atualizadoEm(agora)
+                            .build());
+
+            // As linhas chegam por data de compra, entao a descricao exibida e a do lancamento mais recente
+            agregado.setDescricao(limitar(descricao != null ? descricao.trim() : descricaoNormalizada));
+            agregado.setQuantidade(agregado.getQuantidade() + 1);
+            agregado.setValorTotal(agregado.getValorTotal().add(valor));
+            agregado.setValorMinimo(agregado.getValorMinimo().min(valor));
+            agregado.setValorMaximo(agregado.getValorMaximo().max(valor));
+            if (totalParcelas > 1) {
+                agregado.setQuantidadeParcelada(agregado.getQuantidadeParcelada() + 1);
+                if (parcelaAtual < totalParcelas) {
+                    agregado.setParcelamentosAtivos(agregado.getParcelamentosAtivos() + 1);
+                    if (totalParcelas > PARCELAS_PARCELAMENTO_LONGO) {
+                        agregado.setParcelamentosLongos(agregado.getParcelamentosLongos() + 1);
+                    }
+                    // valorTotal do lancamento e o valor da parcela
+                    agregado.setValorComprometido(agregado.getValorComprometido()
+                            .add(valor.multiply(BigDecimal.valueOf(totalParcelas - parcelaAtual))));
+                }
+            }
+        }
+
+        // Reaproveita as linhas que ja existem para cada grupo e apaga so as que sumiram
+        Map<ChaveAgregado, AgregadoCartaoMensal> existentes = new HashMap<>();
+        for (AgregadoCartaoMensal existente : agregadoCartaoMensalRepository.findByTenantIdAndCompetencia(tenantId, competenciaInteira)) {
+            existentes.put(new ChaveAgregado(existente.getCartaoCreditoId(), existente.getSubcategoriaId(),
+                    existente.getDescricaoNormalizada()), existente);
+        }
+        agregados.forEach((chave, agregado) -> {
+            AgregadoCartaoMensal existente = existentes.remove(chave);
+            if (existente != null) {
+                agregado.setId(existente.getId());
+            }
+        });
+        if (!existentes.isEmpty()) {
+            agregadoCartaoMensalRepository.deleteAll(existentes.values());
+        }
+        List<AgregadoCartaoMensal> salvos = agregadoCartaoMensalRepository.saveAll(agregados.values());
+        log.debug("agregado_cartao_mensal.recalculado tenantId={} competencia={} linhas={}",
+                tenantId, competenciaInteira, salvos.size());
+        return salvos;
+    }
+
+    /**
+     * Refaz as doze competencias do ano para o tenant atual; usado para popular a tabela com o
+     * historico anterior a ela ou corrigir divergencias.
+     */
+    @Transactional
+    public int reconstruir(int ano) {
+        if (ano < 2000 || ano > 3000) {
+            throw new IllegalArgumentException("ano invalido");
+        }
+        String tenantId = TenantContext.getTenantId();
+        int linhas = 0;
+        for (int mes = 1; mes <= 12; mes++) {
+            linhas += recalcular(tenantId, YearMonth.of(ano, mes)).size();
+        }
+        log.info("agregado_cartao_mensal.reconstruido tenantId={} ano={} linhas={}", tenantId, ano, linhas);
+        return linhas;
+    }
+
+    /**
+     * Chave de agrupamento da descricao: sem acentos, em maiusculas, sem marcadores de parcela nem
+     * numeros soltos (codigos de transacao), para que a mesma compra ou assinatura caia na mesma linha
+     * em todas as faturas.
+     */
+    static String normalizarDescricao(String descricao) {
+        if (descricao == null || descricao.isBlank()) {
+            return "";
+        }
+        String normalizada = Normalizer.normalize(descricao, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase(Locale.ROOT);
+        normalizada = MARCADOR_PARCELA.matcher(normalizada).replaceAll(" ");
+        normalizada = NAO_ALFANUMERICO.matcher(normalizada).replaceAll(" ");
+        String semNumeros = ESPACOS.matcher(SOMENTE_DIGITOS.matcher(normalizada).replaceAll(" ")).replaceAll(" ").trim();
+        if (semNumeros.isEmpty()) {
+            semNumeros = ESPACOS.matcher(normalizada).replaceAll(" ").trim();
+        }
+        return limitar(semNumeros);
+    }
+
+    private static String limitar(String valor) {
+        return valor.length() > TAMANHO_DESCRICAO ? valor.substring(0, TAMANHO_DESCRICAO) : valor;
+    }
+
+    private record ChaveAgregado(Long cartaoCreditoId, Long subcategoriaId, String descricaoNormalizada) {
+    }
+
+    private record CompetenciaPendente(String tenantId, YearMonth competencia) {
+        CompetenciaPendente {
+            Objects.requireNonNull(tenantId);
+            Objects.requireNonNull(competencia);
+        }
+    }
+}
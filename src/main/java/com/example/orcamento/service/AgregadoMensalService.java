@@ -0,0 +1,335 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.AgregadoMensalVerificacaoDTO;
+import com.example.orcamento.model.AgregadoMensal;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.model.Receita;
+import com.example.orcamento.repository.AgregadoMensalRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.repository.ReceitaRepository;
+import com.example.orcamento.security.TenantContext;
+import com.example.orcamento.util.CompetenciaFatura;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Mantem a tabela agregado_mensal, que consolida por tenant/competencia os totais usados pelo
+ * fechamento mensal. Os fluxos de escrita apenas marcam as competencias afetadas; o recalculo
+ * acontece uma unica vez por competencia, antes do commit da transacao corrente.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgregadoMensalService {
+
+    private static final Comparator<CompetenciaPendente> ORDEM_DE_TRAVA = Comparator
+            .comparing(CompetenciaPendente::tenantId)
+            .thenComparing(CompetenciaPendente::competencia);
+
+    private final AgregadoMensalRepository agregadoMensalRepository;
+    private final DespesaRepository despesaRepository;
+    private final ReceitaRepository receitaRepository;
+    private final LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    /**
+     * Retorna os totais da competencia. Quando a linha consolidada ainda nao existe, os totais
+     * sao calculados por consultas agregadas sem persistir, o que mantem o metodo seguro para
+     * transacoes somente leitura.
+     */
+    @Transactional(readOnly = true)
+    public AgregadoMensal obterTotais(String tenantId, YearMonth competencia) {
+        return agregadoMensalRepository
+                .findByTenantIdAndAnoAndMes(tenantId, competencia.getYear(), competencia.getMonthValue())
+                .orElseGet(() -> calcular(tenantId, competencia));
+    }
+
+    public void registrarAlteracao(Despesa despesa) {
+        if (despesa != null) {
+            registrarAlteracao(despesa.getTenantId(), despesa.getDataVencimento());
+        }
+    }
+
+    public void registrarAlteracao(Receita receita) {
+        if (receita != null) {
+            registrarAlteracao(receita.getTenantId(), receita.getDataRecebimento());
+        }
+    }
+
+    public void registrarAlteracao(LancamentoCartao lancamento) {
+        if (lancamento != null) {
+            registrarAlteracaoFatura(lancamento.getTenantId(), lancamento.getMesAnoFatura());
+        }
+    }
+
+    public void registrarAlteracaoFatura(String tenantId, String mesAnoFatura) {
+        YearMonth competencia = CompetenciaFatura.parse(mesAnoFatura);
+        if (competencia != null) {
+            registrarAlteracao(tenantId, competencia);
+        }
+    }
+
+    public void registrarAlteracao(String tenantId, LocalDate data) {
+        if (data != null) {
+            registrarAlteracao(tenantId, YearMonth.from(data));
+        }
+    }
+
+    /**
+     * Marca a competencia para recalculo. Dentro de uma transacao o recalculo e adiado para o
+     * beforeCommit, de forma que varias escritas na mesma competencia custam um unico recalculo. As
+     * competencias sao travadas sempre na mesma ordem, para que duas transacoes que tocam os mesmos
+     * meses nao se bloqueiem em cruz.
+     */
+    public void registrarAlteracao(String tenantId, YearMonth competencia) {
+        if (tenantId == null || competencia == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recalcular(tenantId, competencia);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<CompetenciaPendente> pendentes = (Set<CompetenciaPendente>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            Set<CompetenciaPendente> novasPendentes = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, novasPendentes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    novasPendentes.stream()
+                            .sorted(ORDEM_DE_TRAVA)
+                            .toList()
+                            .forEach(pendente -> recalcular(pendente.tenantId(), pendente.competencia()));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AgregadoMensalService.this);
+                }
+            });
+            pendentes = novasPendentes;
+        }
+        pendentes.add(new CompetenciaPendente(tenantId, competencia));
+    }
+
+    /**
+     * Refaz a linha da competencia. A linha e criada (ou tocada) e travada antes das somas, entao
+     * recalculos concorrentes da mesma competencia passam um de cada vez e cada um le o que os
+     * anteriores ja commitaram; o primeiro insert do mes nao esbarra mais na chave unica.
+     */
+    @Transactional
+    public AgregadoMensal recalcular(String tenantId, YearMonth competencia) {
+        agregadoMensalRepository.travarCompetencia(
+                tenantId, competencia.getYear(), competencia.getMonthValue(), LocalDateTime.now());
+        AgregadoMensal calculado = calcular(tenantId, competencia);
+        AgregadoMensal agregado = agregadoMensalRepository
+                .findByTenantIdAndAnoAndMes(tenantId, competencia.getYear(), competencia.getMonthValue())
+                .orElseThrow(() -> new IllegalStateException("Linha de agregado_mensal nao encontrada apos a trava"));
+
+        copiarTotais(calculado, agregado);
+        agregado.setAtualizadoEm(LocalDateTime.now());
+
+        AgregadoMensal salvo = agregadoMensalRepository.save(agregado);
+        log.debug(
+                "agregado_mensal.recalculado tenantId={} ano={} mes={} despesasDoMes={} receitasRealizadas={} totalFaturas={}",
+                tenantId,
+                competencia.getYear(),
+                competencia.getMonthValue(),
+                salvo.getDespesasDoMes(),
+                salvo.getReceitasRealizadas(),
+                salvo.getTotalFaturas()
+        );
+        return salvo;
+    }
+
+    @Transactional
+    public List<AgregadoMensalVerificacaoDTO> reconstruir(int ano) {
+        validarAno(ano);
+        String tenantId = TenantContext.getTenantId();
+        List<AgregadoMensalVerificacaoDTO> resultado = new ArrayList<>();
+        for (int mes = 1; mes <= 12; mes++) {
+            YearMonth competencia = YearMonth.of(ano, mes);
+            AgregadoMensal anterior = agregadoMensalRepository
+                    .findByTenantIdAndAnoAndMes(tenantId, ano, mes)
+                    .map(this::copiar)
+                    .orElse(null);
+            AgregadoMensal recalculado = recalcular(tenantId, competencia);
+            resultado.add(toVerificacaoDto(competencia, anterior, recalculado));
+        }
+        log.info("agregado_mensal.reconstruido tenantId={} ano={} divergentes={}",
+                tenantId,
+                ano,
+                resultado.stream().filter(AgregadoMensalVerificacaoDTO::getDivergente).count());
+        return resultado;
+    }
+
+    @Transactional(readOnly = true)
+    public List<AgregadoMensalVerificacaoDTO> verificar(int ano) {
+        validarAno(ano);
+        String tenantId = TenantContext.getTenantId();
+        List<AgregadoMensalVerificacaoDTO> resultado = new ArrayList<>();
+        for (int mes = 1; mes <= 12; mes++) {
+            YearMonth competencia = YearMonth.of(ano, mes);
+            AgregadoMensal armazenado = agregadoMensalRepository
+                    .findByTenantIdAndAnoAndMes(tenantId, ano, mes)
+                    .orElse(null);
+            resultado.add(toVerificacaoDto(competencia, armazenado, calcular(tenantId, competencia)));
+        }
+        return resultado;
+    }
+
+    private AgregadoMensal calcular(String tenantId, YearMonth competencia) {
+        LocalDate inicioMes = competencia.atDay(1);
+        LocalDate fimMes = competencia.atEndOfMonth();
+
+        Object[] despesas = primeiraLinha(despesaRepository.somarTotaisPorVencimento(tenantId, inicioMes, fimMes), 3);
+        BigDecimal despesasDoMes = toBigDecimal(despesas[0]);
+        BigDecimal despesasPagas = toBigDecimal(despesas[1]);
+        BigDecimal despesasPagasCartao = toBigDecimal(despesas[2]);
+
+        BigDecimal despesasFaturaCartao = despesaRepository
+                .findNomeEValorPrevistoDeFaturasPorVencimento(tenantId, inicioMes, fimMes)
+                .stream()
+                .filter(linha -> isNomeDeFaturaCartao((String) linha[0]))
+                .map(linha -> toBigDecimal(linha[1]))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal receitasRealizadas = toBigDecimal(
+                receitaRepository.somarRealizadasPorPeriodo(tenantId, inicioMes, fimMes)
+        );
+
+        Object[] faturas = primeiraLinha(
+                lancamentoCartaoRepository.somarTotaisDaFatura(CompetenciaFatura.paraInteiro(competencia), tenantId),
+                2
+        );
+
+        return AgregadoMensal.builder()
+                .tenantId(tenantId)
+                .ano(competencia.getYear())
+                .mes(competencia.getMonthValue())
+                .receitasRealizadas(receitasRealizadas)
+                .despesasDoMes(despesasDoMes)
+                .despesasPagas(despesasPagas)
+                .despesasPagasNoCaixa(despesasPagas.subtract(despesasPagasCartao))
+                .despesasPagasCartao(despesasPagasCartao)
+                .despesasFaturaCartao(despesasFaturaCartao)
+                .totalFaturas(toBigDecimal(faturas[0]))
+                .totalTerceirosFaturas(toBigDecimal(faturas[1]))
+                .build();
+    }
+
+    private AgregadoMensalVerificacaoDTO toVerificacaoDto(YearMonth competencia, AgregadoMensal armazenado, AgregadoMensal calculado) {
+        List<String> camposDivergentes = new ArrayList<>();
+        if (armazenado != null) {
+            comparar("receitasRealizadas", armazenado.getReceitasRealizadas(), calculado.getReceitasRealizadas(), camposDivergentes);
+            comparar("despesasDoMes", armazenado.getDespesasDoMes(), calculado.getDespesasDoMes(), camposDivergentes);
+            comparar("despesasPagas", armazenado.getDespesasPagas(), calculado.getDespesasPagas(), camposDivergentes);
+            comparar("despesasPagasNoCaixa", armazenado.getDespesasPagasNoCaixa(), calculado.getDespesasPagasNoCaixa(), camposDivergentes);
+            comparar("despesasPagasCartao", armazenado.getDespesasPagasCartao(), calculado.getDespesasPagasCartao(), camposDivergentes);
+            comparar("despesasFaturaCartao", armazenado.getDespesasFaturaCartao(), calculado.getDespesasFaturaCartao(), camposDivergentes);
+            comparar("totalFaturas", armazenado.getTotalFaturas(), calculado.getTotalFaturas(), camposDivergentes);
+            comparar("totalTerceirosFaturas", armazenado.getTotalTerceirosFaturas(), calculado.getTotalTerceirosFaturas(), camposDivergentes);
+        }
+
+        return AgregadoMensalVerificacaoDTO.builder()
+                .ano(competencia.getYear())
+                .mes(competencia.getMonthValue())
+                .existente(armazenado != null)
+                .divergente(!camposDivergentes.isEmpty())
+                .camposDivergentes(camposDivergentes)
+                .receitasRealizadas(calculado.getReceitasRealizadas())
+                .despesasDoMes(calculado.getDespesasDoMes())
+                .despesasPagas(calculado.getDespesasPagas())
+                .despesasPagasNoCaixa(calculado.getDespesasPagasNoCaixa())
+                .despesasPagasCartao(calculado.getDespesasPagasCartao())
+                .despesasFaturaCartao(calculado.getDespesasFaturaCartao())
+                .totalFaturas(calculado.getTotalFaturas())
+                .totalTerceirosFaturas(calculado.getTotalTerceirosFaturas())
+                .build();
+    }
+
+    private void comparar(String campo, BigDecimal armazenado, BigDecimal calculado, List<String> camposDivergentes) {
+        BigDecimal valorArmazenado = armazenado != null ? armazenado : BigDecimal.ZERO;
+        BigDecimal valorCalculado = calculado != null ? calculado : BigDecimal.ZERO;
+        if (valorArmazenado.compareTo(valorCalculado) != 0) {
+            camposDivergentes.add(campo);
+        }
+    }
+
+    private void copiarTotais(AgregadoMensal origem, AgregadoMensal destino) {
+        destino.setReceitasRealizadas(origem.getReceitasRealizadas());
+        destino.setDespesasDoMes(origem.getDespesasDoMes());
+        destino.setDespesasPagas(origem.getDespesasPagas());
+        destino.setDespesasPagasNoCaixa(origem.getDespesasPagasNoCaixa());
+        destino.setDespesasPagasCartao(origem.getDespesasPagasCartao());
+        destino.setDespesasFaturaCartao(origem.getDespesasFaturaCartao());
+        destino.setTotalFaturas(origem.getTotalFaturas());
+        destino.setTotalTerceirosFaturas(origem.getTotalTerceirosFaturas());
+    }
+
+    private AgregadoMensal copiar(AgregadoMensal origem) {
+        AgregadoMensal copia = new AgregadoMensal();
+        copiarTotais(origem, copia);
+        return copia;
+    }
+
+    private Object[] primeiraLinha(List<Object[]> linhas, int colunas) {
+        if (linhas == null || linhas.isEmpty() || linhas.get(0) == null) {
+            return new Object[colunas];
+        }
+        return linhas.get(0);
+    }
+
+    private BigDecimal toBigDecimal(Object valor) {
+        if (valor == null) {
+            return BigDecimal.ZERO;
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return new BigDecimal(valor.toString());
+    }
+
+    private boolean isNomeDeFaturaCartao(String nome) {
+        if (nome == null || nome.isBlank()) {
+            return false;
+        }
+        String normalizado = Normalizer.normalize(nome, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase(Locale.ROOT);
+        return normalizado.startsWith("FATURA CARTAO ");
+    }
+
+    private void validarAno(int ano) {
+        if (ano < 2000 || ano > 3000) {
+            throw new IllegalArgumentException("ano invalido");
+        }
+    }
+
+    private record CompetenciaPendente(String tenantId, YearMonth competencia) {
+        CompetenciaPendente {
+            Objects.requireNonNull(tenantId);
+            Objects.requireNonNull(competencia);
+        }
+    }
+}
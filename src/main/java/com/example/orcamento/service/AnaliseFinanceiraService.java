@@ -1,9 +1,9 @@
 package com.example.orcamento.service;
 
+import com.example.orcamento.dto.GastoMensalAgrupadoDTO;
 import com.example.orcamento.dto.GastoRecorrenteDTO;
 import com.example.orcamento.dto.PrevisaoGastoDTO;
 import com.example.orcamento.dto.SugestaoEconomiaDTO;
-import com.example.orcamento.model.Despesa;
 import com.example.orcamento.repository.DespesaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -26,44 +26,36 @@ public class AnaliseFinanceiraService {
         // Define o período de análise, com 6 meses como padrão
         LocalDate dataInicial = LocalDate.now().minusMonths(periodo != null ? periodo : 6);
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        List<Despesa> despesas = despesaRepository.findDespesasParaAnalise(tenantId, dataInicial);
-
-        // Filtra por categoria, se especificado
-        if (categoriaId != null) {
-            despesas = despesas.stream()
-                    .filter(d -> d.getSubcategoria() != null && d.getSubcategoria().getCategoria() != null &&
-                            categoriaId.equals(d.getSubcategoria().getCategoria().getId()))
-                    .collect(Collectors.toList());
-        }
+        List<GastoMensalAgrupadoDTO> agregados = despesaRepository.agruparPorNomeSubcategoriaEMes(tenantId, dataInicial, null, categoriaId);
 
-        // Agrupa por nome e subcategoria
-        Map<String, List<Despesa>> despesasAgrupadas = despesas.stream()
-                .collect(Collectors.groupingBy(d -> d.getNome() + "#" + (d.getSubcategoria() != null ? d.getSubcategoria().getNome() : "SEM_SUBCATEGORIA")));
+        // Agrupa por nome e subcategoria; cada linha ja traz o total e a quantidade do mes
+        Map<List<String>, List<GastoMensalAgrupadoDTO>> despesasAgrupadas = agregados.stream()
+                .collect(Collectors.groupingBy(m -> Arrays.asList(m.nome(), nomeSubcategoria(m)),
+                        LinkedHashMap::new, Collectors.toList()));
 
         List<GastoRecorrenteDTO> gastosRecorrentes = new ArrayList<>();
 
-        despesasAgrupadas.forEach((key, lista) -> {
-            if (lista.size() >= 3) { // Considera recorrente se aparecer em pelo menos 3 meses
-                String[] partes = key.split("#");
-                String nome = partes[0];
-                String categoria = partes[1];
+        despesasAgrupadas.forEach((chave, lista) -> {
+            long quantidade = lista.stream().mapToLong(GastoMensalAgrupadoDTO::quantidade).sum();
+            if (quantidade >= 3) { // Considera recorrente se aparecer em pelo menos 3 meses
+                lista.sort(Comparator.comparing(GastoMensalAgrupadoDTO::competencia).reversed());
 
                 // Calcula média e frequência
                 BigDecimal valorMedio = lista.stream()
-                        .map(Despesa::getValorPrevisto)
+                        .map(GastoMensalAgrupadoDTO::total)
                         .reduce(BigDecimal.ZERO, BigDecimal::add)
-                        .divide(BigDecimal.valueOf(lista.size()), 2, RoundingMode.HALF_UP);
+                        .divide(BigDecimal.valueOf(quantidade), 2, RoundingMode.HALF_UP);
 
                 List<BigDecimal> valores = lista.stream()
-                        .map(Despesa::getValorPrevisto)
+                        .map(GastoMensalAgrupadoDTO::total)
                         .collect(Collectors.toList());
 
-                String frequencia = determinarFrequencia(lista);
+                String frequencia = determinarFrequencia(lista, quantidade);
 
                 GastoRecorrenteDTO dto = new GastoRecorrenteDTO();
-                dto.setId(lista.get(0).getId());
-                dto.setNome(nome);
-                dto.setCategoria(categoria);
+                dto.setId(lista.get(0).ultimoId());
+                dto.setNome(chave.get(0));
+                dto.setCategoria(chave.get(1));
                 dto.setValorMedio(valorMedio);
                 dto.setValores(valores);
                 dto.setFrequencia(frequencia);
@@ -83,35 +75,23 @@ public class AnaliseFinanceiraService {
         LocalDate dataInicial = LocalDate.now().minusMonths(periodo != null ? periodo : 3);
         LocalDate dataFinal = LocalDate.now();
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        List<Despesa> despesas = despesaRepository.findByDataVencimentoBetween(tenantId, dataInicial, dataFinal);
-
-        // Filtra por categoria, se especificado
-        if (categoriaId != null) {
-            despesas = despesas.stream()
-                    .filter(d -> d.getSubcategoria() != null && d.getSubcategoria().getCategoria() != null &&
-                            categoriaId.equals(d.getSubcategoria().getCategoria().getId()))
-                    .collect(Collectors.toList());
-        }
+        List<GastoMensalAgrupadoDTO> agregados = despesaRepository.agruparPorNomeSubcategoriaEMes(tenantId, dataInicial, dataFinal, categoriaId);
 
-        Map<String, List<Despesa>> despesasPorCategoria = despesas.stream()
-                .collect(Collectors.groupingBy(d -> d.getSubcategoria() != null ? d.getSubcategoria().getNome() : "SEM_SUBCATEGORIA"));
+        Map<String, List<GastoMensalAgrupadoDTO>> despesasPorCategoria = agregados.stream()
+                .collect(Collectors.groupingBy(this::nomeSubcategoria, LinkedHashMap::new, Collectors.toList()));
 
         // Calcula total geral para referência
-        BigDecimal totalGeral = despesas.stream()
-                .map(Despesa::getValorPrevisto)
+        BigDecimal totalGeral = agregados.stream()
+                .map(GastoMensalAgrupadoDTO::total)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         despesasPorCategoria.forEach((categoria, lista) -> {
             BigDecimal totalCategoria = lista.stream()
-                    .map(Despesa::getValorPrevisto)
+                    .map(GastoMensalAgrupadoDTO::total)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
 
             // Calcula variação percentual mensal
-            Map<YearMonth, BigDecimal> totalPorMes = lista.stream()
-                    .collect(Collectors.groupingBy(
-                            d -> YearMonth.from(d.getDataVencimento()),
-                            Collectors.reducing(BigDecimal.ZERO, Despesa::getValorPrevisto, BigDecimal::add)
-                    ));
+            Map<YearMonth, BigDecimal> totalPorMes = totalPorMes(lista);
 
             if (totalPorMes.size() >= 2) {
                 List<YearMonth> meses = new ArrayList<>(totalPorMes.keySet());
@@ -168,7 +148,8 @@ public class AnaliseFinanceiraService {
                 }
 
                 // 3. Se há muitas transações na categoria (mais de 5 por mês)
-                double transacoesPorMes = (double) lista.size() / totalPorMes.size();
+                long transacoes = lista.stream().mapToLong(GastoMensalAgrupadoDTO::quantidade).sum();
+                double transacoesPorMes = (double) transacoes / totalPorMes.size();
                 if (transacoesPorMes > 5) {
                     SugestaoEconomiaDTO sugestao = new SugestaoEconomiaDTO();
                     sugestao.setId(idCounter.getAndIncrement());
@@ -214,37 +195,22 @@ public class AnaliseFinanceiraService {
         LocalDate dataInicial = LocalDate.now().minusMonths(periodo != null ? periodo : 3);
         LocalDate dataFinal = LocalDate.now();
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        List<Despesa> despesas = despesaRepository.findByDataVencimentoBetween(tenantId, dataInicial, dataFinal);
-
-        // Filtra por categoria, se especificado
-        if (categoriaId != null) {
-            despesas = despesas.stream()
-                    .filter(d -> d.getSubcategoria() != null && d.getSubcategoria().getCategoria() != null &&
-                            categoriaId.equals(d.getSubcategoria().getCategoria().getId()))
-                    .collect(Collectors.toList());
-        }
+        List<GastoMensalAgrupadoDTO> agregados = despesaRepository.agruparPorNomeSubcategoriaEMes(tenantId, dataInicial, dataFinal, categoriaId);
 
-        Map<String, List<Despesa>> despesasPorCategoria = despesas.stream()
-                .collect(Collectors.groupingBy(d -> d.getSubcategoria() != null ? d.getSubcategoria().getNome() : "SEM_SUBCATEGORIA"));
+        Map<String, List<GastoMensalAgrupadoDTO>> despesasPorCategoria = agregados.stream()
+                .collect(Collectors.groupingBy(this::nomeSubcategoria, LinkedHashMap::new, Collectors.toList()));
 
         despesasPorCategoria.forEach((categoria, lista) -> {
-            Map<YearMonth, BigDecimal> totalPorMes = lista.stream()
-                    .collect(Collectors.groupingBy(
-                            d -> YearMonth.from(d.getDataVencimento()),
-                            Collectors.reducing(BigDecimal.ZERO, Despesa::getValorPrevisto, BigDecimal::add)
-                    ));
+            TreeMap<YearMonth, BigDecimal> totalPorMes = totalPorMes(lista);
 
             if (totalPorMes.size() >= 2) {
-                List<YearMonth> meses = new ArrayList<>(totalPorMes.keySet());
-                Collections.sort(meses);
-
-                // Calcula tendência linear simples
+                // Calcula tendência linear simples, na ordem cronológica dos meses
                 double[] valores = totalPorMes.values().stream()
                         .mapToDouble(BigDecimal::doubleValue)
                         .toArray();
 
                 double tendencia = calcularTendencia(valores);
-                BigDecimal ultimoValor = totalPorMes.get(meses.get(meses.size() - 1));
+                BigDecimal ultimoValor = totalPorMes.lastEntry().getValue();
 
                 PrevisaoGastoDTO previsao = new PrevisaoGastoDTO();
                 previsao.setCategoria(categoria);
@@ -268,21 +234,25 @@ public class AnaliseFinanceiraService {
         return previsoes;
     }
 
-    private String determinarFrequencia(List<Despesa> despesas) {
-        // Ordena por data
-        List<Despesa> ordenadas = new ArrayList<>(despesas);
-        ordenadas.sort(Comparator.comparing(Despesa::getDataVencimento));
+    private String nomeSubcategoria(GastoMensalAgrupadoDTO mes) {
+        return mes.subcategoria() != null ? mes.subcategoria() : "SEM_SUBCATEGORIA";
+    }
 
-        // Calcula intervalo médio entre despesas
-        if (ordenadas.size() < 2) return "UNKNOWN";
+    private TreeMap<YearMonth, BigDecimal> totalPorMes(List<GastoMensalAgrupadoDTO> meses) {
+        return meses.stream()
+                .collect(Collectors.toMap(GastoMensalAgrupadoDTO::competencia, GastoMensalAgrupadoDTO::total,
+                        BigDecimal::add, TreeMap::new));
+    }
 
-        long totalDias = 0;
-        for (int i = 1; i < ordenadas.size(); i++) {
-            totalDias += ordenadas.get(i).getDataVencimento()
-                    .toEpochDay() - ordenadas.get(i - 1).getDataVencimento().toEpochDay();
-        }
+    private String determinarFrequencia(List<GastoMensalAgrupadoDTO> meses, long quantidade) {
+        if (quantidade < 2) return "UNKNOWN";
 
-        long mediaIntervaloDias = totalDias / (ordenadas.size() - 1);
+        // A soma dos intervalos entre despesas consecutivas e a distancia entre a primeira e a ultima
+        LocalDate primeira = meses.stream().map(GastoMensalAgrupadoDTO::primeiroVencimento)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate ultima = meses.stream().map(GastoMensalAgrupadoDTO::ultimoVencimento)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        long mediaIntervaloDias = (ultima.toEpochDay() - primeira.toEpochDay()) / (quantidade - 1);
 
         // Determina frequência baseada no intervalo médio
         if (mediaIntervaloDias <= 35) return "MONTHLY";
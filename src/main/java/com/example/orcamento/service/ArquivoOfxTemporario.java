@@ -0,0 +1,88 @@
+package com.example.orcamento.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Copia em disco de um upload OFX para os jobs de conciliacao: o {@link MultipartFile} original e
+ * descartado quando a requisicao termina, antes de o job ser executado.
+ */
+final class ArquivoOfxTemporario implements MultipartFile {
+
+    private final String originalFilename;
+    private final String contentType;
+    private final Path caminho;
+    private final long tamanho;
+
+    private ArquivoOfxTemporario(String originalFilename, String contentType, Path caminho, long tamanho) {
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.caminho = caminho;
+        this.tamanho = tamanho;
+    }
+
+    static ArquivoOfxTemporario copiar(MultipartFile file) throws IOException {
+        Path caminho = Files.createTempFile("conciliacao-ofx-", ".ofx");
+        try (InputStream entrada = file.getInputStream()) {
+            long tamanho = Files.copy(entrada, caminho, StandardCopyOption.REPLACE_EXISTING);
+            return new ArquivoOfxTemporario(file.getOriginalFilename(), file.getContentType(), caminho, tamanho);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(caminho);
+            throw e;
+        }
+    }
+
+    void excluir() {
+        try {
+            Files.deleteIfExists(caminho);
+        } catch (IOException e) {
+            caminho.toFile().deleteOnExit();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return tamanho;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(caminho);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(caminho);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(caminho, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
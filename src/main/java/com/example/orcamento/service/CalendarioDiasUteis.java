@@ -0,0 +1,199 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.config.CalendarioProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calendario de dias uteis: segunda a sexta, exceto feriados nacionais (fixos e moveis, a partir da Pascoa)
+ * e os feriados regionais configurados em {@code app.calendario.feriados-regionais}. Cada ano e calculado
+ * uma unica vez, na primeira consulta, num mapa de bits dos dias uteis acompanhado do ultimo dia util e da
+ * contagem acumulada ate cada dia; a partir dai as consultas so leem esses arrays.
+ */
+@Component
+public class CalendarioDiasUteis {
+
+    private static final Set<MonthDay> FERIADOS_NACIONAIS_FIXOS = Set.of(
+            MonthDay.of(1, 1),
+            MonthDay.of(4, 21),
+            MonthDay.of(5, 1),
+            MonthDay.of(9, 7),
+            MonthDay.of(10, 12),
+            MonthDay.of(11, 2),
+            MonthDay.of(11, 15),
+            MonthDay.of(11, 20),
+            MonthDay.of(12, 25)
+    );
+
+    private final Set<MonthDay> feriadosRegionaisFixos = new HashSet<>();
+    private final Set<LocalDate> feriadosRegionaisDatados = new HashSet<>();
+    private final Map<Integer, Ano> anos = new ConcurrentHashMap<>();
+
+    public CalendarioDiasUteis(CalendarioProperties calendarioProperties) {
+        for (String feriado : calendarioProperties.getFeriadosRegionais()) {
+            String valor = feriado.trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            try {
+                if (valor.length() == 5) {
+                    feriadosRegionaisFixos.add(MonthDay.parse("--" + valor));
+                } else {
+                    feriadosRegionaisDatados.add(LocalDate.parse(valor));
+                }
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Feriado regional invalido em app.calendario.feriados-regionais: " + feriado, e);
+            }
+        }
+    }
+
+    public boolean isDiaUtil(LocalDate data) {
+        return ano(data.getYear()).diasUteis.get(data.getDayOfYear());
+    }
+
+    public boolean isFeriado(LocalDate data) {
+        return ano(data.getYear()).feriados.get(data.getDayOfYear());
+    }
+
+    /** Ultimo dia util estritamente anterior a data. */
+    public LocalDate diaUtilAnterior(LocalDate data) {
+        return ultimoDiaUtilAte(data.minusDays(1));
+    }
+
+    /** Ultimo dia util do mes; num mes sem dia util seria o ultimo dia util antes dele. */
+    public LocalDate ultimoDiaUtilDoMes(YearMonth competencia) {
+        return ultimoDiaUtilAte(competencia.atEndOfMonth());
+    }
+
+    /** Quantidade de dias uteis entre as datas, ambas inclusive. */
+    public int diasUteisEntre(LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            return 0;
+        }
+        if (inicio.getYear() == fim.getYear()) {
+            Ano ano = ano(inicio.getYear());
+            return ano.diasUteisAte[fim.getDayOfYear()] - ano.diasUteisAte[inicio.getDayOfYear() - 1];
+        }
+        Ano primeiro = ano(inicio.getYear());
+        int total = primeiro.total() - primeiro.diasUteisAte[inicio.getDayOfYear() - 1];
+        for (int ano = inicio.getYear() + 1; ano < fim.getYear(); ano++) {
+            total += ano(ano).total();
+        }
+        return total + ano(fim.getYear()).diasUteisAte[fim.getDayOfYear()];
+    }
+
+    /** Dias uteis entre as datas, ambas inclusive, em ordem crescente. */
+    public List<LocalDate> diasUteis(LocalDate inicio, LocalDate fim) {
+        List<LocalDate> dias = new ArrayList<>(Math.max(diasUteisEntre(inicio, fim), 0));
+        for (int numeroAno = inicio.getYear(); numeroAno <= fim.getYear(); numeroAno++) {
+            Ano ano = ano(numeroAno);
+            int primeiroDia = numeroAno == inicio.getYear() ? inicio.getDayOfYear() : 1;
+            int ultimoDia = numeroAno == fim.getYear() ? fim.getDayOfYear() : ano.dias();
+            for (int dia = ano.diasUteis.nextSetBit(primeiroDia); dia >= 0 && dia <= ultimoDia; dia = ano.diasUteis.nextSetBit(dia + 1)) {
+                dias.add(LocalDate.ofYearDay(numeroAno, dia));
+            }
+        }
+        return dias;
+    }
+
+    private LocalDate ultimoDiaUtilAte(LocalDate data) {
+        int numeroAno = data.getYear();
+        int dia = data.getDayOfYear();
+        while (true) {
+            int diaUtil = ano(numeroAno).ultimoDiaUtilAte[dia];
+            if (diaUtil > 0) {
+                return LocalDate.ofYearDay(numeroAno, diaUtil);
+            }
+            numeroAno--;
+            dia = Year.of(numeroAno).length();
+        }
+    }
+
+    private Ano ano(int numeroAno) {
+        return anos.computeIfAbsent(numeroAno, this::calcularAno);
+    }
+
+    private Ano calcularAno(int numeroAno) {
+        int dias = Year.of(numeroAno).length();
+        BitSet feriados = new BitSet(dias + 1);
+        BitSet diasUteis = new BitSet(dias + 1);
+        int[] ultimoDiaUtilAte = new int[dias + 1];
+        int[] diasUteisAte = new int[dias + 1];
+
+        LocalDate pascoa = calcularPascoa(numeroAno);
+        List<LocalDate> feriadosMoveis = List.of(
+                pascoa.minusDays(48),
+                pascoa.minusDays(47),
+                pascoa.minusDays(2),
+                pascoa,
+                pascoa.plusDays(60)
+        );
+        for (LocalDate feriado : feriadosMoveis) {
+            feriados.set(feriado.getDayOfYear());
+        }
+        for (LocalDate feriado : feriadosRegionaisDatados) {
+            if (feriado.getYear() == numeroAno) {
+                feriados.set(feriado.getDayOfYear());
+            }
+        }
+
+        LocalDate data = LocalDate.ofYearDay(numeroAno, 1);
+        for (int dia = 1; dia <= dias; dia++, data = data.plusDays(1)) {
+            MonthDay mesDia = MonthDay.from(data);
+            if (FERIADOS_NACIONAIS_FIXOS.contains(mesDia) || feriadosRegionaisFixos.contains(mesDia)) {
+                feriados.set(dia);
+            }
+            DayOfWeek dayOfWeek = data.getDayOfWeek();
+            boolean util = dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !feriados.get(dia);
+            if (util) {
+                diasUteis.set(dia);
+            }
+            ultimoDiaUtilAte[dia] = util ? dia : ultimoDiaUtilAte[dia - 1];
+            diasUteisAte[dia] = diasUteisAte[dia - 1] + (util ? 1 : 0);
+        }
+        return new Ano(feriados, diasUteis, ultimoDiaUtilAte, diasUteisAte);
+    }
+
+    private static LocalDate calcularPascoa(int ano) {
+        int a = ano % 19;
+        int b = ano / 100;
+        int c = ano % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int mes = (h + l - 7 * m + 114) / 31;
+        int dia = ((h + l - 7 * m + 114) % 31) + 1;
+        return LocalDate.of(ano, mes, dia);
+    }
+
+    // Arrays indexados pelo dia do ano (1..365/366); a posicao 0 representa "antes de 1 de janeiro"
+    private record Ano(BitSet feriados, BitSet diasUteis, int[] ultimoDiaUtilAte, int[] diasUteisAte) {
+
+        int dias() {
+            return diasUteisAte.length - 1;
+        }
+
+        int total() {
+            return diasUteisAte[dias()];
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.GeracaoFaturaCartao;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fotografia dos dados de cartao de uma competencia: cartoes do tenant, totais de fatura,
+ * geracoes e faturas ja lancadas como despesa. Montada uma vez por transacao em
+ * {@link CompetenciaSnapshotService} e compartilhada pelo dashboard e pelo fechamento mensal.
+ */
+public class CompetenciaSnapshot {
+
+    private final YearMonth competencia;
+    private final List<CartaoCredito> cartoes;
+    private final Map<Long, BigDecimal> valorFaturaPorCartao;
+    private final Map<Long, BigDecimal> valorTerceirosPorCartao;
+    private final Map<Long, GeracaoFaturaCartao> geracaoPorCartao;
+    private final Set<Long> cartoesComFaturaLancadaComoDespesa;
+
+    public CompetenciaSnapshot(
+            YearMonth competencia,
+            List<CartaoCredito> cartoes,
+            Map<Long, BigDecimal> valorFaturaPorCartao,
+            Map<Long, BigDecimal> valorTerceirosPorCartao,
+            Map<Long, GeracaoFaturaCartao> geracaoPorCartao,
+            Set<Long> cartoesComFaturaLancadaComoDespesa
+    ) {
+        this.competencia = competencia;
+        this.cartoes = List.copyOf(cartoes);
+        this.valorFaturaPorCartao = Map.copyOf(valorFaturaPorCartao);
+        this.valorTerceirosPorCartao = Map.copyOf(valorTerceirosPorCartao);
+        this.geracaoPorCartao = Map.copyOf(geracaoPorCartao);
+        this.cartoesComFaturaLancadaComoDespesa = Set.copyOf(cartoesComFaturaLancadaComoDespesa);
+    }
+
+    public YearMonth getCompetencia() {
+        return competencia;
+    }
+
+    public List<CartaoCredito> getCartoes() {
+        return cartoes;
+    }
+
+    public BigDecimal valorFatura(Long cartaoId) {
+        return valorFaturaPorCartao.getOrDefault(cartaoId, BigDecimal.ZERO);
+    }
+
+    public BigDecimal valorTerceiros(Long cartaoId) {
+        return valorTerceirosPorCartao.getOrDefault(cartaoId, BigDecimal.ZERO);
+    }
+
+    public BigDecimal valorProprio(Long cartaoId) {
+        return valorFatura(cartaoId).subtract(valorTerceiros(cartaoId)).max(BigDecimal.ZERO);
+    }
+
+    public GeracaoFaturaCartao geracao(Long cartaoId) {
+        return geracaoPorCartao.get(cartaoId);
+    }
+
+    /**
+     * Criterio legado do fechamento mensal: existe despesa "Fatura Cartao &lt;nome&gt;" vencendo no mes.
+     */
+    public boolean isFaturaLancadaComoDespesa(Long cartaoId) {
+        return cartoesComFaturaLancadaComoDespesa.contains(cartaoId);
+    }
+
+    /**
+     * Criterio do dashboard: a fatura foi gerada pelo fluxo de geracao ou lancada manualmente como despesa.
+     */
+    public boolean isFaturaLancada(Long cartaoId) {
+        return geracaoPorCartao.containsKey(cartaoId) || isFaturaLancadaComoDespesa(cartaoId);
+    }
+}
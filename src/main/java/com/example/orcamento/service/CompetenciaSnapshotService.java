@@ -0,0 +1,109 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.GeracaoFaturaCartao;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.GeracaoFaturaCartaoRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.util.CompetenciaFatura;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Carrega a {@link CompetenciaSnapshot} com um numero fixo de consultas, independente da quantidade
+ * de cartoes. Dentro de uma transacao a snapshot fica memorizada por tenant/competencia, de forma que
+ * o dashboard e o resumo mensal chamados na mesma requisicao reutilizam os mesmos dados.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompetenciaSnapshotService {
+
+    private final CartaoCreditoRepository cartaoCreditoRepository;
+    private final LancamentoCartaoRepository lancamentoCartaoRepository;
+    private final GeracaoFaturaCartaoRepository geracaoFaturaCartaoRepository;
+    private final DespesaService despesaService;
+
+    public CompetenciaSnapshot obter(String tenantId, YearMonth competencia) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return carregar(tenantId, competencia);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, CompetenciaSnapshot> snapshots = (Map<String, CompetenciaSnapshot>) TransactionSynchronizationManager.getResource(this);
+        if (snapshots == null) {
+            snapshots = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, snapshots);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CompetenciaSnapshotService.this);
+                }
+            });
+        }
+        return snapshots.computeIfAbsent(tenantId + "|" + competencia, chave -> carregar(tenantId, competencia));
+    }
+
+    private CompetenciaSnapshot carregar(String tenantId, YearMonth competencia) {
+        List<CartaoCredito> cartoes = cartaoCreditoRepository.findByTenantId(tenantId);
+        if (cartoes.isEmpty()) {
+            return new CompetenciaSnapshot(competencia, cartoes, Map.of(), Map.of(), Map.of(), Set.of());
+        }
+
+        int competenciaFatura = CompetenciaFatura.paraInteiro(competencia);
+        Map<Long, BigDecimal> valorFaturaPorCartao = new HashMap<>();
+        Map<Long, BigDecimal> valorTerceirosPorCartao = new HashMap<>();
+        for (Object[] linha : lancamentoCartaoRepository.somarFaturasPorCartaoECompetencia(tenantId, competenciaFatura, competenciaFatura)) {
+            Long cartaoId = (Long) linha[0];
+            valorFaturaPorCartao.put(cartaoId, (BigDecimal) linha[2]);
+            valorTerceirosPorCartao.put(cartaoId, (BigDecimal) linha[3]);
+        }
+
+        Map<Long, GeracaoFaturaCartao> geracaoPorCartao = new HashMap<>();
+        geracaoFaturaCartaoRepository
+                .findByTenantIdAndAnoAndMesOrderByGeradoEmDesc(tenantId, competencia.getYear(), competencia.getMonthValue())
+                .stream()
+                .filter(geracao -> geracao.getCartaoCredito() != null)
+                .forEach(geracao -> geracaoPorCartao.putIfAbsent(geracao.getCartaoCredito().getId(), geracao));
+
+        Set<String> chavesLancadas = despesaService.buscarChavesFaturasLancadasLegacy(
+                cartoes,
+                competencia.atDay(1),
+                competencia.plusMonths(1).atDay(1)
+        );
+        Set<Long> cartoesComFaturaLancada = new HashSet<>();
+        for (CartaoCredito cartao : cartoes) {
+            if (chavesLancadas.contains(GeracaoFaturaCartaoService.chave(cartao.getId(), competencia.getMonthValue()))) {
+                cartoesComFaturaLancada.add(cartao.getId());
+            }
+        }
+
+        log.debug(
+                "competencia_snapshot.carregada tenantId={} competencia={} cartoes={} geracoes={} faturasLancadas={}",
+                tenantId,
+                competencia,
+                cartoes.size(),
+                geracaoPorCartao.size(),
+                cartoesComFaturaLancada.size()
+        );
+        return new CompetenciaSnapshot(
+                competencia,
+                cartoes,
+                valorFaturaPorCartao,
+                valorTerceirosPorCartao,
+                geracaoPorCartao,
+                cartoesComFaturaLancada
+        );
+    }
+}
@@ -10,6 +10,7 @@ import com.example.orcamento.repository.CompraRepository;
 import com.example.orcamento.repository.LancamentoCartaoRepository;
 import com.example.orcamento.repository.PessoaRepository;
 import com.example.orcamento.repository.SubcategoriaDespesaRepository;
+import com.example.orcamento.util.CompetenciaFatura;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,7 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -32,6 +34,8 @@ public class CompraService {
     private final SubcategoriaDespesaRepository subcategoriaDespesaRepository;
     private final CartaoCreditoRepository cartaoCreditoRepository;
     private final PessoaRepository pessoaRepository;
+    private final AgregadoMensalService agregadoMensalService;
+    private final AgregadoCartaoMensalService agregadoCartaoMensalService;
 
     @Transactional
     public Compra cadastrarCompraParcelada(Compra compra, String mesPrimeiraParcela, Integer numeroParcelas) {
@@ -57,6 +61,8 @@ public class CompraService {
         List<LancamentoCartao> parcelas = gerarParcelas(compraSalva, mesPrimeiraParcela, numeroParcelas);
         parcelas.forEach(parcela -> parcela.setCompra(compraSalva));
         lancamentoCartaoRepository.saveAll(parcelas);
+        parcelas.forEach(agregadoMensalService::registrarAlteracao);
+        parcelas.forEach(agregadoCartaoMensalService::registrarAlteracao);
 
         log.info(
                 "compra.criada compraId={} tenantId={} cartaoCreditoId={} subcategoriaId={} valorTotal={} numeroParcelas={}",
@@ -72,20 +78,8 @@ public class CompraService {
     }
 
     private List<LancamentoCartao> gerarParcelas(Compra compra, String mesPrimeiraParcela, Integer numeroParcelas) {
-        List<LancamentoCartao> parcelas = new ArrayList<>();
-        String[] meses = {
-                "JANEIRO", "FEVEREIRO", "MARCO", "ABRIL", "MAIO", "JUNHO",
-                "JULHO", "AGOSTO", "SETEMBRO", "OUTUBRO", "NOVEMBRO", "DEZEMBRO"
-        };
-
-        int indiceMesInicial = -1;
-        for (int i = 0; i < meses.length; i++) {
-            if (meses[i].equals(mesPrimeiraParcela)) {
-                indiceMesInicial = i;
-                break;
-            }
-        }
-        if (indiceMesInicial == -1) {
+        Integer mesInicial = CompetenciaFatura.numeroDoMes(mesPrimeiraParcela);
+        if (mesInicial == null) {
             throw new IllegalArgumentException("Mes da primeira parcela invalido: " + mesPrimeiraParcela);
         }
 
@@ -93,17 +87,15 @@ public class CompraService {
         BigDecimal valorTotal = compra.getValorTotal();
         BigDecimal valorParcela = valorTotal.divide(BigDecimal.valueOf(numeroParcelas), 2, BigDecimal.ROUND_HALF_UP);
 
-        int mesCompraIndex = compra.getDataCompra().getMonthValue() - 1;
-        int anoPrimeiraParcela = compra.getDataCompra().getYear();
-        if (indiceMesInicial < mesCompraIndex) {
-            anoPrimeiraParcela++;
+        // Primeira fatura no mes informado, no ano da compra ou no seguinte se o mes ja passou
+        YearMonth primeiraFatura = YearMonth.of(compra.getDataCompra().getYear(), mesInicial);
+        if (mesInicial < compra.getDataCompra().getMonthValue()) {
+            primeiraFatura = primeiraFatura.plusYears(1);
         }
 
+        List<LancamentoCartao> parcelas = new ArrayList<>(numeroParcelas);
         for (int i = 0; i < numeroParcelas; i++) {
-            int offsetMeses = indiceMesInicial + i;
-            int mesFaturaIndex = offsetMeses % 12;
-            int anoFatura = anoPrimeiraParcela + (offsetMeses / 12);
-            String mesAnoFatura = meses[mesFaturaIndex] + "/" + anoFatura;
+            YearMonth competenciaFatura = primeiraFatura.plusMonths(i);
 
             LancamentoCartao lancamento = LancamentoCartao.builder()
                     .descricao(compra.getDescricao() + " - Parcela " + (i + 1) + "/" + numeroParcelas)
@@ -115,7 +107,8 @@ public class CompraService {
                     .subcategoria(compra.getSubcategoria())
                     .proprietario(compra.getProprietario())
                     .detalhes(compra.getDetalhes())
-                    .mesAnoFatura(mesAnoFatura)
+                    .mesAnoFatura(CompetenciaFatura.formatar(competenciaFatura))
+                    .competencia(CompetenciaFatura.paraInteiro(competenciaFatura))
                     .dataRegistro(LocalDateTime.now())
                     .classificacao(compra.getClassificacao())
                     .variabilidade(compra.getVariabilidade())
@@ -192,10 +185,13 @@ public class CompraService {
 
         validarTerceiros(compra, tenantId);
 
+        registrarAlteracaoParcelasExistentes(id, tenantId);
         lancamentoCartaoRepository.deleteByCompraIdAndTenantId(id, tenantId);
         List<LancamentoCartao> novasParcelas = gerarParcelas(compra, mesPrimeiraParcela, numeroParcelas);
         novasParcelas.forEach(parcela -> parcela.setCompra(compra));
         lancamentoCartaoRepository.saveAll(novasParcelas);
+        novasParcelas.forEach(agregadoMensalService::registrarAlteracao);
+        novasParcelas.forEach(agregadoCartaoMensalService::registrarAlteracao);
         Compra compraSalva = compraRepository.save(compra);
         log.info(
                 "compra.atualizada compraId={} tenantId={} cartaoCreditoId={} subcategoriaId={} valorTotal={} numeroParcelas={}",
@@ -217,11 +213,20 @@ public class CompraService {
         if (compra == null) {
             throw new IllegalArgumentException("Compra nao encontrada ou nao pertence ao tenant atual.");
         }
+        registrarAlteracaoParcelasExistentes(id, tenantId);
         lancamentoCartaoRepository.deleteByCompraIdAndTenantId(id, tenantId);
         compraRepository.delete(compra);
         log.info("compra.excluida compraId={} tenantId={}", id, tenantId);
     }
 
+    private void registrarAlteracaoParcelasExistentes(Long compraId, String tenantId) {
+        lancamentoCartaoRepository.findMesesAnoFaturaByCompraIdAndTenantId(compraId, tenantId)
+                .forEach(mesAnoFatura -> {
+                    agregadoMensalService.registrarAlteracaoFatura(tenantId, mesAnoFatura);
+                    agregadoCartaoMensalService.registrarAlteracaoFatura(tenantId, mesAnoFatura);
+                });
+    }
+
     private SubcategoriaDespesa buscarSubcategoriaPorId(Long id, String tenantId) {
         return subcategoriaDespesaRepository.findByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> new IllegalArgumentException("Subcategoria nao encontrada: " + id));
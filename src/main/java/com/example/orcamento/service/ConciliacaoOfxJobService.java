@@ -0,0 +1,290 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.conciliacao.ConciliacaoOfxJobDTO;
+import com.example.orcamento.dto.conciliacao.ConciliacaoOfxRelatorioDTO;
+import com.example.orcamento.dto.conciliacao.EtapaConciliacaoOfx;
+import com.example.orcamento.dto.conciliacao.StatusConciliacaoOfxJob;
+import com.example.orcamento.security.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa conciliacoes OFX fora da thread da requisicao. O envio devolve o id do job imediatamente;
+ * o andamento pode ser consultado por polling ou acompanhado por SSE. Os jobs ficam apenas em memoria
+ * (o resultado duravel e o processamento salvo por {@link ConciliacaoOfxService}) e sao descartados
+ * depois do periodo de retencao.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConciliacaoOfxJobService {
+
+    private final ConciliacaoOfxService conciliacaoOfxService;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @Value("${app.conciliacao-ofx.jobs.threads:2}")
+    private int threads = 2;
+
+    @Value("${app.conciliacao-ofx.jobs.capacidade-fila:20}")
+    private int capacidadeFila = 20;
+
+    @Value("${app.conciliacao-ofx.jobs.retencao:1h}")
+    private Duration retencao = Duration.ofHours(1);
+
+    @Value("${app.conciliacao-ofx.jobs.timeout-eventos:10m}")
+    private Duration timeoutEventos = Duration.ofMinutes(10);
+
+    @PostConstruct
+    void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "conciliacao-ofx-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public ConciliacaoOfxJobDTO submeter(
+            Long contaCorrenteId,
+            Integer toleranciaDias,
+            BigDecimal toleranciaValor,
+            BigDecimal toleranciaValorMinimo,
+            boolean reprocessar,
+            MultipartFile file
+    ) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo OFX e obrigatorio");
+        }
+        removerJobsExpirados();
+
+        String tenantId = TenantContext.getTenantId();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        ArquivoOfxTemporario arquivo;
+        try {
+            arquivo = ArquivoOfxTemporario.copiar(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Erro ao ler arquivo OFX", e);
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), tenantId, contaCorrenteId, arquivo.getOriginalFilename());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> executar(job, authentication, arquivo,
+                    toleranciaDias, toleranciaValor, toleranciaValorMinimo, reprocessar));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            arquivo.excluir();
+            log.warn("conciliacao_ofx.job_rejeitado tenantId={} contaCorrenteId={} fila={}", tenantId, contaCorrenteId, capacidadeFila);
+            throw new RejectedExecutionException("Fila de conciliacao OFX cheia, tente novamente em instantes", e);
+        }
+
+        log.info("conciliacao_ofx.job_submetido tenantId={} jobId={} contaCorrenteId={} tamanhoArquivo={}",
+                tenantId, job.id, contaCorrenteId, arquivo.getSize());
+        return job.snapshot();
+    }
+
+    public ConciliacaoOfxJobDTO buscar(String jobId) {
+        removerJobsExpirados();
+        return buscarDoTenant(jobId).snapshot();
+    }
+
+    public SseEmitter acompanhar(String jobId) {
+        Job job = buscarDoTenant(jobId);
+        SseEmitter emitter = new SseEmitter(timeoutEventos.toMillis());
+        emitter.onCompletion(() -> job.ouvintes.remove(emitter));
+        emitter.onTimeout(() -> job.ouvintes.remove(emitter));
+        emitter.onError(erro -> job.ouvintes.remove(emitter));
+        job.inscrever(emitter);
+        return emitter;
+    }
+
+    private void executar(
+            Job job,
+            Authentication authentication,
+            ArquivoOfxTemporario arquivo,
+            Integer toleranciaDias,
+            BigDecimal toleranciaValor,
+            BigDecimal toleranciaValorMinimo,
+            boolean reprocessar
+    ) {
+        TenantContext.setTenantId(job.tenantId);
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            job.iniciar();
+            ConciliacaoOfxRelatorioDTO relatorio = conciliacaoOfxService.conciliar(
+                    job.contaCorrenteId,
+                    toleranciaDias,
+                    toleranciaValor,
+                    toleranciaValorMinimo,
+                    arquivo,
+                    reprocessar,
+                    job::avancar
+            );
+            job.concluir(relatorio);
+            log.info("conciliacao_ofx.job_concluido tenantId={} jobId={}", job.tenantId, job.id);
+        } catch (RuntimeException e) {
+            job.falhar(e.getMessage());
+            log.warn("conciliacao_ofx.job_erro tenantId={} jobId={} motivo={}", job.tenantId, job.id, e.getMessage());
+        } catch (Throwable e) {
+            // Error (falta de memoria, estouro de pilha) tambem encerra o job, senao quem acompanha espera ate o timeout
+            job.falhar("Erro interno ao processar o arquivo OFX");
+            log.error("conciliacao_ofx.job_erro_interno tenantId={} jobId={}", job.tenantId, job.id, e);
+            if (e instanceof Error erro) {
+                throw erro;
+            }
+        } finally {
+            arquivo.excluir();
+            SecurityContextHolder.clearContext();
+            TenantContext.clear();
+        }
+    }
+
+    private Job buscarDoTenant(String jobId) {
+        Job job = jobId != null ? jobs.get(jobId) : null;
+        if (job == null || !job.tenantId.equals(TenantContext.getTenantId())) {
+            throw new EntityNotFoundException("Job de conciliacao OFX nao encontrado: " + jobId);
+        }
+        return job;
+    }
+
+    private void removerJobsExpirados() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencao);
+        jobs.values().removeIf(job -> job.finalizadoEm != null && job.finalizadoEm.isBefore(limite));
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String tenantId;
+        private final Long contaCorrenteId;
+        private final String nomeArquivo;
+        private final LocalDateTime criadoEm = LocalDateTime.now();
+        private final List<SseEmitter> ouvintes = new CopyOnWriteArrayList<>();
+
+        private StatusConciliacaoOfxJob status = StatusConciliacaoOfxJob.PENDENTE;
+        private EtapaConciliacaoOfx etapa = EtapaConciliacaoOfx.AGUARDANDO;
+        private String mensagemErro;
+        private LocalDateTime iniciadoEm;
+        private volatile LocalDateTime finalizadoEm;
+        private ConciliacaoOfxRelatorioDTO relatorio;
+
+        private Job(String id, String tenantId, Long contaCorrenteId, String nomeArquivo) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.contaCorrenteId = contaCorrenteId;
+            this.nomeArquivo = nomeArquivo;
+        }
+
+        synchronized void iniciar() {
+            status = StatusConciliacaoOfxJob.PROCESSANDO;
+            iniciadoEm = LocalDateTime.now();
+            publicar();
+        }
+
+        synchronized void avancar(EtapaConciliacaoOfx novaEtapa) {
+            etapa = novaEtapa;
+            publicar();
+        }
+
+        synchronized void concluir(ConciliacaoOfxRelatorioDTO resultado) {
+            status = StatusConciliacaoOfxJob.CONCLUIDO;
+            etapa = EtapaConciliacaoOfx.FINALIZADO;
+            relatorio = resultado;
+            finalizadoEm = LocalDateTime.now();
+            publicar();
+        }
+
+        synchronized void falhar(String mensagem) {
+            status = StatusConciliacaoOfxJob.ERRO;
+            mensagemErro = mensagem;
+            finalizadoEm = LocalDateTime.now();
+            publicar();
+        }
+
+        synchronized void inscrever(SseEmitter emitter) {
+            ouvintes.add(emitter);
+            enviar(emitter, snapshot());
+            if (finalizadoEm != null) {
+                emitter.complete();
+            }
+        }
+
+        synchronized ConciliacaoOfxJobDTO snapshot() {
+            return ConciliacaoOfxJobDTO.builder()
+                    .id(id)
+                    .contaCorrenteId(contaCorrenteId)
+                    .nomeArquivo(nomeArquivo)
+                    .status(status)
+                    .etapa(etapa)
+                    .percentual(etapa.getPercentual())
+                    .mensagemErro(mensagemErro)
+                    .criadoEm(criadoEm)
+                    .iniciadoEm(iniciadoEm)
+                    .finalizadoEm(finalizadoEm)
+                    .relatorio(status == StatusConciliacaoOfxJob.CONCLUIDO ? relatorio : null)
+                    .build();
+        }
+
+        private void publicar() {
+            if (ouvintes.isEmpty()) {
+                return;
+            }
+            ConciliacaoOfxJobDTO atual = snapshot();
+            for (SseEmitter emitter : ouvintes) {
+                enviar(emitter, atual);
+                if (finalizadoEm != null) {
+                    emitter.complete();
+                }
+            }
+        }
+
+        private void enviar(SseEmitter emitter, ConciliacaoOfxJobDTO atual) {
+            try {
+                emitter.send(SseEmitter.event().id(atual.getEtapa().name()).name("progresso").data(atual));
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectou; o job segue e pode ser consultado por polling.
+                ouvintes.remove(emitter);
+            }
+        }
+    }
+}
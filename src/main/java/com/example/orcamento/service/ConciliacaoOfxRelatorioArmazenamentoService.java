@@ -0,0 +1,73 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.conciliacao.ConciliacaoOfxRelatorioDTO;
+import com.example.orcamento.model.ConciliacaoOfxProcessamento;
+import com.example.orcamento.model.ConciliacaoOfxRelatorio;
+import com.example.orcamento.repository.ConciliacaoOfxRelatorioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Guarda o relatorio completo de cada conciliacao processada (JSON + gzip) para que o reenvio do
+ * mesmo arquivo, com as mesmas tolerancias, devolva o resultado anterior sem reprocessar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConciliacaoOfxRelatorioArmazenamentoService {
+
+    private final ConciliacaoOfxRelatorioRepository conciliacaoOfxRelatorioRepository;
+    private final ObjectMapper objectMapper;
+
+    public void salvar(ConciliacaoOfxProcessamento processamento, ConciliacaoOfxRelatorioDTO relatorio) {
+        if (processamento.getId() == null) {
+            return;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(relatorio);
+            conciliacaoOfxRelatorioRepository.save(ConciliacaoOfxRelatorio.builder()
+                    .processamentoId(processamento.getId())
+                    .tenantId(processamento.getTenantId())
+                    .relatorioJsonGzip(compactar(json))
+                    .tamanhoJson((long) json.length)
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            // O relatorio ja foi devolvido ao usuario; sem o cache o proximo envio apenas reprocessa.
+            log.warn("conciliacao_ofx.relatorio_nao_armazenado processamentoId={} motivo={}", processamento.getId(), e.getMessage());
+        }
+    }
+
+    public Optional<ConciliacaoOfxRelatorioDTO> buscar(ConciliacaoOfxProcessamento processamento) {
+        if (processamento.getId() == null) {
+            return Optional.empty();
+        }
+        return conciliacaoOfxRelatorioRepository.findByProcessamentoIdAndTenantId(processamento.getId(), processamento.getTenantId())
+                .flatMap(armazenado -> {
+                    try (InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(armazenado.getRelatorioJsonGzip()))) {
+                        return Optional.of(objectMapper.readValue(entrada, ConciliacaoOfxRelatorioDTO.class));
+                    } catch (IOException e) {
+                        log.warn("conciliacao_ofx.relatorio_ilegivel processamentoId={} motivo={}", processamento.getId(), e.getMessage());
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    private static byte[] compactar(byte[] json) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(Math.max(json.length / 8, 512));
+        try (OutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(json);
+        }
+        return saida.toByteArray();
+    }
+}
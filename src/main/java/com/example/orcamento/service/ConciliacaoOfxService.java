@@ -5,6 +5,7 @@ import com.example.orcamento.dto.conciliacao.CreditoOrigemCartaoDTO;
 import com.example.orcamento.dto.conciliacao.DespesaAmbiguaDTO;
 import com.example.orcamento.dto.conciliacao.DespesaConciliacaoDTO;
 import com.example.orcamento.dto.conciliacao.DespesaConciliadaDTO;
+import com.example.orcamento.dto.conciliacao.EtapaConciliacaoOfx;
 import com.example.orcamento.dto.conciliacao.MovimentoOfxDTO;
 import com.example.orcamento.dto.conciliacao.ReceitaAmbiguaDTO;
 import com.example.orcamento.dto.conciliacao.ReceitaConciliacaoDTO;
@@ -29,25 +30,23 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.nio.charset.Charset;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -59,6 +58,7 @@ public class ConciliacaoOfxService {
     private final DespesaRepository despesaRepository;
     private final ReceitaRepository receitaRepository;
     private final MovimentacaoRepository movimentacaoRepository;
+    private final ConciliacaoOfxRelatorioArmazenamentoService relatorioArmazenamentoService;
 
     public ConciliacaoOfxRelatorioDTO conciliar(
             Long contaCorrenteId,
@@ -66,6 +66,33 @@ public class ConciliacaoOfxService {
             BigDecimal toleranciaValor,
             BigDecimal toleranciaValorMinimo,
             MultipartFile file
+    ) {
+        return conciliar(contaCorrenteId, toleranciaDias, toleranciaValor, toleranciaValorMinimo, file, false);
+    }
+
+    /**
+     * Com {@code reprocessar = false}, um arquivo ja conciliado com as mesmas tolerancias devolve o
+     * relatorio armazenado no processamento anterior em vez de refazer a conciliacao.
+     */
+    public ConciliacaoOfxRelatorioDTO conciliar(
+            Long contaCorrenteId,
+            Integer toleranciaDias,
+            BigDecimal toleranciaValor,
+            BigDecimal toleranciaValorMinimo,
+            MultipartFile file,
+            boolean reprocessar
+    ) {
+        return conciliar(contaCorrenteId, toleranciaDias, toleranciaValor, toleranciaValorMinimo, file, reprocessar, etapa -> { });
+    }
+
+    ConciliacaoOfxRelatorioDTO conciliar(
+            Long contaCorrenteId,
+            Integer toleranciaDias,
+            BigDecimal toleranciaValor,
+            BigDecimal toleranciaValorMinimo,
+            MultipartFile file,
+            boolean reprocessar,
+            Consumer<EtapaConciliacaoOfx> progresso
     ) {
         String tenantId = TenantContext.getTenantId();
         String username = obterUsernameAutenticado();
@@ -76,16 +103,33 @@ public class ConciliacaoOfxService {
         }
 
         try {
-            String hashArquivo = gerarHashArquivo(file);
-            Optional<ConciliacaoOfxProcessamento> ultimoProcessamento = buscarUltimoProcessamentoMesmoArquivo(tenantId, contaCorrenteId, hashArquivo);
             ContaCorrente contaCorrente = contaCorrenteService.buscarPorId(contaCorrenteId)
                     .orElseThrow(() -> new EntityNotFoundException("Conta corrente nao encontrada para o tenant atual: " + contaCorrenteId));
 
-            OfxExtrato extrato = parseOfx(file);
+            progresso.accept(EtapaConciliacaoOfx.LENDO_ARQUIVO);
+            LeitorOfx.Extrato extrato = lerOfx(file);
+            Optional<ConciliacaoOfxProcessamento> ultimoProcessamento =
+                    buscarUltimoProcessamentoMesmoArquivo(tenantId, contaCorrenteId, extrato.hashSha256());
             Integer dias = toleranciaDias != null ? toleranciaDias : 2;
             BigDecimal toleranciaEmValor = toleranciaValor != null ? toleranciaValor : BigDecimal.ZERO;
             BigDecimal toleranciaMinima = toleranciaValorMinimo != null ? toleranciaValorMinimo : new BigDecimal("1000.00");
 
+            if (!reprocessar) {
+                Optional<ConciliacaoOfxRelatorioDTO> relatorioAnterior = ultimoProcessamento
+                        .filter(processamento -> mesmasTolerancias(processamento, dias, toleranciaEmValor, toleranciaMinima))
+                        .flatMap(relatorioArmazenamentoService::buscar);
+                if (relatorioAnterior.isPresent()) {
+                    ConciliacaoOfxRelatorioDTO relatorio = relatorioAnterior.get();
+                    relatorio.setArquivoJaProcessado(true);
+                    relatorio.setUltimoProcessamentoEm(ultimoProcessamento.get().getProcessadoEm());
+                    log.info("conciliacao_ofx.relatorio_reaproveitado tenantId={} contaCorrenteId={} processamentoId={}",
+                            tenantId, contaCorrenteId, ultimoProcessamento.get().getId());
+                    return relatorio;
+                }
+            }
+
+            progresso.accept(EtapaConciliacaoOfx.CARREGANDO_LANCAMENTOS);
+
             List<Despesa> despesasPagas = despesaRepository
                     .findByTenantIdAndDataVencimentoBetween(contaCorrente.getTenantId(), extrato.periodoInicio(), extrato.periodoFim()).stream()
                     .filter(d -> d.getContaCorrente() != null && contaCorrenteId.equals(d.getContaCorrente().getId()))
@@ -98,6 +142,7 @@ public class ConciliacaoOfxService {
             List<Movimentacao> movimentacoes = movimentacaoRepository
                     .findByContaCorrenteIdAndTenantIdAndDataRecebimentoBetween(contaCorrenteId, contaCorrente.getTenantId(), extrato.periodoInicio(), extrato.periodoFim());
 
+            progresso.accept(EtapaConciliacaoOfx.CONCILIANDO);
             Set<String> ofxDebitosConsumidos = new HashSet<>();
             Set<String> ofxCreditosConsumidos = new HashSet<>();
             Set<Long> despesasConsumidas = new HashSet<>();
@@ -154,7 +199,8 @@ public class ConciliacaoOfxService {
                     .ultimoProcessamentoEm(ultimoProcessamento.map(ConciliacaoOfxProcessamento::getProcessadoEm).orElse(null))
                     .build();
 
-            salvarProcessamentoSucesso(tenantId, username, file, relatorio);
+            progresso.accept(EtapaConciliacaoOfx.SALVANDO_RELATORIO);
+            salvarProcessamentoSucesso(tenantId, username, file, extrato.hashSha256(), relatorio);
             return relatorio;
         } catch (RuntimeException exception) {
             salvarProcessamentoErro(tenantId, username, contaCorrenteId, toleranciaDias, toleranciaValor, toleranciaValorMinimo, file, exception);
@@ -166,16 +212,17 @@ public class ConciliacaoOfxService {
             String tenantId,
             String username,
             MultipartFile file,
+            String hashArquivo,
             ConciliacaoOfxRelatorioDTO relatorio
     ) {
-        conciliacaoOfxProcessamentoRepository.save(ConciliacaoOfxProcessamento.builder()
+        ConciliacaoOfxProcessamento processamento = ConciliacaoOfxProcessamento.builder()
                 .tenantId(tenantId)
                 .username(username)
                 .contaCorrenteId(relatorio.getContaCorrenteId())
                 .nomeArquivo(obterNomeArquivo(file))
                 .contentType(file != null ? file.getContentType() : null)
                 .tamanhoArquivo(file != null ? file.getSize() : 0L)
-                .hashArquivo(gerarHashArquivo(file))
+                .hashArquivo(hashArquivo)
                 .bancoIdOfx(relatorio.getBancoIdOfx())
                 .contaIdOfx(relatorio.getContaIdOfx())
                 .periodoInicio(relatorio.getPeriodoInicio())
@@ -196,7 +243,23 @@ public class ConciliacaoOfxService {
                 .status("PROCESSADO")
                 .mensagemErro(null)
                 .processadoEm(LocalDateTime.now())
-                .build());
+                .build();
+        conciliacaoOfxProcessamentoRepository.save(processamento);
+        relatorioArmazenamentoService.salvar(processamento, relatorio);
+    }
+
+    private boolean mesmasTolerancias(
+            ConciliacaoOfxProcessamento processamento,
+            Integer toleranciaDias,
+            BigDecimal toleranciaValor,
+            BigDecimal toleranciaValorMinimo
+    ) {
+        return "PROCESSADO".equals(processamento.getStatus())
+                && toleranciaDias.equals(processamento.getToleranciaDias())
+                && processamento.getToleranciaValor() != null
+                && processamento.getToleranciaValor().compareTo(toleranciaValor) == 0
+                && processamento.getToleranciaValorMinimo() != null
+                && processamento.getToleranciaValorMinimo().compareTo(toleranciaValorMinimo) == 0;
     }
 
     private void salvarProcessamentoErro(
@@ -216,7 +279,7 @@ public class ConciliacaoOfxService {
                 .nomeArquivo(obterNomeArquivo(file))
                 .contentType(file != null ? file.getContentType() : null)
                 .tamanhoArquivo(file != null ? file.getSize() : 0L)
-                .hashArquivo(gerarHashArquivo(file))
+                .hashArquivo(calcularHashArquivo(file))
                 .bancoIdOfx(null)
                 .contaIdOfx(null)
                 .periodoInicio(null)
@@ -255,19 +318,13 @@ public class ConciliacaoOfxService {
         return file.getOriginalFilename();
     }
 
-    private String gerarHashArquivo(MultipartFile file) {
+    private String calcularHashArquivo(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             return null;
         }
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(file.getBytes());
-            StringBuilder builder = new StringBuilder();
-            for (byte b : hash) {
-                builder.append(String.format("%02x", b));
-            }
-            return builder.toString();
-        } catch (IOException | NoSuchAlgorithmException e) {
+        try (InputStream entrada = file.getInputStream()) {
+            return LeitorOfx.sha256(entrada);
+        } catch (IOException e) {
             log.warn("conciliacao_ofx.hash_arquivo_indisponivel motivo={}", e.getMessage());
             return null;
         }
@@ -304,6 +361,8 @@ public class ConciliacaoOfxService {
         List<DespesaConciliadaDTO> conciliados = new ArrayList<>();
         List<MovimentoOfxDTO> bancoSemPagamento = new ArrayList<>();
         List<DespesaAmbiguaDTO> ambiguos = new ArrayList<>();
+        IndiceConciliacaoOfx<Despesa> indice = new IndiceConciliacaoOfx<>(despesasPagas, Despesa::getDataPagamento, Despesa::getValorPago);
+        long toleranciaCentavos = IndiceConciliacaoOfx.toleranciaEmCentavos(toleranciaValor);
 
         for (MovimentoOfxDTO movimento : movimentos) {
             if (movimento.getValor() == null || movimento.getValor().compareTo(BigDecimal.ZERO) >= 0) {
@@ -314,12 +373,10 @@ public class ConciliacaoOfxService {
             }
 
             BigDecimal valorAbsoluto = movimento.getValor().abs();
-            List<Despesa> candidatas = despesasPagas.stream()
-                    .filter(d -> d.getId() != null && !despesasConsumidas.contains(d.getId()))
-                    .filter(d -> d.getDataPagamento() != null)
-                    .filter(d -> estaDentroDaToleranciaDias(movimento.getData(), d.getDataPagamento(), toleranciaDias))
-                    .filter(d -> estaDentroDaToleranciaValor(valorAbsoluto, d.getValorPago(), toleranciaValor, toleranciaValorMinimo))
-                    .toList();
+            List<Despesa> candidatas = indice.buscar(movimento.getData(), valorAbsoluto, toleranciaDias, toleranciaCentavos,
+                    d -> d.getId() != null
+                            && !despesasConsumidas.contains(d.getId())
+                            && estaDentroDaToleranciaValor(valorAbsoluto, d.getValorPago(), toleranciaValor, toleranciaValorMinimo));
 
             if (candidatas.size() == 1) {
                 Despesa despesa = candidatas.get(0);
@@ -355,6 +412,8 @@ public class ConciliacaoOfxService {
         List<ReceitaConciliadaDTO> conciliadas = new ArrayList<>();
         List<MovimentoOfxDTO> bancoSemReceita = new ArrayList<>();
         List<ReceitaAmbiguaDTO> ambiguas = new ArrayList<>();
+        IndiceConciliacaoOfx<Receita> indice = new IndiceConciliacaoOfx<>(receitas, Receita::getDataRecebimento, Receita::getValor);
+        long toleranciaCentavos = IndiceConciliacaoOfx.toleranciaEmCentavos(toleranciaValor);
 
         for (MovimentoOfxDTO movimento : movimentos) {
             if (movimento.getValor() == null || movimento.getValor().compareTo(BigDecimal.ZERO) <= 0) {
@@ -364,12 +423,10 @@ public class ConciliacaoOfxService {
                 continue;
             }
 
-            List<Receita> candidatas = receitas.stream()
-                    .filter(r -> r.getId() != null && !receitasConsumidas.contains(r.getId()))
-                    .filter(r -> r.getDataRecebimento() != null)
-                    .filter(r -> estaDentroDaToleranciaDias(movimento.getData(), r.getDataRecebimento(), toleranciaDias))
-                    .filter(r -> estaDentroDaToleranciaValor(movimento.getValor(), r.getValor(), toleranciaValor, toleranciaValorMinimo))
-                    .toList();
+            List<Receita> candidatas = indice.buscar(movimento.getData(), movimento.getValor(), toleranciaDias, toleranciaCentavos,
+                    r -> r.getId() != null
+                            && !receitasConsumidas.contains(r.getId())
+                            && estaDentroDaToleranciaValor(movimento.getValor(), r.getValor(), toleranciaValor, toleranciaValorMinimo));
 
             if (candidatas.size() == 1) {
                 Receita receita = candidatas.get(0);
@@ -406,6 +463,9 @@ public class ConciliacaoOfxService {
         List<Movimentacao> candidatasTransferencia = movimentacoes.stream()
                 .filter(movimentacao -> movimentacao.getTransferenciaId() != null)
                 .toList();
+        IndiceConciliacaoOfx<Movimentacao> indice = new IndiceConciliacaoOfx<>(
+                candidatasTransferencia, Movimentacao::getDataRecebimento, Movimentacao::getValor);
+        long toleranciaCentavos = IndiceConciliacaoOfx.toleranciaEmCentavos(toleranciaValor);
 
         List<TransferenciaConciliadaDTO> conciliadas = new ArrayList<>();
         for (MovimentoOfxDTO movimento : movimentos) {
@@ -419,15 +479,13 @@ public class ConciliacaoOfxService {
                 continue;
             }
 
-            Movimentacao match = candidatasTransferencia.stream()
-                    .filter(m -> m.getId() != null)
-                    .filter(m -> !movimentacoesTransferenciaConsumidas.contains(m.getId()))
-                    .filter(m -> m.getDataRecebimento() != null)
-                    .filter(m -> mesmoSentidoTransferencia(movimento.getValor(), m.getTipo()))
-                    .filter(m -> estaDentroDaToleranciaDias(movimento.getData(), m.getDataRecebimento(), toleranciaDias))
-                    .filter(m -> estaDentroDaToleranciaValor(movimento.getValor(), m.getValor(), toleranciaValor, toleranciaValorMinimo))
-                    .sorted(Comparator.comparing(m -> distanciaDias(movimento.getData(), m.getDataRecebimento())))
-                    .findFirst()
+            Movimentacao match = indice.buscar(movimento.getData(), movimento.getValor(), toleranciaDias, toleranciaCentavos,
+                            m -> m.getId() != null
+                                    && !movimentacoesTransferenciaConsumidas.contains(m.getId())
+                                    && mesmoSentidoTransferencia(movimento.getValor(), m.getTipo())
+                                    && estaDentroDaToleranciaValor(movimento.getValor(), m.getValor(), toleranciaValor, toleranciaValorMinimo))
+                    .stream()
+                    .min(Comparator.comparing(m -> distanciaDias(movimento.getData(), m.getDataRecebimento())))
                     .orElse(null);
 
             if (match != null) {
@@ -453,14 +511,25 @@ public class ConciliacaoOfxService {
                 .filter(m -> m.getValor() != null && m.getValor().compareTo(BigDecimal.ZERO) > 0)
                 .filter(m -> memoOrigemCartao(m.getMemo()))
                 .toList();
+        if (creditos.isEmpty()) {
+            return resultado;
+        }
+
+        Map<ChaveDebitoPix, List<MovimentoOfxDTO>> debitosPixPorDataEValor = new HashMap<>();
+        for (MovimentoOfxDTO movimento : movimentos) {
+            if (movimento.getValor() != null && movimento.getValor().compareTo(BigDecimal.ZERO) < 0
+                    && movimento.getData() != null && memoPixCartao(movimento.getMemo())) {
+                debitosPixPorDataEValor
+                        .computeIfAbsent(ChaveDebitoPix.de(movimento.getData(), movimento.getValor()), chave -> new ArrayList<>())
+                        .add(movimento);
+            }
+        }
 
         for (MovimentoOfxDTO credito : creditos) {
-            MovimentoOfxDTO debitoRelacionado = movimentos.stream()
-                    .filter(m -> m.getValor() != null && m.getValor().compareTo(BigDecimal.ZERO) < 0)
+            MovimentoOfxDTO debitoRelacionado = credito.getData() == null ? null : debitosPixPorDataEValor
+                    .getOrDefault(ChaveDebitoPix.de(credito.getData(), credito.getValor()), List.of())
+                    .stream()
                     .filter(m -> !ofxDebitosConsumidos.contains(m.getFitId()))
-                    .filter(m -> memoPixCartao(m.getMemo()))
-                    .filter(m -> credito.getData() != null && credito.getData().equals(m.getData()))
-                    .filter(m -> credito.getValor().abs().compareTo(m.getValor().abs()) == 0)
                     .findFirst()
                     .orElse(null);
 
@@ -478,13 +547,6 @@ public class ConciliacaoOfxService {
         return resultado;
     }
 
-    private boolean estaDentroDaToleranciaDias(LocalDate data1, LocalDate data2, int toleranciaDias) {
-        if (data1 == null || data2 == null) {
-            return false;
-        }
-        return Math.abs(ChronoUnit.DAYS.between(data1, data2)) <= toleranciaDias;
-    }
-
     private boolean estaDentroDaToleranciaValor(
             BigDecimal valor1,
             BigDecimal valor2,
@@ -574,91 +636,18 @@ public class ConciliacaoOfxService {
                 .build();
     }
 
-    private OfxExtrato parseOfx(MultipartFile file) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), Charset.forName("windows-1252")))) {
-            String bankId = null;
-            String accountId = null;
-            LocalDate periodoInicio = null;
-            LocalDate periodoFim = null;
-            List<MovimentoOfxDTO> movimentos = new ArrayList<>();
-
-            MovimentoBuilder current = null;
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String trimmed = line.trim();
-                if (trimmed.isEmpty()) {
-                    continue;
-                }
-                if ("<STMTTRN>".equalsIgnoreCase(trimmed)) {
-                    current = new MovimentoBuilder();
-                    continue;
-                }
-                if ("</STMTTRN>".equalsIgnoreCase(trimmed)) {
-                    if (current != null) {
-                        movimentos.add(current.build());
-                    }
-                    current = null;
-                    continue;
-                }
-
-                if (current != null) {
-                    current.accept(trimmed);
-                    continue;
-                }
-
-                if (trimmed.startsWith("<BANKID>")) {
-                    bankId = extractValue(trimmed);
-                } else if (trimmed.startsWith("<ACCTID>")) {
-                    accountId = extractValue(trimmed);
-                } else if (trimmed.startsWith("<DTSTART>")) {
-                    periodoInicio = parseOfxDate(extractValue(trimmed));
-                } else if (trimmed.startsWith("<DTEND>")) {
-                    periodoFim = parseOfxDate(extractValue(trimmed));
-                }
-            }
-
-            if (periodoInicio == null || periodoFim == null) {
-                throw new IllegalArgumentException("Nao foi possivel identificar o periodo do OFX");
-            }
-
-            return new OfxExtrato(bankId, accountId, periodoInicio, periodoFim, movimentos);
+    private LeitorOfx.Extrato lerOfx(MultipartFile file) {
+        try (InputStream entrada = file.getInputStream()) {
+            return LeitorOfx.ler(entrada);
         } catch (IOException e) {
             throw new IllegalArgumentException("Erro ao ler arquivo OFX", e);
         }
     }
 
-    private String extractValue(String line) {
-        int idx = line.indexOf('>');
-        if (idx < 0) {
-            return "";
-        }
-        String value = line.substring(idx + 1).trim();
-        int closeIdx = value.indexOf("</");
-        if (closeIdx >= 0) {
-            value = value.substring(0, closeIdx).trim();
-        }
-        return value;
-    }
-
-    private LocalDate parseOfxDate(String raw) {
-        if (raw == null || raw.length() < 8) {
-            return null;
+    private record ChaveDebitoPix(LocalDate data, BigDecimal valorAbsoluto) {
+        static ChaveDebitoPix de(LocalDate data, BigDecimal valor) {
+            return new ChaveDebitoPix(data, valor.abs().stripTrailingZeros());
         }
-        String base = raw.substring(0, 8);
-        return LocalDate.of(
-                Integer.parseInt(base.substring(0, 4)),
-                Integer.parseInt(base.substring(4, 6)),
-                Integer.parseInt(base.substring(6, 8))
-        );
-    }
-
-    private record OfxExtrato(
-            String bankId,
-            String accountId,
-            LocalDate periodoInicio,
-            LocalDate periodoFim,
-            List<MovimentoOfxDTO> movimentos
-    ) {
     }
 
     private record ResultadoDespesas(
@@ -674,57 +663,4 @@ public class ConciliacaoOfxService {
             List<ReceitaAmbiguaDTO> ambiguas
     ) {
     }
-
-    private static class MovimentoBuilder {
-        private LocalDate data;
-        private BigDecimal valor;
-        private String memo;
-        private String fitId;
-
-        void accept(String line) {
-            if (line.startsWith("<DTPOSTED>")) {
-                this.data = parseStaticDate(extractTaggedValue(line, "DTPOSTED"));
-            } else if (line.startsWith("<TRNAMT>")) {
-                this.valor = new BigDecimal(extractTaggedValue(line, "TRNAMT"));
-            } else if (line.startsWith("<FITID>")) {
-                this.fitId = extractTaggedValue(line, "FITID");
-            } else if (line.startsWith("<MEMO>")) {
-                this.memo = extractTaggedValue(line, "MEMO");
-            }
-        }
-
-        MovimentoOfxDTO build() {
-            return MovimentoOfxDTO.builder()
-                    .data(data)
-                    .valor(valor)
-                    .memo(memo)
-                    .fitId(fitId)
-                    .build();
-        }
-
-        private static LocalDate parseStaticDate(String raw) {
-            if (raw == null || raw.length() < 8) {
-                return null;
-            }
-            String base = raw.substring(0, 8);
-            return LocalDate.of(
-                    Integer.parseInt(base.substring(0, 4)),
-                    Integer.parseInt(base.substring(4, 6)),
-                    Integer.parseInt(base.substring(6, 8))
-            );
-        }
-
-        private static String extractTaggedValue(String line, String tagName) {
-            String openTag = "<" + tagName + ">";
-            if (!line.startsWith(openTag)) {
-                return "";
-            }
-            String value = line.substring(openTag.length()).trim();
-            int closeIdx = value.indexOf("</");
-            if (closeIdx >= 0) {
-                value = value.substring(0, closeIdx).trim();
-            }
-            return value;
-        }
-    }
 }
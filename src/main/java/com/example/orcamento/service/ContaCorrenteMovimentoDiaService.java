@@ -0,0 +1,116 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.SaldoDiarioContaDTO;
+import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.model.ContaCorrenteMovimentoDia;
+import com.example.orcamento.model.Movimentacao;
+import com.example.orcamento.model.TipoMovimentacao;
+import com.example.orcamento.repository.ContaCorrenteMovimentoDiaRepository;
+import com.example.orcamento.security.TenantContext;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Saldo historico das contas a partir do movimento diario: o saldo ao fim do dia D e o saldo atual
+ * menos o liquido de tudo que foi movimentado depois de D.
+ */
+@Service
+@RequiredArgsConstructor
+public class ContaCorrenteMovimentoDiaService {
+
+    static final long MAXIMO_DIAS_SERIE = 731;
+
+    private final ContaCorrenteMovimentoDiaRepository contaCorrenteMovimentoDiaRepository;
+    private final ContaCorrenteService contaCorrenteService;
+
+    @Transactional
+    public void registrar(Movimentacao movimentacao) {
+        somar(movimentacao, BigDecimal.ONE);
+    }
+
+    @Transactional
+    public void remover(Movimentacao movimentacao) {
+        somar(movimentacao, BigDecimal.ONE.negate());
+    }
+
+    @Transactional(readOnly = true)
+    public SaldoDiarioContaDTO saldoEm(Long contaCorrenteId, LocalDate data) {
+        if (data == null) {
+            throw new IllegalArgumentException("data e obrigatoria");
+        }
+        String tenantId = TenantContext.getTenantId();
+        ContaCorrente conta = buscarConta(contaCorrenteId);
+        BigDecimal movimentadoDepois = contaCorrenteMovimentoDiaRepository.somarLiquidoDepoisDe(tenantId, contaCorrenteId, data);
+        return new SaldoDiarioContaDTO(data, conta.getSaldo().subtract(movimentadoDepois));
+    }
+
+    /**
+     * Saldo ao fim de cada dia do periodo, em ordem crescente de data, com uma unica leitura dos
+     * movimentos diarios posteriores a dataInicio.
+     */
+    @Transactional(readOnly = true)
+    public List<SaldoDiarioContaDTO> saldosDiarios(Long contaCorrenteId, LocalDate dataInicio, LocalDate dataFim) {
+        if (dataInicio == null || dataFim == null) {
+            throw new IllegalArgumentException("dataInicio e dataFim sao obrigatorias");
+        }
+        if (dataFim.isBefore(dataInicio)) {
+            throw new IllegalArgumentException("dataFim não pode ser menor que dataInicio");
+        }
+        if (ChronoUnit.DAYS.between(dataInicio, dataFim) >= MAXIMO_DIAS_SERIE) {
+            throw new IllegalArgumentException("periodo maximo de " + MAXIMO_DIAS_SERIE + " dias");
+        }
+        String tenantId = TenantContext.getTenantId();
+        ContaCorrente conta = buscarConta(contaCorrenteId);
+        List<ContaCorrenteMovimentoDia> movimentos = contaCorrenteMovimentoDiaRepository
+                .findByTenantIdAndContaCorrenteIdAndDataGreaterThanOrderByDataDesc(tenantId, contaCorrenteId, dataInicio);
+
+        // Volta do saldo atual ate dataInicio, desfazendo o liquido de cada dia ja percorrido
+        BigDecimal saldo = conta.getSaldo();
+        int indice = 0;
+        while (indice < movimentos.size() && movimentos.get(indice).getData().isAfter(dataFim)) {
+            saldo = saldo.subtract(liquido(movimentos.get(indice++)));
+        }
+        List<SaldoDiarioContaDTO> saldos = new ArrayList<>();
+        for (LocalDate dia = dataFim; !dia.isBefore(dataInicio); dia = dia.minusDays(1)) {
+            saldos.add(new SaldoDiarioContaDTO(dia, saldo));
+            if (indice < movimentos.size() && movimentos.get(indice).getData().equals(dia)) {
+                saldo = saldo.subtract(liquido(movimentos.get(indice++)));
+            }
+        }
+        Collections.reverse(saldos);
+        return saldos;
+    }
+
+    private void somar(Movimentacao movimentacao, BigDecimal sinal) {
+        if (movimentacao.getContaCorrente() == null || movimentacao.getValor() == null
+                || movimentacao.getDataRecebimento() == null || movimentacao.getTipo() == null) {
+            return;
+        }
+        BigDecimal valor = movimentacao.getValor().multiply(sinal);
+        boolean entrada = movimentacao.getTipo() == TipoMovimentacao.ENTRADA;
+        contaCorrenteMovimentoDiaRepository.somar(
+                movimentacao.getTenantId(),
+                movimentacao.getContaCorrente().getId(),
+                movimentacao.getDataRecebimento(),
+                entrada ? valor : BigDecimal.ZERO,
+                entrada ? BigDecimal.ZERO : valor);
+    }
+
+    private ContaCorrente buscarConta(Long contaCorrenteId) {
+        return contaCorrenteService.buscarPorId(contaCorrenteId)
+                .orElseThrow(() -> new EntityNotFoundException("Conta corrente nao encontrada para o tenant atual: " + contaCorrenteId));
+    }
+
+    private static BigDecimal liquido(ContaCorrenteMovimentoDia movimento) {
+        return movimento.getTotalEntradas().subtract(movimento.getTotalSaidas());
+    }
+}
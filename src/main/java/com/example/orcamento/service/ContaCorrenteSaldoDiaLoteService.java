@@ -0,0 +1,148 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.ContaCorrenteSaldoDiaResponseDTO;
+import com.example.orcamento.dto.FechamentoPeriodoContaDTO;
+import com.example.orcamento.dto.FecharSaldoPeriodoRequestDTO;
+import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.security.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fecha o mesmo periodo em todas as contas ativas do tenant, uma conta por tarefa do executor. Cada conta
+ * e fechada na sua propria transacao por {@link ContaCorrenteSaldoDiaService#fecharPeriodo}; a falha de
+ * uma conta (por exemplo, dia util anterior ainda aberto) vai para o resultado dela sem interromper as demais.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContaCorrenteSaldoDiaLoteService {
+
+    private final ContaCorrenteService contaCorrenteService;
+    private final ContaCorrenteSaldoDiaService contaCorrenteSaldoDiaService;
+
+    private ThreadPoolExecutor executor;
+
+    @Value("${app.saldo-dia.fechamento-lote.threads:4}")
+    private int threads = 4;
+
+    @Value("${app.saldo-dia.fechamento-lote.capacidade-fila:64}")
+    private int capacidadeFila = 64;
+
+    @PostConstruct
+    void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "saldo-dia-lote-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Com a fila cheia a propria requisicao fecha a conta: degrada para sequencial, sem recusar.
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public List<FechamentoPeriodoContaDTO> fecharPeriodoContasAtivas(FecharSaldoPeriodoRequestDTO request) {
+        if (request == null || request.getDataInicio() == null || request.getDataFim() == null) {
+            throw new IllegalArgumentException("dataInicio e dataFim sao obrigatorias para fechar o periodo");
+        }
+        if (request.getSaldoAbertura() != null) {
+            throw new IllegalArgumentException("saldoAbertura so pode ser informado no fechamento de uma conta");
+        }
+
+        String tenantId = TenantContext.getTenantId();
+        List<ContaCorrente> contasAtivas = contaCorrenteService.listarTodos().stream()
+                .filter(ContaCorrente::isContaAtiva)
+                .toList();
+
+        long inicio = System.nanoTime();
+        List<Future<FechamentoPeriodoContaDTO>> pendentes = new ArrayList<>(contasAtivas.size());
+        try {
+            for (ContaCorrente conta : contasAtivas) {
+                pendentes.add(executor.submit(() -> fecharConta(tenantId, conta, request)));
+            }
+            List<FechamentoPeriodoContaDTO> resultados = new ArrayList<>(pendentes.size());
+            for (Future<FechamentoPeriodoContaDTO> pendente : pendentes) {
+                resultados.add(aguardar(pendente));
+            }
+
+            log.info("conta_corrente.saldo_periodo_lote tenantId={} dataInicio={} dataFim={} contas={} falhas={} duracaoMs={}",
+                    tenantId,
+                    request.getDataInicio(),
+                    request.getDataFim(),
+                    resultados.size(),
+                    resultados.stream().filter(resultado -> resultado.getErro() != null).count(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            return resultados;
+        } finally {
+            pendentes.forEach(pendente -> pendente.cancel(true));
+        }
+    }
+
+    private FechamentoPeriodoContaDTO fecharConta(String tenantId, ContaCorrente conta, FecharSaldoPeriodoRequestDTO request) {
+        // A tarefa pode rodar em outra thread: o tenant da requisicao precisa ir junto
+        String tenantAnterior = TenantContext.getTenantId();
+        TenantContext.setTenantId(tenantId);
+        FechamentoPeriodoContaDTO.FechamentoPeriodoContaDTOBuilder resultado = FechamentoPeriodoContaDTO.builder()
+                .contaCorrenteId(conta.getId())
+                .nomeBanco(conta.getNomeBanco());
+        try {
+            List<ContaCorrenteSaldoDiaResponseDTO> dias = contaCorrenteSaldoDiaService.fecharPeriodo(conta.getId(), request);
+            ContaCorrenteSaldoDiaResponseDTO ultimo = dias.get(dias.size() - 1);
+            return resultado
+                    .diasFechados(dias.size())
+                    .ultimoDiaFechado(ultimo.getData())
+                    .saldoFechamento(ultimo.getSaldoFechamento())
+                    .build();
+        } catch (IllegalArgumentException | EntityNotFoundException e) {
+            log.info("conta_corrente.saldo_periodo_lote_conta_bloqueada tenantId={} contaId={} motivo={}",
+                    tenantId, conta.getId(), e.getMessage());
+            return resultado.erro(e.getMessage()).build();
+        } finally {
+            if (tenantAnterior == null) {
+                TenantContext.clear();
+            } else {
+                TenantContext.setTenantId(tenantAnterior);
+            }
+        }
+    }
+
+    private static FechamentoPeriodoContaDTO aguardar(Future<FechamentoPeriodoContaDTO> pendente) {
+        try {
+            return pendente.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Fechamento do periodo interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
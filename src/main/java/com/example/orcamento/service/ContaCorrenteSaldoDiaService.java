@@ -3,6 +3,7 @@ package com.example.orcamento.service;
 import com.example.orcamento.dto.ContaCorrenteDTO;
 import com.example.orcamento.dto.ContaCorrenteSaldoDiaResponseDTO;
 import com.example.orcamento.dto.FecharSaldoDiaRequestDTO;
+import com.example.orcamento.dto.FecharSaldoPeriodoRequestDTO;
 import com.example.orcamento.model.ContaCorrente;
 import com.example.orcamento.model.ContaCorrenteSaldoDia;
 import com.example.orcamento.model.Movimentacao;
@@ -20,30 +21,23 @@ import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.MonthDay;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ContaCorrenteSaldoDiaService {
 
-    private static final Set<MonthDay> FERIADOS_NACIONAIS_FIXOS = Set.of(
-            MonthDay.of(1, 1),
-            MonthDay.of(4, 21),
-            MonthDay.of(5, 1),
-            MonthDay.of(9, 7),
-            MonthDay.of(10, 12),
-            MonthDay.of(11, 2),
-            MonthDay.of(11, 15),
-            MonthDay.of(11, 20),
-            MonthDay.of(12, 25)
-    );
+    static final long MAXIMO_DIAS_PERIODO = 366;
 
     private final ContaCorrenteService contaCorrenteService;
     private final ContaCorrenteSaldoDiaRepository contaCorrenteSaldoDiaRepository;
     private final MovimentacaoRepository movimentacaoRepository;
+    private final CalendarioDiasUteis calendarioDiasUteis;
 
     @Transactional
     public ContaCorrenteSaldoDiaResponseDTO fecharDia(Long contaCorrenteId, FecharSaldoDiaRequestDTO request) {
@@ -57,7 +51,7 @@ public class ContaCorrenteSaldoDiaService {
 
         LocalDate data = request.getData();
         validarDiaUtilParaFechamento(contaCorrenteId, tenantId, data);
-        validarSequenciaDeFechamento(contaCorrenteId, tenantId, request);
+        validarSequenciaDeFechamento(contaCorrenteId, tenantId, data, request.getSaldoAbertura());
 
         BigDecimal saldoAbertura = request.getSaldoAbertura() != null
                 ? request.getSaldoAbertura()
@@ -100,6 +94,94 @@ public class ContaCorrenteSaldoDiaService {
         return toResponseDto(saldoDiaSalvo);
     }
 
+    /**
+     * Fecha em sequencia todos os dias uteis do periodo, com o mesmo resultado de chamar {@link #fecharDia}
+     * dia a dia: as movimentacoes do periodo sao lidas ja somadas por dia numa unica consulta, os dias sao
+     * percorridos encadeando o saldo de fechamento como abertura do dia seguinte e as linhas sao gravadas
+     * juntas, em lote. O numero de consultas nao depende do tamanho do periodo.
+     */
+    @Transactional
+    public List<ContaCorrenteSaldoDiaResponseDTO> fecharPeriodo(Long contaCorrenteId, FecharSaldoPeriodoRequestDTO request) {
+        String tenantId = TenantContext.getTenantId();
+        if (request == null || request.getDataInicio() == null || request.getDataFim() == null) {
+            throw new IllegalArgumentException("dataInicio e dataFim sao obrigatorias para fechar o periodo");
+        }
+        LocalDate dataInicio = request.getDataInicio();
+        LocalDate dataFim = request.getDataFim();
+        if (dataFim.isBefore(dataInicio)) {
+            throw new IllegalArgumentException("dataFim não pode ser menor que dataInicio");
+        }
+        if (ChronoUnit.DAYS.between(dataInicio, dataFim) >= MAXIMO_DIAS_PERIODO) {
+            throw new IllegalArgumentException("periodo maximo de " + MAXIMO_DIAS_PERIODO + " dias");
+        }
+
+        ContaCorrente contaCorrente = contaCorrenteService.buscarPorId(contaCorrenteId)
+                .orElseThrow(() -> new EntityNotFoundException("Conta corrente nao encontrada para o tenant atual: " + contaCorrenteId));
+
+        List<LocalDate> diasUteis = calendarioDiasUteis.diasUteis(dataInicio, dataFim);
+        if (diasUteis.isEmpty()) {
+            throw new IllegalArgumentException("O periodo nao possui dia util para fechar");
+        }
+        LocalDate primeiroDia = diasUteis.get(0);
+        LocalDate ultimoDia = diasUteis.get(diasUteis.size() - 1);
+
+        validarSequenciaDeFechamento(contaCorrenteId, tenantId, primeiroDia, request.getSaldoAbertura());
+        BigDecimal saldoAbertura = request.getSaldoAbertura() != null
+                ? request.getSaldoAbertura()
+                : obterSaldoAbertura(contaCorrenteId, tenantId, primeiroDia);
+
+        Map<LocalDate, BigDecimal> entradasPorDia = new HashMap<>();
+        Map<LocalDate, BigDecimal> saidasPorDia = new HashMap<>();
+        for (Object[] linha : movimentacaoRepository.somarPorDiaETipo(contaCorrenteId, tenantId, primeiroDia, ultimoDia)) {
+            Map<LocalDate, BigDecimal> destino = linha[1] == TipoMovimentacao.ENTRADA ? entradasPorDia : saidasPorDia;
+            destino.merge((LocalDate) linha[0], (BigDecimal) linha[2], BigDecimal::add);
+        }
+
+        Map<LocalDate, ContaCorrenteSaldoDia> existentes = new HashMap<>();
+        contaCorrenteSaldoDiaRepository
+                .findByContaCorrenteIdAndTenantIdAndDataBetweenOrderByDataDesc(contaCorrenteId, tenantId, primeiroDia, ultimoDia)
+                .forEach(saldoDia -> existentes.put(saldoDia.getData(), saldoDia));
+
+        LocalDateTime calculadoEm = LocalDateTime.now();
+        List<ContaCorrenteSaldoDia> fechamentos = new ArrayList<>(diasUteis.size());
+        for (LocalDate dia : diasUteis) {
+            // Como em fecharDia, so entram as movimentacoes com dataRecebimento no proprio dia util
+            BigDecimal totalEntradas = entradasPorDia.getOrDefault(dia, BigDecimal.ZERO);
+            BigDecimal totalSaidas = saidasPorDia.getOrDefault(dia, BigDecimal.ZERO);
+            BigDecimal saldoFechamento = saldoAbertura.add(totalEntradas).subtract(totalSaidas);
+
+            ContaCorrenteSaldoDia saldoDia = existentes.getOrDefault(dia, new ContaCorrenteSaldoDia());
+            saldoDia.setContaCorrente(contaCorrente);
+            saldoDia.setTenantId(tenantId);
+            saldoDia.setData(dia);
+            saldoDia.setSaldoAbertura(saldoAbertura);
+            saldoDia.setTotalEntradas(totalEntradas);
+            saldoDia.setTotalSaidas(totalSaidas);
+            saldoDia.setSaldoFechamento(saldoFechamento);
+            saldoDia.setCalculadoEm(calculadoEm);
+            fechamentos.add(saldoDia);
+
+            saldoAbertura = saldoFechamento;
+        }
+
+        List<ContaCorrenteSaldoDia> salvos = contaCorrenteSaldoDiaRepository.saveAll(fechamentos);
+
+        log.info(
+                "conta_corrente.saldo_periodo_fechado tenantId={} contaId={} dataInicio={} dataFim={} dias={} recalculados={} saldoFechamento={}",
+                tenantId,
+                contaCorrenteId,
+                primeiroDia,
+                ultimoDia,
+                salvos.size(),
+                existentes.size(),
+                saldoAbertura
+        );
+
+        return salvos.stream()
+                .map(this::toResponseDto)
+                .toList();
+    }
+
     @Transactional(readOnly = true)
     public List<ContaCorrenteSaldoDiaResponseDTO> listarPorPeriodo(Long contaCorrenteId, LocalDate dataInicio, LocalDate dataFim) {
         if (dataInicio == null || dataFim == null) {
@@ -124,15 +206,14 @@ public class ContaCorrenteSaldoDiaService {
                 .orElse(BigDecimal.ZERO);
     }
 
-    private void validarSequenciaDeFechamento(Long contaCorrenteId, String tenantId, FecharSaldoDiaRequestDTO request) {
-        LocalDate data = request.getData();
-        LocalDate diaUtilAnterior = obterDiaUtilAnterior(data);
+    private void validarSequenciaDeFechamento(Long contaCorrenteId, String tenantId, LocalDate data, BigDecimal saldoAberturaInformado) {
+        LocalDate diaUtilAnterior = calendarioDiasUteis.diaUtilAnterior(data);
 
         boolean existeFechamentoAnterior = contaCorrenteSaldoDiaRepository
                 .existsByContaCorrenteIdAndTenantIdAndDataLessThan(contaCorrenteId, tenantId, data);
 
         if (!existeFechamentoAnterior) {
-            if (request.getSaldoAbertura() == null) {
+            if (saldoAberturaInformado == null) {
                 log.info(
                         "conta_corrente.saldo_dia_fechamento_bloqueado tenantId={} contaId={} data={} motivo=primeiro_fechamento_sem_saldo_abertura",
                         tenantId,
@@ -175,61 +256,15 @@ public class ContaCorrenteSaldoDiaService {
             throw new IllegalArgumentException("Nao e permitido fechar o dia em sabado ou domingo");
         }
 
-        if (isFeriadoNacional(data)) {
+        if (calendarioDiasUteis.isFeriado(data)) {
             log.info(
-                    "conta_corrente.saldo_dia_fechamento_bloqueado tenantId={} contaId={} data={} motivo=feriado_nacional",
+                    "conta_corrente.saldo_dia_fechamento_bloqueado tenantId={} contaId={} data={} motivo=feriado",
                     tenantId,
                     contaCorrenteId,
                     data
             );
-            throw new IllegalArgumentException("Nao e permitido fechar o dia em feriado nacional");
-        }
-    }
-
-    private boolean isFeriadoNacional(LocalDate data) {
-        if (FERIADOS_NACIONAIS_FIXOS.contains(MonthDay.from(data))) {
-            return true;
-        }
-
-        LocalDate pascoa = calcularPascoa(data.getYear());
-        return data.equals(pascoa.minusDays(48))
-                || data.equals(pascoa.minusDays(47))
-                || data.equals(pascoa.minusDays(2))
-                || data.equals(pascoa)
-                || data.equals(pascoa.plusDays(60));
-    }
-
-    private LocalDate obterDiaUtilAnterior(LocalDate data) {
-        LocalDate diaAnterior = data.minusDays(1);
-        while (!isDiaUtil(diaAnterior)) {
-            diaAnterior = diaAnterior.minusDays(1);
+            throw new IllegalArgumentException("Nao e permitido fechar o dia em feriado");
         }
-        return diaAnterior;
-    }
-
-    private boolean isDiaUtil(LocalDate data) {
-        DayOfWeek dayOfWeek = data.getDayOfWeek();
-        return dayOfWeek != DayOfWeek.SATURDAY
-                && dayOfWeek != DayOfWeek.SUNDAY
-                && !isFeriadoNacional(data);
-    }
-
-    private LocalDate calcularPascoa(int ano) {
-        int a = ano % 19;
-        int b = ano / 100;
-        int c = ano % 100;
-        int d = b / 4;
-        int e = b % 4;
-        int f = (b + 8) / 25;
-        int g = (b - f + 1) / 3;
-        int h = (19 * a + b - d - g + 15) % 30;
-        int i = c / 4;
-        int k = c % 4;
-        int l = (32 + 2 * e + 2 * i - h - k) % 7;
-        int m = (a + 11 * h + 22 * l) / 451;
-        int mes = (h + l - 7 * m + 114) / 31;
-        int dia = ((h + l - 7 * m + 114) % 31) + 1;
-        return LocalDate.of(ano, mes, dia);
     }
 
     private BigDecimal somarPorTipo(List<Movimentacao> movimentacoes, TipoMovimentacao tipoMovimentacao) {
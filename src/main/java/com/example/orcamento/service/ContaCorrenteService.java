@@ -2,15 +2,20 @@
 package com.example.orcamento.service;
 
 import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.repository.ContaCorrenteMovimentoDiaRepository;
 import com.example.orcamento.repository.ContaCorrenteRepository;
 import com.example.orcamento.security.TenantContext;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +26,10 @@ import java.util.Optional;
 public class ContaCorrenteService {
 
     private final ContaCorrenteRepository contaCorrenteRepository;
+    private final ContaCorrenteMovimentoDiaRepository contaCorrenteMovimentoDiaRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Transactional
     public ContaCorrente salvar(ContaCorrente conta) {
@@ -45,17 +54,17 @@ public class ContaCorrenteService {
     @Transactional
     public void atualizarSaldo(Long contaId, BigDecimal valor, boolean isEntrada, LocalDateTime data) {
         String tenantId = TenantContext.getTenantId();
-        ContaCorrente conta = contaCorrenteRepository.findByIdAndTenantId(contaId, tenantId)
-                .orElseThrow(() -> new IllegalArgumentException("Conta corrente não encontrada com ID: " + contaId + " para o tenant atual."));
-        log.info("Conta corrente atualizada com ID: " + conta.toString());
-
-        BigDecimal novoSaldo = isEntrada
-                ? conta.getSaldo().add(valor)
-                : conta.getSaldo().subtract(valor);
-        conta.setSaldo(novoSaldo);
-        log.info("Novo saldo : " + novoSaldo);
-
-        contaCorrenteRepository.save(conta);
+        BigDecimal delta = isEntrada ? valor : valor.negate();
+        if (contaCorrenteRepository.somarSaldo(contaId, tenantId, delta) == 0) {
+            throw new IllegalArgumentException("Conta corrente não encontrada com ID: " + contaId + " para o tenant atual.");
+        }
+        // O UPDATE nao passa pela instancia gerenciada: se a conta ja foi carregada nesta transacao
+        // (ex.: pela transferencia, que devolve as contas na resposta), rele o saldo do banco
+        ContaCorrente carregada = entityManager.getReference(ContaCorrente.class, contaId);
+        if (Hibernate.isInitialized(carregada)) {
+            entityManager.refresh(carregada);
+        }
+        log.info("conta_corrente.saldo_atualizado contaId={} tenantId={} delta={} data={}", contaId, tenantId, delta, data);
     }
 
     @Transactional
@@ -74,10 +83,21 @@ public class ContaCorrenteService {
         conta.setNomeBanco(contaAtualizada.getNomeBanco());
         conta.setAgencia(contaAtualizada.getAgencia());
         conta.setNumeroConta(contaAtualizada.getNumeroConta());
-        conta.setSaldo(contaAtualizada.getSaldo());
         conta.setContaAtiva(contaAtualizada.isContaAtiva());
 
         ContaCorrente contaSalva = contaCorrenteRepository.save(conta);
+        if (contaAtualizada.getSaldo() != null) {
+            // Ajuste manual do saldo: a diferenca entra como movimento do dia, para que o saldo historico
+            // (saldo atual menos o movimentado depois de cada data) nao se desloque pelo valor ajustado
+            BigDecimal ajuste = contaAtualizada.getSaldo().subtract(conta.getSaldo());
+            if (ajuste.signum() != 0) {
+                contaCorrenteRepository.somarSaldo(id, tenantId, ajuste);
+                contaCorrenteMovimentoDiaRepository.somar(tenantId, id, LocalDate.now(),
+                        ajuste.max(BigDecimal.ZERO), ajuste.min(BigDecimal.ZERO).negate());
+                log.info("conta_corrente.saldo_ajustado contaId={} tenantId={} ajuste={}", id, tenantId, ajuste);
+            }
+            contaSalva.setSaldo(contaAtualizada.getSaldo());
+        }
         log.info("conta_corrente.atualizada contaId={} tenantId={} banco={} ativa={} saldo={}",
                 contaSalva.getId(), tenantId, contaSalva.getNomeBanco(), contaSalva.isContaAtiva(), contaSalva.getSaldo());
         return contaSalva;
@@ -9,9 +9,7 @@ import com.example.orcamento.model.CartaoCredito;
 import com.example.orcamento.model.ContaCorrente;
 import com.example.orcamento.model.Despesa;
 import com.example.orcamento.model.GeracaoFaturaCartao;
-import com.example.orcamento.repository.CartaoCreditoRepository;
 import com.example.orcamento.repository.DespesaRepository;
-import com.example.orcamento.repository.LancamentoCartaoRepository;
 import com.example.orcamento.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -20,10 +18,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.format.TextStyle;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
@@ -31,11 +27,8 @@ public class DashboardHomeService {
 
     private final FechamentoMensalService fechamentoMensalService;
     private final ContaCorrenteService contaCorrenteService;
-    private final CartaoCreditoRepository cartaoCreditoRepository;
-    private final LancamentoCartaoRepository lancamentoCartaoRepository;
     private final DespesaRepository despesaRepository;
-    private final DespesaService despesaService;
-    private final GeracaoFaturaCartaoService geracaoFaturaCartaoService;
+    private final CompetenciaSnapshotService competenciaSnapshotService;
 
     @Transactional(readOnly = true)
     public DashboardHomeDTO obterDashboard(Integer ano, Integer mes) {
@@ -59,10 +52,9 @@ public class DashboardHomeService {
                 .saldoTotal(saldoTotal)
                 .build();
 
-        String mesAnoFatura = formatarMesAnoFatura(competencia.getYear(), competencia.getMonthValue());
-        var geracoesPorChave = geracaoFaturaCartaoService.listarGeracoesPorAnoMapeadas(competencia.getYear());
-        List<DashboardHomeCartaoDTO> cartoes = cartaoCreditoRepository.findByTenantId(tenantId).stream()
-                .map(cartao -> toCartaoDto(cartao, competencia, mesAnoFatura, tenantId, geracoesPorChave))
+        CompetenciaSnapshot snapshot = competenciaSnapshotService.obter(tenantId, competencia);
+        List<DashboardHomeCartaoDTO> cartoes = snapshot.getCartoes().stream()
+                .map(cartao -> toCartaoDto(cartao, snapshot))
                 .toList();
 
         BigDecimal totalFaturasCartoes = cartoes.stream()
@@ -188,29 +180,16 @@ public class DashboardHomeService {
         return valorFatura.subtract(valorTerceiros).max(BigDecimal.ZERO);
     }
 
-    private DashboardHomeCartaoDTO toCartaoDto(
-            CartaoCredito cartao,
-            YearMonth competencia,
-            String mesAnoFatura,
-            String tenantId,
-            java.util.Map<String, GeracaoFaturaCartao> geracoesPorChave
-    ) {
-        BigDecimal valorFatura = lancamentoCartaoRepository.getFaturaDoMes(cartao.getId(), mesAnoFatura, tenantId);
-        BigDecimal valorTerceiros = lancamentoCartaoRepository.getFaturaDoMesTerceiros(cartao.getId(), mesAnoFatura, tenantId);
-        GeracaoFaturaCartao geracao = geracoesPorChave.get(GeracaoFaturaCartaoService.chave(cartao.getId(), competencia.getMonthValue()));
-        boolean faturaLancada = despesaService.verificarFaturaLancada(
-                cartao.getNome(),
-                competencia.getMonthValue(),
-                competencia.getYear()
-        );
+    private DashboardHomeCartaoDTO toCartaoDto(CartaoCredito cartao, CompetenciaSnapshot snapshot) {
+        GeracaoFaturaCartao geracao = snapshot.geracao(cartao.getId());
 
         return DashboardHomeCartaoDTO.builder()
                 .cartaoId(cartao.getId())
                 .nome(cartao.getNome())
                 .diaVencimento(cartao.getDiaVencimento())
-                .valorFatura(valorFatura != null ? valorFatura : BigDecimal.ZERO)
-                .valorTerceiros(valorTerceiros != null ? valorTerceiros : BigDecimal.ZERO)
-                .faturaLancada(faturaLancada)
+                .valorFatura(snapshot.valorFatura(cartao.getId()))
+                .valorTerceiros(snapshot.valorTerceiros(cartao.getId()))
+                .faturaLancada(snapshot.isFaturaLancada(cartao.getId()))
                 .geracaoFaturaId(geracao != null ? geracao.getId() : null)
                 .geradoPor(geracao != null ? geracao.getGeradoPor() : null)
                 .geradoEm(geracao != null ? geracao.getGeradoEm() : null)
@@ -225,21 +204,4 @@ public class DashboardHomeService {
         }
         return YearMonth.of(ano, mes);
     }
-
-    private String formatarMesAnoFatura(int ano, int mes) {
-        String mesNome = YearMonth.of(ano, mes)
-                .getMonth()
-                .getDisplayName(TextStyle.FULL, new Locale("pt", "BR"))
-                .toUpperCase(Locale.ROOT)
-                .replace('Ç', 'C')
-                .replace('Ã', 'A')
-                .replace('É', 'E')
-                .replace('Ê', 'E')
-                .replace('Í', 'I')
-                .replace('Ó', 'O')
-                .replace('Ô', 'O')
-                .replace('Õ', 'O')
-                .replace('Ú', 'U');
-        return mesNome + "/" + ano;
-    }
 }
@@ -187,9 +187,10 @@ public class DespesaParceladaService {
             parcela.setClassificacao(despesaParcelada.getClassificacao());
             parcela.setVariabilidade(despesaParcelada.getVariabilidade());
 
-            // Salvar a parcela
-            despesaService.salvarDespesa(parcela);
             parcelas.add(parcela);
         }
+
+        // Todas as parcelas num unico lote de INSERT
+        despesaService.salvarMultiplasDespesas(parcelas);
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.orcamento.service;
 
 import com.example.orcamento.dto.ConfiguracaoDTO;
 import com.example.orcamento.dto.dashboard.DespesasMensaisDTO;
+import com.example.orcamento.model.CartaoCredito;
 import com.example.orcamento.model.ContaCorrente;
 import com.example.orcamento.model.Despesa;
 import com.example.orcamento.model.LancamentoCartao;
@@ -16,10 +17,13 @@ import com.example.orcamento.repository.LancamentoCartaoRepository;
 import com.example.orcamento.repository.MovimentacaoRepository;
 import com.example.orcamento.repository.SubcategoriaDespesaRepository;
 import com.example.orcamento.specification.DespesaSpecification;
+import com.example.orcamento.util.TextoBusca;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -27,11 +31,14 @@ import org.springframework.web.multipart.MultipartFile;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,6 +51,7 @@ public class DespesaService {
     private final MovimentacaoService movimentacaoService;
     private final MovimentacaoRepository movimentacaoRepository;
     private final MetaEconomiaService metaEconomiaService;
+    private final AgregadoMensalService agregadoMensalService;
     @Autowired
     private LancamentoCartaoRepository lancamentoCartaoRepository;
     @Autowired
@@ -63,23 +71,13 @@ public class DespesaService {
     @Transactional
     public Despesa salvarDespesa(Despesa despesa) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        if (despesa.getContaCorrente() != null && despesa.getContaCorrente().getId() == null) {
-            throw new IllegalArgumentException("Conta corrente invalida para salvar a despesa");
-        }
-        if (despesa.getValorPrevisto() == null || despesa.getValorPrevisto().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("O valor previsto da despesa deve ser maior que zero");
-        }
-
-        if (despesa.getSubcategoria() != null && despesa.getSubcategoria().getId() != null) {
-            SubcategoriaDespesa subcategoria = buscarSubcategoriaPorId(despesa.getSubcategoria().getId());
-            despesa.setSubcategoria(subcategoria);
-        } else {
-            throw new IllegalArgumentException("Subcategoria obrigatoria para despesa");
-        }
+        validarNovaDespesa(despesa);
+        despesa.setSubcategoria(buscarSubcategoriaPorId(despesa.getSubcategoria().getId()));
 
         log.info("Salvando uma despesa: {}", despesa);
         despesa.setTenantId(tenantId);
         Despesa despesaSalva = despesaRepository.save(despesa);
+        agregadoMensalService.registrarAlteracao(despesaSalva);
 
         ConfiguracaoDTO configuracao = configuracaoService.getConfiguracoes();
         if (configuracao != null
@@ -179,10 +177,11 @@ public class DespesaService {
                     .dataRecebimento(despesa.getDataPagamento())
                     .dataCadastro(LocalDateTime.now())
                     .build();
-            movimentacaoService.registrarMovimentacao(movimentacao);
+            movimentacaoService.registrarEstorno(movimentacao);
         }
 
         despesaRepository.deleteByIdAndTenantId(id, tenantId);
+        agregadoMensalService.registrarAlteracao(tenantId, despesa.getDataVencimento());
         log.info("despesa.excluida despesaId={} tenantId={}", id, tenantId);
     }
 
@@ -247,6 +246,7 @@ public class DespesaService {
         );
 
         Despesa despesaSalva = despesaRepository.save(despesa);
+        agregadoMensalService.registrarAlteracao(despesaSalva);
         log.info(
                 "despesa.atualizada despesaId={} tenantId={} contaCorrenteId={} subcategoriaId={} valorPrevisto={}",
                 despesaSalva.getId(),
@@ -281,6 +281,7 @@ public class DespesaService {
         BigDecimal valorPagoOriginal = despesa.getValorPago();
         LocalDate dataPagamentoOriginal = despesa.getDataPagamento();
         ContaCorrente contaCorrenteOriginal = despesa.getContaCorrente();
+        LocalDate dataVencimentoOriginal = despesa.getDataVencimento();
 
         despesa.setNome(despesaAtualizada.getNome());
         despesa.setValorPrevisto(despesaAtualizada.getValorPrevisto());
@@ -307,7 +308,10 @@ public class DespesaService {
 
         log.info("Despesa atualizada: {}", despesa);
 
-        return despesaRepository.save(despesa);
+        Despesa despesaSalva = despesaRepository.save(despesa);
+        agregadoMensalService.registrarAlteracao(tenantId, dataVencimentoOriginal);
+        agregadoMensalService.registrarAlteracao(despesaSalva);
+        return despesaSalva;
     }
 
     public Map<String, Map<String, BigDecimal>> listarPorMes(int ano) {
@@ -316,9 +320,11 @@ public class DespesaService {
 
     public Map<String, Map<String, BigDecimal>> listarPorMes(int ano, Long subcategoriaId) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
+        LocalDate inicio = LocalDate.of(ano, 1, 1);
+        LocalDate fim = inicio.plusYears(1);
         List<Despesa> despesas = subcategoriaId != null
-                ? despesaRepository.findByAnoAndSubcategoriaId(tenantId, ano, subcategoriaId)
-                : despesaRepository.findDespesasByAno(tenantId, ano);
+                ? despesaRepository.findByVencimentoNoPeriodoAndSubcategoriaId(tenantId, inicio, fim, subcategoriaId)
+                : despesaRepository.findByVencimentoNoPeriodo(tenantId, inicio, fim);
 
         return despesas.stream()
                 .collect(Collectors.groupingBy(
@@ -345,7 +351,9 @@ public class DespesaService {
     public Map<Long, Double> calcularGastosPorCategoria(Integer ano, Integer mes) {
         log.info("Calculando gastos por categoria para ano={}, mes={}", ano, mes);
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        List<Despesa> despesas = despesaRepository.findByAnoAndMes(tenantId, ano, mes);
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        LocalDate fim = inicio.plusMonths(1);
+        List<Despesa> despesas = despesaRepository.findByPagamentoOuVencimentoNoPeriodo(tenantId, inicio, fim);
         log.info("Despesas encontradas: {}", despesas.size());
         Map<Long, Double> gastosPorCategoria = new HashMap<>();
 
@@ -357,7 +365,7 @@ public class DespesaService {
         }
 
         String tenantIdCartao = com.example.orcamento.security.TenantContext.getTenantId();
-        List<LancamentoCartao> lancamentos = lancamentoCartaoRepository.findByAnoAndMesAndTenantId(ano, mes, tenantIdCartao);
+        List<LancamentoCartao> lancamentos = lancamentoCartaoRepository.findByDataCompraNoPeriodoAndTenantId(inicio, fim, tenantIdCartao);
         log.info("Lancamentos de cartao encontrados: {}", lancamentos.size());
         for (LancamentoCartao lancamento : lancamentos) {
             Long subcategoriaId = lancamento.getSubcategoria() != null ? lancamento.getSubcategoria().getId() : null;
@@ -384,7 +392,7 @@ public class DespesaService {
 
     public List<DespesasMensaisDTO> buscarDespesasPorAno(int ano) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        List<Despesa> despesas = despesaRepository.findDespesasByAno(tenantId, ano);
+        List<Despesa> despesas = despesaRepository.findByVencimentoNoPeriodo(tenantId, LocalDate.of(ano, 1, 1), LocalDate.of(ano + 1, 1, 1));
 
         Map<Integer, List<Despesa>> despesasPorMes = despesas.stream()
                 .collect(Collectors.groupingBy(d -> d.getDataVencimento().getMonthValue()));
@@ -395,12 +403,33 @@ public class DespesaService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Salva varias despesas de uma vez (parcelas, importacoes). As novas sem pagamento nao geram
+     * movimentacao nem atualizam meta, entao vao juntas num unico saveAll e sao gravadas em lote; as
+     * demais seguem o caminho de {@link #salvarDespesa}.
+     */
     @Transactional
     public List<Despesa> salvarMultiplasDespesas(List<Despesa> despesas) {
-        List<Despesa> despesasSalvas = new ArrayList<>();
+        String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
+        Map<Long, SubcategoriaDespesa> subcategorias = new HashMap<>();
+        List<Despesa> despesasSalvas = new ArrayList<>(despesas.size());
+        List<Despesa> emLote = new ArrayList<>();
         for (Despesa despesa : despesas) {
-            despesasSalvas.add(salvarDespesa(despesa));
+            if (despesa.getId() != null || (despesa.getValorPago() != null && despesa.getDataPagamento() != null)) {
+                despesasSalvas.add(salvarDespesa(despesa));
+                continue;
+            }
+            validarNovaDespesa(despesa);
+            despesa.setSubcategoria(subcategorias.computeIfAbsent(despesa.getSubcategoria().getId(), this::buscarSubcategoriaPorId));
+            despesa.setTenantId(tenantId);
+            emLote.add(despesa);
+            despesasSalvas.add(despesa);
         }
+
+        despesaRepository.saveAll(emLote);
+        emLote.forEach(agregadoMensalService::registrarAlteracao);
+
+        log.info("despesa.lote_criado tenantId={} quantidade={} emLote={}", tenantId, despesasSalvas.size(), emLote.size());
         return despesasSalvas;
     }
 
@@ -464,7 +493,9 @@ public class DespesaService {
                 movimentacaoEntrada.getValor()
         );
 
-        return despesaRepository.save(despesa);
+        Despesa despesaSalva = despesaRepository.save(despesa);
+        agregadoMensalService.registrarAlteracao(despesaSalva);
+        return despesaSalva;
     }
 
     public List<Despesa> buscarDespesasRelacionadas(Long metaId) {
@@ -488,7 +519,41 @@ public class DespesaService {
     public boolean verificarFaturaLancadaLegacy(String nomeCartao, int mes, int ano) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
         String nomeBusca = "Fatura Cartao " + nomeCartao;
-        return despesaRepository.existsByNomeLikeAndMesAndAno(tenantId, nomeBusca, mes, ano);
+        YearMonth competencia = YearMonth.of(ano, mes);
+        return despesaRepository.existsByNomeLikeAndVencimentoNoPeriodo(
+                tenantId, nomeBusca, competencia.atDay(1), competencia.plusMonths(1).atDay(1));
+    }
+
+    /**
+     * Versao em lote de {@link #verificarFaturaLancadaLegacy}: uma unica consulta retorna as despesas de
+     * fatura do ano e o cruzamento com os cartoes e feito em memoria. As chaves seguem
+     * {@link GeracaoFaturaCartaoService#chave(Long, int)}.
+     */
+    public Set<String> buscarChavesFaturasLancadasLegacy(List<CartaoCredito> cartoes, int ano) {
+        return buscarChavesFaturasLancadasLegacy(cartoes, LocalDate.of(ano, 1, 1), LocalDate.of(ano + 1, 1, 1));
+    }
+
+    public Set<String> buscarChavesFaturasLancadasLegacy(List<CartaoCredito> cartoes, LocalDate inicio, LocalDate fimExclusivo) {
+        String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
+        List<Object[]> despesasFatura = despesaRepository.findNomeEVencimentoDeFaturasLancadas(tenantId, inicio, fimExclusivo);
+
+        // Os dois lados normalizados, como o LIKE da consulta unitaria na collation _ai_ci do MySQL:
+        // "FATURA CARTÃO Nubank" continua casando com o cartao "nubank"
+        List<String> nomesBusca = cartoes.stream()
+                .map(cartao -> TextoBusca.normalizar("Fatura Cartao " + cartao.getNome()))
+                .toList();
+
+        Set<String> chaves = new HashSet<>();
+        for (Object[] linha : despesasFatura) {
+            String nome = linha[0] != null ? TextoBusca.normalizar((String) linha[0]) : "";
+            int mes = ((LocalDate) linha[1]).getMonthValue();
+            for (int i = 0; i < cartoes.size(); i++) {
+                if (nome.contains(nomesBusca.get(i))) {
+                    chaves.add(GeracaoFaturaCartaoService.chave(cartoes.get(i).getId(), mes));
+                }
+            }
+        }
+        return chaves;
     }
 
     private boolean verificarFaturaLancadaPorGeracaoOuDespesa(String tenantId, String nomeBusca, String nomeCartao, int mes, int ano) {
@@ -499,11 +564,33 @@ public class DespesaService {
         if (existeGeracao) {
             return true;
         }
-        return despesaRepository.existsByNomeLikeAndMesAndAno(tenantId, nomeBusca, mes, ano);
+        YearMonth competencia = YearMonth.of(ano, mes);
+        return despesaRepository.existsByNomeLikeAndVencimentoNoPeriodo(
+                tenantId, nomeBusca, competencia.atDay(1), competencia.plusMonths(1).atDay(1));
     }
 
     public List<Despesa> listarDespesasPorFiltrosDinamicos(Map<String, Object> filtros) {
         log.info("Buscando despesas com filtros dinamicos: {}", filtros);
+        String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
+        return despesaRepository.findAll(DespesaSpecification.comFiltros(tenantId, mapearFiltrosDinamicos(filtros)));
+    }
+
+    /**
+     * Proximas {@code limite} despesas na ordem (dataVencimento desc, id desc) a partir da posicao
+     * informada, com os mesmos filtros dinamicos; {@code dataVencimento}/{@code id} nulos comecam do inicio.
+     */
+    public List<Despesa> listarDespesasDepoisDe(Map<String, Object> filtros, LocalDate dataVencimento, Long id, int limite) {
+        String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
+        Specification<Despesa> especificacao = DespesaSpecification.comFiltros(tenantId, mapearFiltrosDinamicos(filtros))
+                .and(DespesaSpecification.depoisDe(dataVencimento, id));
+        return despesaRepository.findBy(especificacao, consulta -> consulta
+                .sortBy(Sort.by(Sort.Order.desc("dataVencimento"), Sort.Order.desc("id")))
+                .project("subcategoria", "subcategoria.categoria")
+                .limit(limite)
+                .all());
+    }
+
+    private Map<String, Object> mapearFiltrosDinamicos(Map<String, Object> filtros) {
         Map<String, Object> filtrosMapeados = new HashMap<>();
         filtros.forEach((key, value) -> {
             switch (key) {
@@ -515,8 +602,7 @@ public class DespesaService {
                 default -> filtrosMapeados.put(key, value);
             }
         });
-        String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        return despesaRepository.findAll(DespesaSpecification.comFiltros(tenantId, filtrosMapeados));
+        return filtrosMapeados;
     }
 
     public List<Despesa> filtrarDinamico(Map<String, String> params) {
@@ -525,6 +611,18 @@ public class DespesaService {
         return listarDespesasPorFiltrosDinamicos(filtros);
     }
 
+    private void validarNovaDespesa(Despesa despesa) {
+        if (despesa.getContaCorrente() != null && despesa.getContaCorrente().getId() == null) {
+            throw new IllegalArgumentException("Conta corrente invalida para salvar a despesa");
+        }
+        if (despesa.getValorPrevisto() == null || despesa.getValorPrevisto().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("O valor previsto da despesa deve ser maior que zero");
+        }
+        if (despesa.getSubcategoria() == null || despesa.getSubcategoria().getId() == null) {
+            throw new IllegalArgumentException("Subcategoria obrigatoria para despesa");
+        }
+    }
+
     public SubcategoriaDespesa buscarSubcategoriaPorId(Long subcategoriaId) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
         return subcategoriaDespesaRepository.findByIdAndTenantId(subcategoriaId, tenantId)
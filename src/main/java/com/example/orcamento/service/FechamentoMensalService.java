@@ -1,21 +1,14 @@
 package com.example.orcamento.service;
 
 import com.example.orcamento.dto.FechamentoMensalResponseDTO;
+import com.example.orcamento.model.AgregadoMensal;
 import com.example.orcamento.model.ContaCorrente;
-import com.example.orcamento.model.Despesa;
 import com.example.orcamento.model.FechamentoMensal;
 import com.example.orcamento.dto.FechamentoMensalHistoricoDTO;
 import com.example.orcamento.model.FechamentoMensalHistorico;
-import com.example.orcamento.model.LancamentoCartao;
-import com.example.orcamento.model.Receita;
-import com.example.orcamento.model.enums.FormaDePagamento;
-import com.example.orcamento.repository.CartaoCreditoRepository;
 import com.example.orcamento.repository.ContaCorrenteSaldoDiaRepository;
-import com.example.orcamento.repository.DespesaRepository;
 import com.example.orcamento.repository.FechamentoMensalHistoricoRepository;
 import com.example.orcamento.repository.FechamentoMensalRepository;
-import com.example.orcamento.repository.LancamentoCartaoRepository;
-import com.example.orcamento.repository.ReceitaRepository;
 import com.example.orcamento.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,47 +19,41 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.text.Normalizer;
-import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.MonthDay;
 import java.time.YearMonth;
-import java.time.format.TextStyle;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FechamentoMensalService {
 
-    private static final Set<MonthDay> FERIADOS_NACIONAIS_FIXOS = Set.of(
-            MonthDay.of(1, 1),
-            MonthDay.of(4, 21),
-            MonthDay.of(5, 1),
-            MonthDay.of(9, 7),
-            MonthDay.of(10, 12),
-            MonthDay.of(11, 2),
-            MonthDay.of(11, 15),
-            MonthDay.of(11, 20),
-            MonthDay.of(12, 25)
-    );
-
     private final FechamentoMensalRepository fechamentoMensalRepository;
     private final ContaCorrenteService contaCorrenteService;
     private final ContaCorrenteSaldoDiaRepository contaCorrenteSaldoDiaRepository;
-    private final ReceitaRepository receitaRepository;
-    private final DespesaRepository despesaRepository;
-    private final LancamentoCartaoRepository lancamentoCartaoRepository;
-    private final CartaoCreditoRepository cartaoCreditoRepository;
     private final FechamentoMensalHistoricoRepository fechamentoMensalHistoricoRepository;
+    private final AgregadoMensalService agregadoMensalService;
+    private final CompetenciaSnapshotService competenciaSnapshotService;
+    private final CalendarioDiasUteis calendarioDiasUteis;
+
+    private final Map<String, ProjecaoEmCache> projecoesPorTenant = new ConcurrentHashMap<>();
 
     @Value("${app.fechamento-mensal.validar-fechamento-diario-desde:}")
     private String validarFechamentoDiarioDesde;
 
+    @Value("${app.fechamento-mensal.projecao.horizonte-maximo-meses:24}")
+    private int horizonteMaximoProjecaoMeses = 24;
+
+    @Value("${app.fechamento-mensal.projecao.cache-ttl:0s}")
+    private Duration cacheTtlProjecao = Duration.ZERO;
+
     @Transactional
     public FechamentoMensalResponseDTO fecharMes(int ano, int mes) {
         validarAnoMes(ano, mes);
@@ -84,14 +71,16 @@ public class FechamentoMensalService {
                 .toList();
 
         if (deveValidarFechamentoDiario(competencia)) {
-            LocalDate ultimoDiaUtil = obterUltimoDiaUtilDoMes(competencia);
+            LocalDate ultimoDiaUtil = calendarioDiasUteis.ultimoDiaUtilDoMes(competencia);
             validarUltimoDiaUtilFechado(tenantId, contasAtivas, ultimoDiaUtil, ano, mes);
         }
 
-        LocalDate inicioMes = competencia.atDay(1);
-        LocalDate fimMes = competencia.atEndOfMonth();
-
-        ResumoMensal resumoMensal = calcularResumoMensal(competencia, tenantId, contasAtivas, false);
+        agregadoMensalService.recalcular(tenantId, competencia);
+        ResumoMensal resumoMensal = calcularResumoMensal(
+                competencia,
+                tenantId,
+                obterSaldoInicial(contasAtivas, tenantId, competencia)
+        );
 
         FechamentoMensal fechamentoMensal = fechamentoMensalRepository
                 .findByTenantIdAndAnoAndMes(tenantId, ano, mes)
@@ -123,6 +112,7 @@ public class FechamentoMensalService {
         }
 
         FechamentoMensal fechamentoMensalSalvo = fechamentoMensalRepository.save(fechamentoMensal);
+        invalidarProjecoes(tenantId);
         registrarHistorico(
                 tenantId,
                 fechamentoMensalSalvo.getId(),
@@ -182,15 +172,29 @@ public class FechamentoMensalService {
         }
 
         YearMonth competencia = YearMonth.of(ano, mes);
-        List<ContaCorrente> contasAtivas = contaCorrenteService.listarTodos().stream()
-                .filter(ContaCorrente::isContaAtiva)
+        ResumoMensal resumoMensal = projetarAte(tenantId, competencia).get(competencia);
+        return toPrevisaoDto(competencia, resumoMensal);
+    }
+
+    /**
+     * Serie projetada de saldos desde o primeiro mes em aberto da cadeia de previsao ate a competencia
+     * informada. Cada mes usa o saldo final do anterior como saldo inicial.
+     */
+    @Transactional(readOnly = true)
+    public List<FechamentoMensalResponseDTO> listarProjecao(int ano, int mes) {
+        validarAnoMes(ano, mes);
+        String tenantId = TenantContext.getTenantId();
+        YearMonth competencia = YearMonth.of(ano, mes);
+        return projetarAte(tenantId, competencia).entrySet().stream()
+                .map(entry -> toPrevisaoDto(entry.getKey(), entry.getValue()))
                 .toList();
+    }
 
-        ResumoMensal resumoMensal = calcularResumoMensal(competencia, tenantId, contasAtivas, true);
+    private FechamentoMensalResponseDTO toPrevisaoDto(YearMonth competencia, ResumoMensal resumoMensal) {
         return FechamentoMensalResponseDTO.builder()
                 .id(null)
-                .ano(ano)
-                .mes(mes)
+                .ano(competencia.getYear())
+                .mes(competencia.getMonthValue())
                 .fechado(false)
                 .saldoInicial(resumoMensal.saldoInicial())
                 .receitasRealizadas(resumoMensal.receitasRealizadas())
@@ -258,6 +262,7 @@ public class FechamentoMensalService {
                 agora
         );
         fechamentoMensalRepository.deleteByTenantIdAndAnoAndMes(tenantId, ano, mes);
+        invalidarProjecoes(tenantId);
         log.info(
                 "fechamento_mensal.reaberto fechamentoMensalId={} tenantId={} ano={} mes={} username={}",
                 fechamentoMensal.getId(),
@@ -297,67 +302,94 @@ public class FechamentoMensalService {
                 .orElse(BigDecimal.ZERO);
     }
 
-    private ResumoMensal calcularResumoMensal(
-            YearMonth competencia,
-            String tenantId,
-            List<ContaCorrente> contasAtivas,
-            boolean permitirPrevisao
-    ) {
-        LocalDate inicioMes = competencia.atDay(1);
-        LocalDate fimMes = competencia.atEndOfMonth();
-
-        BigDecimal saldoInicial = obterSaldoInicialPreview(contasAtivas, tenantId, competencia, permitirPrevisao);
+    /**
+     * Projeta os meses em aberto ate a competencia alvo caminhando para frente uma unica vez.
+     * O saldo inicial da cadeia vem do ultimo fechamento anterior a ela (ou zero) e cada mes
+     * calculado fica memorizado no mapa retornado, em ordem cronologica.
+     */
+    private LinkedHashMap<YearMonth, ResumoMensal> projetarAte(String tenantId, YearMonth alvo) {
+        YearMonth mesAtual = YearMonth.from(LocalDate.now());
+        if (alvo.isAfter(mesAtual.plusMonths(horizonteMaximoProjecaoMeses))) {
+            throw new IllegalArgumentException(
+                    "Projecao limitada a " + horizonteMaximoProjecaoMeses + " meses a partir de " + mesAtual
+            );
+        }
 
-        List<Receita> receitasMes = receitaRepository.findByDataRecebimentoBetweenAndTenantId(inicioMes, fimMes, tenantId);
-        BigDecimal receitasRealizadas = receitasMes.stream()
-                .filter(receita -> !receita.isPrevista())
-                .map(Receita::getValor)
-                .filter(valor -> valor != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        ProjecaoEmCache emCache = projecoesPorTenant.get(tenantId);
+        if (emCache != null && emCache.valida(mesAtual) && emCache.resumos().containsKey(alvo)) {
+            return recortarAte(emCache.resumos(), alvo);
+        }
 
-        List<Despesa> despesasDoMesLista = despesaRepository.findByTenantIdAndDataVencimentoBetween(tenantId, inicioMes, fimMes);
-        BigDecimal despesasDoMes = despesasDoMesLista.stream()
-                .map(Despesa::getValorPrevisto)
-                .filter(valor -> valor != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<YearMonth, BigDecimal> saldosFechados = new HashMap<>();
+        for (FechamentoMensal fechamento : fechamentoMensalRepository.findByTenantIdOrderByAnoDescMesDesc(tenantId)) {
+            saldosFechados.putIfAbsent(
+                    YearMonth.of(fechamento.getAno(), fechamento.getMes()),
+                    fechamento.getSaldoFinal() != null ? fechamento.getSaldoFinal() : BigDecimal.ZERO
+            );
+        }
 
-        List<Despesa> despesasPagasMes = despesasDoMesLista.stream()
-                .filter(despesa -> despesa.getValorPago() != null)
-                .toList();
+        YearMonth inicio = alvo;
+        while (!saldosFechados.containsKey(inicio.minusMonths(1)) && inicio.minusMonths(1).isAfter(mesAtual)) {
+            inicio = inicio.minusMonths(1);
+        }
 
-        BigDecimal despesasPagas = despesasPagasMes.stream()
-                .map(Despesa::getValorPago)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        LinkedHashMap<YearMonth, ResumoMensal> resumos = new LinkedHashMap<>();
+        BigDecimal saldoInicial = saldosFechados.getOrDefault(inicio.minusMonths(1), BigDecimal.ZERO);
+        for (YearMonth competencia = inicio; !competencia.isAfter(alvo); competencia = competencia.plusMonths(1)) {
+            ResumoMensal resumo = calcularResumoMensal(competencia, tenantId, saldoInicial);
+            resumos.put(competencia, resumo);
+            saldoInicial = resumo.saldoFinal();
+        }
 
-        BigDecimal despesasPagasCartao = despesasDoMesLista.stream()
-                .filter(despesa -> despesa.getFormaDePagamento() == FormaDePagamento.CREDITO)
-                .filter(despesa -> despesa.getValorPago() != null)
-                .map(Despesa::getValorPago)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (!cacheTtlProjecao.isZero() && !cacheTtlProjecao.isNegative()) {
+            projecoesPorTenant.put(tenantId, new ProjecaoEmCache(
+                    mesAtual,
+                    LocalDateTime.now().plus(cacheTtlProjecao),
+                    resumos
+            ));
+        }
 
-        BigDecimal despesasPagasNoCaixa = despesasPagasMes.stream()
-                .filter(despesa -> despesa.getFormaDePagamento() != FormaDePagamento.CREDITO)
-                .map(Despesa::getValorPago)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        log.debug(
+                "fechamento_mensal.projecao tenantId={} inicio={} alvo={} meses={}",
+                tenantId,
+                inicio,
+                alvo,
+                resumos.size()
+        );
+        return resumos;
+    }
 
-        String mesAnoFatura = formatarMesAnoFatura(competencia.getYear(), competencia.getMonthValue());
-        List<LancamentoCartao> faturasMes = lancamentoCartaoRepository.findByMesAnoFaturaAndTenantId(mesAnoFatura, tenantId);
+    private LinkedHashMap<YearMonth, ResumoMensal> recortarAte(Map<YearMonth, ResumoMensal> resumos, YearMonth alvo) {
+        LinkedHashMap<YearMonth, ResumoMensal> recorte = new LinkedHashMap<>();
+        for (Map.Entry<YearMonth, ResumoMensal> entry : resumos.entrySet()) {
+            if (entry.getKey().isAfter(alvo)) {
+                break;
+            }
+            recorte.put(entry.getKey(), entry.getValue());
+        }
+        return recorte;
+    }
 
-        BigDecimal totalFaturas = faturasMes.stream()
-                .map(LancamentoCartao::getValorTotal)
-                .filter(valor -> valor != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private void invalidarProjecoes(String tenantId) {
+        if (tenantId != null) {
+            projecoesPorTenant.remove(tenantId);
+        }
+    }
 
-        BigDecimal totalTerceirosFaturas = faturasMes.stream()
-                .filter(lancamento -> "Terceiros".equalsIgnoreCase(lancamento.getProprietario()))
-                .map(LancamentoCartao::getValorTotal)
-                .filter(valor -> valor != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private ResumoMensal calcularResumoMensal(YearMonth competencia, String tenantId, BigDecimal saldoInicial) {
+        AgregadoMensal agregado = agregadoMensalService.obterTotais(tenantId, competencia);
+        BigDecimal receitasRealizadas = agregado.getReceitasRealizadas();
+        BigDecimal despesasDoMes = agregado.getDespesasDoMes();
+        BigDecimal despesasPagas = agregado.getDespesasPagas();
+        BigDecimal despesasPagasCartao = agregado.getDespesasPagasCartao();
+        BigDecimal despesasPagasNoCaixa = agregado.getDespesasPagasNoCaixa();
+        BigDecimal totalFaturas = agregado.getTotalFaturas();
+        BigDecimal totalTerceirosFaturas = agregado.getTotalTerceirosFaturas();
 
         IndicadoresFatura indicadoresFatura = calcularIndicadoresFatura(
                 tenantId,
                 competencia,
-                despesasDoMesLista,
+                agregado.getDespesasFaturaCartao(),
                 totalFaturas,
                 totalTerceirosFaturas
         );
@@ -383,33 +415,16 @@ public class FechamentoMensalService {
     private IndicadoresFatura calcularIndicadoresFatura(
             String tenantId,
             YearMonth competencia,
-            List<Despesa> despesasDoMesLista,
+            BigDecimal totalFaturasLancadasComoDespesa,
             BigDecimal totalFaturas,
             BigDecimal totalTerceirosFaturas
     ) {
         BigDecimal totalFaturasProprias = totalFaturas.subtract(totalTerceirosFaturas).max(BigDecimal.ZERO);
 
-        BigDecimal totalFaturasLancadasComoDespesa = despesasDoMesLista.stream()
-                .filter(this::isDespesaDeFaturaCartao)
-                .map(Despesa::getValorPrevisto)
-                .filter(valor -> valor != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        String mesAnoFatura = formatarMesAnoFatura(competencia.getYear(), competencia.getMonthValue());
-        BigDecimal totalFaturasNaoLancadas = cartaoCreditoRepository.findByTenantId(tenantId).stream()
-                .filter(cartao -> !despesaRepository.existsByNomeLikeAndMesAndAno(
-                        tenantId,
-                        "Fatura Cartao " + cartao.getNome(),
-                        competencia.getMonthValue(),
-                        competencia.getYear()
-                ))
-                .map(cartao -> {
-                    BigDecimal valorFatura = lancamentoCartaoRepository.getFaturaDoMes(cartao.getId(), mesAnoFatura, tenantId);
-                    BigDecimal valorTerceiros = lancamentoCartaoRepository.getFaturaDoMesTerceiros(cartao.getId(), mesAnoFatura, tenantId);
-                    BigDecimal total = valorFatura != null ? valorFatura : BigDecimal.ZERO;
-                    BigDecimal terceiros = valorTerceiros != null ? valorTerceiros : BigDecimal.ZERO;
-                    return total.subtract(terceiros).max(BigDecimal.ZERO);
-                })
+        CompetenciaSnapshot snapshot = competenciaSnapshotService.obter(tenantId, competencia);
+        BigDecimal totalFaturasNaoLancadas = snapshot.getCartoes().stream()
+                .filter(cartao -> !snapshot.isFaturaLancadaComoDespesa(cartao.getId()))
+                .map(cartao -> snapshot.valorProprio(cartao.getId()))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         return new IndicadoresFatura(
@@ -419,106 +434,6 @@ public class FechamentoMensalService {
         );
     }
 
-    private boolean isDespesaDeFaturaCartao(Despesa despesa) {
-        if (despesa.getNome() == null || despesa.getNome().isBlank()) {
-            return false;
-        }
-        String normalizado = Normalizer.normalize(despesa.getNome(), Normalizer.Form.NFD)
-                .replaceAll("\\p{M}", "")
-                .toUpperCase(Locale.ROOT);
-        return normalizado.startsWith("FATURA CARTAO ");
-    }
-
-    private BigDecimal obterSaldoInicialPreview(
-            List<ContaCorrente> contasAtivas,
-            String tenantId,
-            YearMonth competencia,
-            boolean permitirPrevisao
-    ) {
-        YearMonth competenciaAnterior = competencia.minusMonths(1);
-
-        Optional<FechamentoMensal> fechamentoAnterior = fechamentoMensalRepository
-                .findByTenantIdAndAnoAndMes(tenantId, competenciaAnterior.getYear(), competenciaAnterior.getMonthValue());
-        if (fechamentoAnterior.isPresent()) {
-            return fechamentoAnterior.get().getSaldoFinal();
-        }
-
-        if (!permitirPrevisao) {
-            return BigDecimal.ZERO;
-        }
-
-        YearMonth mesAtual = YearMonth.from(LocalDate.now());
-        if (competenciaAnterior.isAfter(mesAtual)) {
-            ResumoMensal resumoAnterior = calcularResumoMensal(competenciaAnterior, tenantId, contasAtivas, true);
-            return resumoAnterior.saldoFinal();
-        }
-
-        return BigDecimal.ZERO;
-    }
-
-    private LocalDate obterUltimoDiaUtilDoMes(YearMonth competencia) {
-        LocalDate data = competencia.atEndOfMonth();
-        while (!isDiaUtil(data)) {
-            data = data.minusDays(1);
-        }
-        return data;
-    }
-
-    private boolean isDiaUtil(LocalDate data) {
-        DayOfWeek dayOfWeek = data.getDayOfWeek();
-        return dayOfWeek != DayOfWeek.SATURDAY
-                && dayOfWeek != DayOfWeek.SUNDAY
-                && !isFeriadoNacional(data);
-    }
-
-    private boolean isFeriadoNacional(LocalDate data) {
-        if (FERIADOS_NACIONAIS_FIXOS.contains(MonthDay.from(data))) {
-            return true;
-        }
-
-        LocalDate pascoa = calcularPascoa(data.getYear());
-        return data.equals(pascoa.minusDays(48))
-                || data.equals(pascoa.minusDays(47))
-                || data.equals(pascoa.minusDays(2))
-                || data.equals(pascoa)
-                || data.equals(pascoa.plusDays(60));
-    }
-
-    private LocalDate calcularPascoa(int ano) {
-        int a = ano % 19;
-        int b = ano / 100;
-        int c = ano % 100;
-        int d = b / 4;
-        int e = b % 4;
-        int f = (b + 8) / 25;
-        int g = (b - f + 1) / 3;
-        int h = (19 * a + b - d - g + 15) % 30;
-        int i = c / 4;
-        int k = c % 4;
-        int l = (32 + 2 * e + 2 * i - h - k) % 7;
-        int m = (a + 11 * h + 22 * l) / 451;
-        int mes = (h + l - 7 * m + 114) / 31;
-        int dia = ((h + l - 7 * m + 114) % 31) + 1;
-        return LocalDate.of(ano, mes, dia);
-    }
-
-    private String formatarMesAnoFatura(int ano, int mes) {
-        String mesNome = YearMonth.of(ano, mes)
-                .getMonth()
-                .getDisplayName(TextStyle.FULL, new Locale("pt", "BR"))
-                .toUpperCase(Locale.ROOT)
-                .replace('Ç', 'C')
-                .replace('Ã', 'A')
-                .replace('É', 'E')
-                .replace('Ê', 'E')
-                .replace('Í', 'I')
-                .replace('Ó', 'O')
-                .replace('Ô', 'O')
-                .replace('Õ', 'O')
-                .replace('Ú', 'U');
-        return mesNome + "/" + ano;
-    }
-
     private void validarAnoMes(int ano, int mes) {
         if (ano < 2000 || ano > 3000) {
             throw new IllegalArgumentException("ano invalido");
@@ -543,13 +458,10 @@ public class FechamentoMensalService {
     private FechamentoMensalResponseDTO toResponseDto(FechamentoMensal fechamentoMensal) {
         String tenantId = TenantContext.getTenantId();
         YearMonth competencia = YearMonth.of(fechamentoMensal.getAno(), fechamentoMensal.getMes());
-        LocalDate inicioMes = competencia.atDay(1);
-        LocalDate fimMes = competencia.atEndOfMonth();
-        List<Despesa> despesasDoMesLista = despesaRepository.findByTenantIdAndDataVencimentoBetween(tenantId, inicioMes, fimMes);
         IndicadoresFatura indicadoresFatura = calcularIndicadoresFatura(
                 tenantId,
                 competencia,
-                despesasDoMesLista,
+                agregadoMensalService.obterTotais(tenantId, competencia).getDespesasFaturaCartao(),
                 fechamentoMensal.getTotalFaturas(),
                 fechamentoMensal.getTotalTerceirosFaturas()
         );
@@ -623,6 +535,16 @@ public class FechamentoMensalService {
     ) {
     }
 
+    private record ProjecaoEmCache(
+            YearMonth mesReferencia,
+            LocalDateTime expiraEm,
+            Map<YearMonth, ResumoMensal> resumos
+    ) {
+        boolean valida(YearMonth mesAtual) {
+            return mesReferencia.equals(mesAtual) && LocalDateTime.now().isBefore(expiraEm);
+        }
+    }
+
     private record IndicadoresFatura(
             BigDecimal totalFaturasProprias,
             BigDecimal totalFaturasLancadasComoDespesa,
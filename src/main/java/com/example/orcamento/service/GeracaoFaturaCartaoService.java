@@ -15,6 +15,7 @@ import com.example.orcamento.repository.GeracaoFaturaCartaoRepository;
 import com.example.orcamento.repository.LancamentoCartaoRepository;
 import com.example.orcamento.repository.SubcategoriaDespesaRepository;
 import com.example.orcamento.security.TenantContext;
+import com.example.orcamento.util.CompetenciaFatura;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -48,6 +49,7 @@ public class GeracaoFaturaCartaoService {
     private final DespesaRepository despesaRepository;
     private final DespesaService despesaService;
     private final SubcategoriaDespesaRepository subcategoriaDespesaRepository;
+    private final AgregadoMensalService agregadoMensalService;
 
     @Transactional
     public GeracaoFaturaCartaoResponseDTO gerarFatura(Long cartaoCreditoId, int ano, int mes) {
@@ -155,6 +157,7 @@ public class GeracaoFaturaCartaoService {
         if (despesa != null) {
             despesa.setValorPrevisto(valorProprio);
             despesaRepository.save(despesa);
+            agregadoMensalService.registrarAlteracao(despesa);
         }
 
         GeracaoFaturaCartao geracaoSalva = geracaoFaturaCartaoRepository.save(geracao);
@@ -223,6 +226,7 @@ public class GeracaoFaturaCartaoService {
             throw new IllegalStateException("Nao e permitido reprocessar uma fatura cuja despesa ja foi paga");
         }
 
+        LocalDate dataVencimentoOriginal = despesa.getDataVencimento();
         despesa.setNome("Fatura Cartao " + cartao.getNome());
         despesa.setValorPrevisto(valorProprio);
         despesa.setDataVencimento(obterDataVencimento(cartao, competencia));
@@ -230,7 +234,10 @@ public class GeracaoFaturaCartaoService {
         despesa.setSubcategoria(buscarSubcategoriaPagamentoFatura(tenantId));
         despesa.setClassificacao(TipoClassificacaoDespesa.NECESSARIO);
         despesa.setVariabilidade(TipoVariabilidadeDespesa.VARIAVEL);
-        return despesaRepository.save(despesa);
+        Despesa despesaSalva = despesaRepository.save(despesa);
+        agregadoMensalService.registrarAlteracao(tenantId, dataVencimentoOriginal);
+        agregadoMensalService.registrarAlteracao(despesaSalva);
+        return despesaSalva;
     }
 
     private SubcategoriaDespesa buscarSubcategoriaPagamentoFatura(String tenantId) {
@@ -249,12 +256,12 @@ public class GeracaoFaturaCartaoService {
     }
 
     private BigDecimal obterValorFatura(Long cartaoId, YearMonth competencia, String tenantId) {
-        BigDecimal valor = lancamentoCartaoRepository.getFaturaDoMes(cartaoId, formatarMesAnoFatura(competencia), tenantId);
+        BigDecimal valor = lancamentoCartaoRepository.getFaturaDoMes(cartaoId, CompetenciaFatura.paraInteiro(competencia), tenantId);
         return valor != null ? valor : BigDecimal.ZERO;
     }
 
     private BigDecimal obterValorTerceiros(Long cartaoId, YearMonth competencia, String tenantId) {
-        BigDecimal valor = lancamentoCartaoRepository.getFaturaDoMesTerceiros(cartaoId, formatarMesAnoFatura(competencia), tenantId);
+        BigDecimal valor = lancamentoCartaoRepository.getFaturaDoMesTerceiros(cartaoId, CompetenciaFatura.paraInteiro(competencia), tenantId);
         return valor != null ? valor : BigDecimal.ZERO;
     }
 
@@ -287,22 +294,6 @@ public class GeracaoFaturaCartaoService {
                 .build();
     }
 
-    private String formatarMesAnoFatura(YearMonth competencia) {
-        String mesNome = competencia.getMonth()
-                .getDisplayName(TextStyle.FULL, new Locale("pt", "BR"))
-                .toUpperCase(Locale.ROOT)
-                .replace('Ç', 'C')
-                .replace('Ã', 'A')
-                .replace('É', 'E')
-                .replace('Ê', 'E')
-                .replace('Í', 'I')
-                .replace('Ó', 'O')
-                .replace('Ô', 'O')
-                .replace('Õ', 'O')
-                .replace('Ú', 'U');
-        return mesNome + "/" + competencia.getYear();
-    }
-
     private String formatarMesAnoAbreviado(YearMonth competencia) {
         String mesNome = competencia.getMonth()
                 .getDisplayName(TextStyle.SHORT, new Locale("pt", "BR"))
@@ -0,0 +1,94 @@
+package com.example.orcamento.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Indice em memoria usado pela conciliacao OFX: os candidatos (despesas, receitas, movimentacoes)
+ * ficam agrupados pelo valor absoluto em centavos e ordenados por data dentro de cada grupo. Cada
+ * movimento do extrato consulta apenas os grupos dentro da tolerancia de valor e, em cada grupo, a
+ * janela de +-toleranciaDias, em vez de percorrer a lista inteira de candidatos.
+ *
+ * <p>{@link #buscar} devolve os candidatos na ordem da lista original, preservando o resultado da
+ * varredura linear que o indice substitui.</p>
+ */
+final class IndiceConciliacaoOfx<T> {
+
+    private final NavigableMap<Long, List<Entrada<T>>> porCentavos = new TreeMap<>();
+
+    IndiceConciliacaoOfx(List<T> itens, Function<T, LocalDate> data, Function<T, BigDecimal> valor) {
+        for (int posicao = 0; posicao < itens.size(); posicao++) {
+            T item = itens.get(posicao);
+            LocalDate dataItem = data.apply(item);
+            BigDecimal valorItem = valor.apply(item);
+            if (dataItem == null || valorItem == null) {
+                continue;
+            }
+            porCentavos.computeIfAbsent(centavos(valorItem), chave -> new ArrayList<>())
+                    .add(new Entrada<>(posicao, dataItem.toEpochDay(), item));
+        }
+        porCentavos.values().forEach(grupo -> grupo.sort(Comparator.comparingLong(Entrada::dia)));
+    }
+
+    /**
+     * Candidatos com data em {@code [data - toleranciaDias, data + toleranciaDias]} e valor absoluto a no
+     * maximo {@code toleranciaCentavos} de {@code valor}, que ainda satisfazem {@code filtro}. O filtro
+     * deve aplicar a regra exata de tolerancia de valor; o indice apenas limita quem e avaliado.
+     */
+    List<T> buscar(LocalDate data, BigDecimal valor, int toleranciaDias, long toleranciaCentavos, Predicate<T> filtro) {
+        if (data == null || valor == null || toleranciaDias < 0) {
+            return List.of();
+        }
+        long alvo = centavos(valor);
+        long janela = Math.max(toleranciaCentavos, 0);
+        long diaInicial = data.toEpochDay() - toleranciaDias;
+        long diaFinal = data.toEpochDay() + toleranciaDias;
+
+        List<Entrada<T>> encontrados = new ArrayList<>();
+        for (List<Entrada<T>> grupo : porCentavos.subMap(alvo - janela, true, alvo + janela, true).values()) {
+            for (int i = primeiroIndiceAPartirDe(grupo, diaInicial); i < grupo.size() && grupo.get(i).dia() <= diaFinal; i++) {
+                if (filtro.test(grupo.get(i).item())) {
+                    encontrados.add(grupo.get(i));
+                }
+            }
+        }
+        encontrados.sort(Comparator.comparingInt(Entrada::posicao));
+        return encontrados.stream().map(Entrada::item).toList();
+    }
+
+    static long centavos(BigDecimal valor) {
+        return valor.abs().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static long toleranciaEmCentavos(BigDecimal toleranciaValor) {
+        if (toleranciaValor == null || toleranciaValor.signum() <= 0) {
+            return 0;
+        }
+        return toleranciaValor.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+    }
+
+    private static <T> int primeiroIndiceAPartirDe(List<Entrada<T>> grupo, long dia) {
+        int inicio = 0;
+        int fim = grupo.size();
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (grupo.get(meio).dia() < dia) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    private record Entrada<T>(int posicao, long dia, T item) {
+    }
+}
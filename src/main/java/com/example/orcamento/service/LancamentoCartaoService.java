@@ -16,17 +16,22 @@ import com.example.orcamento.repository.CartaoCreditoRepository;
 import com.example.orcamento.repository.LancamentoCartaoRepository;
 import com.example.orcamento.repository.SubcategoriaDespesaRepository;
 import com.example.orcamento.specification.LancamentoCartaoSpecification;
+import com.example.orcamento.util.CompetenciaFatura;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,12 +44,17 @@ public class LancamentoCartaoService {
     private final DespesaService despesaService;
     private final CompraMapper compraMapper;
     private final GeracaoFaturaCartaoService geracaoFaturaCartaoService;
+    private final AgregadoMensalService agregadoMensalService;
+    private final AgregadoCartaoMensalService agregadoCartaoMensalService;
 
     public LancamentoCartao cadastrarLancamento(LancamentoCartao lancamento) {
         log.info("Lancamento a ser salvo: {}", lancamento);
         lancamento.setTenantId(com.example.orcamento.security.TenantContext.getTenantId());
         validarLancamento(lancamento);
-        return lancamentoCartaoRepository.save(lancamento);
+        LancamentoCartao lancamentoSalvo = lancamentoCartaoRepository.save(lancamento);
+        agregadoMensalService.registrarAlteracao(lancamentoSalvo);
+        agregadoCartaoMensalService.registrarAlteracao(lancamentoSalvo);
+        return lancamentoSalvo;
     }
 
     @Transactional
@@ -54,7 +64,10 @@ public class LancamentoCartaoService {
             l.setTenantId(tenantId);
             validarLancamento(l);
         });
-        return lancamentoCartaoRepository.saveAll(lancamentos);
+        List<LancamentoCartao> lancamentosSalvos = lancamentoCartaoRepository.saveAll(lancamentos);
+        lancamentosSalvos.forEach(agregadoMensalService::registrarAlteracao);
+        lancamentosSalvos.forEach(agregadoCartaoMensalService::registrarAlteracao);
+        return lancamentosSalvos;
     }
 
     public List<LancamentoCartao> listarLancamentos() {
@@ -64,7 +77,7 @@ public class LancamentoCartaoService {
 
     public List<LancamentoCartaoComCompraDTO> listarLancamentosComCompra() {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        List<LancamentoCartao> lancamentos = lancamentoCartaoRepository.findByTenantId(tenantId);
+        List<LancamentoCartao> lancamentos = lancamentoCartaoRepository.findComCompraByTenantId(tenantId);
         return lancamentos.stream()
                 .map(this::toLancamentoCartaoComCompraDTO)
                 .collect(Collectors.toList());
@@ -105,14 +118,17 @@ public class LancamentoCartaoService {
 
     public void excluirLancamento(Long id) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        buscarLancamentoPorId(id, tenantId);
+        LancamentoCartao lancamento = buscarLancamentoPorId(id, tenantId);
         lancamentoCartaoRepository.deleteByIdAndTenantId(id, tenantId);
+        agregadoMensalService.registrarAlteracao(lancamento);
+        agregadoCartaoMensalService.registrarAlteracao(lancamento);
     }
 
     @Transactional
     public LancamentoCartao atualizarLancamento(Long id, LancamentoCartao lancamentoAtualizado) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
         LancamentoCartao lancamentoExistente = buscarLancamentoPorId(id, tenantId);
+        String mesAnoFaturaOriginal = lancamentoExistente.getMesAnoFatura();
 
         lancamentoExistente.setDescricao(lancamentoAtualizado.getDescricao());
         lancamentoExistente.setValorTotal(lancamentoAtualizado.getValorTotal());
@@ -139,7 +155,12 @@ public class LancamentoCartaoService {
         }
 
         validarLancamento(lancamentoExistente);
-        return lancamentoCartaoRepository.save(lancamentoExistente);
+        LancamentoCartao lancamentoSalvo = lancamentoCartaoRepository.save(lancamentoExistente);
+        agregadoMensalService.registrarAlteracaoFatura(tenantId, mesAnoFaturaOriginal);
+        agregadoCartaoMensalService.registrarAlteracaoFatura(tenantId, mesAnoFaturaOriginal);
+        agregadoMensalService.registrarAlteracao(lancamentoSalvo);
+        agregadoCartaoMensalService.registrarAlteracao(lancamentoSalvo);
+        return lancamentoSalvo;
     }
 
     private void validarLancamento(LancamentoCartao lancamento) {
@@ -174,31 +195,38 @@ public class LancamentoCartaoService {
     public List<FaturaCartaoAnualDTO> getFaturasAnuais(int ano) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
         Map<String, GeracaoFaturaCartao> geracoesPorChave = geracaoFaturaCartaoService.listarGeracoesPorAnoMapeadas(ano);
-        List<Long> cartoesIds = cartaoCreditoRepository.findByTenantId(tenantId).stream()
-                .map(CartaoCredito::getId)
-                .toList();
+        List<CartaoCredito> cartoes = cartaoCreditoRepository.findByTenantId(tenantId);
+        if (cartoes.isEmpty()) {
+            return List.of();
+        }
 
-        return cartoesIds.stream()
-                .map(cartaoId -> {
-                    FaturaCartaoAnualDTO dto = new FaturaCartaoAnualDTO();
-                    dto.setCartaoId(cartaoId);
+        Map<String, TotaisFatura> totaisPorChave = new HashMap<>();
+        List<Object[]> totais = lancamentoCartaoRepository.somarFaturasPorCartaoECompetencia(
+                tenantId,
+                CompetenciaFatura.paraInteiro(YearMonth.of(ano, 1)),
+                CompetenciaFatura.paraInteiro(YearMonth.of(ano, 12))
+        );
+        for (Object[] linha : totais) {
+            totaisPorChave.put(linha[0] + "|" + linha[1], new TotaisFatura((BigDecimal) linha[2], (BigDecimal) linha[3]));
+        }
+        Set<String> faturasLancadas = despesaService.buscarChavesFaturasLancadasLegacy(cartoes, ano);
 
-                    CartaoCredito cartao = buscarCartaoPorId(cartaoId, tenantId);
+        return cartoes.stream()
+                .map(cartao -> {
+                    FaturaCartaoAnualDTO dto = new FaturaCartaoAnualDTO();
+                    dto.setCartaoId(cartao.getId());
 
                     Map<String, FaturaMensalDTO> faturasPorMes = new LinkedHashMap<>();
                     for (int mesNum = 1; mesNum <= 12; mesNum++) {
-                        String mesNome = mesParaString(mesNum);
-                        String mesAnoFatura = mesNome + "/" + ano;
-                        GeracaoFaturaCartao geracao = geracoesPorChave.get(GeracaoFaturaCartaoService.chave(cartaoId, mesNum));
-
-                        BigDecimal valorFatura = lancamentoCartaoRepository.getFaturaDoMes(cartaoId, mesAnoFatura, tenantId);
-                        BigDecimal valorTerceiros = lancamentoCartaoRepository.getFaturaDoMesTerceiros(cartaoId, mesAnoFatura, tenantId);
-                        boolean faturaLancada = despesaService.verificarFaturaLancada(cartao.getNome(), mesNum, ano);
+                        String chave = GeracaoFaturaCartaoService.chave(cartao.getId(), mesNum);
+                        GeracaoFaturaCartao geracao = geracoesPorChave.get(chave);
+                        TotaisFatura totaisDoMes = totaisPorChave.get(
+                                cartao.getId() + "|" + CompetenciaFatura.paraInteiro(YearMonth.of(ano, mesNum)));
 
                         FaturaMensalDTO faturaMensalDTO = new FaturaMensalDTO(
-                                valorFatura != null ? valorFatura : BigDecimal.ZERO,
-                                faturaLancada,
-                                valorTerceiros != null ? valorTerceiros : BigDecimal.ZERO,
+                                totaisDoMes != null ? totaisDoMes.valor() : BigDecimal.ZERO,
+                                geracao != null || faturasLancadas.contains(chave),
+                                totaisDoMes != null ? totaisDoMes.valorTerceiros() : BigDecimal.ZERO,
                                 geracao != null ? geracao.getId() : null,
                                 geracao != null ? geracao.getGeradoPor() : null,
                                 geracao != null ? geracao.getGeradoEm() : null,
@@ -206,34 +234,15 @@ public class LancamentoCartaoService {
                                 geracao != null ? geracao.getUltimoReprocessamentoEm() : null
                         );
 
-                        faturasPorMes.put(mesNome, faturaMensalDTO);
+                        faturasPorMes.put(CompetenciaFatura.nomeDoMes(mesNum), faturaMensalDTO);
                     }
 
                     dto.setFaturasPorMes(faturasPorMes);
                     return dto;
                 })
-                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
-    private String mesParaString(int mes) {
-        return switch (mes) {
-            case 1 -> "JANEIRO";
-            case 2 -> "FEVEREIRO";
-            case 3 -> "MARCO";
-            case 4 -> "ABRIL";
-            case 5 -> "MAIO";
-            case 6 -> "JUNHO";
-            case 7 -> "JULHO";
-            case 8 -> "AGOSTO";
-            case 9 -> "SETEMBRO";
-            case 10 -> "OUTUBRO";
-            case 11 -> "NOVEMBRO";
-            case 12 -> "DEZEMBRO";
-            default -> "DESCONHECIDO";
-        };
-    }
-
     public List<LancamentoCartao> listarLancamentosPorFiltros(Long cartaoId, String mesAnoFatura) {
         log.info("Buscando lancamentos com filtros - cartaoId: {}, mesAnoFatura: {}", cartaoId, mesAnoFatura);
 
@@ -241,6 +250,7 @@ public class LancamentoCartaoService {
         return lancamentoCartaoRepository.findByCartaoAndMesAno(cartaoId, mesAnoFatura, tenantId);
     }
 
+    @Transactional
     public LancamentoCartao atualizarStatusPagamento(Long id, Boolean pagoPorTerceiro) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
         LancamentoCartao lancamento = buscarLancamentoPorId(id, tenantId);
@@ -269,6 +279,20 @@ public class LancamentoCartaoService {
         return lancamentoCartaoRepository.findAll(LancamentoCartaoSpecification.comFiltros(filtros));
     }
 
+    /**
+     * Proximos {@code limite} lancamentos na ordem (competencia desc, id desc) a partir da posicao
+     * informada, com os mesmos filtros dinamicos; {@code competencia}/{@code id} nulos comecam do inicio.
+     */
+    public List<LancamentoCartao> listarLancamentosDepoisDe(Map<String, Object> filtros, Integer competencia, Long id, int limite) {
+        Specification<LancamentoCartao> especificacao = LancamentoCartaoSpecification.comFiltros(filtros)
+                .and(LancamentoCartaoSpecification.depoisDe(competencia, id));
+        return lancamentoCartaoRepository.findBy(especificacao, consulta -> consulta
+                .sortBy(Sort.by(Sort.Order.desc("competencia"), Sort.Order.desc("id")))
+                .project("subcategoria", "subcategoria.categoria")
+                .limit(limite)
+                .all());
+    }
+
     public LancamentoCartaoDetalhadoDTO buscarLancamentoComCompra(Long id) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
         LancamentoCartao lancamento = buscarLancamentoPorId(id, tenantId);
@@ -311,4 +335,7 @@ public class LancamentoCartaoService {
         return subcategoriaDespesaRepository.findByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> new EntityNotFoundException("Subcategoria nao encontrada para o tenant atual: " + id));
     }
+
+    private record TotaisFatura(BigDecimal valor, BigDecimal valorTerceiros) {
+    }
 }
@@ -0,0 +1,325 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.conciliacao.MovimentoOfxDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Leitor OFX de passagem unica: o SHA-256 do arquivo e calculado por um {@link DigestInputStream}
+ * enquanto os bytes sao tokenizados, sem carregar o arquivo inteiro em memoria nem ler o upload duas vezes.
+ *
+ * <p>A tokenizacao e feita diretamente sobre os bytes, tag a tag, e nao depende de quebras de linha:
+ * aceita OFX 1.x SGML (uma tag por linha ou tudo em uma linha) e OFX 2.x XML. Apenas os valores das tags
+ * usadas na conciliacao viram objetos; tags e valores muito longos sao truncados, de forma que a memoria
+ * usada pela leitura nao cresce com o tamanho do arquivo, apenas com o numero de movimentos.</p>
+ */
+final class LeitorOfx {
+
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final int TAMANHO_MAXIMO_TAG = 256;
+    private static final int TAMANHO_MAXIMO_VALOR = 4096;
+    private static final int TAMANHO_MAXIMO_CABECALHO = 1024;
+
+    private static final byte[] STMTTRN = ascii("STMTTRN");
+    private static final byte[] BANKID = ascii("BANKID");
+    private static final byte[] ACCTID = ascii("ACCTID");
+    private static final byte[] DTSTART = ascii("DTSTART");
+    private static final byte[] DTEND = ascii("DTEND");
+    private static final byte[] DTPOSTED = ascii("DTPOSTED");
+    private static final byte[] TRNAMT = ascii("TRNAMT");
+    private static final byte[] FITID = ascii("FITID");
+    private static final byte[] MEMO = ascii("MEMO");
+
+    private final InputStream entrada;
+    private final byte[] buffer = new byte[TAMANHO_BUFFER];
+    private int posicao;
+    private int limite;
+
+    private final byte[] tag = new byte[TAMANHO_MAXIMO_TAG];
+    private int tamanhoTag;
+    private final byte[] valor = new byte[TAMANHO_MAXIMO_VALOR];
+    private int inicioValor;
+    private int fimValor;
+    private final char[] caracteres = new char[TAMANHO_MAXIMO_VALOR];
+
+    private final StringBuilder cabecalho = new StringBuilder();
+    private Charset charset = WINDOWS_1252;
+    private boolean xml;
+
+    private LeitorOfx(InputStream entrada) {
+        this.entrada = entrada;
+    }
+
+    static Extrato ler(InputStream entrada) throws IOException {
+        MessageDigest digest = novoDigest();
+        // A leitura so termina no fim do arquivo, entao o digest cobre todos os bytes do upload.
+        Extrato extrato = new LeitorOfx(new DigestInputStream(entrada, digest)).ler();
+        return extrato.comHash(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /** Apenas o SHA-256, para registrar arquivos que falharam antes ou durante a leitura. */
+    static String sha256(InputStream entrada) throws IOException {
+        MessageDigest digest = novoDigest();
+        entrada.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+
+    private Extrato ler() throws IOException {
+        String bankId = null;
+        String accountId = null;
+        LocalDate periodoInicio = null;
+        LocalDate periodoFim = null;
+        List<MovimentoOfxDTO> movimentos = new ArrayList<>();
+        boolean antesDaPrimeiraTag = true;
+        MovimentoOfxDTO.MovimentoOfxDTOBuilder atual = null;
+
+        int b;
+        while ((b = proximo()) != -1) {
+            if (b != '<') {
+                if (antesDaPrimeiraTag && cabecalho.length() < TAMANHO_MAXIMO_CABECALHO) {
+                    cabecalho.append((char) b);
+                }
+                continue;
+            }
+            if (antesDaPrimeiraTag) {
+                antesDaPrimeiraTag = false;
+                if (cabecalho.indexOf("UTF-8") >= 0) {
+                    charset = StandardCharsets.UTF_8;
+                }
+            }
+
+            lerTag();
+            if (tamanhoTag == 0) {
+                continue;
+            }
+            if (tag[0] == '?' || tag[0] == '!') {
+                tratarInstrucao();
+                continue;
+            }
+            if (tag[0] == '/') {
+                if (tagIgual(1, STMTTRN)) {
+                    if (atual != null) {
+                        movimentos.add(atual.build());
+                    }
+                    atual = null;
+                }
+                continue;
+            }
+            if (tagIgual(0, STMTTRN)) {
+                atual = MovimentoOfxDTO.builder();
+                continue;
+            }
+
+            lerValor();
+            if (fimValor == inicioValor) {
+                continue;
+            }
+
+            if (atual != null) {
+                if (tagIgual(0, DTPOSTED)) {
+                    atual.data(valorComoData());
+                } else if (tagIgual(0, TRNAMT)) {
+                    atual.valor(valorComoDecimal());
+                } else if (tagIgual(0, FITID)) {
+                    atual.fitId(valorComoTexto());
+                } else if (tagIgual(0, MEMO)) {
+                    atual.memo(valorComoTexto());
+                }
+            } else if (tagIgual(0, BANKID)) {
+                bankId = valorComoTexto();
+            } else if (tagIgual(0, ACCTID)) {
+                accountId = valorComoTexto();
+            } else if (tagIgual(0, DTSTART)) {
+                periodoInicio = valorComoData();
+            } else if (tagIgual(0, DTEND)) {
+                periodoFim = valorComoData();
+            }
+        }
+
+        if (periodoInicio == null || periodoFim == null) {
+            throw new IllegalArgumentException("Nao foi possivel identificar o periodo do OFX");
+        }
+        return new Extrato(bankId, accountId, periodoInicio, periodoFim, movimentos, null);
+    }
+
+    private int proximo() throws IOException {
+        if (posicao == limite && !preencher()) {
+            return -1;
+        }
+        return buffer[posicao++] & 0xFF;
+    }
+
+    private int espiar() throws IOException {
+        if (posicao == limite && !preencher()) {
+            return -1;
+        }
+        return buffer[posicao] & 0xFF;
+    }
+
+    private boolean preencher() throws IOException {
+        int lidos = entrada.read(buffer, 0, buffer.length);
+        if (lidos <= 0) {
+            return false;
+        }
+        posicao = 0;
+        limite = lidos;
+        return true;
+    }
+
+    /** Le o nome da tag (ou o conteudo de uma instrucao como {@code ?xml ...}) ate o {@code >}. */
+    private void lerTag() throws IOException {
+        tamanhoTag = 0;
+        int b;
+        while ((b = proximo()) != -1 && b != '>') {
+            if (tamanhoTag < TAMANHO_MAXIMO_TAG) {
+                tag[tamanhoTag++] = (byte) b;
+            }
+        }
+        // Atributos XML nao sao usados pelo OFX; mantem apenas o nome da tag.
+        if (tamanhoTag > 0 && tag[0] != '?' && tag[0] != '!') {
+            for (int i = 0; i < tamanhoTag; i++) {
+                if ((tag[i] & 0xFF) <= ' ') {
+                    tamanhoTag = i;
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Le o texto que segue a tag ate a proxima tag ou quebra de linha, sem os espacos das pontas. */
+    private void lerValor() throws IOException {
+        int tamanho = 0;
+        int b;
+        while ((b = espiar()) != -1 && b != '<' && b != '\n' && b != '\r') {
+            posicao++;
+            if (tamanho < TAMANHO_MAXIMO_VALOR) {
+                valor[tamanho++] = (byte) b;
+            }
+        }
+        int inicio = 0;
+        while (inicio < tamanho && (valor[inicio] & 0xFF) <= ' ') {
+            inicio++;
+        }
+        while (tamanho > inicio && (valor[tamanho - 1] & 0xFF) <= ' ') {
+            tamanho--;
+        }
+        inicioValor = inicio;
+        fimValor = tamanho;
+    }
+
+    private void tratarInstrucao() {
+        if (tamanhoTag >= 4 && tagIgualIgnorandoCaixa(1, ascii("xml"))) {
+            xml = true;
+            String instrucao = new String(tag, 0, tamanhoTag, StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+            charset = instrucao.contains("1252") || instrucao.contains("8859") ? WINDOWS_1252 : StandardCharsets.UTF_8;
+        }
+    }
+
+    private boolean tagIgual(int deslocamento, byte[] nome) {
+        if (tamanhoTag - deslocamento != nome.length) {
+            return false;
+        }
+        for (int i = 0; i < nome.length; i++) {
+            if (maiuscula(tag[deslocamento + i]) != nome[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean tagIgualIgnorandoCaixa(int deslocamento, byte[] nome) {
+        if (tamanhoTag - deslocamento < nome.length) {
+            return false;
+        }
+        for (int i = 0; i < nome.length; i++) {
+            if (maiuscula(tag[deslocamento + i]) != maiuscula(nome[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String valorComoTexto() {
+        String texto = new String(valor, inicioValor, fimValor - inicioValor, charset);
+        return xml && texto.indexOf('&') >= 0 ? decodificarEntidades(texto) : texto;
+    }
+
+    private BigDecimal valorComoDecimal() {
+        int tamanho = fimValor - inicioValor;
+        for (int i = 0; i < tamanho; i++) {
+            caracteres[i] = (char) (valor[inicioValor + i] & 0xFF);
+        }
+        return new BigDecimal(caracteres, 0, tamanho);
+    }
+
+    private LocalDate valorComoData() {
+        if (fimValor - inicioValor < 8) {
+            return null;
+        }
+        return LocalDate.of(digitos(0, 4), digitos(4, 2), digitos(6, 2));
+    }
+
+    private int digitos(int deslocamento, int quantidade) {
+        int resultado = 0;
+        for (int i = 0; i < quantidade; i++) {
+            int digito = valor[inicioValor + deslocamento + i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw new NumberFormatException("Data OFX invalida: " + valorComoTexto());
+            }
+            resultado = resultado * 10 + digito;
+        }
+        return resultado;
+    }
+
+    private static String decodificarEntidades(String texto) {
+        return texto.replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    private static byte maiuscula(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+    }
+
+    private static byte[] ascii(String valor) {
+        return valor.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    record Extrato(
+            String bankId,
+            String accountId,
+            LocalDate periodoInicio,
+            LocalDate periodoFim,
+            List<MovimentoOfxDTO> movimentos,
+            String hashSha256
+    ) {
+        private Extrato comHash(String hash) {
+            return new Extrato(bankId, accountId, periodoInicio, periodoFim, movimentos, hash);
+        }
+    }
+}
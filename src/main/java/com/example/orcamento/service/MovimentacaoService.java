@@ -11,7 +11,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -25,11 +24,40 @@ public class MovimentacaoService {
 
     private final MovimentacaoRepository movimentacaoRepository;
     private final ContaCorrenteService contaCorrenteService;
+    private final ContaCorrenteMovimentoDiaService contaCorrenteMovimentoDiaService;
+    private final CalendarioDiasUteis calendarioDiasUteis;
 
     @Transactional
     public void registrarMovimentacao(Movimentacao movimentacao) {
         log.info("Registrando movimentação: {}", movimentacao);
-        registrarMovimentacaoInternal(movimentacao);
+        registrarMovimentacaoInternal(movimentacao, true);
+    }
+
+    /**
+     * Registra o estorno de uma movimentacao excluida, na mesma data dela. A data nao passa pela regra
+     * de dia util: ela vem da movimentacao original, que pode ser anterior ao bloqueio de feriados, e o
+     * estorno precisa cair no mesmo dia para que o liquido do dia volte a zero.
+     */
+    @Transactional
+    public void registrarEstorno(Movimentacao estorno) {
+        log.info("Registrando estorno: {}", estorno);
+        registrarMovimentacaoInternal(estorno, false);
+    }
+
+    /** Exclui movimentacoes devolvendo seus valores ao saldo das contas e ao movimento diario. */
+    @Transactional
+    public void desfazerMovimentacoes(List<Movimentacao> movimentacoes) {
+        LocalDateTime agora = LocalDateTime.now();
+        for (Movimentacao m : movimentacoes) {
+            if (m.getContaCorrente() == null || m.getContaCorrente().getId() == null || m.getValor() == null || m.getTipo() == null) {
+                continue;
+            }
+
+            boolean desfazerComoEntrada = m.getTipo() == TipoMovimentacao.SAIDA;
+            contaCorrenteService.atualizarSaldo(m.getContaCorrente().getId(), m.getValor(), desfazerComoEntrada, agora);
+            contaCorrenteMovimentoDiaService.remover(m);
+        }
+        movimentacaoRepository.deleteAll(movimentacoes);
     }
 
     @Transactional
@@ -83,9 +111,7 @@ public class MovimentacaoService {
                 .dataCadastro(agora)
                 .build();
 
-        List<Movimentacao> resultado = new ArrayList<>(2);
-        resultado.add(registrarMovimentacaoInternal(debito));
-        resultado.add(registrarMovimentacaoInternal(credito));
+        List<Movimentacao> resultado = registrarParNaOrdemDasContas(debito, credito);
         log.info(
                 "movimentacao.transferencia.registrada transferenciaId={} tenantId={} contaOrigemId={} contaDestinoId={} valor={} data={}",
                 transferenciaId,
@@ -174,9 +200,7 @@ public class MovimentacaoService {
                 .dataCadastro(agora)
                 .build();
 
-        List<Movimentacao> resultado = new ArrayList<>(2);
-        resultado.add(registrarMovimentacaoInternal(estornoNaOrigem));
-        resultado.add(registrarMovimentacaoInternal(estornoNoDestino));
+        List<Movimentacao> resultado = registrarParNaOrdemDasContas(estornoNaOrigem, estornoNoDestino);
         log.info(
                 "movimentacao.transferencia.estornada transferenciaId={} tenantId={} contaOrigemId={} contaDestinoId={} valor={}",
                 transferenciaId,
@@ -188,8 +212,25 @@ public class MovimentacaoService {
         return resultado;
     }
 
-    private Movimentacao registrarMovimentacaoInternal(Movimentacao movimentacao) {
-        validarDataRecebimentoDiaUtil(movimentacao);
+    /**
+     * Registra as duas pernas de uma transferencia travando o saldo das contas em ordem crescente de id,
+     * para que transferencias opostas simultaneas (A->B e B->A) nao se bloqueiem em ciclo. O retorno
+     * mantem a ordem recebida.
+     */
+    private List<Movimentacao> registrarParNaOrdemDasContas(Movimentacao primeira, Movimentacao segunda) {
+        Movimentacao[] registradas = new Movimentacao[2];
+        if (primeira.getContaCorrente().getId() <= segunda.getContaCorrente().getId()) {
+            registradas[0] = registrarMovimentacaoInternal(primeira, true);
+            registradas[1] = registrarMovimentacaoInternal(segunda, true);
+        } else {
+            registradas[1] = registrarMovimentacaoInternal(segunda, true);
+            registradas[0] = registrarMovimentacaoInternal(primeira, true);
+        }
+        return new ArrayList<>(List.of(registradas));
+    }
+
+    private Movimentacao registrarMovimentacaoInternal(Movimentacao movimentacao, boolean exigirDiaUtil) {
+        validarDataRecebimento(movimentacao, exigirDiaUtil);
         movimentacao.setTenantId(com.example.orcamento.security.TenantContext.getTenantId());
 
         boolean isEntrada = movimentacao.getTipo() == TipoMovimentacao.ENTRADA;
@@ -202,10 +243,12 @@ public class MovimentacaoService {
                 movimentacao.getDataCadastro()
         );
 
-        return movimentacaoRepository.save(movimentacao);
+        Movimentacao movimentacaoSalva = movimentacaoRepository.save(movimentacao);
+        contaCorrenteMovimentoDiaService.registrar(movimentacaoSalva);
+        return movimentacaoSalva;
     }
 
-    private void validarDataRecebimentoDiaUtil(Movimentacao movimentacao) {
+    private void validarDataRecebimento(Movimentacao movimentacao, boolean exigirDiaUtil) {
         if (movimentacao == null) {
             throw new IllegalArgumentException("movimentacao é obrigatória");
         }
@@ -213,13 +256,12 @@ public class MovimentacaoService {
             throw new IllegalArgumentException("dataRecebimento é obrigatória");
         }
 
-        DayOfWeek dayOfWeek = movimentacao.getDataRecebimento().getDayOfWeek();
-        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+        if (exigirDiaUtil && !calendarioDiasUteis.isDiaUtil(movimentacao.getDataRecebimento())) {
             Long contaCorrenteId = (movimentacao.getContaCorrente() != null) ? movimentacao.getContaCorrente().getId() : null;
             String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-            log.info("Movimentação bloqueada: dataRecebimento em final de semana. tenantId={}, contaCorrenteId={}, dataRecebimento={}",
+            log.info("Movimentação bloqueada: dataRecebimento em final de semana ou feriado. tenantId={}, contaCorrenteId={}, dataRecebimento={}",
                     tenantId, contaCorrenteId, movimentacao.getDataRecebimento());
-            throw new IllegalArgumentException("dataRecebimento deve ser um dia útil (segunda a sexta)");
+            throw new IllegalArgumentException("dataRecebimento deve ser um dia útil (segunda a sexta, exceto feriados)");
         }
     }
 
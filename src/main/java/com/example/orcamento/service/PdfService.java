@@ -1,6 +1,7 @@
 package com.example.orcamento.service;
 
 import com.example.orcamento.model.Transaction;
+import com.example.orcamento.service.extractor.TokenizadorFatura;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
@@ -27,11 +28,11 @@ public class PdfService {
             log.info("Documento PDF carregado : {} ", document.toString());
             PDFTextStripper stripper = new PDFTextStripper();
             String textoExtraido = stripper.getText(document);
-            log.info("textoExtraido: {} ", textoExtraido);
+            log.trace("textoExtraido: {} ", textoExtraido);
 
             // Dividir o texto em linhas
             List<String> linhas = Arrays.asList(textoExtraido.split("\n"));
-            log.info("linhas: {} ", linhas);
+            log.debug("linhas: {} ", linhas.size());
             boolean temString = false;
             if (linhas.contains("00 01290 VK045 28/03/2025")) {
                 temString = true;
@@ -50,17 +51,17 @@ public class PdfService {
         return extrairInformacoesDoPdf(pdfInputStream);
     }
 
-    private static List<Transaction> processarRegistros(List<String> linhas) {
+    static List<Transaction> processarRegistros(List<String> linhas) {
         List<Transaction> todasTransacoes = new ArrayList<>();
 
         for (String linha : linhas) {
            // log.info(linha);
             // Limpar a linha: remover espaços extras e normalizar
-            String linhaLimpa = linha.trim().replaceAll("\\s+", " ");
+            String linhaLimpa = TokenizadorFatura.normalizarEspacos(linha);
            // log.info("Linha processada: [" + linhaLimpa + "]"); // Log para depuração
 
             // Verificar se a linha começa com uma data (ex.: "4/10" ou "04/10")
-            if (linhaLimpa.matches("^\\d{1,2}/\\d{1,2}.*")) {
+            if (TokenizadorFatura.comecaComDiaMes(linhaLimpa)) {
                 Transaction transacao = parseTransaction(linhaLimpa);
                 if (transacao != null) {
                     todasTransacoes.add(transacao);
@@ -74,64 +75,12 @@ public class PdfService {
 
     // Parsear uma linha em uma transação
     private static Transaction parseTransaction(String linha) {
-        // Dividir a linha em tokens
-        String[] tokens = linha.split(" ");
-        if (tokens.length < 3) return null; // Pelo menos data, estabelecimento e valor
-
-        String data = tokens[0]; // Ex.: "23/08"
-        String valor = "";
-        String parcela = null;
-        String estabelecimento = "";
-
-        // Procurar o valor e a parcela a partir do final
-        for (int i = tokens.length - 1; i >= 0; i--) {
-            if (tokens[i].matches("\\d+,\\d{2}")) { // Ex.: "191,62"
-                valor = tokens[i];
-                // Verificar se é negativo
-                if (i > 0 && tokens[i - 1].equals("-")) {
-                    valor = "-" + valor;
-                    i--;
-                }
-                // Procurar a parcela (dd/dd) antes do valor
-                for (int j = i - 1; j > 0; j--) { // Começa antes do valor, após a data
-                    if (tokens[j].matches("\\d{2}/\\d{2}")) { // Ex.: "07/12"
-                        parcela = tokens[j];
-                        // Estabelecimento é tudo entre a data e a parcela
-                        estabelecimento = String.join(" ", Arrays.copyOfRange(tokens, 1, j));
-                        break;
-                    }
-                }
-                // Se não encontrou parcela, o estabelecimento é tudo entre a data e o valor
-                if (parcela == null) {
-                    // Buscar parcelas misturadas no nome (ex.: "PARC=112REDLAR HIP07/12")
-                    String restoLinha = String.join(" ", Arrays.copyOfRange(tokens, 1, i));
-                    parcela = extrairParcelaDeTexto(restoLinha);
-                    if (parcela != null) {
-                        // Remove a parcela do restante da linha após extraí-la
-                        estabelecimento = restoLinha.replace(parcela, "").trim();
-                    } else {
-                        estabelecimento = restoLinha;
-                    }
-                }
-                break;
-            }
-        }
-
-        if (valor.isEmpty()) return null;
-
-        log.info("Parsed: data=" + data + ", est=" + estabelecimento + ", parcela=" + parcela + ", valor=" + valor);
-
-        return new Transaction(data, estabelecimento, parcela, valor);
-    }
-
-    private static String extrairParcelaDeTexto(String texto) {
-        // Procurar pelo padrão de parcela (dd/dd)
-        String padraoParcela = "\\d{2}/\\d{2}";
-        java.util.regex.Matcher matcher = java.util.regex.Pattern.compile(padraoParcela).matcher(texto);
-        if (matcher.find()) {
-            return matcher.group(); // Retorna o primeiro match no texto
+        Transaction transacao = TokenizadorFatura.lerCompra(linha, false);
+        if (transacao != null) {
+            log.debug("Parsed: data={}, est={}, parcela={}, valor={}",
+                    transacao.getDataCompra(), transacao.getEstabelecimento(), transacao.getParcela(), transacao.getValor());
         }
-        return null;
+        return transacao;
     }
 
     private static List<Transaction> filtrarPorMenorParcela(List<Transaction> transacoes) {
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -25,7 +26,7 @@ public class ReceitaService {
     private final ReceitaRepository receitaRepository;
     private final MovimentacaoService movimentacaoService;
     private final MovimentacaoRepository movimentacaoRepository;
-    private final ContaCorrenteService contaCorrenteService;
+    private final AgregadoMensalService agregadoMensalService;
 
     public List<Receita> listarReceitas() {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
@@ -47,6 +48,7 @@ public class ReceitaService {
         log.info("Valor de isPrevista recebido: {}", receita.isPrevista());
 
         Receita receitaSalva = receitaRepository.save(receita);
+        agregadoMensalService.registrarAlteracao(receitaSalva);
 
         log.info("Receita salva no banco: {}", receitaSalva);
         log.info("Valor de isPrevista apos salvar: {}", receitaSalva.isPrevista());
@@ -99,10 +101,11 @@ public class ReceitaService {
                     .dataCadastro(LocalDateTime.now())
                     .tenantId(tenantId)
                     .build();
-            movimentacaoService.registrarMovimentacao(movimentacao);
+            movimentacaoService.registrarEstorno(movimentacao);
         }
 
         receitaRepository.deleteByIdAndTenantId(id, tenantId);
+        agregadoMensalService.registrarAlteracao(tenantId, receita.getDataRecebimento());
         log.info("receita.excluida receitaId={} tenantId={}", id, tenantId);
     }
 
@@ -118,6 +121,7 @@ public class ReceitaService {
                         && receitaAtualizada.getContaCorrente() != null && receitaAtualizada.getContaCorrente().getId() != null
                         && !receita.getContaCorrente().getId().equals(receitaAtualizada.getContaCorrente().getId())) ||
                 !Objects.equals(receita.getDataRecebimento(), receitaAtualizada.getDataRecebimento());
+        LocalDate dataRecebimentoOriginal = receita.getDataRecebimento();
 
         receita.setDescricao(receitaAtualizada.getDescricao());
         receita.setValor(receitaAtualizada.getValor());
@@ -127,23 +131,14 @@ public class ReceitaService {
         receita.setPrevista(receitaAtualizada.isPrevista());
 
         Receita receitaSalva = receitaRepository.save(receita);
+        agregadoMensalService.registrarAlteracao(tenantId, dataRecebimentoOriginal);
+        agregadoMensalService.registrarAlteracao(receitaSalva);
 
         if (precisaRefazerMovimentacao) {
             List<Movimentacao> movimentacoesExistentes = movimentacaoRepository.findByReceita(receitaSalva);
 
             if (movimentacoesExistentes != null && !movimentacoesExistentes.isEmpty()) {
-                LocalDateTime agora = LocalDateTime.now();
-
-                for (Movimentacao m : movimentacoesExistentes) {
-                    if (m.getContaCorrente() == null || m.getContaCorrente().getId() == null || m.getValor() == null || m.getTipo() == null) {
-                        continue;
-                    }
-
-                    boolean desfazerComoEntrada = m.getTipo() == TipoMovimentacao.SAIDA;
-                    contaCorrenteService.atualizarSaldo(m.getContaCorrente().getId(), m.getValor(), desfazerComoEntrada, agora);
-                }
-
-                movimentacaoRepository.deleteAll(movimentacoesExistentes);
+                movimentacaoService.desfazerMovimentacoes(movimentacoesExistentes);
             }
 
             if (!receitaSalva.isPrevista()) {
@@ -228,6 +223,7 @@ public class ReceitaService {
 
         receita.setPrevista(false);
         Receita receitaAtualizada = receitaRepository.save(receita);
+        agregadoMensalService.registrarAlteracao(receitaAtualizada);
 
         Movimentacao movimentacao = Movimentacao.builder()
                 .tipo(TipoMovimentacao.ENTRADA)
@@ -3,6 +3,7 @@ package com.example.orcamento.service;
 
 import com.example.orcamento.repository.DespesaRepository;
 import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.util.CompetenciaFatura;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -20,7 +21,11 @@ public class RelatorioService {
 
     public List<Map<String, Object>> getGastosPorTipoDespesa(String mesAnoFatura, Long cartaoId, String proprietario) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        List<Object[]> resultados = lancamentoCartaoRepository.findGastosPorTipoDespesa(mesAnoFatura, cartaoId, proprietario, tenantId);
+        Integer competencia = CompetenciaFatura.paraInteiro(mesAnoFatura);
+        if (competencia == null) {
+            return List.of();
+        }
+        List<Object[]> resultados = lancamentoCartaoRepository.findGastosPorTipoDespesa(competencia, cartaoId, proprietario, tenantId);
         return resultados.stream()
                 .map(result -> Map.of(
                         "tipoDespesa", result[0] != null ? result[0] : "Sem Tipo",
@@ -32,7 +37,11 @@ public class RelatorioService {
     // Adicione ao existente
     public List<Map<String, Object>> getGastosPorCartaoCredito(String mesAnoFatura) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
-        List<Object[]> resultados = lancamentoCartaoRepository.findGastosPorCartaoCredito(mesAnoFatura, tenantId);
+        Integer competencia = CompetenciaFatura.paraInteiro(mesAnoFatura);
+        if (competencia == null) {
+            return List.of();
+        }
+        List<Object[]> resultados = lancamentoCartaoRepository.findGastosPorCartaoCredito(competencia, tenantId);
         return resultados.stream()
                 .map(result -> Map.of(
                         "cartao", result[0],
@@ -1,20 +1,38 @@
 package com.example.orcamento.service;
 
+import com.example.orcamento.dto.PaginaTransacoesDTO;
 import com.example.orcamento.dto.TransacaoFinanceiraDTO;
 import com.example.orcamento.model.Despesa;
 import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.util.CompetenciaFatura;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TransacaoFinanceiraService {
+
+    public static final int LIMITE_MAXIMO_PAGINA = 500;
+    static final int TAMANHO_BLOCO_TRANSMISSAO = 500;
+
+    // Mais recentes primeiro; na mesma data as despesas vem antes dos lancamentos de cartao
+    private static final Comparator<ItemFeed> ORDEM_FEED = Comparator.comparing(ItemFeed::data).reversed()
+            .thenComparingInt(ItemFeed::ordemOrigem)
+            .thenComparing(Comparator.comparing(ItemFeed::id).reversed());
+
     private final DespesaService despesaService;
     private final LancamentoCartaoService lancamentoCartaoService;
 
@@ -37,4 +55,119 @@ public class TransacaoFinanceiraService {
         }
         return transacoes;
     }
+
+    /**
+     * Pagina do feed unificado de despesas e lancamentos de cartao, do mais recente para o mais antigo.
+     * Cada origem e lida por keyset a partir da sua propria posicao no cursor, e as duas listas
+     * ordenadas sao intercaladas; o custo de uma pagina nao depende do tamanho do historico.
+     */
+    public PaginaTransacoesDTO listarPagina(Map<String, Object> filtros, String cursor, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+        Bloco bloco = buscarBloco(filtros, Posicao.decodificar(cursor), limite);
+        return new PaginaTransacoesDTO(bloco.itens(), bloco.temMais() ? bloco.proxima().codificar() : null);
+    }
+
+    /**
+     * Todas as transacoes do feed, na mesma ordem de {@link #listarPagina}, buscadas em blocos de
+     * {@value #TAMANHO_BLOCO_TRANSMISSAO} conforme o stream e consumido: so um bloco fica em memoria.
+     */
+    public Stream<TransacaoFinanceiraDTO> transmitir(Map<String, Object> filtros) {
+        Bloco primeiro = buscarBloco(filtros, Posicao.INICIO, TAMANHO_BLOCO_TRANSMISSAO);
+        return Stream.iterate(primeiro, Objects::nonNull,
+                        bloco -> bloco.temMais() ? buscarBloco(filtros, bloco.proxima(), TAMANHO_BLOCO_TRANSMISSAO) : null)
+                .flatMap(bloco -> bloco.itens().stream());
+    }
+
+    private Bloco buscarBloco(Map<String, Object> filtros, Posicao posicao, int limite) {
+        Object origemObj = filtros.get("origem");
+        String origem = origemObj != null ? origemObj.toString() : null;
+
+        // limite + 1 de cada origem: se sobrar algo depois da intercalacao, ha proxima pagina
+        List<ItemFeed> despesas = origem == null || origem.equalsIgnoreCase("DESPESA")
+                ? despesaService.listarDespesasDepoisDe(new HashMap<>(filtros), posicao.dataDespesa(), posicao.idDespesa(), limite + 1)
+                        .stream().map(ItemFeed::de).toList()
+                : List.of();
+        List<ItemFeed> lancamentos = origem == null || origem.equalsIgnoreCase("CARTAO_CREDITO")
+                ? lancamentoCartaoService.listarLancamentosDepoisDe(new HashMap<>(filtros), posicao.competencia(), posicao.idLancamento(), limite + 1)
+                        .stream().map(ItemFeed::de).toList()
+                : List.of();
+
+        List<TransacaoFinanceiraDTO> itens = new ArrayList<>(limite);
+        ItemFeed ultimaDespesa = null;
+        ItemFeed ultimoLancamento = null;
+        int i = 0;
+        int j = 0;
+        while (itens.size() < limite && (i < despesas.size() || j < lancamentos.size())) {
+            if (j >= lancamentos.size()
+                    || (i < despesas.size() && ORDEM_FEED.compare(despesas.get(i), lancamentos.get(j)) <= 0)) {
+                ultimaDespesa = despesas.get(i++);
+                itens.add(ultimaDespesa.transacao());
+            } else {
+                ultimoLancamento = lancamentos.get(j++);
+                itens.add(ultimoLancamento.transacao());
+            }
+        }
+
+        Posicao proxima = new Posicao(
+                ultimaDespesa != null ? ultimaDespesa.data() : posicao.dataDespesa(),
+                ultimaDespesa != null ? ultimaDespesa.id() : posicao.idDespesa(),
+                ultimoLancamento != null ? ultimoLancamento.competencia() : posicao.competencia(),
+                ultimoLancamento != null ? ultimoLancamento.id() : posicao.idLancamento());
+        return new Bloco(itens, proxima, i < despesas.size() || j < lancamentos.size());
+    }
+
+    private record Bloco(List<TransacaoFinanceiraDTO> itens, Posicao proxima, boolean temMais) {
+    }
+
+    private record ItemFeed(LocalDate data, int ordemOrigem, Long id, Integer competencia, TransacaoFinanceiraDTO transacao) {
+
+        static ItemFeed de(Despesa despesa) {
+            return new ItemFeed(despesa.getDataVencimento(), 0, despesa.getId(), null, new TransacaoFinanceiraDTO(despesa));
+        }
+
+        static ItemFeed de(LancamentoCartao lancamento) {
+            // A data de referencia do lancamento e o primeiro dia do mes da fatura
+            LocalDate data = CompetenciaFatura.deInteiro(lancamento.getCompetencia()).atDay(1);
+            return new ItemFeed(data, 1, lancamento.getId(), lancamento.getCompetencia(), new TransacaoFinanceiraDTO(lancamento));
+        }
+    }
+
+    /**
+     * Ultima despesa e ultimo lancamento ja entregues. Vai para o cliente como base64url de
+     * "dataVencimento,idDespesa,competencia,idLancamento", com campos vazios enquanto a origem nao comecou.
+     */
+    private record Posicao(LocalDate dataDespesa, Long idDespesa, Integer competencia, Long idLancamento) {
+
+        static final Posicao INICIO = new Posicao(null, null, null, null);
+
+        String codificar() {
+            String valor = String.join(",",
+                    dataDespesa != null ? dataDespesa.toString() : "",
+                    idDespesa != null ? idDespesa.toString() : "",
+                    competencia != null ? competencia.toString() : "",
+                    idLancamento != null ? idLancamento.toString() : "");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Posicao decodificar(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return INICIO;
+            }
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",", -1);
+                if (partes.length != 4) {
+                    throw new IllegalArgumentException("cursor invalido");
+                }
+                return new Posicao(
+                        partes[0].isEmpty() ? null : LocalDate.parse(partes[0]),
+                        partes[1].isEmpty() ? null : Long.valueOf(partes[1]),
+                        partes[2].isEmpty() ? null : Integer.valueOf(partes[2]),
+                        partes[3].isEmpty() ? null : Long.valueOf(partes[3]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("cursor invalido", e);
+            }
+        }
+    }
 }
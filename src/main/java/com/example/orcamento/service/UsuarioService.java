@@ -3,6 +3,7 @@ package com.example.orcamento.service;
 import com.example.orcamento.model.Usuario;
 import com.example.orcamento.repository.UsuarioRepository;
 import com.example.orcamento.security.JwtUtil;
+import com.example.orcamento.security.UsuarioStatusCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,6 +22,7 @@ public class UsuarioService {
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final UsuarioStatusCache usuarioStatusCache;
 
     public String authenticate(String username, String password) {
         Usuario user = usuarioRepository.findByUsername(username)
@@ -153,20 +155,29 @@ public class UsuarioService {
                 .orElseThrow(() -> new EntityNotFoundException("Usuario nao encontrado"));
         usuario.setPassword(passwordEncoder.encode(novaSenha));
         usuarioRepository.save(usuario);
+        usuarioStatusCache.revogarTokens(username);
     }
 
     public Usuario atualizarUsuario(Long id, Usuario usuarioAtualizado) {
         String tenantId = com.example.orcamento.security.TenantContext.getTenantId();
         Usuario usuario = usuarioRepository.findByIdAndTenantId(id, tenantId)
                 .orElseThrow(() -> new EntityNotFoundException("Usuario nao encontrado"));
+        String usernameAnterior = usuario.getUsername();
         usuario.setUsername(usuarioAtualizado.getUsername());
         usuario.setEmail(usuarioAtualizado.getEmail());
-        if (usuarioAtualizado.getPassword() != null && !usuarioAtualizado.getPassword().isEmpty()) {
+        boolean senhaAlterada = usuarioAtualizado.getPassword() != null && !usuarioAtualizado.getPassword().isEmpty();
+        if (senhaAlterada) {
             usuario.setPassword(passwordEncoder.encode(usuarioAtualizado.getPassword()));
         }
         usuario.setAtivo(usuarioAtualizado.isAtivo());
         usuario.setAdmin(usuarioAtualizado.isAdmin());
-        return usuarioRepository.save(usuario);
+        Usuario salvo = usuarioRepository.save(usuario);
+        if (senhaAlterada) {
+            usuarioStatusCache.revogarTokens(usernameAnterior);
+        } else {
+            usuarioStatusCache.invalidar(usernameAnterior);
+        }
+        return salvo;
     }
 
     public boolean validarTokenPrimeiroLogin(String username, String tokenInformado) {
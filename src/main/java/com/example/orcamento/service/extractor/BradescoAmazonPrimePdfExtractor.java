@@ -2,52 +2,42 @@ package com.example.orcamento.service.extractor;
 
 import com.example.orcamento.model.Transaction;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import java.io.IOException;
-import java.io.InputStream;
+import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Slf4j
+@Component
 public class BradescoAmazonPrimePdfExtractor implements PdfCartaoExtractor {
-    @Override
-    public List<Transaction> extrair(InputStream pdfInputStream) {
-        List<Transaction> transacoes = new ArrayList<>();
-        try (PDDocument document = PDDocument.load(pdfInputStream)) {
-            log.info("Documento PDF carregado : {} ", document.toString());
-            PDFTextStripper stripper = new PDFTextStripper();
-            String textoExtraido = stripper.getText(document);
 
-            List<String> linhas = List.of(textoExtraido.split("\n"));
-            log.info("linhas extraídas: {}", linhas.size());
+    private static final Pattern LINHA_PATTERN = Pattern.compile("^(\\d{2}/\\d{2}) (.+?) (\\d{1,3}(?:\\.\\d{3})*,\\d{2})(?: -)?$");
 
-            boolean inMovimentacoes = false;
-            for (String linha : linhas) {
-                String linhaLimpa = linha.trim().replaceAll("\s+", " ");
+    @Override
+    public List<Transaction> extrairDasLinhas(Iterable<String> linhas) {
+        List<Transaction> transacoes = new ArrayList<>();
+        boolean inMovimentacoes = false;
+        for (String linha : linhas) {
+            String linhaLimpa = TokenizadorFatura.colapsarEspacos(linha);
 
-                // Ignorar linhas que não são transações (cabeçalhos, nome do titular, etc.)
-                if (!linhaLimpa.matches("^\\d{2}/\\d{2}.*")) {
-                    if (linhaLimpa.contains("Nacionais em Reais (R$)")) {
-                        inMovimentacoes = true;
-                    }
-                    continue;
+            // Ignorar linhas que não são transações (cabeçalhos, nome do titular, etc.)
+            if (!TokenizadorFatura.comecaComDiaMesCompleto(linhaLimpa)) {
+                if (linhaLimpa.contains("Nacionais em Reais (R$)")) {
+                    inMovimentacoes = true;
                 }
+                continue;
+            }
 
-                if (inMovimentacoes && linhaLimpa.startsWith("Resumo dos encargos financeiros")) {
-                    break; // Fim da seção de movimentações
-                }
-                if (inMovimentacoes) {
-                    Transaction t = parseTransactionBradesco(linhaLimpa);
-                    if (t != null) {
-                        transacoes.add(t);
-                    }
+            if (inMovimentacoes && linhaLimpa.startsWith("Resumo dos encargos financeiros")) {
+                break; // Fim da seção de movimentações
+            }
+            if (inMovimentacoes) {
+                Transaction t = parseTransactionBradesco(linhaLimpa);
+                if (t != null) {
+                    transacoes.add(t);
                 }
             }
-        } catch (IOException e) {
-            log.error("Erro ao processar PDF", e);
         }
         log.info("==== TRANSAÇÕES ENCONTRADAS BRADESCO AMAZON PRIME ====");
         for (Transaction t : transacoes) {
@@ -60,8 +50,7 @@ public class BradescoAmazonPrimePdfExtractor implements PdfCartaoExtractor {
     private Transaction parseTransactionBradesco(String linha) {
         // Exemplo: 31/05 AMAZONMKTPLC*SPLINCOME SAO PAULO BRA 49,90 ou 11/06 AMAZONMKTPLC*COMERCIOC SAO PAULO(01/02) 39,50
         // Pagamento: 04/07 PAGAMENTO RECEBIDO - OBRIGADO 89,40 -
-        Pattern p = Pattern.compile("^(\\d{2}/\\d{2}) (.+?) (\\d{1,3}(?:\\.\\d{3})*,\\d{2})(?: -)?$");
-        Matcher m = p.matcher(linha);
+        Matcher m = LINHA_PATTERN.matcher(linha);
         if (m.find()) {
             String data = m.group(1);
             String estabelecimento = m.group(2).trim();
@@ -71,11 +60,21 @@ public class BradescoAmazonPrimePdfExtractor implements PdfCartaoExtractor {
                 valorStr = "-" + valorStr;
             }
 
-            log.info("PARSE BRADESCO | linha: '{}' | data: '{}' | est: '{}' | valor: '{}'", linha, data, estabelecimento, valorStr);
+            log.debug("PARSE BRADESCO | linha: '{}' | data: '{}' | est: '{}' | valor: '{}'", linha, data, estabelecimento, valorStr);
             return new Transaction(data, estabelecimento, null, valorStr);
         }
         return null;
     }
 
     // Removido método getModeloImportacao() pois não faz parte da interface
+
+    @Override
+    public List<String> modelos() {
+        return List.of("bradesco");
+    }
+
+    @Override
+    public List<String> marcadores() {
+        return List.of("BRADESCO", "Nacionais em Reais (R$)", "Resumo dos encargos financeiros");
+    }
 }
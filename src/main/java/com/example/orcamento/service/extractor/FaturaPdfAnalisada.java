@@ -0,0 +1,23 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.model.Transaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Resultado da analise de uma fatura PDF: as transacoes extraidas e o total das compras (valores
+ * positivos), como devolvido por {@code /api/v1/pdf/analisar}.
+ */
+public record FaturaPdfAnalisada(List<Transaction> transacoes, String total) {
+
+    public static FaturaPdfAnalisada de(List<Transaction> transacoes) {
+        BigDecimal total = transacoes.stream()
+                .map(t -> new BigDecimal(t.getValor()))
+                .filter(valor -> valor.signum() > 0)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+        return new FaturaPdfAnalisada(List.copyOf(transacoes), total.toString());
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.config.FileStorageProperties;
+import com.example.orcamento.model.Transaction;
+import com.example.orcamento.security.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache das faturas PDF ja analisadas, enderecado pelo SHA-256 do arquivo e separado por tenant,
+ * modelo de importacao e versao do extrator (classe, {@link PdfCartaoExtractor#versao()} e
+ * {@link TokenizadorFatura#VERSAO}): reenviar o mesmo PDF devolve o resultado anterior sem passar pelo
+ * PDFBox, e uma correcao no extrator invalida as analises feitas antes dela.
+ *
+ * <p>Duas camadas: memoria (LRU limitada por quantidade e bytes estimados) e, opcionalmente, disco
+ * em {@code file.upload-dir/cache/faturas-pdf} (JSON + gzip, removido por idade e pelo tamanho total,
+ * mais antigos primeiro). Entradas mais velhas que o TTL sao ignoradas nas duas camadas. Acertos e
+ * faltas sao publicados no Micrometer como {@code pdf.fatura.cache{resultado=...}}.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FaturaPdfCache {
+
+    private static final String EXTENSAO = ".json.gz";
+
+    private final FileStorageProperties fileStorageProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final LinkedHashMap<String, Entrada> memoria = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesMemoria;
+    private Path diretorio;
+    private Counter acertosMemoria;
+    private Counter acertosDisco;
+    private Counter faltas;
+    private Counter remocoesTamanho;
+    private Counter remocoesIdade;
+
+    @Value("${app.pdf.cache.enabled:true}")
+    private boolean habilitado = true;
+
+    @Value("${app.pdf.cache.ttl:24h}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${app.pdf.cache.memoria.max-entradas:200}")
+    private int maxEntradasMemoria = 200;
+
+    @Value("${app.pdf.cache.memoria.max-bytes:32MB}")
+    private DataSize maxBytesMemoria = DataSize.ofMegabytes(32);
+
+    @Value("${app.pdf.cache.disco.enabled:false}")
+    private boolean discoHabilitado;
+
+    @Value("${app.pdf.cache.disco.max-bytes:256MB}")
+    private DataSize maxBytesDisco = DataSize.ofMegabytes(256);
+
+    @PostConstruct
+    void iniciar() {
+        acertosMemoria = contador("resultado", "hit_memoria");
+        acertosDisco = contador("resultado", "hit_disco");
+        faltas = contador("resultado", "miss");
+        remocoesTamanho = Counter.builder("pdf.fatura.cache.remocoes").tag("motivo", "tamanho").register(meterRegistry);
+        remocoesIdade = Counter.builder("pdf.fatura.cache.remocoes").tag("motivo", "idade").register(meterRegistry);
+        Gauge.builder("pdf.fatura.cache.entradas", this, FaturaPdfCache::entradasEmMemoria).register(meterRegistry);
+        Gauge.builder("pdf.fatura.cache.bytes", this, FaturaPdfCache::bytesEmMemoria).register(meterRegistry);
+
+        if (discoHabilitado) {
+            diretorio = Paths.get(fileStorageProperties.getUploadDir(), "cache", "faturas-pdf").toAbsolutePath().normalize();
+            try {
+                Files.createDirectories(diretorio);
+            } catch (IOException e) {
+                log.warn("pdf.cache.disco_indisponivel diretorio={} motivo={}", diretorio, e.getMessage());
+                diretorio = null;
+            }
+        }
+    }
+
+    public static String sha256(InputStream pdfInputStream) throws IOException {
+        try {
+            DigestInputStream entrada = new DigestInputStream(pdfInputStream, MessageDigest.getInstance("SHA-256"));
+            entrada.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(entrada.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+
+    public Optional<FaturaPdfAnalisada> buscar(String modeloImportacao, PdfCartaoExtractor extractor, String hashArquivo) {
+        String chave = chave(modeloImportacao, extractor, hashArquivo);
+        if (chave == null) {
+            return Optional.empty();
+        }
+        Instant limite = Instant.now().minus(ttl);
+
+        FaturaPdfAnalisada analise = buscarEmMemoria(chave, limite);
+        if (analise != null) {
+            acertosMemoria.increment();
+            return Optional.of(analise);
+        }
+        analise = lerDoDisco(chave, limite);
+        if (analise != null) {
+            acertosDisco.increment();
+            guardarEmMemoria(chave, analise);
+            return Optional.of(analise);
+        }
+        faltas.increment();
+        return Optional.empty();
+    }
+
+    public void guardar(String modeloImportacao, PdfCartaoExtractor extractor, String hashArquivo, FaturaPdfAnalisada analise) {
+        String chave = chave(modeloImportacao, extractor, hashArquivo);
+        if (chave == null) {
+            return;
+        }
+        guardarEmMemoria(chave, analise);
+        gravarNoDisco(chave, analise);
+    }
+
+    private String chave(String modeloImportacao, PdfCartaoExtractor extractor, String hashArquivo) {
+        String tenantId = TenantContext.getTenantId();
+        if (!habilitado || tenantId == null || extractor == null || hashArquivo == null) {
+            return null;
+        }
+        String modelo = modeloImportacao == null ? "" : modeloImportacao.toLowerCase(Locale.ROOT);
+        String versao = ClassUtils.getUserClass(extractor).getName() + ":" + extractor.versao() + ":" + TokenizadorFatura.VERSAO;
+        return tenantId + "|" + modelo + "|" + versao + "|" + hashArquivo;
+    }
+
+    private synchronized FaturaPdfAnalisada buscarEmMemoria(String chave, Instant limite) {
+        Entrada entrada = memoria.get(chave);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.criadaEm().isBefore(limite)) {
+            memoria.remove(chave);
+            bytesMemoria -= entrada.bytes();
+            remocoesIdade.increment();
+            return null;
+        }
+        return entrada.analise();
+    }
+
+    private synchronized void guardarEmMemoria(String chave, FaturaPdfAnalisada analise) {
+        long bytes = estimarBytes(chave, analise);
+        if (bytes > maxBytesMemoria.toBytes()) {
+            return;
+        }
+        Entrada anterior = memoria.put(chave, new Entrada(analise, bytes, Instant.now()));
+        bytesMemoria += bytes - (anterior != null ? anterior.bytes() : 0);
+        Iterator<Entrada> maisAntigas = memoria.values().iterator();
+        while (memoria.size() > maxEntradasMemoria || bytesMemoria > maxBytesMemoria.toBytes()) {
+            bytesMemoria -= maisAntigas.next().bytes();
+            maisAntigas.remove();
+            remocoesTamanho.increment();
+        }
+    }
+
+    private FaturaPdfAnalisada lerDoDisco(String chave, Instant limite) {
+        if (diretorio == null) {
+            return null;
+        }
+        Path arquivo = arquivoDaChave(chave);
+        try {
+            if (!Files.exists(arquivo)) {
+                return null;
+            }
+            if (Files.getLastModifiedTime(arquivo).toInstant().isBefore(limite)) {
+                Files.deleteIfExists(arquivo);
+                remocoesIdade.increment();
+                return null;
+            }
+            try (InputStream entrada = new GZIPInputStream(Files.newInputStream(arquivo))) {
+                return objectMapper.readValue(entrada, FaturaPdfAnalisada.class);
+            }
+        } catch (IOException e) {
+            log.warn("pdf.cache.disco_ilegivel arquivo={} motivo={}", arquivo.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void gravarNoDisco(String chave, FaturaPdfAnalisada analise) {
+        if (diretorio == null) {
+            return;
+        }
+        Path arquivo = arquivoDaChave(chave);
+        Path temporario = null;
+        try {
+            temporario = Files.createTempFile(diretorio, "gravando-", ".tmp");
+            try (OutputStream saida = new GZIPOutputStream(Files.newOutputStream(temporario))) {
+                objectMapper.writeValue(saida, analise);
+            }
+            try {
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+            limparDisco();
+        } catch (IOException e) {
+            // O resultado ja foi devolvido; sem o disco a proxima falta na memoria apenas reprocessa.
+            log.warn("pdf.cache.disco_nao_gravado motivo={}", e.getMessage());
+            if (temporario != null) {
+                try {
+                    Files.deleteIfExists(temporario);
+                } catch (IOException ignorada) {
+                    temporario.toFile().deleteOnExit();
+                }
+            }
+        }
+    }
+
+    /** Remove os arquivos vencidos e, acima do limite de bytes, os mais antigos. */
+    synchronized void limparDisco() throws IOException {
+        if (diretorio == null) {
+            return;
+        }
+        Instant limite = Instant.now().minus(ttl);
+        List<ArquivoCache> arquivos = new ArrayList<>();
+        try (Stream<Path> listagem = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) listagem::iterator) {
+                if (!arquivo.getFileName().toString().endsWith(EXTENSAO)) {
+                    continue;
+                }
+                try {
+                    Instant gravadoEm = Files.getLastModifiedTime(arquivo).toInstant();
+                    if (gravadoEm.isBefore(limite)) {
+                        Files.deleteIfExists(arquivo);
+                        remocoesIdade.increment();
+                    } else {
+                        arquivos.add(new ArquivoCache(arquivo, gravadoEm, Files.size(arquivo)));
+                    }
+                } catch (IOException e) {
+                    // Removido por outra requisicao durante a listagem.
+                }
+            }
+        }
+        long total = arquivos.stream().mapToLong(ArquivoCache::bytes).sum();
+        arquivos.sort(Comparator.comparing(ArquivoCache::gravadoEm));
+        for (ArquivoCache arquivo : arquivos) {
+            if (total <= maxBytesDisco.toBytes()) {
+                break;
+            }
+            Files.deleteIfExists(arquivo.caminho());
+            total -= arquivo.bytes();
+            remocoesTamanho.increment();
+        }
+    }
+
+    private Path arquivoDaChave(String chave) {
+        // Tenant e modelo vem do usuario: o nome do arquivo e o hash da chave, nunca a chave em si.
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+            return diretorio.resolve(HexFormat.of().formatHex(hash) + EXTENSAO);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+
+    private synchronized int entradasEmMemoria() {
+        return memoria.size();
+    }
+
+    private synchronized long bytesEmMemoria() {
+        return bytesMemoria;
+    }
+
+    private Counter contador(String tag, String valor) {
+        return Counter.builder("pdf.fatura.cache").tag(tag, valor).register(meterRegistry);
+    }
+
+    /** Estimativa do heap ocupado: cabecalhos de objeto mais dois bytes por caractere das strings. */
+    private static long estimarBytes(String chave, FaturaPdfAnalisada analise) {
+        long bytes = 64 + 2L * chave.length() + 2L * analise.total().length();
+        for (Transaction t : analise.transacoes()) {
+            bytes += 96 + 2L * (comprimento(t.getDataCompra()) + comprimento(t.getEstabelecimento())
+                    + comprimento(t.getParcela()) + comprimento(t.getValor()));
+        }
+        return bytes;
+    }
+
+    private static int comprimento(String texto) {
+        return texto == null ? 0 : texto.length();
+    }
+
+    private record Entrada(FaturaPdfAnalisada analise, long bytes, Instant criadaEm) {
+    }
+
+    private record ArquivoCache(Path caminho, Instant gravadoEm, long bytes) {
+    }
+}
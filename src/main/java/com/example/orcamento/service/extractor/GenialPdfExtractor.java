@@ -2,11 +2,8 @@ package com.example.orcamento.service.extractor;
 
 import com.example.orcamento.model.Transaction;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -14,68 +11,67 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Slf4j
+@Component
 public class GenialPdfExtractor implements PdfCartaoExtractor {
 
-    private static final Pattern VALOR_PATTERN = Pattern.compile("\\d{1,3}(?:\\.\\d{3})*,\\d{2}");
     private static final Pattern PARCELA_PATTERN = Pattern.compile("\\b\\d{2}/\\d{2}\\b");
+    private static final Pattern PARCELA_EXTENSO_PATTERN = Pattern.compile("Parcela \\d{2} de \\d{2}");
+    private static final Pattern DATA_EXTENSO_PATTERN = Pattern.compile("^\\d{2} de [A-Za-zÀ-ÿ]+\\.? \\d{4}.*");
+    // Ex: 12 de Junho. 2025 LOJA XYZ (Parcela 01 de 05) - R$ 123,45
+    private static final Pattern EXTENSO_COM_VALOR_PATTERN = Pattern.compile(
+            "^(\\d{2} de [A-Za-zÀ-ÿ]+\\.? \\d{4}) (.+?)(?: \\((?:Parcela )?(\\d{2}/\\d{2}|\\d{2} de \\d{2})\\))? ?-? ?R\\$ ([\\d.,-]+)"
+    );
     // Ex.: Mercado*globaldistrib - 1/12 29/10/2025 R$ 606,21 (sem âncoras para permitir múltiplas ocorrências na mesma linha)
     private static final Pattern GENIAL_EST_PAR_DATA_VALOR = Pattern.compile(
             "(?<est>.+?)\\s*-\\s*(?<parc>\\d{1,2}/\\d{1,2})\\s+(?<data>\\d{2}/\\d{2}/\\d{4})\\s+R\\$\\s*(?<valor>\\d{1,3}(?:\\.\\d{3})*,\\d{2})"
     );
 
     @Override
-    public List<Transaction> extrair(InputStream pdfInputStream) {
+    public List<Transaction> extrairDasLinhas(Iterable<String> linhas) {
         List<Transaction> transacoes = new ArrayList<>();
-        try (PDDocument document = PDDocument.load(pdfInputStream)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String textoExtraido = stripper.getText(document);
-            List<String> linhas = Arrays.asList(textoExtraido.split("\n"));
-
-            for (String linha : linhas) {
-                String linhaLimpa = linha.trim().replaceAll("\\s+", " ");
-                if (linhaLimpa.isEmpty()) continue;
-                String upper = linhaLimpa.toUpperCase();
-
-                // Primeiro: capturar todas as transações no formato principal, mesmo que estejam na mesma linha do cabeçalho
-                boolean encontrouNestaLinha = false;
-                Matcher multi = GENIAL_EST_PAR_DATA_VALOR.matcher(linhaLimpa);
-                while (multi.find()) {
-                    String estabelecimento = multi.group("est").trim();
-                    String parcela = normalizarParcela(multi.group("parc"));
-                    String data = multi.group("data");
-                    String valor = normalizarValor(multi.group("valor"));
-                    if ((upper.contains("PAGAMENTO") || upper.contains("CRÉDITO") || upper.contains("CREDITO")) && !valor.startsWith("-")) {
-                        valor = "-" + valor;
-                    }
-                    transacoes.add(new Transaction(data, estabelecimento, parcela, valor));
-                    encontrouNestaLinha = true;
-                }
-                if (encontrouNestaLinha) {
-                    continue; // já extraímos todas as ocorrências dessa linha
-                }
 
-                // Ignorar pagamentos/créditos e totais para os demais formatos
-                if (upper.contains("PAGAMENTO") || upper.contains("CRÉDITO") || upper.contains("CREDITO")
-                        || upper.contains("TOTAL DA FATURA") || upper.contains("RESUMO") || upper.contains("ENCARGOS")) {
-                    // Ainda assim tentamos identificar como crédito (valor negativo) se aparecer no padrão de transação
-                    Transaction t = parseLinha(linhaLimpa, true);
-                    if (t != null) {
-                        // força negativo para pagamento/crédito
-                        if (!t.getValor().startsWith("-")) {
-                            t.setValor("-" + t.getValor());
-                        }
-                        transacoes.add(t);
-                    }
-                    continue;
+        for (String linha : linhas) {
+            String linhaLimpa = TokenizadorFatura.normalizarEspacos(linha);
+            if (linhaLimpa.isEmpty()) continue;
+            String upper = linhaLimpa.toUpperCase();
+
+            // Primeiro: capturar todas as transações no formato principal, mesmo que estejam na mesma linha do cabeçalho
+            boolean encontrouNestaLinha = false;
+            Matcher multi = GENIAL_EST_PAR_DATA_VALOR.matcher(linhaLimpa);
+            while (multi.find()) {
+                String estabelecimento = multi.group("est").trim();
+                String parcela = normalizarParcela(multi.group("parc"));
+                String data = multi.group("data");
+                String valor = normalizarValor(multi.group("valor"));
+                if ((upper.contains("PAGAMENTO") || upper.contains("CRÉDITO") || upper.contains("CREDITO")) && !valor.startsWith("-")) {
+                    valor = "-" + valor;
                 }
+                transacoes.add(new Transaction(data, estabelecimento, parcela, valor));
+                encontrouNestaLinha = true;
+            }
+            if (encontrouNestaLinha) {
+                continue; // já extraímos todas as ocorrências dessa linha
+            }
 
-                Transaction t = parseLinha(linhaLimpa, false);
+            // Ignorar pagamentos/créditos e totais para os demais formatos
+            if (upper.contains("PAGAMENTO") || upper.contains("CRÉDITO") || upper.contains("CREDITO")
+                    || upper.contains("TOTAL DA FATURA") || upper.contains("RESUMO") || upper.contains("ENCARGOS")) {
+                // Ainda assim tentamos identificar como crédito (valor negativo) se aparecer no padrão de transação
+                Transaction t = parseLinha(linhaLimpa, true);
                 if (t != null) {
+                    // força negativo para pagamento/crédito
+                    if (!t.getValor().startsWith("-")) {
+                        t.setValor("-" + t.getValor());
+                    }
                     transacoes.add(t);
                 }
+                continue;
+            }
+
+            Transaction t = parseLinha(linhaLimpa, false);
+            if (t != null) {
+                transacoes.add(t);
             }
-        } catch (IOException e) {
-            log.error("Erro ao processar PDF do Genial", e);
         }
         log.info("==== TRANSAÇÕES ENCONTRADAS GENIAL ====");
         for (Transaction t : transacoes) {
@@ -98,11 +94,11 @@ public class GenialPdfExtractor implements PdfCartaoExtractor {
             return new Transaction(data, estabelecimento, parcela, valor);
         }
         // Tenta formato 1: começa com dd/MM
-        if (linha.matches("^\\d{2}/\\d{2}.*")) {
+        if (TokenizadorFatura.comecaComDiaMesCompleto(linha)) {
             return parseFormatoDDMM(linha, forcarNegativo);
         }
         // Tenta formato 2: "dd de Mês. yyyy" (ex: 05 de Julho. 2025)
-        if (linha.matches("^\\d{2} de [A-Za-zÀ-ÿ]+\\.? \\d{4}.*")) {
+        if (DATA_EXTENSO_PATTERN.matcher(linha).matches()) {
             return parseFormatoExtenso(linha, forcarNegativo);
         }
         return null;
@@ -115,7 +111,7 @@ public class GenialPdfExtractor implements PdfCartaoExtractor {
         int valorIdx = -1;
         String valor = null;
         for (int i = tokens.length - 1; i >= 0; i--) {
-            if (VALOR_PATTERN.matcher(tokens[i]).matches()) {
+            if (TokenizadorFatura.ehValorComMilhar(tokens[i])) {
                 valorIdx = i;
                 valor = tokens[i];
                 // Verifica sinal imediatamente antes
@@ -141,9 +137,7 @@ public class GenialPdfExtractor implements PdfCartaoExtractor {
     }
 
     private Transaction parseFormatoExtenso(String linha, boolean forcarNegativo) {
-        // Ex: 12 de Junho. 2025 LOJA XYZ (Parcela 01 de 05) - R$ 123,45
-        Pattern pComValor = Pattern.compile("^(\\d{2} de [A-Za-zÀ-ÿ]+\\.? \\d{4}) (.+?)(?: \\((?:Parcela )?(\\d{2}/\\d{2}|\\d{2} de \\d{2})\\))? ?-? ?R\\$ ([\\d.,-]+)");
-        Matcher m = pComValor.matcher(linha);
+        Matcher m = EXTENSO_COM_VALOR_PATTERN.matcher(linha);
         if (m.find()) {
             String data = m.group(1);
             String estabelecimento = m.group(2).trim();
@@ -163,7 +157,7 @@ public class GenialPdfExtractor implements PdfCartaoExtractor {
         Matcher m = PARCELA_PATTERN.matcher(texto);
         if (m.find()) return m.group();
         // Também aceitar padrão "Parcela 01 de 05"
-        Matcher alt = Pattern.compile("Parcela \\d{2} de \\d{2}").matcher(texto);
+        Matcher alt = PARCELA_EXTENSO_PATTERN.matcher(texto);
         if (alt.find()) {
             String[] partes = alt.group().replace("Parcela ", "").split(" de ");
             if (partes.length == 2) return String.format("%s/%s", partes[0], partes[1]);
@@ -187,4 +181,14 @@ public class GenialPdfExtractor implements PdfCartaoExtractor {
         if (v.startsWith("--")) v = v.substring(1);
         return v;
     }
+
+    @Override
+    public List<String> modelos() {
+        return List.of("genial");
+    }
+
+    @Override
+    public List<String> marcadores() {
+        return List.of("Genial");
+    }
 }
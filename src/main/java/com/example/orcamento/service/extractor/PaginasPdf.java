@@ -0,0 +1,105 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Leitura do texto de faturas PDF por intervalo de paginas. O documento e carregado com buffer
+ * misto (memoria ate o limite, depois arquivo temporario) e o texto e quebrado em linhas pagina a
+ * pagina, sem montar a string do documento inteiro.
+ */
+@Slf4j
+final class PaginasPdf {
+
+    static final long MEMORIA_PRINCIPAL_PADRAO = 8L * 1024 * 1024;
+
+    private PaginasPdf() {
+    }
+
+    static MemoryUsageSetting memoria(long maxMemoriaPrincipal) {
+        return maxMemoriaPrincipal > 0
+                ? MemoryUsageSetting.setupMixed(maxMemoriaPrincipal)
+                : MemoryUsageSetting.setupTempFileOnly();
+    }
+
+    static PDDocument carregar(InputStream pdfInputStream) throws IOException {
+        return PDDocument.load(pdfInputStream, memoria(MEMORIA_PRINCIPAL_PADRAO));
+    }
+
+    static PDDocument carregar(File arquivo, long maxMemoriaPrincipal) throws IOException {
+        return PDDocument.load(arquivo, memoria(maxMemoriaPrincipal));
+    }
+
+    /**
+     * Caminho sequencial de {@link PdfCartaoExtractor#extrair(InputStream)}: extrai uma pagina por vez
+     * na thread atual enquanto o extrator consome as linhas.
+     */
+    static List<Transaction> extrair(PdfCartaoExtractor extractor, InputStream pdfInputStream) {
+        try (PDDocument document = carregar(pdfInputStream)) {
+            return extractor.extrairDasLinhas(linhas(document));
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Erro ao processar PDF extrator={}", extractor.getClass().getSimpleName(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Linhas das paginas {@code inicio} a {@code fim} (1-based, inclusivo). Cada pagina termina com
+     * quebra de linha, entao a concatenacao dos intervalos e igual ao texto do documento inteiro.
+     */
+    static List<String> linhas(PDDocument document, int inicio, int fim) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(inicio);
+        stripper.setEndPage(fim);
+        String texto = stripper.getText(document);
+        if (texto.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String[] linhas = texto.split("\\r?\\n", -1);
+        int total = linhas[linhas.length - 1].isEmpty() ? linhas.length - 1 : linhas.length;
+        return Arrays.asList(linhas).subList(0, total);
+    }
+
+    static Iterable<String> linhas(PDDocument document) {
+        int paginas = document.getNumberOfPages();
+        return () -> new Iterator<>() {
+            private int proximaPagina = 1;
+            private Iterator<String> atual = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!atual.hasNext() && proximaPagina <= paginas) {
+                    try {
+                        atual = linhas(document, proximaPagina, proximaPagina).iterator();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    proximaPagina++;
+                }
+                return atual.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return atual.next();
+            }
+        };
+    }
+}
@@ -5,5 +5,43 @@ import java.io.InputStream;
 import java.util.List;
 
 public interface PdfCartaoExtractor {
-    List<Transaction> extrair(InputStream pdfInputStream);
+
+    /**
+     * Extrai as transacoes lendo o PDF na thread atual, uma pagina por vez. Para faturas grandes use
+     * {@link PdfExtracaoPipeline}, que extrai as paginas em paralelo.
+     */
+    default List<Transaction> extrair(InputStream pdfInputStream) {
+        return PaginasPdf.extrair(this, pdfInputStream);
+    }
+
+    /**
+     * Interpreta o texto da fatura linha a linha, na ordem das paginas. As linhas podem ser produzidas
+     * enquanto o extrator consome as anteriores; interromper a iteracao encerra a leitura do PDF.
+     */
+    List<Transaction> extrairDasLinhas(Iterable<String> linhas);
+
+    /**
+     * Valores de {@code CartaoCredito.modeloImportacao} atendidos pelo extrator; o primeiro e o nome
+     * usado quando o modelo e detectado automaticamente. Todo extrator registrado no
+     * {@link PdfCartaoExtractorRegistry} precisa declarar ao menos um.
+     */
+    default List<String> modelos() {
+        return List.of();
+    }
+
+    /**
+     * Textos que identificam a fatura na primeira pagina. Cada marcador encontrado soma um ponto na
+     * deteccao automatica do modelo; sem marcadores o extrator so e usado quando escolhido pelo cartao.
+     */
+    default List<String> marcadores() {
+        return List.of();
+    }
+
+    /**
+     * Versao da interpretacao feita pelo extrator. Faz parte da chave do {@link FaturaPdfCache}: ao corrigir
+     * o que o extrator devolve para um mesmo PDF, incremente-a para que as analises antigas deixem de valer.
+     */
+    default int versao() {
+        return 1;
+    }
 }
@@ -2,107 +2,47 @@ package com.example.orcamento.service.extractor;
 
 import com.example.orcamento.model.Transaction;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class PdfCartaoExtractorCartao3 implements PdfCartaoExtractor {
-    @Override
-    public List<Transaction> extrair(InputStream pdfInputStream) {
-        List<Transaction> transacoes = new ArrayList<>();
-        try (PDDocument document = PDDocument.load(pdfInputStream)) {
-            log.info("Documento PDF carregado : {} ", document.toString());
-            PDFTextStripper stripper = new PDFTextStripper();
-            String textoExtraido = stripper.getText(document);
-            log.info("textoExtraido: {} ", textoExtraido);
-
-            List<String> linhas = Arrays.asList(textoExtraido.split("\n"));
-            log.info("linhas: {} ", linhas);
-            boolean temString = false;
-            if (linhas.contains("00 01290 VK045 28/03/2025")) {
-                temString = true;
-            }
-            log.info("temString: {} ", temString);
-            if (!temString) {
-                transacoes = processarRegistros(linhas);
-            }
-        } catch (IOException e) {
-            log.error("Erro ao processar PDF", e);
-        }
-        return transacoes;
-    }
+    private static final String MARCADOR_FATURA_IGNORADA = "00 01290 VK045 28/03/2025";
 
-    private static List<Transaction> processarRegistros(List<String> linhas) {
+    @Override
+    public List<Transaction> extrairDasLinhas(Iterable<String> linhas) {
         List<Transaction> todasTransacoes = new ArrayList<>();
+        boolean temString = false;
         for (String linha : linhas) {
-            String linhaLimpa = linha.trim().replaceAll("\\s+", " ");
-            if (linhaLimpa.matches("^\\d{1,2}/\\d{1,2}.*")) {
+            if (linha.equals(MARCADOR_FATURA_IGNORADA)) {
+                temString = true;
+                break;
+            }
+            String linhaLimpa = TokenizadorFatura.normalizarEspacos(linha);
+            if (TokenizadorFatura.comecaComDiaMes(linhaLimpa)) {
                 Transaction transacao = parseTransaction(linhaLimpa);
                 if (transacao != null) {
                     todasTransacoes.add(transacao);
                 }
             }
         }
+        log.info("temString: {} ", temString);
+        if (temString) {
+            return new ArrayList<>();
+        }
         return filtrarPorMenorParcela(todasTransacoes);
     }
 
     private static Transaction parseTransaction(String linha) {
-        String[] tokens = linha.split(" ");
-        if (tokens.length < 3) return null;
-        String data = tokens[0];
-        String valor = "";
-        String parcela = null;
-        String estabelecimento = "";
-
-        // Procurar o valor e a parcela a partir do final
-        for (int i = tokens.length - 1; i >= 0; i--) {
-            if (tokens[i].matches("\\d+,\\d{2}")) { // Ex.: "191,62"
-                valor = tokens[i];
-                // Verificar se é negativo
-                if (i > 0 && tokens[i - 1].equals("-")) {
-                    valor = "-" + valor;
-                    i--;
-                }
-                // Procurar a parcela (dd/dd) antes do valor
-                for (int j = i - 1; j > 0; j--) {
-                    if (tokens[j].matches("\\d{2}/\\d{2}")) {
-                        parcela = tokens[j];
-                        estabelecimento = String.join(" ", Arrays.copyOfRange(tokens, 1, j));
-                        break;
-                    }
-                }
-                // Se não encontrou parcela, o estabelecimento é tudo entre a data e o valor
-                if (parcela == null) {
-                    String restoLinha = String.join(" ", Arrays.copyOfRange(tokens, 1, i));
-                    parcela = extrairParcelaDeTexto(restoLinha);
-                    if (parcela != null) {
-                        estabelecimento = restoLinha.replace(parcela, "").trim();
-                    } else {
-                        estabelecimento = restoLinha;
-                    }
-                }
-                break;
-            }
+        Transaction transacao = TokenizadorFatura.lerCompra(linha, false);
+        if (transacao != null) {
+            log.debug("Parsed: data={}, est={}, parcela={}, valor={}",
+                    transacao.getDataCompra(), transacao.getEstabelecimento(), transacao.getParcela(), transacao.getValor());
         }
-        if (valor.isEmpty()) return null;
-        log.info("Parsed: data=" + data + ", est=" + estabelecimento + ", parcela=" + parcela + ", valor=" + valor);
-        return new Transaction(data, estabelecimento, parcela, valor);
-    }
-
-    private static String extrairParcelaDeTexto(String texto) {
-        String padraoParcela = "\\d{2}/\\d{2}";
-        java.util.regex.Matcher matcher = java.util.regex.Pattern.compile(padraoParcela).matcher(texto);
-        if (matcher.find()) {
-            return matcher.group();
-        }
-        return null;
+        return transacao;
     }
 
     private static List<Transaction> filtrarPorMenorParcela(List<Transaction> transacoes) {
@@ -150,4 +90,9 @@ public class PdfCartaoExtractorCartao3 implements PdfCartaoExtractor {
             return valor;
         }
     }
+
+    @Override
+    public List<String> modelos() {
+        return List.of("cartao3");
+    }
 }
@@ -11,4 +11,14 @@ public class PdfCartaoExtractorGenerico implements PdfCartaoExtractor {
         // Implementação genérica: retorna lista vazia ou lógica padrão
         return Collections.emptyList();
     }
+
+    @Override
+    public List<Transaction> extrairDasLinhas(Iterable<String> linhas) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<String> modelos() {
+        return List.of("generico");
+    }
 }
@@ -0,0 +1,165 @@
+package com.example.orcamento.service.extractor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Extratores de fatura registrados no Spring, por modelo de importacao. Substitui o mapa estatico
+ * da antiga {@code PdfCartaoExtractorFactory}: um extrator novo so precisa ser um {@code @Component}
+ * que declare seus {@link PdfCartaoExtractor#modelos()}.
+ *
+ * <p>A deteccao automatica le apenas o texto da primeira pagina e pontua cada extrator pelos
+ * {@link PdfCartaoExtractor#marcadores()} encontrados; o documento inteiro so e lido depois, pelo
+ * extrator escolhido.</p>
+ */
+@Component
+@Slf4j
+public class PdfCartaoExtractorRegistry {
+
+    private static final PdfCartaoExtractor GENERICO = new PdfCartaoExtractorGenerico();
+
+    private final Map<String, PdfCartaoExtractor> extractorsPorModelo = new HashMap<>();
+    private final List<Impressao> impressoes = new ArrayList<>();
+
+    public PdfCartaoExtractorRegistry(List<PdfCartaoExtractor> extractors) {
+        registrar(GENERICO);
+        extractors.forEach(this::registrar);
+    }
+
+    /** Extrator do modelo informado; modelos desconhecidos usam o extrator generico, que nao extrai nada. */
+    public PdfCartaoExtractor getExtractor(String modeloImportacao) {
+        if (modeloImportacao == null) {
+            return GENERICO;
+        }
+        return extractorsPorModelo.getOrDefault(modeloImportacao.toLowerCase(Locale.ROOT), GENERICO);
+    }
+
+    /** Verdadeiro quando o modelo tem um extrator proprio, ou seja, nao cai no extrator generico. */
+    public boolean conhece(String modeloImportacao) {
+        return modeloImportacao != null && getExtractor(modeloImportacao) != GENERICO;
+    }
+
+    /** Verdadeiro quando o extrator do modelo declara {@link PdfCartaoExtractor#marcadores()}. */
+    public boolean temMarcadores(String modeloImportacao) {
+        return !getExtractor(modeloImportacao).marcadores().isEmpty();
+    }
+
+    /**
+     * Verdadeiro quando ao menos um marcador do extrator do modelo aparece na primeira pagina. Um extrator
+     * sem marcadores nunca reconhece a fatura; veja {@link #temMarcadores(String)}.
+     */
+    public boolean reconhece(String modeloImportacao, List<String> linhasPrimeiraPagina) {
+        PdfCartaoExtractor extractor = getExtractor(modeloImportacao);
+        String texto = texto(linhasPrimeiraPagina);
+        return impressoes.stream()
+                .filter(impressao -> impressao.extractor() == extractor)
+                .anyMatch(impressao -> impressao.pontuar(texto) > 0);
+    }
+
+    /** Linhas da primeira pagina do PDF, sem extrair as demais; vazio se o documento nao tem paginas. */
+    public List<String> primeiraPagina(InputStream pdfInputStream) throws IOException {
+        try (PDDocument document = PaginasPdf.carregar(pdfInputStream)) {
+            if (document.getNumberOfPages() == 0) {
+                return List.of();
+            }
+            return PaginasPdf.linhas(document, 1, 1);
+        }
+    }
+
+    /**
+     * Detecta o modelo pelo texto da primeira pagina do PDF, sem extrair as demais.
+     *
+     * @see #detectar(List, String)
+     */
+    public Optional<String> detectar(InputStream pdfInputStream, String modeloPreferido) throws IOException {
+        return detectar(primeiraPagina(pdfInputStream), modeloPreferido);
+    }
+
+    /**
+     * Modelo do extrator com mais marcadores na primeira pagina. Em caso de empate vence
+     * {@code modeloPreferido} (normalmente o modelo configurado no cartao) se estiver entre os
+     * empatados; senao a deteccao e inconclusiva e o resultado e vazio.
+     */
+    public Optional<String> detectar(List<String> linhasPrimeiraPagina, String modeloPreferido) {
+        String texto = texto(linhasPrimeiraPagina);
+        PdfCartaoExtractor preferido = modeloPreferido == null ? null : extractorsPorModelo.get(modeloPreferido.toLowerCase(Locale.ROOT));
+
+        int melhorPontuacao = 0;
+        List<Impressao> melhores = new ArrayList<>();
+        for (Impressao impressao : impressoes) {
+            int pontuacao = impressao.pontuar(texto);
+            if (pontuacao > melhorPontuacao) {
+                melhorPontuacao = pontuacao;
+                melhores.clear();
+            }
+            if (pontuacao > 0 && pontuacao == melhorPontuacao) {
+                melhores.add(impressao);
+            }
+        }
+
+        Optional<String> modelo;
+        if (melhores.size() == 1) {
+            modelo = Optional.of(melhores.get(0).modelo());
+        } else {
+            modelo = melhores.stream()
+                    .filter(impressao -> impressao.extractor() == preferido)
+                    .map(Impressao::modelo)
+                    .findFirst();
+        }
+        log.info("pdf.modelo.deteccao modelo={} pontuacao={} empatados={}", modelo.orElse(null), melhorPontuacao, melhores.size());
+        return modelo;
+    }
+
+    private void registrar(PdfCartaoExtractor extractor) {
+        List<String> modelos = extractor.modelos();
+        if (modelos.isEmpty()) {
+            throw new IllegalStateException("Extrator sem modelo de importacao: " + extractor.getClass().getName());
+        }
+        for (String modelo : modelos) {
+            PdfCartaoExtractor anterior = extractorsPorModelo.putIfAbsent(modelo.toLowerCase(Locale.ROOT), extractor);
+            if (anterior != null) {
+                throw new IllegalStateException("Modelo de importacao '" + modelo + "' registrado por "
+                        + anterior.getClass().getName() + " e " + extractor.getClass().getName());
+            }
+        }
+        if (!extractor.marcadores().isEmpty()) {
+            impressoes.add(new Impressao(modelos.get(0).toLowerCase(Locale.ROOT), extractor,
+                    extractor.marcadores().stream().map(PdfCartaoExtractorRegistry::normalizar).toList()));
+        }
+    }
+
+    private static String texto(List<String> linhasPrimeiraPagina) {
+        StringBuilder primeiraPagina = new StringBuilder();
+        for (String linha : linhasPrimeiraPagina) {
+            primeiraPagina.append(normalizar(linha)).append('\n');
+        }
+        return primeiraPagina.toString();
+    }
+
+    private static String normalizar(String texto) {
+        return TokenizadorFatura.normalizarEspacos(texto).toUpperCase(Locale.ROOT);
+    }
+
+    private record Impressao(String modelo, PdfCartaoExtractor extractor, List<String> marcadores) {
+
+        int pontuar(String texto) {
+            int pontuacao = 0;
+            for (String marcador : marcadores) {
+                if (texto.contains(marcador)) {
+                    pontuacao++;
+                }
+            }
+            return pontuacao;
+        }
+    }
+}
@@ -1,26 +1,100 @@
 package com.example.orcamento.service.extractor;
 
-import com.example.orcamento.model.Transaction;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.example.orcamento.security.TenantContext;
+import com.example.orcamento.service.CartaoCreditoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Escolhe o extrator de uma fatura. O modelo informado na requisicao sempre vence; depois vale o modelo
+ * configurado no cartao. A primeira pagina do PDF so e lida quando o cartao nao tem modelo proprio ou
+ * quando o extrator configurado declara marcadores e nenhum deles aparece nela (a fatura e de outro
+ * banco): nesses casos o modelo e detectado pelos marcadores, com desempate pelo configurado.
+ *
+ * <p>O resultado de uma leitura fica guardado por cartao, junto com o modelo configurado naquele
+ * momento, para que os proximos uploads do mesmo cartao nao precisem ler o PDF de novo. A entrada e
+ * descartada quando o modelo do cartao muda ({@link #descartarDeteccao}).</p>
+ */
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class PdfCartaoExtractorService {
-    @Autowired
-    private PdfCartaoExtractorCartao1 extractor1;
-    @Autowired
-    private PdfCartaoExtractorCartao3 extractor3;
-    @Autowired
-    private PdfCartaoExtractorCartao5 extractor5;
-
-    public List<Transaction> extrair(Long cartaoId, InputStream pdfInputStream) {
-        if (cartaoId == 1L) return extractor1.extrair(pdfInputStream);
-        if (cartaoId == 3L) return extractor3.extrair(pdfInputStream);
-        if (cartaoId == 5L) return extractor5.extrair(pdfInputStream);
-        // Default: pode lançar exception ou retornar vazio
-        return List.of();
+
+    private final PdfCartaoExtractorRegistry registry;
+    private final CartaoCreditoService cartaoCreditoService;
+
+    private final Map<String, Deteccao> modelosDetectadosPorCartao = new ConcurrentHashMap<>();
+
+    public String resolverModelo(Long cartaoId, String modeloInformado, InputStreamSource pdf) throws IOException {
+        if (modeloInformado != null && !modeloInformado.isBlank()) {
+            return modeloInformado;
+        }
+        String configurado = cartaoCreditoService.buscarPorId(cartaoId).getModeloImportacao();
+        boolean cartaoComModelo = registry.conhece(configurado);
+        if (cartaoComModelo && !registry.temMarcadores(configurado)) {
+            // Sem marcadores o extrator configurado nao tem como recusar a fatura
+            return configurado;
+        }
+
+        String chave = chave(cartaoId);
+        Deteccao anterior = modelosDetectadosPorCartao.get(chave);
+        if (anterior != null) {
+            if (Objects.equals(anterior.configurado(), configurado)) {
+                return anterior.modelo();
+            }
+            modelosDetectadosPorCartao.remove(chave, anterior);
+        }
+
+        List<String> primeiraPagina;
+        try (InputStream pdfInputStream = pdf.getInputStream()) {
+            primeiraPagina = registry.primeiraPagina(pdfInputStream);
+        }
+        String modelo;
+        if (cartaoComModelo && registry.reconhece(configurado, primeiraPagina)) {
+            modelo = configurado;
+        } else {
+            Optional<String> deteccao = registry.detectar(primeiraPagina, configurado);
+            if (deteccao.isEmpty()) {
+                log.info("pdf.modelo.configurado cartaoId={} modelo={}", cartaoId, configurado);
+                return configurado;
+            }
+            modelo = deteccao.get();
+            if (!modelo.equalsIgnoreCase(configurado)) {
+                log.info("pdf.modelo.divergente cartaoId={} configurado={} detectado={}", cartaoId, configurado, modelo);
+            }
+        }
+        modelosDetectadosPorCartao.put(chave, new Deteccao(configurado, modelo));
+        return modelo;
+    }
+
+    public PdfCartaoExtractor getExtractor(String modeloImportacao) {
+        return registry.getExtractor(modeloImportacao);
+    }
+
+    /**
+     * Esquece o modelo detectado para o cartao, por exemplo quando ele nao extraiu nenhuma transacao ou
+     * quando o modelo de importacao do cartao foi alterado; o proximo upload volta a ler a primeira pagina.
+     */
+    public void descartarDeteccao(Long cartaoId) {
+        if (modelosDetectadosPorCartao.remove(chave(cartaoId)) != null) {
+            log.info("pdf.modelo.deteccao_descartada cartaoId={}", cartaoId);
+        }
+    }
+
+    private static String chave(Long cartaoId) {
+        return TenantContext.getTenantId() + "|" + cartaoId;
+    }
+
+    private record Deteccao(String configurado, String modelo) {
     }
 }
@@ -0,0 +1,198 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Extrai o texto das faturas PDF em paralelo para a analise de {@code /api/v1/pdf/analisar}. O upload
+ * vai para um arquivo temporario, as paginas sao divididas em intervalos e cada intervalo e extraido
+ * por uma tarefa do executor com o seu proprio {@link PDDocument} (o PDFBox nao e thread-safe). O
+ * extrator recebe as linhas na ordem das paginas, conforme cada intervalo fica pronto, e pode parar
+ * antes do fim do documento: os intervalos restantes sao cancelados.
+ */
+@Component
+@Slf4j
+public class PdfExtracaoPipeline {
+
+    private final Map<String, Semaphore> limitesPorExtrator = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @Value("${app.pdf.extracao.threads:4}")
+    private int threads = 4;
+
+    @Value("${app.pdf.extracao.capacidade-fila:64}")
+    private int capacidadeFila = 64;
+
+    @Value("${app.pdf.extracao.paginas-por-intervalo:8}")
+    private int paginasPorIntervalo = 8;
+
+    @Value("${app.pdf.extracao.limite-por-extrator:2}")
+    private int limitePorExtrator = 2;
+
+    @Value("${app.pdf.extracao.espera-limite:30s}")
+    private Duration esperaLimite = Duration.ofSeconds(30);
+
+    @Value("${app.pdf.extracao.memoria-principal:8MB}")
+    private DataSize memoriaPrincipal = DataSize.ofBytes(PaginasPdf.MEMORIA_PRINCIPAL_PADRAO);
+
+    @PostConstruct
+    void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "pdf-extracao-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Com a fila cheia a propria requisicao extrai o intervalo: degrada para sequencial, sem recusar.
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public List<Transaction> extrair(PdfCartaoExtractor extractor, InputStream pdfInputStream) throws IOException {
+        String nomeExtrator = extractor.getClass().getSimpleName();
+        Semaphore limite = limitesPorExtrator.computeIfAbsent(nomeExtrator, nome -> new Semaphore(limitePorExtrator, true));
+        adquirir(limite, nomeExtrator);
+        Path arquivo = null;
+        List<Future<List<String>>> intervalos = new ArrayList<>();
+        try {
+            arquivo = Files.createTempFile("fatura-pdf-", ".pdf");
+            Files.copy(pdfInputStream, arquivo, StandardCopyOption.REPLACE_EXISTING);
+
+            int paginas;
+            try (PDDocument document = PaginasPdf.carregar(arquivo.toFile(), memoriaPrincipal.toBytes())) {
+                paginas = document.getNumberOfPages();
+                if (paginas <= paginasPorIntervalo) {
+                    return extractor.extrairDasLinhas(PaginasPdf.linhas(document));
+                }
+            }
+
+            long inicio = System.nanoTime();
+            for (int primeira = 1; primeira <= paginas; primeira += paginasPorIntervalo) {
+                int ultima = Math.min(primeira + paginasPorIntervalo - 1, paginas);
+                Path origem = arquivo;
+                int de = primeira;
+                intervalos.add(executor.submit(() -> extrairIntervalo(origem, de, ultima)));
+            }
+            List<Transaction> transacoes = extractor.extrairDasLinhas(emOrdem(intervalos));
+            log.info("pdf.extracao extrator={} paginas={} intervalos={} duracaoMs={}",
+                    nomeExtrator, paginas, intervalos.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            return transacoes;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            intervalos.forEach(intervalo -> intervalo.cancel(true));
+            excluir(arquivo);
+            limite.release();
+        }
+    }
+
+    private List<String> extrairIntervalo(Path arquivo, int primeira, int ultima) throws IOException {
+        try (PDDocument document = PaginasPdf.carregar(arquivo.toFile(), memoriaPrincipal.toBytes())) {
+            return PaginasPdf.linhas(document, primeira, ultima);
+        }
+    }
+
+    private void adquirir(Semaphore limite, String nomeExtrator) throws IOException {
+        try {
+            if (!limite.tryAcquire(esperaLimite.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("pdf.extracao_rejeitada extrator={} limite={}", nomeExtrator, limitePorExtrator);
+                throw new RejectedExecutionException("Muitas faturas deste modelo em processamento, tente novamente em instantes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Extracao do PDF interrompida");
+        }
+    }
+
+    private static Iterable<String> emOrdem(List<Future<List<String>>> intervalos) {
+        return () -> new Iterator<>() {
+            private int proximo;
+            private Iterator<String> atual = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!atual.hasNext() && proximo < intervalos.size()) {
+                    atual = aguardar(intervalos.get(proximo++)).iterator();
+                }
+                return atual.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return atual.next();
+            }
+        };
+    }
+
+    private static List<String> aguardar(Future<List<String>> intervalo) {
+        try {
+            return intervalo.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Extracao do PDF interrompida"));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void excluir(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            arquivo.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.model.Transaction;
+
+import java.util.Arrays;
+
+/**
+ * Leitura das linhas de fatura compartilhada pelos extratores, sem regex no caminho quente: cada
+ * metodo reproduz exatamente o padrao que substitui (indicado no javadoc) varrendo os caracteres,
+ * sem compilar {@link java.util.regex.Pattern} nem criar copias intermediarias da linha.
+ *
+ * <p>As linhas ja chegam quebradas por {@link PaginasPdf}, entao nao contem terminadores de linha;
+ * por isso {@code .*} no fim dos padroes originais equivale a "qualquer resto".</p>
+ */
+public final class TokenizadorFatura {
+
+    /**
+     * Versao da leitura das linhas, somada a {@link PdfCartaoExtractor#versao()} na chave do
+     * {@link FaturaPdfCache}. Incremente ao mudar o resultado de qualquer metodo desta classe.
+     */
+    public static final int VERSAO = 2;
+
+    private TokenizadorFatura() {
+    }
+
+    /** {@code linha.trim().replaceAll("\\s+", " ")}. Devolve a propria linha quando ja esta normalizada. */
+    public static String normalizarEspacos(String linha) {
+        return normalizar(linha, false);
+    }
+
+    /**
+     * {@code linha.trim().replaceAll("\s+", " ")}: no literal Java {@code "\s"} e um espaco, entao so
+     * sequencias de espacos sao reduzidas (tabulacoes ficam na linha). Usado por Bradesco e Zaffari.
+     */
+    public static String colapsarEspacos(String linha) {
+        return normalizar(linha, true);
+    }
+
+    /** {@code linha.matches("^\\d{1,2}/\\d{1,2}.*")}. */
+    public static boolean comecaComDiaMes(String linha) {
+        int barra = digitos(linha, 0, 2);
+        return (barra == 1 || barra == 2) && barra < linha.length() && linha.charAt(barra) == '/'
+                && digitos(linha, barra + 1, 1) == barra + 2;
+    }
+
+    /** {@code linha.matches("^\\d{2}/\\d{2}.*")}. */
+    public static boolean comecaComDiaMesCompleto(String linha) {
+        return ehDiaMes(linha, 0);
+    }
+
+    /** {@code texto.matches("\\d{2}/\\d{2}")}. */
+    public static boolean ehParcela(String texto) {
+        return texto.length() == 5 && ehDiaMes(texto, 0);
+    }
+
+    /** {@code texto.matches("\\d+,\\d{2}")}. */
+    public static boolean ehValor(String texto) {
+        return ehValor(texto, 0, texto.length());
+    }
+
+    /** {@code texto.matches("\\d{1,3}(?:\\.\\d{3})*,\\d{2}")}. */
+    public static boolean ehValorComMilhar(String texto) {
+        return ehValorComMilhar(texto, 0, texto.length());
+    }
+
+    /** Primeira ocorrencia de {@code \\d{2}/\\d{2}} no texto (equivale a {@code Matcher.find()}), ou null. */
+    public static String encontrarParcela(String texto) {
+        for (int i = 0; i + 5 <= texto.length(); i++) {
+            if (ehDiaMes(texto, i)) {
+                return texto.substring(i, i + 5);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Linha no formato {@code data estabelecimento [parcela] [-] valor}, com os campos separados por
+     * espaco, como nos cartoes 1 e 3: o valor e o ultimo token que casa com o formato informado, a
+     * parcela e o token {@code dd/dd} mais a direita antes dele ou, na falta, o primeiro {@code dd/dd}
+     * grudado no texto (ex.: {@code HIP07/12}). Devolve null quando a linha nao tem valor. O valor
+     * sai como esta no PDF (virgula decimal, sinal {@code -} quando o token anterior e {@code -}).
+     */
+    public static Transaction lerCompra(String linha, boolean valorComMilhar) {
+        int[] inicios = new int[16];
+        int[] fins = new int[16];
+        int tokens = 0;
+        int inicio = 0;
+        int fimLinha = linha.length();
+        // Equivale a split(" "): separador de um unico espaco, tokens vazios no fim descartados.
+        while (fimLinha > 0 && linha.charAt(fimLinha - 1) == ' ') {
+            fimLinha--;
+        }
+        while (inicio <= fimLinha) {
+            int espaco = linha.indexOf(' ', inicio);
+            int fim = espaco < 0 || espaco > fimLinha ? fimLinha : espaco;
+            if (tokens == inicios.length) {
+                inicios = Arrays.copyOf(inicios, tokens * 2);
+                fins = Arrays.copyOf(fins, tokens * 2);
+            }
+            inicios[tokens] = inicio;
+            fins[tokens] = fim;
+            tokens++;
+            inicio = fim + 1;
+            if (fim == fimLinha) {
+                break;
+            }
+        }
+        if (tokens < 3) {
+            return null;
+        }
+
+        for (int i = tokens - 1; i >= 0; i--) {
+            if (!(valorComMilhar ? ehValorComMilhar(linha, inicios[i], fins[i]) : ehValor(linha, inicios[i], fins[i]))) {
+                continue;
+            }
+            String valor = linha.substring(inicios[i], fins[i]);
+            if (i > 0 && fins[i - 1] - inicios[i - 1] == 1 && linha.charAt(inicios[i - 1]) == '-') {
+                valor = "-" + valor;
+                i--;
+            }
+            String data = linha.substring(inicios[0], fins[0]);
+            for (int j = i - 1; j > 0; j--) {
+                if (fins[j] - inicios[j] == 5 && ehDiaMes(linha, inicios[j])) {
+                    return new Transaction(data, juntar(linha, inicios, fins, 1, j), linha.substring(inicios[j], fins[j]), valor);
+                }
+            }
+            String resto = juntar(linha, inicios, fins, 1, i);
+            String parcela = encontrarParcela(resto);
+            String estabelecimento = parcela != null ? resto.replace(parcela, "").trim() : resto;
+            return new Transaction(data, estabelecimento, parcela, valor);
+        }
+        return null;
+    }
+
+    /** {@code String.join(" ", Arrays.copyOfRange(tokens, de, ate))}: os tokens sao contiguos na linha. */
+    private static String juntar(String linha, int[] inicios, int[] fins, int de, int ate) {
+        return de >= ate ? "" : linha.substring(inicios[de], fins[ate - 1]);
+    }
+
+    private static boolean ehValor(String texto, int inicio, int fim) {
+        int virgula = fim - 3;
+        return virgula > inicio && texto.charAt(virgula) == ','
+                && digitos(texto, inicio, virgula - inicio) == virgula
+                && digitos(texto, virgula + 1, 2) == fim;
+    }
+
+    private static boolean ehValorComMilhar(String texto, int inicio, int fim) {
+        int virgula = fim - 3;
+        if (virgula <= inicio || texto.charAt(virgula) != ',' || digitos(texto, virgula + 1, 2) != fim) {
+            return false;
+        }
+        int grupo = digitos(texto, inicio, 3);
+        if (grupo == inicio) {
+            return false;
+        }
+        while (grupo < virgula) {
+            if (texto.charAt(grupo) != '.' || digitos(texto, grupo + 1, 3) != grupo + 4) {
+                return false;
+            }
+            grupo += 4;
+        }
+        return grupo == virgula;
+    }
+
+    private static boolean ehDiaMes(String texto, int inicio) {
+        return inicio + 5 <= texto.length()
+                && ehDigito(texto.charAt(inicio)) && ehDigito(texto.charAt(inicio + 1))
+                && texto.charAt(inicio + 2) == '/'
+                && ehDigito(texto.charAt(inicio + 3)) && ehDigito(texto.charAt(inicio + 4));
+    }
+
+    /** Posicao logo depois da sequencia de digitos que comeca em {@code inicio}, limitada a {@code maximo} digitos. */
+    private static int digitos(String texto, int inicio, int maximo) {
+        int fim = Math.min(texto.length(), inicio + maximo);
+        int i = inicio;
+        while (i < fim && ehDigito(texto.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean ehDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static String normalizar(String linha, boolean apenasEspaco) {
+        int inicio = 0;
+        int fim = linha.length();
+        while (inicio < fim && linha.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && linha.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        StringBuilder normalizada = null;
+        int i = inicio;
+        while (i < fim) {
+            char c = linha.charAt(i);
+            if (!ehEspaco(c, apenasEspaco)) {
+                if (normalizada != null) {
+                    normalizada.append(c);
+                }
+                i++;
+                continue;
+            }
+            int proximo = i + 1;
+            while (proximo < fim && ehEspaco(linha.charAt(proximo), apenasEspaco)) {
+                proximo++;
+            }
+            if (normalizada == null && (c != ' ' || proximo > i + 1)) {
+                normalizada = new StringBuilder(fim - inicio).append(linha, inicio, i);
+            }
+            if (normalizada != null) {
+                normalizada.append(' ');
+            }
+            i = proximo;
+        }
+        if (normalizada != null) {
+            return normalizada.toString();
+        }
+        return inicio == 0 && fim == linha.length() ? linha : linha.substring(inicio, fim);
+    }
+
+    /** {@code \s} do regex Java: espaco, \t, \n, \u000B, \f e \r. */
+    private static boolean ehEspaco(char c, boolean apenasEspaco) {
+        if (apenasEspaco) {
+            return c == ' ';
+        }
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -2,53 +2,44 @@ package com.example.orcamento.service.extractor;
 
 import com.example.orcamento.model.Transaction;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import java.io.IOException;
-import java.io.InputStream;
+import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Slf4j
+@Component
 public class ZaffariCardPdfExtractor implements PdfCartaoExtractor {
 
+    // Data no início e o valor em qualquer lugar da linha.
+    private static final Pattern DATA_OU_VALOR_PATTERN = Pattern.compile("^(\\d{2}/\\d{2})|(\\d{1,3}(?:\\.\\d{3})*,\\d{2})");
+    private static final Pattern HISTORICO_PATTERN = Pattern.compile("^([A-ZÀ-Ú0-9\\s\\.]*?)([A-ZÀ-Ú][a-zà-ú].*)?$");
+
     @Override
-    public List<Transaction> extrair(InputStream pdfInputStream) {
+    public List<Transaction> extrairDasLinhas(Iterable<String> linhas) {
         List<Transaction> transacoes = new ArrayList<>();
-        try (PDDocument document = PDDocument.load(pdfInputStream)) {
-            log.info("Carregando documento PDF do Zaffari Card.");
-            PDFTextStripper stripper = new PDFTextStripper();
-            String textoExtraido = stripper.getText(document);
-
-            List<String> linhas = List.of(textoExtraido.split("\r?\n"));
-            log.info("Linhas extraídas do PDF Zaffari: {}", linhas.size());
+        boolean inMovimentacoes = false;
+        for (String linha : linhas) {
+            String linhaLimpa = TokenizadorFatura.colapsarEspacos(linha);
 
-            boolean inMovimentacoes = false;
-            for (String linha : linhas) {
-                String linhaLimpa = linha.trim().replaceAll("\s+", " ");
+            if (linhaLimpa.contains("TRANSAÇÕES REALIZADAS PELO TITULAR")) {
+                inMovimentacoes = true;
+                continue;
+            }
 
-                if (linhaLimpa.contains("TRANSAÇÕES REALIZADAS PELO TITULAR")) {
-                    inMovimentacoes = true;
-                    continue;
+            if (inMovimentacoes) {
+                // A seção de transações termina antes dos totais ou outras seções
+                if (TokenizadorFatura.ehValorComMilhar(linhaLimpa)) { // Linha de total
+                    break;
                 }
 
-                if (inMovimentacoes) {
-                    // A seção de transações termina antes dos totais ou outras seções
-                    if (linhaLimpa.matches("^\\d{1,3}(?:\\.\\d{3})*,\\d{2}")) { // Linha de total
-                        break;
-                    }
-
-                    log.info("[DEBUG ZAFFARI] Processando linha: '{}'", linhaLimpa);
-                    Transaction t = parseTransactionZaffari(linhaLimpa);
-                    if (t != null) {
-                        transacoes.add(t);
-                    }
+                log.debug("[DEBUG ZAFFARI] Processando linha: '{}'", linhaLimpa);
+                Transaction t = parseTransactionZaffari(linhaLimpa);
+                if (t != null) {
+                    transacoes.add(t);
                 }
             }
-        } catch (IOException e) {
-            log.error("Erro ao processar o PDF do Zaffari Card.", e);
         }
 
         log.info("==== TRANSAÇÕES ENCONTRADAS ZAFFARI CARD ====");
@@ -62,8 +53,7 @@ public class ZaffariCardPdfExtractor implements PdfCartaoExtractor {
 
     private Transaction parseTransactionZaffari(String linha) {
         // Regex para encontrar a data no início e o valor em qualquer lugar.
-        Pattern pattern = Pattern.compile("^(\\d{2}/\\d{2})|(\\d{1,3}(?:\\.\\d{3})*,\\d{2})");
-        Matcher matcher = pattern.matcher(linha);
+        Matcher matcher = DATA_OU_VALOR_PATTERN.matcher(linha);
 
         String data = null;
         String valor = null;
@@ -85,8 +75,7 @@ public class ZaffariCardPdfExtractor implements PdfCartaoExtractor {
                                         .trim();
 
             // Tenta separar o Histórico (geralmente em maiúsculas) da Descrição.
-            Pattern historicoPattern = Pattern.compile("^([A-ZÀ-Ú0-9\\s\\.]*?)([A-ZÀ-Ú][a-zà-ú].*)?$");
-            Matcher historicoMatcher = historicoPattern.matcher(textoRestante);
+            Matcher historicoMatcher = HISTORICO_PATTERN.matcher(textoRestante);
 
             String estabelecimento;
             if (historicoMatcher.find()) {
@@ -110,9 +99,19 @@ public class ZaffariCardPdfExtractor implements PdfCartaoExtractor {
                 valorFinalStr = "-" + valorFinalStr;
             }
 
-            log.info("PARSE ZAFFARI | linha: '{}' | data: '{}' | est: '{}' | valor: '{}'", linha, data, estabelecimento, valorFinalStr);
+            log.debug("PARSE ZAFFARI | linha: '{}' | data: '{}' | est: '{}' | valor: '{}'", linha, data, estabelecimento, valorFinalStr);
             return new Transaction(data, estabelecimento, null, valorFinalStr);
         }
         return null;
     }
+
+    @Override
+    public List<String> modelos() {
+        return List.of("zaffari");
+    }
+
+    @Override
+    public List<String> marcadores() {
+        return List.of("ZAFFARI CARD", "TRANSAÇÕES REALIZADAS PELO TITULAR");
+    }
 }
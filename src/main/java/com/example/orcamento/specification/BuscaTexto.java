@@ -0,0 +1,61 @@
+package com.example.orcamento.specification;
+
+import com.example.orcamento.config.BuscaTextoFunctionContributor;
+import com.example.orcamento.util.TextoBusca;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Filtro textual sobre uma coluna {@code *_busca}: cada palavra digitada precisa ser inicio de alguma
+ * palavra da coluna, sem diferenciar acentos nem caixa.
+ *
+ * <p>Os termos que o indice FULLTEXT do InnoDB guarda vao juntos num unico MATCH. Palavras com menos de
+ * {@code innodb_ft_min_token_size} caracteres e stopwords ficam fora do indice, e exigi-las no MATCH
+ * descartaria toda linha ("conta de luz", "xp"); esses termos sao filtrados por LIKE de inicio de
+ * palavra sobre as linhas que o MATCH (ou o tenant) ja restringiu. Os valores abaixo sao os padroes do
+ * MySQL 8 e precisam acompanhar a configuracao do servidor.</p>
+ */
+final class BuscaTexto {
+
+    // innodb_ft_min_token_size
+    static final int TAMANHO_MINIMO_INDEXADO = 3;
+
+    // INNODB_FT_DEFAULT_STOPWORD
+    static final Set<String> STOPWORDS = Set.of(
+            "a", "about", "an", "are", "as", "at", "be", "by", "com", "de", "en", "for", "from", "how", "i",
+            "in", "is", "it", "la", "of", "on", "or", "that", "the", "this", "to", "was", "what", "when",
+            "where", "who", "will", "with", "und", "www");
+
+    private BuscaTexto() {
+    }
+
+    static List<Predicate> contemTermos(CriteriaBuilder builder, Expression<String> coluna, Object consulta) {
+        List<Predicate> predicates = new ArrayList<>();
+        StringJoiner expressao = new StringJoiner(" ");
+        for (String termo : TextoBusca.termos(consulta.toString())) {
+            if (indexado(termo)) {
+                expressao.add("+" + termo + "*");
+            } else {
+                // Termos so com [a-z0-9], entao nao ha curinga do LIKE para escapar
+                predicates.add(builder.like(builder.concat(" ", coluna), "% " + termo + "%"));
+            }
+        }
+        if (expressao.length() > 0) {
+            predicates.add(0, builder.greaterThan(
+                    builder.function(BuscaTextoFunctionContributor.BUSCA_PREFIXO, Double.class,
+                            coluna, builder.literal(expressao.toString())),
+                    0d));
+        }
+        return predicates;
+    }
+
+    static boolean indexado(String termo) {
+        return termo.length() >= TAMANHO_MINIMO_INDEXADO && !STOPWORDS.contains(termo);
+    }
+}
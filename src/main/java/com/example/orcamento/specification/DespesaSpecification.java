@@ -27,19 +27,13 @@ public class DespesaSpecification {
                 predicates.add(builder.equal(root.get("id"), filtros.get("id")));
             }
             if (filtros.containsKey("nome") && filtros.get("nome") != null) {
-                predicates.add(builder.like(
-                        builder.lower(root.get("nome")),
-                        "%" + filtros.get("nome").toString().toLowerCase() + "%"
-                ));
+                predicates.addAll(BuscaTexto.contemTermos(builder, root.get("nomeBusca"), filtros.get("nome")));
             }
             if (filtros.containsKey("valorPrevisto") && filtros.get("valorPrevisto") != null) {
                 predicates.add(builder.equal(root.get("valorPrevisto"), new BigDecimal(filtros.get("valorPrevisto").toString())));
             }
             if (filtros.containsKey("detalhes") && filtros.get("detalhes") != null) {
-                predicates.add(builder.like(
-                        builder.lower(root.get("detalhes")),
-                        "%" + filtros.get("detalhes").toString().toLowerCase() + "%"
-                ));
+                predicates.addAll(BuscaTexto.contemTermos(builder, root.get("detalhesBusca"), filtros.get("detalhes")));
             }
             if (filtros.containsKey("subcategoriaId") && filtros.get("subcategoriaId") != null) {
                 predicates.add(builder.equal(root.get("subcategoria").get("id"), filtros.get("subcategoriaId")));
@@ -79,4 +73,21 @@ public class DespesaSpecification {
             return builder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Posicao de keyset na ordem (dataVencimento desc, id desc): so as despesas que vem depois da
+     * ultima entregue. Despesas sem vencimento ficam de fora, ja que nao tem lugar nessa ordem.
+     */
+    public static Specification<Despesa> depoisDe(LocalDate dataVencimento, Long id) {
+        return (Root<Despesa> root, CriteriaQuery<?> query, CriteriaBuilder builder) -> {
+            if (dataVencimento == null || id == null) {
+                return builder.isNotNull(root.get("dataVencimento"));
+            }
+            return builder.or(
+                    builder.lessThan(root.get("dataVencimento"), dataVencimento),
+                    builder.and(
+                            builder.equal(root.get("dataVencimento"), dataVencimento),
+                            builder.lessThan(root.get("id"), id)));
+        };
+    }
 }
\ No newline at end of file
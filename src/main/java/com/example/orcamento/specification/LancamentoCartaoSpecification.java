@@ -27,19 +27,13 @@ public class LancamentoCartaoSpecification {
                 predicates.add(builder.equal(root.get("id"), filtros.get("id")));
             }
             if (filtros.containsKey("descricao") && filtros.get("descricao") != null) {
-                predicates.add(builder.like(
-                        builder.lower(root.get("descricao")),
-                        "%" + filtros.get("descricao").toString().toLowerCase() + "%"
-                ));
+                predicates.addAll(BuscaTexto.contemTermos(builder, root.get("descricaoBusca"), filtros.get("descricao")));
             }
             if (filtros.containsKey("valorTotal") && filtros.get("valorTotal") != null) {
                 predicates.add(builder.equal(root.get("valorTotal"), new BigDecimal(filtros.get("valorTotal").toString())));
             }
             if (filtros.containsKey("detalhes") && filtros.get("detalhes") != null) {
-                predicates.add(builder.like(
-                        builder.lower(root.get("detalhes")),
-                        "%" + filtros.get("detalhes").toString().toLowerCase() + "%"
-                ));
+                predicates.addAll(BuscaTexto.contemTermos(builder, root.get("detalhesBusca"), filtros.get("detalhes")));
             }
             if (filtros.containsKey("subcategoriaId") && filtros.get("subcategoriaId") != null) {
                 predicates.add(builder.equal(root.get("subcategoria").get("id"), filtros.get("subcategoriaId")));
@@ -62,11 +56,11 @@ public class LancamentoCartaoSpecification {
             if (filtros.containsKey("mesAnoFatura") && filtros.get("mesAnoFatura") != null) {
                 predicates.add(builder.equal(root.get("mesAnoFatura"), filtros.get("mesAnoFatura")));
             }
-            if (filtros.containsKey("mesAnoFaturaList") && filtros.get("mesAnoFaturaList") != null) {
-                List<String> mesAnoList = (List<String>) filtros.get("mesAnoFaturaList");
-                if (!mesAnoList.isEmpty()) {
-                    predicates.add(root.get("mesAnoFatura").in(mesAnoList));
-                }
+            if (filtros.containsKey("competenciaInicial") && filtros.get("competenciaInicial") != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("competencia"), (Integer) filtros.get("competenciaInicial")));
+            }
+            if (filtros.containsKey("competenciaFinal") && filtros.get("competenciaFinal") != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("competencia"), (Integer) filtros.get("competenciaFinal")));
             }
             if (filtros.containsKey("cartaoCreditoId") && filtros.get("cartaoCreditoId") != null) {
                 predicates.add(builder.equal(root.get("cartaoCredito").get("id"), filtros.get("cartaoCreditoId")));
@@ -101,4 +95,21 @@ public class LancamentoCartaoSpecification {
             return builder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Posicao de keyset na ordem (competencia desc, id desc). Lancamentos sem competencia ficam de
+     * fora, ja que nao tem lugar nessa ordem.
+     */
+    public static Specification<LancamentoCartao> depoisDe(Integer competencia, Long id) {
+        return (Root<LancamentoCartao> root, CriteriaQuery<?> query, CriteriaBuilder builder) -> {
+            if (competencia == null || id == null) {
+                return builder.isNotNull(root.get("competencia"));
+            }
+            return builder.or(
+                    builder.lessThan(root.get("competencia"), competencia),
+                    builder.and(
+                            builder.equal(root.get("competencia"), competencia),
+                            builder.lessThan(root.get("id"), id)));
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.orcamento.util;
+
+import java.text.Normalizer;
+import java.time.YearMonth;
+import java.util.Locale;
+
+/**
+ * Conversoes entre a competencia de fatura de cartao e suas representacoes persistidas:
+ * a string legada {@code "MARCO/2026"} ({@code mesAnoFatura}) e o inteiro ordenavel {@code 202603}
+ * ({@code competencia}).
+ */
+public final class CompetenciaFatura {
+
+    private static final String[] MESES = {
+            "JANEIRO", "FEVEREIRO", "MARCO", "ABRIL", "MAIO", "JUNHO",
+            "JULHO", "AGOSTO", "SETEMBRO", "OUTUBRO", "NOVEMBRO", "DEZEMBRO"
+    };
+
+    private CompetenciaFatura() {
+    }
+
+    public static String nomeDoMes(int mes) {
+        return MESES[mes - 1];
+    }
+
+    public static String formatar(YearMonth competencia) {
+        return nomeDoMes(competencia.getMonthValue()) + "/" + competencia.getYear();
+    }
+
+    public static int paraInteiro(YearMonth competencia) {
+        return competencia.getYear() * 100 + competencia.getMonthValue();
+    }
+
+    public static YearMonth deInteiro(int competencia) {
+        return YearMonth.of(competencia / 100, competencia % 100);
+    }
+
+    /**
+     * Interpreta uma string {@code MES/ANO} tolerando caixa, espacos e acentos ({@code "Março/2026"}).
+     * Retorna {@code null} quando o valor nao segue o formato.
+     */
+    public static YearMonth parse(String mesAnoFatura) {
+        if (mesAnoFatura == null) {
+            return null;
+        }
+        String[] partes = mesAnoFatura.trim().split("/");
+        if (partes.length != 2) {
+            return null;
+        }
+        Integer mes = numeroDoMes(partes[0]);
+        if (mes == null) {
+            return null;
+        }
+        try {
+            return YearMonth.of(Integer.parseInt(partes[1].trim()), mes);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Numero (1 a 12) do mes pelo nome, com a mesma tolerancia de {@link #parse(String)}.
+     * Retorna {@code null} quando o nome nao e de um mes.
+     */
+    public static Integer numeroDoMes(String nomeDoMes) {
+        if (nomeDoMes == null) {
+            return null;
+        }
+        String mes = Normalizer.normalize(nomeDoMes.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase(Locale.ROOT);
+        for (int i = 0; i < MESES.length; i++) {
+            if (MESES[i].equals(mes)) {
+                return i + 1;
+            }
+        }
+        return null;
+    }
+
+    public static Integer paraInteiro(String mesAnoFatura) {
+        YearMonth competencia = parse(mesAnoFatura);
+        return competencia != null ? paraInteiro(competencia) : null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.orcamento.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizacao usada pelas colunas de busca textual ({@code *_busca}) e pelos termos digitados nos
+ * filtros: sem acentos, em minusculas e apenas palavras alfanumericas separadas por um espaco, para que
+ * "Açaí" e "acai" e "Mercado-Livre" e "mercado livre" se encontrem.
+ */
+public final class TextoBusca {
+
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+
+    private TextoBusca() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String semAcento = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        return NAO_ALFANUMERICO.matcher(semAcento).replaceAll(" ").trim();
+    }
+
+    /** Palavras da consulta ja normalizadas; vazio quando nao sobra nada pesquisavel. */
+    public static List<String> termos(String consulta) {
+        String normalizada = normalizar(consulta);
+        if (normalizada == null || normalizada.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(normalizada.split(" "));
+    }
+}
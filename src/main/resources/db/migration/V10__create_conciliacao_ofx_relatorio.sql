@@ -0,0 +1,12 @@
+CREATE TABLE conciliacao_ofx_relatorio (
+    processamento_id BIGINT NOT NULL,
+    tenant_id VARCHAR(255) NOT NULL,
+    relatorio_json_gzip MEDIUMBLOB NOT NULL,
+    tamanho_json BIGINT NOT NULL,
+    PRIMARY KEY (processamento_id),
+    CONSTRAINT fk_conciliacao_ofx_relatorio_processamento
+        FOREIGN KEY (processamento_id) REFERENCES conciliacao_ofx_processamento (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_conciliacao_ofx_processamento_tenant_conta_hash
+    ON conciliacao_ofx_processamento (tenant_id, conta_corrente_id, hash_arquivo, processado_em);
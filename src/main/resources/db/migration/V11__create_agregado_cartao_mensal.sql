@@ -0,0 +1,23 @@
+CREATE TABLE agregado_cartao_mensal (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    tenant_id VARCHAR(255) NOT NULL,
+    competencia INT NOT NULL,
+    cartao_credito_id BIGINT NOT NULL,
+    subcategoria_id BIGINT NOT NULL,
+    descricao_normalizada VARCHAR(255) NOT NULL,
+    descricao VARCHAR(255) NOT NULL,
+    quantidade INT NOT NULL,
+    quantidade_parcelada INT NOT NULL,
+    valor_total DECIMAL(19,2) NOT NULL,
+    valor_minimo DECIMAL(19,2) NOT NULL,
+    valor_maximo DECIMAL(19,2) NOT NULL,
+    parcelamentos_ativos INT NOT NULL,
+    parcelamentos_longos INT NOT NULL,
+    valor_comprometido DECIMAL(19,2) NOT NULL,
+    atualizado_em DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_agregado_cartao_mensal_tenant_competencia_grupo
+        UNIQUE (tenant_id, competencia, cartao_credito_id, subcategoria_id, descricao_normalizada)
+);
+
+CREATE INDEX idx_agregado_cartao_mensal_tenant_competencia ON agregado_cartao_mensal (tenant_id, competencia);
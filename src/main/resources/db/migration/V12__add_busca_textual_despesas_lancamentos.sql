@@ -0,0 +1,32 @@
+ALTER TABLE despesas ADD COLUMN nome_busca VARCHAR(255) NULL;
+ALTER TABLE despesas ADD COLUMN detalhes_busca VARCHAR(255) NULL;
+
+ALTER TABLE lancamentos_cartao ADD COLUMN descricao_busca VARCHAR(255) NULL;
+ALTER TABLE lancamentos_cartao ADD COLUMN detalhes_busca VARCHAR(255) NULL;
+
+-- Mesma normalizacao de TextoBusca: minusculas, sem acentos, palavras separadas por um espaco
+UPDATE despesas
+SET nome_busca = TRIM(REGEXP_REPLACE(
+        REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(
+            LOWER(nome), 'á', 'a'), 'à', 'a'), 'â', 'a'), 'ã', 'a'), 'é', 'e'), 'ê', 'e'), 'í', 'i'),
+            'ó', 'o'), 'ô', 'o'), 'õ', 'o'), 'ú', 'u'), 'ü', 'u'), 'ç', 'c'), 'ñ', 'n'),
+        '[^a-z0-9]+', ' ')),
+    detalhes_busca = TRIM(REGEXP_REPLACE(
+        REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(
+            LOWER(detalhes), 'á', 'a'), 'à', 'a'), 'â', 'a'), 'ã', 'a'), 'é', 'e'), 'ê', 'e'), 'í', 'i'),
+            'ó', 'o'), 'ô', 'o'), 'õ', 'o'), 'ú', 'u'), 'ü', 'u'), 'ç', 'c'), 'ñ', 'n'),
+        '[^a-z0-9]+', ' '));
+
+UPDATE lancamentos_cartao
+SET descricao_busca = TRIM(REGEXP_REPLACE(
+        REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(
+            LOWER(descricao), 'á', 'a'), 'à', 'a'), 'â', 'a'), 'ã', 'a'), 'é', 'e'), 'ê', 'e'), 'í', 'i'),
+            'ó', 'o'), 'ô', 'o'), 'õ', 'o'), 'ú', 'u'), 'ü', 'u'), 'ç', 'c'), 'ñ', 'n'),
+        '[^a-z0-9]+', ' ')),
+    detalhes_busca = TRIM(REGEXP_REPLACE(
+        REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(
+            LOWER(detalhes), 'á', 'a'), 'à', 'a'), 'â', 'a'), 'ã', 'a'), 'é', 'e'), 'ê', 'e'), 'í', 'i'),
+            'ó', 'o'), 'ô', 'o'), 'õ', 'o'), 'ú', 'u'), 'ü', 'u'), 'ç', 'c'), 'ñ', 'n'),
+        '[^a-z0-9]+', ' '));
+
+-- Os indices FULLTEXT so existem no MySQL: ficam em db/vendor/mysql/V12_1__add_fulltext_busca_textual.sql
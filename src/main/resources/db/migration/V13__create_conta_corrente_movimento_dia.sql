@@ -0,0 +1,41 @@
+CREATE TABLE conta_corrente_movimento_dia (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    tenant_id VARCHAR(255) NOT NULL,
+    conta_corrente_id BIGINT NOT NULL,
+    data DATE NOT NULL,
+    total_entradas DECIMAL(19,2) NOT NULL,
+    total_saidas DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_conta_corrente_movimento_dia_tenant_conta_data UNIQUE (tenant_id, conta_corrente_id, data)
+);
+
+-- O saldo historico e o saldo atual menos o liquido dos dias posteriores, entao o indice precisa refletir
+-- toda alteracao de saldo. A exclusao de despesa paga ou de receita recebida apaga a movimentacao
+-- original e lanca um estorno na mesma data; aqui so o estorno sobrou, por isso a original apagada e
+-- reposta ao lado dele e o dia volta a ter liquido zero, como acontece nas exclusoes feitas pela
+-- aplicacao. Ajustes manuais de saldo anteriores a esta migration nao deixaram registro e nao tem como
+-- ser datados.
+INSERT INTO conta_corrente_movimento_dia (tenant_id, conta_corrente_id, data, total_entradas, total_saidas)
+SELECT tenant_id,
+       conta_corrente_id,
+       data_recebimento,
+       COALESCE(SUM(entrada), 0),
+       COALESCE(SUM(saida), 0)
+FROM (
+    SELECT tenant_id,
+           conta_corrente_id,
+           data_recebimento,
+           CASE WHEN tipo = 'ENTRADA' THEN valor ELSE 0 END AS entrada,
+           CASE WHEN tipo = 'SAIDA' THEN valor ELSE 0 END AS saida
+    FROM movimentacoes
+    UNION ALL
+    SELECT tenant_id,
+           conta_corrente_id,
+           data_recebimento,
+           CASE WHEN tipo = 'SAIDA' THEN valor ELSE 0 END,
+           CASE WHEN tipo = 'ENTRADA' THEN valor ELSE 0 END
+    FROM movimentacoes
+    WHERE (tipo = 'ENTRADA' AND despesa_id IS NULL AND descricao LIKE 'Estorno de despesa: %')
+       OR (tipo = 'SAIDA' AND receita_id IS NULL AND descricao LIKE 'Cancelamento de receita: %')
+) movimentos
+GROUP BY tenant_id, conta_corrente_id, data_recebimento;
@@ -0,0 +1,8 @@
+-- Gerador de ids em blocos de 50 para conta_corrente_saldo_dia (sequencia emulada em tabela no MySQL).
+-- O otimizador pooled usa os 50 ids anteriores ao valor lido, por isso a semente e MAX(id) + 51.
+CREATE TABLE conta_corrente_saldo_dia_seq (
+    next_val BIGINT
+);
+
+INSERT INTO conta_corrente_saldo_dia_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM conta_corrente_saldo_dia;
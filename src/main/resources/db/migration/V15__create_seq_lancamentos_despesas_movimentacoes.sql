@@ -0,0 +1,23 @@
+-- Geradores de ids em blocos de 50 (sequencias emuladas em tabela no MySQL) para as tabelas que recebem
+-- escritas em massa: parcelas de compras no cartao, despesas parceladas e movimentacoes.
+-- Como em V14, a semente e MAX(id) + 51 porque o otimizador pooled usa os 50 ids anteriores ao valor lido.
+CREATE TABLE lancamentos_cartao_seq (
+    next_val BIGINT
+);
+
+INSERT INTO lancamentos_cartao_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM lancamentos_cartao;
+
+CREATE TABLE despesas_seq (
+    next_val BIGINT
+);
+
+INSERT INTO despesas_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM despesas;
+
+CREATE TABLE movimentacoes_seq (
+    next_val BIGINT
+);
+
+INSERT INTO movimentacoes_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM movimentacoes;
@@ -0,0 +1,11 @@
+-- Uma linha por tenant/competencia de agregado_cartao_mensal. O recalculo da competencia trava esta
+-- linha antes de refazer os grupos, entao recalculos concorrentes passam um de cada vez em vez de
+-- disputarem a chave unica dos grupos.
+CREATE TABLE agregado_cartao_mensal_competencia (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    tenant_id VARCHAR(255) NOT NULL,
+    competencia INT NOT NULL,
+    atualizado_em DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_agregado_cartao_mensal_competencia_tenant_competencia UNIQUE (tenant_id, competencia)
+);
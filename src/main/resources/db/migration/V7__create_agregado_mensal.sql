@@ -0,0 +1,17 @@
+CREATE TABLE agregado_mensal (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    tenant_id VARCHAR(255) NOT NULL,
+    ano INT NOT NULL,
+    mes INT NOT NULL,
+    receitas_realizadas DECIMAL(19,2) NOT NULL,
+    despesas_do_mes DECIMAL(19,2) NOT NULL,
+    despesas_pagas DECIMAL(19,2) NOT NULL,
+    despesas_pagas_no_caixa DECIMAL(19,2) NOT NULL,
+    despesas_pagas_cartao DECIMAL(19,2) NOT NULL,
+    despesas_fatura_cartao DECIMAL(19,2) NOT NULL,
+    total_faturas DECIMAL(19,2) NOT NULL,
+    total_terceiros_faturas DECIMAL(19,2) NOT NULL,
+    atualizado_em DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_agregado_mensal_tenant_ano_mes UNIQUE (tenant_id, ano, mes)
+);
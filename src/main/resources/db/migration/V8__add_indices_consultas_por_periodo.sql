@@ -0,0 +1,4 @@
+CREATE INDEX idx_despesas_tenant_vencimento ON despesas (tenant_id, data_vencimento);
+CREATE INDEX idx_despesas_tenant_pagamento ON despesas (tenant_id, data_pagamento);
+CREATE INDEX idx_lancamentos_cartao_tenant_fatura_cartao ON lancamentos_cartao (tenant_id, mes_ano_fatura, cartao_credito_id);
+CREATE INDEX idx_movimentacoes_conta_tenant_recebimento ON movimentacoes (conta_corrente_id, tenant_id, data_recebimento);
@@ -0,0 +1,22 @@
+ALTER TABLE lancamentos_cartao ADD COLUMN competencia INT NULL;
+
+UPDATE lancamentos_cartao
+SET competencia = CAST(TRIM(SUBSTRING(mes_ano_fatura, LOCATE('/', mes_ano_fatura) + 1)) AS DECIMAL(4, 0)) * 100 +
+    CASE UPPER(TRIM(SUBSTRING(mes_ano_fatura, 1, LOCATE('/', mes_ano_fatura) - 1)))
+        WHEN 'JANEIRO' THEN 1
+        WHEN 'FEVEREIRO' THEN 2
+        WHEN 'MARCO' THEN 3
+        WHEN 'MARÇO' THEN 3
+        WHEN 'ABRIL' THEN 4
+        WHEN 'MAIO' THEN 5
+        WHEN 'JUNHO' THEN 6
+        WHEN 'JULHO' THEN 7
+        WHEN 'AGOSTO' THEN 8
+        WHEN 'SETEMBRO' THEN 9
+        WHEN 'OUTUBRO' THEN 10
+        WHEN 'NOVEMBRO' THEN 11
+        WHEN 'DEZEMBRO' THEN 12
+    END
+WHERE mes_ano_fatura LIKE '%/%';
+
+CREATE INDEX idx_lancamentos_cartao_tenant_competencia_cartao ON lancamentos_cartao (tenant_id, competencia, cartao_credito_id);
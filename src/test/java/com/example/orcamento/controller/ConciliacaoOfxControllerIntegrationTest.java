@@ -29,6 +29,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -86,7 +87,7 @@ class ConciliacaoOfxControllerIntegrationTest {
                 .receitasAmbiguas(List.of())
                 .build();
 
-        when(conciliacaoOfxService.conciliar(eq(1L), eq(2), eq(new BigDecimal("0.00")), eq(new BigDecimal("1000.00")), any()))
+        when(conciliacaoOfxService.conciliar(eq(1L), eq(2), eq(new BigDecimal("0.00")), eq(new BigDecimal("1000.00")), any(), eq(false)))
                 .thenReturn(response);
 
         MockMultipartFile file = new MockMultipartFile(
@@ -131,7 +132,7 @@ class ConciliacaoOfxControllerIntegrationTest {
                 .receitasAmbiguas(List.of())
                 .build();
 
-        when(conciliacaoOfxService.conciliar(eq(2L), eq(3), eq(new BigDecimal("5.00")), eq(new BigDecimal("1500.00")), any()))
+        when(conciliacaoOfxService.conciliar(eq(2L), eq(3), eq(new BigDecimal("5.00")), eq(new BigDecimal("1500.00")), any(), eq(true)))
                 .thenReturn(response);
 
         MockMultipartFile file = new MockMultipartFile(
@@ -147,6 +148,7 @@ class ConciliacaoOfxControllerIntegrationTest {
                         .param("toleranciaDias", "3")
                         .param("toleranciaValor", "5.00")
                         .param("toleranciaValorMinimo", "1500.00")
+                        .param("reprocessar", "true")
                         .header(HttpHeaders.AUTHORIZATION, bearerToken("usuario-a", "tenantA")))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.contaCorrenteId").value(2))
@@ -192,6 +194,39 @@ class ConciliacaoOfxControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].conciliadosQuantidade").value(5));
     }
 
+    @Test
+    void submeterJobRetornaAceiteEJobConsultavelApenasPeloTenant() throws Exception {
+        criarUsuario("usuario-a", "tenantA");
+        criarUsuario("usuario-b", "tenantB");
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "extrato.ofx",
+                "application/x-ofx",
+                "<OFX></OFX>".getBytes(StandardCharsets.ISO_8859_1)
+        );
+
+        String resposta = mockMvc.perform(multipart("/api/v1/conciliacao/ofx/extrato/jobs")
+                        .file(file)
+                        .param("contaCorrenteId", "2")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken("usuario-a", "tenantA")))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andExpect(jsonPath("$.contaCorrenteId").value(2))
+                .andExpect(jsonPath("$.nomeArquivo").value("extrato.ofx"))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = com.jayway.jsonpath.JsonPath.read(resposta, "$.id");
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/v1/conciliacao/ofx/jobs/" + jobId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken("usuario-a", "tenantA")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(jobId));
+
+        mockMvc.perform(org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get("/api/v1/conciliacao/ofx/jobs/" + jobId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken("usuario-b", "tenantB")))
+                .andExpect(status().isNotFound());
+    }
+
     private String bearerToken(String username, String tenantId) {
         return "Bearer " + jwtUtil.generateToken(username, tenantId);
     }
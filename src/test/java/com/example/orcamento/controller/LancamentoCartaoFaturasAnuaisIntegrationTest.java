@@ -0,0 +1,179 @@
+package com.example.orcamento.controller;
+
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.model.StatusCartao;
+import com.example.orcamento.model.Usuario;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.repository.UsuarioRepository;
+import com.example.orcamento.security.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LancamentoCartaoFaturasAnuaisIntegrationTest {
+
+    private static final String TENANT = "tenantFaturasAnuais";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CartaoCreditoRepository cartaoCreditoRepository;
+
+    @Autowired
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+        usuarioRepository.deleteAll();
+        criarUsuario("usuario-faturas", TENANT);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        limparDados();
+    }
+
+    @Test
+    void faturasAnuaisDevemSomarPorCartaoEMes() throws Exception {
+        CartaoCredito visa = criarCartao("Visa");
+        criarLancamento(visa, "MARCO/2026", "500.00", "Proprio");
+        criarLancamento(visa, "MARCO/2026", "200.00", "Terceiros");
+        despesaRepository.save(Despesa.builder()
+                .nome("Fatura Cartao Visa")
+                .tenantId(TENANT)
+                .valorPrevisto(new BigDecimal("500.00"))
+                .dataVencimento(LocalDate.of(2026, 3, 10))
+                .build());
+
+        mockMvc.perform(get("/api/v1/lancamentos-cartao/faturas-ano")
+                        .param("ano", "2026")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cartaoId").value(visa.getId()))
+                .andExpect(jsonPath("$[0].faturasPorMes.MARCO.valor").value(700.00))
+                .andExpect(jsonPath("$[0].faturasPorMes.MARCO.valorTerceiros").value(200.00))
+                .andExpect(jsonPath("$[0].faturasPorMes.MARCO.faturaLancada").value(true))
+                .andExpect(jsonPath("$[0].faturasPorMes.ABRIL.valor").value(0))
+                .andExpect(jsonPath("$[0].faturasPorMes.ABRIL.faturaLancada").value(false));
+    }
+
+    @Test
+    void quantidadeDeConsultasNaoDeveCrescerComONumeroDeCartoes() throws Exception {
+        criarCartaoComLancamentos("Cartao 1");
+        long consultasComUmCartao = contarConsultasFaturasAnuais();
+
+        for (int i = 2; i <= 8; i++) {
+            criarCartaoComLancamentos("Cartao " + i);
+        }
+        long consultasComOitoCartoes = contarConsultasFaturasAnuais();
+
+        assertThat(consultasComOitoCartoes).isEqualTo(consultasComUmCartao);
+    }
+
+    private long contarConsultasFaturasAnuais() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/lancamentos-cartao/faturas-ano")
+                        .param("ano", "2026")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken()))
+                .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void criarCartaoComLancamentos(String nome) {
+        CartaoCredito cartao = criarCartao(nome);
+        criarLancamento(cartao, "JANEIRO/2026", "100.00", "Proprio");
+        criarLancamento(cartao, "JUNHO/2026", "50.00", "Terceiros");
+    }
+
+    private CartaoCredito criarCartao(String nome) {
+        CartaoCredito cartao = new CartaoCredito();
+        cartao.setNome(nome);
+        cartao.setLimite(new BigDecimal("5000.00"));
+        cartao.setDiaVencimento(10);
+        cartao.setStatus(StatusCartao.ATIVO);
+        cartao.setTenantId(TENANT);
+        return cartaoCreditoRepository.save(cartao);
+    }
+
+    private void criarLancamento(CartaoCredito cartao, String mesAnoFatura, String valor, String proprietario) {
+        lancamentoCartaoRepository.save(LancamentoCartao.builder()
+                .descricao("Compra " + mesAnoFatura)
+                .valorTotal(new BigDecimal(valor))
+                .parcelaAtual(1)
+                .totalParcelas(1)
+                .dataCompra(LocalDate.of(2026, 1, 5))
+                .mesAnoFatura(mesAnoFatura)
+                .cartaoCredito(cartao)
+                .proprietario(proprietario)
+                .dataRegistro(LocalDateTime.now())
+                .tenantId(TENANT)
+                .build());
+    }
+
+    private void limparDados() {
+        lancamentoCartaoRepository.deleteAll(lancamentoCartaoRepository.findByTenantId(TENANT));
+        despesaRepository.deleteAll(despesaRepository.findByTenantId(TENANT));
+        cartaoCreditoRepository.deleteAll(cartaoCreditoRepository.findByTenantId(TENANT));
+    }
+
+    private String bearerToken() {
+        return "Bearer " + jwtUtil.generateToken("usuario-faturas", TENANT);
+    }
+
+    private void criarUsuario(String username, String tenantId) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(username);
+        usuario.setPassword("senha-teste");
+        usuario.setEmail(username + "@teste.local");
+        usuario.setNome(username);
+        usuario.setTenantId(tenantId);
+        usuario.setAtivo(true);
+        usuario.setAdmin(false);
+        usuario.setPrimeiroLogin(false);
+        usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.orcamento.controller;
+
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.CategoriaDespesa;
+import com.example.orcamento.model.Compra;
+import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.model.MetaEconomia;
+import com.example.orcamento.model.StatusCartao;
+import com.example.orcamento.model.SubcategoriaDespesa;
+import com.example.orcamento.model.Usuario;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.CategoriaDespesaRepository;
+import com.example.orcamento.repository.CompraRepository;
+import com.example.orcamento.repository.ContaCorrenteRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.repository.MetaEconomiaRepository;
+import com.example.orcamento.repository.SubcategoriaDespesaRepository;
+import com.example.orcamento.repository.UsuarioRepository;
+import com.example.orcamento.security.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as listagens de despesas, transacoes e lancamentos com compra carregam os vinculos
+ * (conta, meta, cartao, compra, subcategoria/categoria) no mesmo select das linhas: a quantidade de
+ * comandos preparados nao pode crescer com o numero de linhas nem de vinculos distintos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListagensConsultasIntegrationTest {
+
+    private static final String TENANT = "tenantListagens";
+    private static final long ID_BASE = 9200L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @Autowired
+    private CompraRepository compraRepository;
+
+    @Autowired
+    private CartaoCreditoRepository cartaoCreditoRepository;
+
+    @Autowired
+    private ContaCorrenteRepository contaCorrenteRepository;
+
+    @Autowired
+    private MetaEconomiaRepository metaEconomiaRepository;
+
+    @Autowired
+    private CategoriaDespesaRepository categoriaDespesaRepository;
+
+    @Autowired
+    private SubcategoriaDespesaRepository subcategoriaDespesaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> idsSubcategorias = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+        usuarioRepository.deleteAll();
+        criarUsuario("usuario-listagens", TENANT);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        limparDados();
+    }
+
+    @Test
+    void listagemDeDespesasNaoDeveCrescerComOsVinculos() throws Exception {
+        criarDespesa(1);
+        long consultasComUmaDespesa = contarConsultas("/api/v1/despesas", 1);
+
+        for (int i = 2; i <= 8; i++) {
+            criarDespesa(i);
+        }
+        long consultasComOitoDespesas = contarConsultas("/api/v1/despesas", 8);
+
+        assertThat(consultasComOitoDespesas).isEqualTo(consultasComUmaDespesa);
+        mockMvc.perform(get("/api/v1/despesas").header(HttpHeaders.AUTHORIZATION, bearerToken()))
+                .andExpect(jsonPath("$[0].categoria.subcategoria.nome").value("Subcategoria 1"))
+                .andExpect(jsonPath("$[0].conta.nomeBanco").value("Banco 1"))
+                .andExpect(jsonPath("$[0].metaEconomia.nome").value("Meta 1"));
+    }
+
+    @Test
+    void listagemDeTransacoesNaoDeveCrescerComOsVinculos() throws Exception {
+        criarDespesa(1);
+        criarLancamentoComCompra(1);
+        long consultasComUmaDeCada = contarConsultas("/api/v1/transacoes", 2);
+
+        for (int i = 2; i <= 8; i++) {
+            criarDespesa(i);
+            criarLancamentoComCompra(i);
+        }
+        long consultasComOitoDeCada = contarConsultas("/api/v1/transacoes", 16);
+
+        assertThat(consultasComOitoDeCada).isEqualTo(consultasComUmaDeCada);
+    }
+
+    @Test
+    void listagemDeLancamentosComCompraNaoDeveCrescerComOsVinculos() throws Exception {
+        criarLancamentoComCompra(1);
+        long consultasComUmLancamento = contarConsultas("/api/v1/lancamentos-cartao/com-compra", 1);
+
+        for (int i = 2; i <= 8; i++) {
+            criarLancamentoComCompra(i);
+        }
+        long consultasComOitoLancamentos = contarConsultas("/api/v1/lancamentos-cartao/com-compra", 8);
+
+        assertThat(consultasComOitoLancamentos).isEqualTo(consultasComUmLancamento);
+        mockMvc.perform(get("/api/v1/lancamentos-cartao/com-compra").header(HttpHeaders.AUTHORIZATION, bearerToken()))
+                .andExpect(jsonPath("$[0].categoria.nome").value("Categoria 101"))
+                .andExpect(jsonPath("$[0].compra.descricao").value("Compra 1"))
+                .andExpect(jsonPath("$[0].compra.cartaoCreditoId").isNumber());
+    }
+
+    private long contarConsultas(String url, int linhasEsperadas) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearerToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(linhasEsperadas)));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void criarDespesa(int indice) {
+        ContaCorrente conta = new ContaCorrente();
+        conta.setAgencia("0001");
+        conta.setNumeroConta("1000" + indice);
+        conta.setBanco("00" + indice);
+        conta.setNomeBanco("Banco " + indice);
+        conta.setSaldo(new BigDecimal("1000.00"));
+        conta.setTenantId(TENANT);
+        conta = contaCorrenteRepository.save(conta);
+
+        MetaEconomia meta = new MetaEconomia();
+        meta.setNome("Meta " + indice);
+        meta.setValor(5000);
+        meta.setDataFinal(LocalDate.of(2027, 12, 31));
+        meta.setTenantId(TENANT);
+        meta = metaEconomiaRepository.save(meta);
+
+        despesaRepository.save(Despesa.builder()
+                .nome("Despesa " + indice)
+                .tenantId(TENANT)
+                .valorPrevisto(new BigDecimal("100.00"))
+                .valorPago(new BigDecimal("100.00"))
+                .dataVencimento(LocalDate.of(2026, 3, indice))
+                .dataPagamento(LocalDate.of(2026, 3, indice))
+                .contaCorrente(conta)
+                .metaEconomia(meta)
+                .subcategoria(criarSubcategoria(indice))
+                .build());
+    }
+
+    private void criarLancamentoComCompra(int indice) {
+        CartaoCredito cartao = new CartaoCredito();
+        cartao.setNome("Cartao " + indice);
+        cartao.setLimite(new BigDecimal("5000.00"));
+        cartao.setDiaVencimento(10);
+        cartao.setStatus(StatusCartao.ATIVO);
+        cartao.setTenantId(TENANT);
+        cartao = cartaoCreditoRepository.save(cartao);
+
+        SubcategoriaDespesa subcategoria = criarSubcategoria(100 + indice);
+        Compra compra = compraRepository.save(Compra.builder()
+                .descricao("Compra " + indice)
+                .valorTotal(new BigDecimal("300.00"))
+                .numeroParcelas(1)
+                .dataCompra(LocalDate.of(2026, 3, indice))
+                .cartaoCredito(cartao)
+                .subcategoria(subcategoria)
+                .proprietario("Proprio")
+                .tenantId(TENANT)
+                .build());
+
+        lancamentoCartaoRepository.save(LancamentoCartao.builder()
+                .descricao("Compra " + indice)
+                .valorTotal(new BigDecimal("300.00"))
+                .parcelaAtual(1)
+                .totalParcelas(1)
+                .dataCompra(LocalDate.of(2026, 3, indice))
+                .mesAnoFatura("ABRIL/2026")
+                .cartaoCredito(cartao)
+                .compra(compra)
+                .subcategoria(subcategoria)
+                .proprietario("Proprio")
+                .dataRegistro(LocalDateTime.now())
+                .tenantId(TENANT)
+                .build());
+    }
+
+    private SubcategoriaDespesa criarSubcategoria(int indice) {
+        long id = ID_BASE + indice;
+        CategoriaDespesa categoria = new CategoriaDespesa();
+        categoria.setId(id);
+        categoria.setNome("Categoria " + indice);
+        categoria.setTenantId(TENANT);
+        categoriaDespesaRepository.save(categoria);
+
+        SubcategoriaDespesa subcategoria = new SubcategoriaDespesa();
+        subcategoria.setId(id);
+        subcategoria.setNome("Subcategoria " + indice);
+        subcategoria.setTenantId(TENANT);
+        subcategoria.setCategoria(categoria);
+        idsSubcategorias.add(id);
+        return subcategoriaDespesaRepository.save(subcategoria);
+    }
+
+    private void limparDados() {
+        lancamentoCartaoRepository.deleteAll(lancamentoCartaoRepository.findByTenantId(TENANT));
+        compraRepository.deleteAll(compraRepository.findByTenantId(TENANT, Pageable.unpaged()).getContent());
+        despesaRepository.deleteAll(despesaRepository.findByTenantId(TENANT));
+        metaEconomiaRepository.deleteAll(metaEconomiaRepository.findByTenantId(TENANT));
+        contaCorrenteRepository.deleteAll(contaCorrenteRepository.findByTenantId(TENANT));
+        cartaoCreditoRepository.deleteAll(cartaoCreditoRepository.findByTenantId(TENANT));
+        subcategoriaDespesaRepository.deleteAllById(idsSubcategorias);
+        categoriaDespesaRepository.deleteAllById(idsSubcategorias);
+        idsSubcategorias.clear();
+    }
+
+    private String bearerToken() {
+        return "Bearer " + jwtUtil.generateToken("usuario-listagens", TENANT);
+    }
+
+    private void criarUsuario(String username, String tenantId) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(username);
+        usuario.setPassword("senha-teste");
+        usuario.setEmail(username + "@teste.local");
+        usuario.setNome(username);
+        usuario.setTenantId(tenantId);
+        usuario.setAtivo(true);
+        usuario.setAdmin(false);
+        usuario.setPrimeiroLogin(false);
+        usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.orcamento.controller;
+
+import com.example.orcamento.dto.PaginaTransacoesDTO;
+import com.example.orcamento.dto.TransacaoFinanceiraDTO;
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.model.StatusCartao;
+import com.example.orcamento.model.Usuario;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.repository.UsuarioRepository;
+import com.example.orcamento.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransacaoFinanceiraFeedIntegrationTest {
+
+    private static final String TENANT = "tenantFeed";
+
+    // Mais recentes primeiro; na mesma data (01/04) a despesa vem antes dos lancamentos da fatura de abril
+    private static final List<String> ORDEM_ESPERADA = List.of(
+            "Lancamento 4", "Despesa 4", "Despesa 3", "Despesa 2", "Lancamento 3",
+            "Lancamento 2", "Despesa 1", "Lancamento 1", "Despesa 5");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @Autowired
+    private CartaoCreditoRepository cartaoCreditoRepository;
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+        usuarioRepository.deleteAll();
+        criarUsuario("usuario-feed", TENANT);
+
+        CartaoCredito cartao = new CartaoCredito();
+        cartao.setNome("Cartao Feed");
+        cartao.setLimite(new BigDecimal("5000.00"));
+        cartao.setDiaVencimento(10);
+        cartao.setStatus(StatusCartao.ATIVO);
+        cartao.setTenantId(TENANT);
+        cartao = cartaoCreditoRepository.save(cartao);
+
+        criarDespesa(1, LocalDate.of(2026, 3, 10));
+        criarDespesa(2, LocalDate.of(2026, 4, 1));
+        criarDespesa(3, LocalDate.of(2026, 4, 20));
+        criarDespesa(4, LocalDate.of(2026, 5, 15));
+        criarDespesa(5, LocalDate.of(2026, 2, 5));
+        criarLancamento(1, "MARÇO/2026", cartao);
+        criarLancamento(2, "ABRIL/2026", cartao);
+        criarLancamento(3, "ABRIL/2026", cartao);
+        criarLancamento(4, "JUNHO/2026", cartao);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparDados();
+    }
+
+    @Test
+    void paginasDevemIntercalarAsOrigensSemRepetirNemPular() throws Exception {
+        List<String> descricoes = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaTransacoesDTO pagina = buscarPagina(cursor, 2, null);
+            assertThat(pagina.getItens()).hasSizeLessThanOrEqualTo(2);
+            pagina.getItens().forEach(item -> descricoes.add(item.getDescricao()));
+            cursor = pagina.getProximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(descricoes).containsExactlyElementsOf(ORDEM_ESPERADA);
+        assertThat(paginas).isEqualTo(5);
+    }
+
+    @Test
+    void paginaDeveRespeitarFiltroDeOrigem() throws Exception {
+        PaginaTransacoesDTO pagina = buscarPagina(null, 10, "CARTAO_CREDITO");
+
+        assertThat(pagina.getItens()).extracting(TransacaoFinanceiraDTO::getDescricao)
+                .containsExactly("Lancamento 4", "Lancamento 3", "Lancamento 2", "Lancamento 1");
+        assertThat(pagina.getProximoCursor()).isNull();
+    }
+
+    @Test
+    void cursorInvalidoDeveRetornarBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/transacoes/pagina")
+                        .param("cursor", "nao-e-um-cursor")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void transmissaoNdjsonDeveEntregarUmaTransacaoPorLinhaNaOrdemDoFeed() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/v1/transacoes/transmitir")
+                        .accept("application/x-ndjson")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        String corpo = resultado.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<String> descricoes = new ArrayList<>();
+        for (String linha : corpo.split("\n")) {
+            descricoes.add(objectMapper.readValue(linha, TransacaoFinanceiraDTO.class).getDescricao());
+        }
+        assertThat(corpo).endsWith("\n");
+        assertThat(descricoes).containsExactlyElementsOf(ORDEM_ESPERADA);
+    }
+
+    private PaginaTransacoesDTO buscarPagina(String cursor, int limite, String origem) throws Exception {
+        var requisicao = get("/api/v1/transacoes/pagina")
+                .param("limite", String.valueOf(limite))
+                .header(HttpHeaders.AUTHORIZATION, bearerToken());
+        if (cursor != null) {
+            requisicao.param("cursor", cursor);
+        }
+        if (origem != null) {
+            requisicao.param("origem", origem);
+        }
+        MvcResult resultado = mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(resultado.getResponse().getContentAsString(StandardCharsets.UTF_8), PaginaTransacoesDTO.class);
+    }
+
+    private void criarDespesa(int indice, LocalDate vencimento) {
+        despesaRepository.save(Despesa.builder()
+                .nome("Despesa " + indice)
+                .tenantId(TENANT)
+                .valorPrevisto(new BigDecimal("100.00"))
+                .valorPago(new BigDecimal("100.00"))
+                .dataVencimento(vencimento)
+                .dataPagamento(vencimento)
+                .build());
+    }
+
+    private void criarLancamento(int indice, String mesAnoFatura, CartaoCredito cartao) {
+        lancamentoCartaoRepository.save(LancamentoCartao.builder()
+                .descricao("Lancamento " + indice)
+                .valorTotal(new BigDecimal("50.00"))
+                .parcelaAtual(1)
+                .totalParcelas(1)
+                .dataCompra(LocalDate.of(2026, 1, indice))
+                .mesAnoFatura(mesAnoFatura)
+                .cartaoCredito(cartao)
+                .proprietario("Proprio")
+                .dataRegistro(LocalDateTime.now())
+                .tenantId(TENANT)
+                .build());
+    }
+
+    private void limparDados() {
+        lancamentoCartaoRepository.deleteAll(lancamentoCartaoRepository.findByTenantId(TENANT));
+        despesaRepository.deleteAll(despesaRepository.findByTenantId(TENANT));
+        cartaoCreditoRepository.deleteAll(cartaoCreditoRepository.findByTenantId(TENANT));
+    }
+
+    private String bearerToken() {
+        return "Bearer " + jwtUtil.generateToken("usuario-feed", TENANT);
+    }
+
+    private void criarUsuario(String username, String tenantId) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(username);
+        usuario.setPassword("senha-teste");
+        usuario.setEmail(username + "@teste.local");
+        usuario.setNome(username);
+        usuario.setTenantId(tenantId);
+        usuario.setAtivo(true);
+        usuario.setAdmin(false);
+        usuario.setPrimeiroLogin(false);
+        usuarioRepository.save(usuario);
+    }
+}
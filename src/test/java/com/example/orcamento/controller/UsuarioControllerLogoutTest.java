@@ -0,0 +1,60 @@
+package com.example.orcamento.controller;
+
+import com.example.orcamento.model.Usuario;
+import com.example.orcamento.security.UsuarioStatusCache;
+import com.example.orcamento.service.AcessoUsuarioService;
+import com.example.orcamento.service.RefreshTokenService;
+import com.example.orcamento.service.UsuarioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsuarioControllerLogoutTest {
+
+    @Mock
+    private AcessoUsuarioService acessoUsuarioService;
+
+    @Mock
+    private UsuarioStatusCache usuarioStatusCache;
+
+    @Mock
+    private UsuarioService usuarioService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @InjectMocks
+    private UsuarioController usuarioController;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void logoutDeveRevogarOsTokensDoUsuario() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("ana", null, List.of()));
+        Usuario ana = new Usuario();
+        ana.setId(3L);
+        ana.setTenantId("tenantA");
+        when(usuarioService.obterUsuarioPorUsername("ana")).thenReturn(ana);
+
+        usuarioController.logout(7L);
+
+        verify(acessoUsuarioService).registrarLogout(7L);
+        verify(usuarioStatusCache).revogarTokens("ana");
+        verify(refreshTokenService).deleteByUsuarioIdAndTenantId(3L, "tenantA");
+    }
+}
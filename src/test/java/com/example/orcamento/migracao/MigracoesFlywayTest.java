@@ -0,0 +1,113 @@
+package com.example.orcamento.migracao;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roda as migrations sobre um H2 novo em modo MySQL, com os mesmos locations do perfil de teste, e
+ * confere os backfills sobre linhas que ja existiam antes de cada migration.
+ */
+class MigracoesFlywayTest {
+
+    private static final String[] LOCATIONS = {
+            "classpath:db/baseline", "classpath:db/migration", "classpath:db/vendor/h2"
+    };
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migracoes-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void todasAsMigracoesDevemRodarNoH2() {
+        migrar(null);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = FALSE", Integer.class)).isZero();
+        assertThat(flyway(null).info().pending()).isEmpty();
+    }
+
+    @Test
+    void backfillsDevemPreencherAsLinhasExistentes() {
+        migrar("8");
+        jdbcTemplate.update("INSERT INTO conta_corrente (id, agencia, numero_conta, banco, nome_banco, saldo, tenant_id, conta_ativa) "
+                + "VALUES (7, '1', '2', '3', 'Banco', 100.00, 't1', TRUE)");
+        jdbcTemplate.update("INSERT INTO lancamentos_cartao (id, descricao, valor_total, parcela_atual, total_parcelas, data_compra, "
+                + "detalhes, mes_ano_fatura, cartao_credito_id, proprietario, data_registro, tenant_id) "
+                + "VALUES (40, 'Pão de Açúcar', 10.00, 1, 1, DATE '2026-02-20', NULL, 'MARÇO/2026', 1, 'Proprio', "
+                + "TIMESTAMP '2026-02-20 10:00:00', 't1')");
+        jdbcTemplate.update("INSERT INTO despesas (id, nome, tenant_id, valor_previsto, data_vencimento, detalhes) "
+                + "VALUES (30, 'Conta de Água', 't1', 80.00, DATE '2026-03-10', 'Sabesp - março')");
+        jdbcTemplate.update("INSERT INTO movimentacoes (id, tenant_id, tipo, valor, data_cadastro, data_recebimento, conta_corrente_id) "
+                + "VALUES (90, 't1', 'ENTRADA', 50.00, TIMESTAMP '2026-03-01 10:00:00', DATE '2026-03-01', 7)");
+
+        migrar(null);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT competencia FROM lancamentos_cartao WHERE id = 40", Integer.class))
+                .isEqualTo(202603);
+        assertThat(jdbcTemplate.queryForObject("SELECT descricao_busca FROM lancamentos_cartao WHERE id = 40", String.class))
+                .isEqualTo("pao de acucar");
+        assertThat(jdbcTemplate.queryForObject("SELECT detalhes_busca FROM despesas WHERE id = 30", String.class))
+                .isEqualTo("sabesp marco");
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM lancamentos_cartao_seq", Long.class)).isEqualTo(91L);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM despesas_seq", Long.class)).isEqualTo(81L);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM movimentacoes_seq", Long.class)).isEqualTo(141L);
+    }
+
+    @Test
+    void movimentoDiarioDeveSerReconstruidoCoerenteComOSaldoAtual() {
+        migrar("12");
+        // Abertura 800; +200 em 02/03; despesa de 100 paga em 05/03 e excluida depois (so o estorno
+        // ficou); -50 em 10/03. Saldo atual 950.
+        jdbcTemplate.update("INSERT INTO conta_corrente (id, agencia, numero_conta, banco, nome_banco, saldo, tenant_id, conta_ativa) "
+                + "VALUES (7, '1', '2', '3', 'Banco', 950.00, 't1', TRUE)");
+        inserirMovimentacao(1, "ENTRADA", "200.00", "2026-03-02", "Recebimento de Salario");
+        inserirMovimentacao(2, "ENTRADA", "100.00", "2026-03-05", "Estorno de despesa: Luz");
+        inserirMovimentacao(3, "SAIDA", "50.00", "2026-03-10", "Pagamento de Agua");
+
+        migrar(null);
+
+        assertThat(saldoEm("2026-03-01")).isEqualByComparingTo("800.00");
+        assertThat(saldoEm("2026-03-04")).isEqualByComparingTo("1000.00");
+        assertThat(saldoEm("2026-03-05")).isEqualByComparingTo("1000.00");
+        assertThat(saldoEm("2026-03-10")).isEqualByComparingTo("950.00");
+    }
+
+    // Mesma conta de ContaCorrenteMovimentoDiaService.saldoEm
+    private BigDecimal saldoEm(String data) {
+        return jdbcTemplate.queryForObject("SELECT c.saldo - COALESCE((SELECT SUM(m.total_entradas - m.total_saidas) "
+                + "FROM conta_corrente_movimento_dia m WHERE m.tenant_id = c.tenant_id AND m.conta_corrente_id = c.id "
+                + "AND m.data > CAST(? AS DATE)), 0) FROM conta_corrente c WHERE c.id = 7", BigDecimal.class, data);
+    }
+
+    private void inserirMovimentacao(long id, String tipo, String valor, String data, String descricao) {
+        jdbcTemplate.update("INSERT INTO movimentacoes (id, tenant_id, tipo, valor, data_cadastro, data_recebimento, descricao, "
+                + "conta_corrente_id) VALUES (?, 't1', ?, ?, CURRENT_TIMESTAMP, CAST(? AS DATE), ?, 7)",
+                id, tipo, new BigDecimal(valor), data, descricao);
+    }
+
+    private void migrar(String versao) {
+        flyway(versao).migrate();
+    }
+
+    private Flyway flyway(String versao) {
+        var configuracao = Flyway.configure().dataSource(dataSource).locations(LOCATIONS);
+        if (versao != null) {
+            configuracao.target(versao);
+        }
+        return configuracao.load();
+    }
+}
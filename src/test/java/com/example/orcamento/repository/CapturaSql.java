@@ -0,0 +1,35 @@
+package com.example.orcamento.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registrado no perfil de teste como {@code hibernate.session_factory.statement_inspector}: guarda o SQL
+ * que o Hibernate prepara na thread atual entre {@link #iniciar()} e {@link #parar()}. Fora desse
+ * intervalo nao faz nada.
+ */
+public class CapturaSql implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURADOS = new ThreadLocal<>();
+
+    public static void iniciar() {
+        CAPTURADOS.set(new ArrayList<>());
+    }
+
+    public static List<String> parar() {
+        List<String> capturados = CAPTURADOS.get();
+        CAPTURADOS.remove();
+        return capturados == null ? List.of() : capturados;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> capturados = CAPTURADOS.get();
+        if (capturados != null) {
+            capturados.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.orcamento.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que as consultas por periodo mais usadas pelo dashboard e relatorios continuam
+ * resolvidas pelos indices compostos em vez de varrer a tabela inteira do tenant. O EXPLAIN roda
+ * sobre o SQL que o Hibernate gera para o metodo do repositorio (capturado por {@link CapturaSql}),
+ * com os parametros na ordem em que aparecem no SQL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConsultasPorPeriodoExplainTest {
+
+    private static final String TENANT = "tenantA";
+    private static final LocalDate INICIO = LocalDate.of(2026, 3, 1);
+    private static final LocalDate FIM = LocalDate.of(2026, 4, 1);
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        CapturaSql.parar();
+    }
+
+    @Test
+    void despesasPorVencimentoDevemUsarIndiceTenantVencimento() {
+        CapturaSql.iniciar();
+        despesaRepository.findByVencimentoNoPeriodo(TENANT, INICIO, FIM);
+        String sql = unicoSql();
+
+        assertSemFuncaoNaData(sql);
+        assertThat(sql).contains("data_vencimento>=?").contains("data_vencimento<?");
+        assertThat(explain(sql, TENANT, INICIO, FIM))
+                .containsIgnoringCase("idx_despesas_tenant_vencimento")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void despesasPorVencimentoESubcategoriaDevemUsarIndiceTenantVencimento() {
+        CapturaSql.iniciar();
+        despesaRepository.findByVencimentoNoPeriodoAndSubcategoriaId(TENANT, INICIO, FIM, 1L);
+        String sql = unicoSql();
+
+        assertSemFuncaoNaData(sql);
+        assertThat(explain(sql, TENANT, INICIO, FIM, 1L))
+                .containsIgnoringCase("idx_despesas_tenant_vencimento")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void despesasPorPagamentoOuVencimentoDevemCompararIntervalosNasColunas() {
+        CapturaSql.iniciar();
+        despesaRepository.findByPagamentoOuVencimentoNoPeriodo(TENANT, INICIO, FIM);
+        String sql = unicoSql();
+
+        // O OR entre as duas colunas pode ser resolvido pelo merge dos dois indices no MySQL; o H2 nao
+        // faz esse merge, entao aqui so o formato dos predicados e verificado.
+        assertSemFuncaoNaData(sql);
+        assertThat(sql)
+                .contains("data_pagamento>=?").contains("data_pagamento<?")
+                .contains("data_vencimento>=?").contains("data_vencimento<?");
+    }
+
+    @Test
+    void lancamentosPorDataDeCompraDevemCompararIntervaloNaColuna() {
+        CapturaSql.iniciar();
+        lancamentoCartaoRepository.findByDataCompraNoPeriodoAndTenantId(INICIO, FIM, TENANT);
+        String sql = unicoSql();
+
+        assertSemFuncaoNaData(sql);
+        assertThat(sql).contains("data_compra>=?").contains("data_compra<?");
+    }
+
+    @Test
+    void faturaPorCartaoDeveUsarIndiceTenantCompetenciaCartao() {
+        CapturaSql.iniciar();
+        lancamentoCartaoRepository.findGastosPorCartaoCredito(202603, TENANT);
+        String sql = unicoSql();
+
+        assertThat(explain(sql, TENANT, 202603))
+                .containsIgnoringCase("idx_lancamentos_cartao_tenant_competencia_cartao")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void faturasPorIntervaloDeCompetenciaDevemUsarIndiceTenantCompetenciaCartao() {
+        CapturaSql.iniciar();
+        lancamentoCartaoRepository.somarFaturasPorCartaoECompetencia(TENANT, 202601, 202612);
+        String sql = unicoSql();
+
+        assertThat(explain(sql, TENANT, 202601, 202612))
+                .containsIgnoringCase("idx_lancamentos_cartao_tenant_competencia_cartao")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void movimentacoesPorContaDevemUsarIndiceContaTenantRecebimento() {
+        CapturaSql.iniciar();
+        movimentacaoRepository.somarPorDiaETipo(1L, TENANT, INICIO, FIM);
+        String sql = unicoSql();
+
+        assertSemFuncaoNaData(sql);
+        assertThat(explain(sql, 1L, TENANT, INICIO, FIM))
+                .containsIgnoringCase("idx_movimentacoes_conta_tenant_recebimento")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    private static String unicoSql() {
+        List<String> capturados = CapturaSql.parar();
+        assertThat(capturados).hasSize(1);
+        return capturados.get(0);
+    }
+
+    private static void assertSemFuncaoNaData(String sql) {
+        assertThat(sql).doesNotContainIgnoringCase("year(").doesNotContainIgnoringCase("month(")
+                .doesNotContainIgnoringCase("extract(");
+    }
+
+    private String explain(String sql, Object... parametros) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parametros);
+    }
+}
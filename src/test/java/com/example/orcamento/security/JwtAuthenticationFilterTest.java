@@ -0,0 +1,129 @@
+package com.example.orcamento.security;
+
+import com.example.orcamento.model.Usuario;
+import com.example.orcamento.repository.UsuarioRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "Jm9eL/WB+KdOdPMFqg6XjQlvFZHYck1/b6+zp9h9x8A=";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private JwtUtil jwtUtil;
+    private UsuarioStatusCache usuarioStatusCache;
+    private JwtAuthenticationFilter filter;
+    private final List<String> tenantsNaCadeia = new ArrayList<>();
+    private final FilterChain cadeia = (request, response) -> tenantsNaCadeia.add(TenantContext.getTenantId());
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 1_800_000L);
+        usuarioStatusCache = new UsuarioStatusCache(usuarioRepository);
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, usuarioStatusCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+    }
+
+    @Test
+    void modoPadraoDeveCarregarUsuarioEDefinirTenantDoToken() throws Exception {
+        when(userDetailsService.loadUserByUsername("ana")).thenReturn(new User("ana", "hash", List.of()));
+
+        MockHttpServletResponse response = executar(jwtUtil.generateToken("ana", "tenantA"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(tenantsNaCadeia).containsExactly("tenantA");
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    @Test
+    void modoStatelessDeveConsultarSituacaoDoUsuarioUmaVezDentroDoTtl() throws Exception {
+        ReflectionTestUtils.setField(filter, "autenticacaoStateless", true);
+        when(usuarioRepository.findByUsername("ana")).thenReturn(Optional.of(new Usuario()));
+        String token = jwtUtil.generateToken("ana", "tenantA");
+
+        executar(token);
+        SecurityContextHolder.clearContext();
+        MockHttpServletResponse response = executar(token);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(tenantsNaCadeia).containsExactly("tenantA", "tenantA");
+        verify(usuarioRepository, times(1)).findByUsername("ana");
+        verify(userDetailsService, never()).loadUserByUsername("ana");
+    }
+
+    @Test
+    void modoStatelessDeveRecusarTokenEmitidoAntesDaTrocaDeSenha() throws Exception {
+        ReflectionTestUtils.setField(filter, "autenticacaoStateless", true);
+        String tokenAntigo = Jwts.builder()
+                .setSubject("ana")
+                .claim("tenantId", "tenantA")
+                .setIssuedAt(new Date(System.currentTimeMillis() - 10_000))
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        usuarioStatusCache.revogarTokens("ana");
+        MockHttpServletResponse response = executar(tokenAntigo);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(tenantsNaCadeia).isEmpty();
+    }
+
+    @Test
+    void modoStatelessDeveRecusarUsuarioRemovido() throws Exception {
+        ReflectionTestUtils.setField(filter, "autenticacaoStateless", true);
+        when(usuarioRepository.findByUsername("ana")).thenReturn(Optional.empty());
+
+        MockHttpServletResponse response = executar(jwtUtil.generateToken("ana", "tenantA"));
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(tenantsNaCadeia).isEmpty();
+    }
+
+    private MockHttpServletResponse executar(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/pessoas");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, cadeia);
+        return response;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.model.AgregadoCartaoMensal;
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.model.StatusCartao;
+import com.example.orcamento.repository.AgregadoCartaoMensalRepository;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Varias transacoes lancando a mesma compra na mesma fatura ao mesmo tempo: todas caem no mesmo grupo
+ * de agregado_cartao_mensal, nenhuma pode falhar por causa do agregado e o grupo tem que contar todas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AgregadoCartaoMensalConcorrenciaTest {
+
+    private static final String TENANT = "tenantAgregadoCartaoConcorrente";
+    private static final int THREADS = 16;
+    private static final int LANCAMENTOS_POR_THREAD = 5;
+
+    @Autowired
+    private AgregadoCartaoMensalService agregadoCartaoMensalService;
+
+    @Autowired
+    private AgregadoCartaoMensalRepository agregadoCartaoMensalRepository;
+
+    @Autowired
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @Autowired
+    private CartaoCreditoRepository cartaoCreditoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private CartaoCredito cartao;
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+        cartao = new CartaoCredito();
+        cartao.setNome("Cartao Concorrente");
+        cartao.setLimite(new BigDecimal("10000.00"));
+        cartao.setDiaVencimento(10);
+        cartao.setStatus(StatusCartao.ATIVO);
+        cartao.setTenantId(TENANT);
+        cartao = cartaoCreditoRepository.save(cartao);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparDados();
+    }
+
+    @Test
+    void lancamentosConcorrentesNoMesmoGrupoNaoDevemFalharNemSePerder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Void>> resultados = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<Void> execucao = () -> {
+                    largada.await();
+                    for (int i = 0; i < LANCAMENTOS_POR_THREAD; i++) {
+                        // Mesmo fluxo do LancamentoCartaoService: grava e marca a competencia na transacao
+                        transactionTemplate.executeWithoutResult(status -> {
+                            LancamentoCartao lancamento = lancamentoCartaoRepository.save(LancamentoCartao.builder()
+                                    .descricao("Netflix")
+                                    .valorTotal(new BigDecimal("39.90"))
+                                    .parcelaAtual(1)
+                                    .totalParcelas(1)
+                                    .dataCompra(LocalDate.of(2026, 2, 20))
+                                    .mesAnoFatura("MARCO/2026")
+                                    .cartaoCredito(cartao)
+                                    .proprietario("Proprio")
+                                    .dataRegistro(LocalDateTime.now())
+                                    .tenantId(TENANT)
+                                    .build());
+                            agregadoCartaoMensalService.registrarAlteracao(lancamento);
+                        });
+                    }
+                    return null;
+                };
+                resultados.add(executor.submit(execucao));
+            }
+            largada.countDown();
+            for (Future<Void> resultado : resultados) {
+                resultado.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(lancamentoCartaoRepository.findByTenantId(TENANT)).hasSize(THREADS * LANCAMENTOS_POR_THREAD);
+        List<AgregadoCartaoMensal> grupos = agregadoCartaoMensalRepository.findByTenantIdAndCompetencia(TENANT, 202603);
+        assertThat(grupos).hasSize(1);
+        assertThat(grupos.get(0).getQuantidade()).isEqualTo(THREADS * LANCAMENTOS_POR_THREAD);
+        assertThat(grupos.get(0).getValorTotal())
+                .isEqualByComparingTo(new BigDecimal("39.90").multiply(BigDecimal.valueOf((long) THREADS * LANCAMENTOS_POR_THREAD)));
+    }
+
+    private void limparDados() {
+        agregadoCartaoMensalRepository.deleteAll(agregadoCartaoMensalRepository.findByTenantIdAndCompetencia(TENANT, 202603));
+        lancamentoCartaoRepository.deleteAll(lancamentoCartaoRepository.findByTenantId(TENANT));
+        cartaoCreditoRepository.deleteAll(cartaoCreditoRepository.findByTenantId(TENANT));
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.model.AgregadoCartaoMensal;
+import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.repository.AgregadoCartaoMensalRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AgregadoCartaoMensalServiceTest {
+
+    @Mock
+    private AgregadoCartaoMensalRepository agregadoCartaoMensalRepository;
+    @Mock
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @Captor
+    private ArgumentCaptor<Iterable<AgregadoCartaoMensal>> apagados;
+
+    @InjectMocks
+    private AgregadoCartaoMensalService agregadoCartaoMensalService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(agregadoCartaoMensalService);
+    }
+
+    @Test
+    void normalizarDescricaoRemoveAcentosParcelasECodigos() {
+        assertThat(AgregadoCartaoMensalService.normalizarDescricao("Netflix.com 03/12")).isEqualTo("NETFLIX COM");
+        assertThat(AgregadoCartaoMensalService.normalizarDescricao("LOJA AÇÚCAR PARC 2/10")).isEqualTo("LOJA ACUCAR");
+        assertThat(AgregadoCartaoMensalService.normalizarDescricao("Uber *Trip 83921")).isEqualTo("UBER TRIP");
+        assertThat(AgregadoCartaoMensalService.normalizarDescricao("  ")).isEmpty();
+        assertThat(AgregadoCartaoMensalService.normalizarDescricao("123456")).isEqualTo("123456");
+    }
+
+    @Test
+    void recalcularAgrupaPorCartaoSubcategoriaEDescricaoNormalizada() {
+        when(lancamentoCartaoRepository.findResumoParaAgregadoCartao("tenantA", 202603)).thenReturn(List.of(
+                new Object[]{1L, 10L, "NETFLIX 01/01", new BigDecimal("39.90"), 1, 1},
+                new Object[]{1L, 10L, "Netflix", new BigDecimal("44.90"), 1, 1},
+                new Object[]{1L, 20L, "Geladeira 2/10", new BigDecimal("300.00"), 2, 10},
+                new Object[]{2L, 10L, "Netflix", new BigDecimal("39.90"), 1, 1}
+        ));
+        when(agregadoCartaoMensalRepository.saveAll(any())).thenAnswer(invocacao -> List.copyOf(invocacao.getArgument(0)));
+
+        List<AgregadoCartaoMensal> linhas = agregadoCartaoMensalService.recalcular("tenantA", YearMonth.of(2026, 3));
+
+        var ordem = inOrder(agregadoCartaoMensalRepository, lancamentoCartaoRepository);
+        ordem.verify(agregadoCartaoMensalRepository).travarCompetencia(eq("tenantA"), eq(202603), any(LocalDateTime.class));
+        ordem.verify(lancamentoCartaoRepository).findResumoParaAgregadoCartao("tenantA", 202603);
+        ordem.verify(agregadoCartaoMensalRepository).findByTenantIdAndCompetencia("tenantA", 202603);
+        ordem.verify(agregadoCartaoMensalRepository).saveAll(any());
+        verify(agregadoCartaoMensalRepository, never()).deleteAll(any());
+        assertThat(linhas).hasSize(3);
+
+        AgregadoCartaoMensal netflix = linhas.get(0);
+        assertThat(netflix.getDescricaoNormalizada()).isEqualTo("NETFLIX");
+        assertThat(netflix.getDescricao()).isEqualTo("Netflix");
+        assertThat(netflix.getQuantidade()).isEqualTo(2);
+        assertThat(netflix.getValorTotal()).isEqualByComparingTo("84.80");
+        assertThat(netflix.getValorMinimo()).isEqualByComparingTo("39.90");
+        assertThat(netflix.getValorMaximo()).isEqualByComparingTo("44.90");
+        assertThat(netflix.getQuantidadeParcelada()).isZero();
+
+        AgregadoCartaoMensal geladeira = linhas.get(1);
+        assertThat(geladeira.getSubcategoriaId()).isEqualTo(20L);
+        assertThat(geladeira.getQuantidadeParcelada()).isEqualTo(1);
+        assertThat(geladeira.getParcelamentosAtivos()).isEqualTo(1);
+        assertThat(geladeira.getParcelamentosLongos()).isEqualTo(1);
+        assertThat(geladeira.getValorComprometido()).isEqualByComparingTo("2400.00");
+
+        assertThat(linhas.get(2).getCartaoCreditoId()).isEqualTo(2L);
+    }
+
+    @Test
+    void registrarAlteracaoDeveRecalcularUmaVezPorCompetenciaAntesDoCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        agregadoCartaoMensalService.registrarAlteracaoFatura("tenantA", "ABRIL/2026");
+        agregadoCartaoMensalService.registrarAlteracao(lancamento("MARCO/2026"));
+        agregadoCartaoMensalService.registrarAlteracao(lancamento("MARCO/2026"));
+        verify(lancamentoCartaoRepository, never()).findResumoParaAgregadoCartao(any(), anyInt());
+
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        sincronizacoes.forEach(sincronizacao -> sincronizacao.beforeCommit(false));
+
+        verify(lancamentoCartaoRepository, times(1)).findResumoParaAgregadoCartao("tenantA", 202603);
+        verify(lancamentoCartaoRepository, times(1)).findResumoParaAgregadoCartao("tenantA", 202604);
+        verify(agregadoCartaoMensalRepository, times(2)).findByTenantIdAndCompetencia(eq("tenantA"), anyInt());
+        // Travadas em ordem de competencia, nao na ordem em que foram marcadas
+        var ordem = inOrder(agregadoCartaoMensalRepository);
+        ordem.verify(agregadoCartaoMensalRepository).travarCompetencia(eq("tenantA"), eq(202603), any(LocalDateTime.class));
+        ordem.verify(agregadoCartaoMensalRepository).travarCompetencia(eq("tenantA"), eq(202604), any(LocalDateTime.class));
+    }
+
+    @Test
+    void recalcularDeveReaproveitarAsLinhasExistentesEApagarSoAsQueSumiram() {
+        when(lancamentoCartaoRepository.findResumoParaAgregadoCartao("tenantA", 202603)).thenReturn(List.of(
+                new Object[]{1L, 10L, "Netflix", new BigDecimal("44.90"), 1, 1},
+                new Object[]{1L, null, "Padaria", new BigDecimal("12.00"), 1, 1}
+        ));
+        AgregadoCartaoMensal netflix = existente(7L, 10L, "NETFLIX");
+        AgregadoCartaoMensal padaria = existente(8L, AgregadoCartaoMensal.SEM_SUBCATEGORIA, "PADARIA");
+        AgregadoCartaoMensal cinema = existente(9L, 10L, "CINEMA");
+        when(agregadoCartaoMensalRepository.findByTenantIdAndCompetencia("tenantA", 202603))
+                .thenReturn(List.of(netflix, padaria, cinema));
+        when(agregadoCartaoMensalRepository.saveAll(any())).thenAnswer(invocacao -> List.copyOf(invocacao.getArgument(0)));
+
+        List<AgregadoCartaoMensal> linhas = agregadoCartaoMensalService.recalcular("tenantA", YearMonth.of(2026, 3));
+
+        assertThat(linhas).extracting(AgregadoCartaoMensal::getId).containsExactly(7L, 8L);
+        assertThat(linhas.get(0).getValorTotal()).isEqualByComparingTo("44.90");
+        assertThat(linhas.get(1).getSubcategoriaId()).isEqualTo(AgregadoCartaoMensal.SEM_SUBCATEGORIA);
+        verify(agregadoCartaoMensalRepository).deleteAll(apagados.capture());
+        assertThat(apagados.getValue()).containsExactly(cinema);
+    }
+
+    private AgregadoCartaoMensal existente(Long id, Long subcategoriaId, String descricaoNormalizada) {
+        return AgregadoCartaoMensal.builder()
+                .id(id)
+                .tenantId("tenantA")
+                .competencia(202603)
+                .cartaoCreditoId(1L)
+                .subcategoriaId(subcategoriaId)
+                .descricaoNormalizada(descricaoNormalizada)
+                .build();
+    }
+
+    private LancamentoCartao lancamento(String mesAnoFatura) {
+        return LancamentoCartao.builder()
+                .tenantId("tenantA")
+                .mesAnoFatura(mesAnoFatura)
+                .build();
+    }
+}
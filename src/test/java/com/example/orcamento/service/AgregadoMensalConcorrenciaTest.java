@@ -0,0 +1,107 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.model.AgregadoMensal;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.repository.AgregadoMensalRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Varias transacoes gravando despesas na mesma competencia ao mesmo tempo, a partir de um mes sem
+ * linha em agregado_mensal: nenhuma escrita pode falhar por causa do agregado e o total consolidado
+ * tem que bater com tudo o que foi gravado.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AgregadoMensalConcorrenciaTest {
+
+    private static final String TENANT = "tenantAgregadoConcorrente";
+    private static final int THREADS = 16;
+    private static final int DESPESAS_POR_THREAD = 5;
+
+    @Autowired
+    private AgregadoMensalService agregadoMensalService;
+
+    @Autowired
+    private AgregadoMensalRepository agregadoMensalRepository;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparDados();
+    }
+
+    @Test
+    void gravacoesConcorrentesNaMesmaCompetenciaNaoDevemPerderTotais() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Void>> resultados = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<Void> execucao = () -> {
+                    largada.await();
+                    for (int i = 0; i < DESPESAS_POR_THREAD; i++) {
+                        // Mesmo fluxo dos servicos: grava e marca a competencia dentro da transacao
+                        transactionTemplate.executeWithoutResult(status -> {
+                            Despesa despesa = despesaRepository.save(Despesa.builder()
+                                    .nome("Despesa concorrente")
+                                    .tenantId(TENANT)
+                                    .valorPrevisto(new BigDecimal("10.00"))
+                                    .dataVencimento(LocalDate.of(2026, 3, 15))
+                                    .build());
+                            agregadoMensalService.registrarAlteracao(despesa);
+                        });
+                    }
+                    return null;
+                };
+                resultados.add(executor.submit(execucao));
+            }
+            largada.countDown();
+            for (Future<Void> resultado : resultados) {
+                resultado.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(despesaRepository.findByTenantId(TENANT)).hasSize(THREADS * DESPESAS_POR_THREAD);
+        List<AgregadoMensal> agregados = agregadoMensalRepository.findByTenantIdAndAnoOrderByMes(TENANT, 2026);
+        assertThat(agregados).hasSize(1);
+        assertThat(agregados.get(0).getDespesasDoMes())
+                .isEqualByComparingTo(new BigDecimal("10.00").multiply(BigDecimal.valueOf((long) THREADS * DESPESAS_POR_THREAD)));
+    }
+
+    private void limparDados() {
+        despesaRepository.deleteAll(despesaRepository.findByTenantId(TENANT));
+        agregadoMensalRepository.deleteAll(agregadoMensalRepository.findByTenantIdAndAnoOrderByMes(TENANT, 2026));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.AgregadoMensalVerificacaoDTO;
+import com.example.orcamento.model.AgregadoMensal;
+import com.example.orcamento.repository.AgregadoMensalRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.repository.ReceitaRepository;
+import com.example.orcamento.security.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AgregadoMensalServiceTest {
+
+    @Mock
+    private AgregadoMensalRepository agregadoMensalRepository;
+    @Mock
+    private DespesaRepository despesaRepository;
+    @Mock
+    private ReceitaRepository receitaRepository;
+    @Mock
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @InjectMocks
+    private AgregadoMensalService agregadoMensalService;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(agregadoMensalService);
+    }
+
+    @Test
+    void obterTotaisDeveCalcularSemPersistirQuandoNaoHaAgregado() {
+        stubConsultasMarco();
+        when(agregadoMensalRepository.findByTenantIdAndAnoAndMes("tenantA", 2026, 3)).thenReturn(Optional.empty());
+
+        AgregadoMensal totais = agregadoMensalService.obterTotais("tenantA", YearMonth.of(2026, 3));
+
+        assertThat(totais.getReceitasRealizadas()).isEqualByComparingTo("1000.00");
+        assertThat(totais.getDespesasDoMes()).isEqualByComparingTo("1800.00");
+        assertThat(totais.getDespesasPagas()).isEqualByComparingTo("800.00");
+        assertThat(totais.getDespesasPagasCartao()).isEqualByComparingTo("300.00");
+        assertThat(totais.getDespesasPagasNoCaixa()).isEqualByComparingTo("500.00");
+        assertThat(totais.getDespesasFaturaCartao()).isEqualByComparingTo("1000.00");
+        assertThat(totais.getTotalFaturas()).isEqualByComparingTo("1700.00");
+        assertThat(totais.getTotalTerceirosFaturas()).isEqualByComparingTo("200.00");
+        verify(agregadoMensalRepository, never()).save(any(AgregadoMensal.class));
+    }
+
+    @Test
+    void registrarAlteracaoDeveRecalcularUmaVezPorCompetenciaAntesDoCommit() {
+        stubConsultasMarco();
+        when(agregadoMensalRepository.findByTenantIdAndAnoAndMes("tenantA", 2026, 3))
+                .thenReturn(Optional.of(AgregadoMensal.builder().tenantId("tenantA").ano(2026).mes(3).build()));
+        when(agregadoMensalRepository.save(any(AgregadoMensal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        agregadoMensalService.registrarAlteracao("tenantA", LocalDate.of(2026, 3, 5));
+        agregadoMensalService.registrarAlteracao("tenantA", LocalDate.of(2026, 3, 20));
+        agregadoMensalService.registrarAlteracaoFatura("tenantA", "MARCO/2026");
+
+        verify(agregadoMensalRepository, never()).save(any(AgregadoMensal.class));
+
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(sincronizacoes).hasSize(1);
+        sincronizacoes.forEach(sincronizacao -> sincronizacao.beforeCommit(false));
+        sincronizacoes.forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        verify(agregadoMensalRepository, times(1)).travarCompetencia(eq("tenantA"), eq(2026), eq(3), any(LocalDateTime.class));
+        verify(agregadoMensalRepository, times(1)).save(any(AgregadoMensal.class));
+        assertThat(TransactionSynchronizationManager.getResource(agregadoMensalService)).isNull();
+    }
+
+    @Test
+    void competenciasDevemSerTravadasSempreNaMesmaOrdem() {
+        when(despesaRepository.somarTotaisPorVencimento(eq("tenantA"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO}));
+        when(lancamentoCartaoRepository.somarTotaisDaFatura(anyInt(), eq("tenantA")))
+                .thenReturn(List.<Object[]>of(new Object[]{BigDecimal.ZERO, BigDecimal.ZERO}));
+        when(agregadoMensalRepository.findByTenantIdAndAnoAndMes(eq("tenantA"), eq(2026), anyInt()))
+                .thenAnswer(invocation -> Optional.of(new AgregadoMensal()));
+        when(agregadoMensalRepository.save(any(AgregadoMensal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        agregadoMensalService.registrarAlteracao("tenantA", YearMonth.of(2026, 5));
+        agregadoMensalService.registrarAlteracao("tenantA", YearMonth.of(2026, 3));
+        agregadoMensalService.registrarAlteracao("tenantA", YearMonth.of(2026, 4));
+        TransactionSynchronizationManager.getSynchronizations().forEach(sincronizacao -> sincronizacao.beforeCommit(false));
+
+        InOrder ordem = inOrder(agregadoMensalRepository);
+        ordem.verify(agregadoMensalRepository).travarCompetencia(eq("tenantA"), eq(2026), eq(3), any(LocalDateTime.class));
+        ordem.verify(agregadoMensalRepository).travarCompetencia(eq("tenantA"), eq(2026), eq(4), any(LocalDateTime.class));
+        ordem.verify(agregadoMensalRepository).travarCompetencia(eq("tenantA"), eq(2026), eq(5), any(LocalDateTime.class));
+    }
+
+    @Test
+    void verificarDeveApontarCamposDivergentes() {
+        TenantContext.setTenantId("tenantA");
+        when(despesaRepository.somarTotaisPorVencimento(eq("tenantA"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO}));
+        when(despesaRepository.findNomeEValorPrevistoDeFaturasPorVencimento(eq("tenantA"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of());
+        when(receitaRepository.somarRealizadasPorPeriodo(eq("tenantA"), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(BigDecimal.ZERO);
+        when(lancamentoCartaoRepository.somarTotaisDaFatura(anyInt(), eq("tenantA")))
+                .thenReturn(List.<Object[]>of(new Object[]{BigDecimal.ZERO, BigDecimal.ZERO}));
+        when(agregadoMensalRepository.findByTenantIdAndAnoAndMes(eq("tenantA"), eq(2026), anyInt())).thenReturn(Optional.empty());
+        when(agregadoMensalRepository.findByTenantIdAndAnoAndMes("tenantA", 2026, 3)).thenReturn(Optional.of(
+                AgregadoMensal.builder()
+                        .tenantId("tenantA")
+                        .ano(2026)
+                        .mes(3)
+                        .receitasRealizadas(BigDecimal.ZERO)
+                        .despesasDoMes(new BigDecimal("50.00"))
+                        .despesasPagas(BigDecimal.ZERO)
+                        .despesasPagasNoCaixa(BigDecimal.ZERO)
+                        .despesasPagasCartao(BigDecimal.ZERO)
+                        .despesasFaturaCartao(BigDecimal.ZERO)
+                        .totalFaturas(BigDecimal.ZERO)
+                        .totalTerceirosFaturas(BigDecimal.ZERO)
+                        .build()
+        ));
+
+        List<AgregadoMensalVerificacaoDTO> verificacao = agregadoMensalService.verificar(2026);
+
+        assertThat(verificacao).hasSize(12);
+        AgregadoMensalVerificacaoDTO marco = verificacao.get(2);
+        assertThat(marco.getExistente()).isTrue();
+        assertThat(marco.getDivergente()).isTrue();
+        assertThat(marco.getCamposDivergentes()).containsExactly("despesasDoMes");
+        assertThat(verificacao.get(0).getExistente()).isFalse();
+        assertThat(verificacao.get(0).getDivergente()).isFalse();
+    }
+
+    private void stubConsultasMarco() {
+        LocalDate inicio = LocalDate.of(2026, 3, 1);
+        LocalDate fim = LocalDate.of(2026, 3, 31);
+        when(despesaRepository.somarTotaisPorVencimento("tenantA", inicio, fim)).thenReturn(List.<Object[]>of(
+                new Object[]{new BigDecimal("1800.00"), new BigDecimal("800.00"), new BigDecimal("300.00")}
+        ));
+        when(despesaRepository.findNomeEValorPrevistoDeFaturasPorVencimento("tenantA", inicio, fim)).thenReturn(List.<Object[]>of(
+                new Object[]{"Fatura Cartão Visa Infinite", new BigDecimal("1000.00")},
+                new Object[]{"Faturamento loja", new BigDecimal("80.00")}
+        ));
+        when(receitaRepository.somarRealizadasPorPeriodo("tenantA", inicio, fim)).thenReturn(new BigDecimal("1000.00"));
+        when(lancamentoCartaoRepository.somarTotaisDaFatura(202603, "tenantA")).thenReturn(List.<Object[]>of(
+                new Object[]{new BigDecimal("1700.00"), new BigDecimal("200.00")}
+        ));
+    }
+}
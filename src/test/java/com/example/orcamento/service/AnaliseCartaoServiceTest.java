@@ -0,0 +1,154 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.GastoRecorrenteCartaoDTO;
+import com.example.orcamento.dto.PrevisaoGastoCartaoDTO;
+import com.example.orcamento.dto.SugestaoEconomiaCartaoDTO;
+import com.example.orcamento.model.AgregadoCartaoMensal;
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.SubcategoriaDespesa;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.SubcategoriaDespesaRepository;
+import com.example.orcamento.security.TenantContext;
+import com.example.orcamento.util.CompetenciaFatura;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AnaliseCartaoServiceTest {
+
+    @Mock
+    private AgregadoCartaoMensalService agregadoCartaoMensalService;
+    @Mock
+    private CartaoCreditoRepository cartaoCreditoRepository;
+    @Mock
+    private SubcategoriaDespesaRepository subcategoriaDespesaRepository;
+
+    @InjectMocks
+    private AnaliseCartaoService analiseCartaoService;
+
+    private final List<AgregadoCartaoMensal> linhas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId("tenantA");
+        CartaoCredito cartao = new CartaoCredito();
+        cartao.setId(1L);
+        cartao.setNome("Cartao Inter");
+        when(cartaoCreditoRepository.findByTenantId("tenantA")).thenReturn(List.of(cartao));
+        SubcategoriaDespesa streaming = new SubcategoriaDespesa();
+        streaming.setId(10L);
+        streaming.setNome("Streaming");
+        lenient().when(subcategoriaDespesaRepository.findAllById(any())).thenReturn(List.of(streaming));
+        when(agregadoCartaoMensalService.listar(eq("tenantA"), any(), any())).thenReturn(linhas);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void recorrentesExigemTresFaturasEIgnoramParcelas() {
+        for (int i = 0; i < 3; i++) {
+            linhas.add(linha(i, 10L, "NETFLIX", "Netflix", "39.90", 1, 0));
+            linhas.add(linha(i, null, "GELADEIRA", "Geladeira", "300.00", 1, 1));
+        }
+        linhas.add(linha(0, null, "PADARIA", "Padaria", "20.00", 4, 0));
+
+        List<GastoRecorrenteCartaoDTO> recorrentes = analiseCartaoService.getGastosRecorrentes();
+
+        assertThat(recorrentes).hasSize(1);
+        GastoRecorrenteCartaoDTO netflix = recorrentes.get(0);
+        assertThat(netflix.getId()).isEqualTo(1L);
+        assertThat(netflix.getNome()).isEqualTo("Netflix");
+        assertThat(netflix.getValorMedio()).isEqualByComparingTo("39.90");
+        assertThat(netflix.getFrequencia()).isEqualTo("BIMONTHLY");
+        assertThat(netflix.getCategoria()).isEqualTo("Streaming");
+        assertThat(netflix.getCartao()).isEqualTo("Cartao Inter");
+    }
+
+    @Test
+    void sugestoesUsamParcelamentosDaFaturaMaisRecenteEAssinaturasEstaveis() {
+        for (int i = 0; i < 3; i++) {
+            linhas.add(linha(i, 10L, "SPOTIFY", "Spotify", "21.90", 1, 0));
+        }
+        AgregadoCartaoMensal parcelas = linha(0, null, "LOJA", "Loja", "500.00", 5, 5);
+        parcelas.setParcelamentosAtivos(5);
+        parcelas.setValorComprometido(new BigDecimal("2000.00"));
+        linhas.add(parcelas);
+        AgregadoCartaoMensal parcelasAntigas = linha(2, null, "LOJA", "Loja", "500.00", 5, 5);
+        parcelasAntigas.setParcelamentosAtivos(5);
+        parcelasAntigas.setValorComprometido(new BigDecimal("4500.00"));
+        linhas.add(parcelasAntigas);
+
+        List<SugestaoEconomiaCartaoDTO> sugestoes = analiseCartaoService.getSugestoesEconomia();
+
+        assertThat(sugestoes).extracting(SugestaoEconomiaCartaoDTO::getTitulo)
+                .containsExactly("Considere um cartão com programa de pontos", "Reduza parcelamentos simultâneos",
+                        "Revise assinatura de Spotify");
+        assertThat(sugestoes.get(1).getEconomiaPotencial()).isEqualByComparingTo("100.00");
+        assertThat(sugestoes.get(2).getEconomiaPotencial()).isEqualByComparingTo("262.80");
+        assertThat(sugestoes).extracting(SugestaoEconomiaCartaoDTO::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void previsoesUsamTotaisMensaisEmOrdemCronologica() {
+        linhas.add(linha(0, 10L, "NETFLIX", "Netflix", "60.00", 1, 0));
+        linhas.add(linha(3, 10L, "NETFLIX", "Netflix", "30.00", 1, 0));
+        linhas.add(linha(2, 10L, "NETFLIX", "Netflix", "30.00", 1, 0));
+        linhas.add(linha(1, 10L, "NETFLIX", "Netflix", "60.00", 1, 0));
+
+        List<PrevisaoGastoCartaoDTO> previsoes = analiseCartaoService.getPrevisoes();
+
+        assertThat(previsoes).hasSize(1);
+        PrevisaoGastoCartaoDTO previsao = previsoes.get(0);
+        assertThat(previsao.getCategoria()).isEqualTo("Streaming");
+        assertThat(previsao.getCartao()).isEqualTo("Cartao Inter");
+        assertThat(previsao.getTendencia()).isEqualTo("AUMENTANDO");
+        assertThat(previsao.getValorPrevisto()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void semAgregadosNaoInventaResultados() {
+        assertThat(analiseCartaoService.getGastosRecorrentes()).isEmpty();
+        assertThat(analiseCartaoService.getSugestoesEconomia()).isEmpty();
+        assertThat(analiseCartaoService.getPrevisoes()).isEmpty();
+    }
+
+    private AgregadoCartaoMensal linha(int mesesAtras, Long subcategoriaId, String normalizada, String descricao,
+                                       String valor, int quantidade, int parceladas) {
+        BigDecimal valorUnitario = new BigDecimal(valor);
+        return AgregadoCartaoMensal.builder()
+                .tenantId("tenantA")
+                .competencia(CompetenciaFatura.paraInteiro(YearMonth.now().minusMonths(mesesAtras)))
+                .cartaoCreditoId(1L)
+                .subcategoriaId(subcategoriaId)
+                .descricaoNormalizada(normalizada)
+                .descricao(descricao)
+                .quantidade(quantidade)
+                .quantidadeParcelada(parceladas)
+                .valorTotal(valorUnitario.multiply(BigDecimal.valueOf(quantidade)))
+                .valorMinimo(valorUnitario)
+                .valorMaximo(valorUnitario)
+                .parcelamentosAtivos(0)
+                .parcelamentosLongos(0)
+                .valorComprometido(BigDecimal.ZERO)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.GastoRecorrenteDTO;
+import com.example.orcamento.dto.PrevisaoGastoDTO;
+import com.example.orcamento.model.CategoriaDespesa;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.model.SubcategoriaDespesa;
+import com.example.orcamento.repository.CategoriaDespesaRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.SubcategoriaDespesaRepository;
+import com.example.orcamento.security.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AnaliseFinanceiraServiceTest {
+
+    @Autowired
+    private AnaliseFinanceiraService analiseFinanceiraService;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private CategoriaDespesaRepository categoriaDespesaRepository;
+
+    @Autowired
+    private SubcategoriaDespesaRepository subcategoriaDespesaRepository;
+
+    private SubcategoriaDespesa streaming;
+    private SubcategoriaDespesa mercado;
+
+    @BeforeEach
+    void setUp() {
+        despesaRepository.deleteAll();
+        streaming = subcategoria(9101L, "Streaming", categoria(9101L, "Lazer"));
+        mercado = subcategoria(9102L, "Mercado", categoria(9102L, "Alimentacao"));
+        TenantContext.setTenantId("tenantA");
+    }
+
+    @AfterEach
+    void tearDown() {
+        despesaRepository.deleteAll();
+        subcategoriaDespesaRepository.deleteAllById(List.of(9101L, 9102L));
+        categoriaDespesaRepository.deleteAllById(List.of(9101L, 9102L));
+        TenantContext.clear();
+    }
+
+    @Test
+    void gastosRecorrentesAgrupamNoBancoPorNomeSubcategoriaEFiltramCategoria() {
+        LocalDate hoje = LocalDate.now();
+        for (int i = 1; i <= 3; i++) {
+            despesa("Netflix", streaming, "39.90", hoje.minusMonths(i));
+            despesa("Feira", mercado, "100.00", hoje.minusMonths(i));
+        }
+        despesa("Feira", mercado, "50.00", hoje.minusMonths(1).withDayOfMonth(1));
+        despesa("Cinema", streaming, "60.00", hoje.minusMonths(1));
+        // Outro tenant com o mesmo nome nao entra na soma
+        despesaRepository.save(Despesa.builder().nome("Netflix").tenantId("tenantB").subcategoria(streaming)
+                .valorPrevisto(new BigDecimal("39.90")).dataVencimento(hoje.minusMonths(1)).build());
+
+        List<GastoRecorrenteDTO> todos = analiseFinanceiraService.analisarGastosRecorrentes(6, null);
+        assertThat(todos).extracting(GastoRecorrenteDTO::getNome).containsExactlyInAnyOrder("Netflix", "Feira");
+
+        GastoRecorrenteDTO feira = todos.stream().filter(g -> g.getNome().equals("Feira")).findFirst().orElseThrow();
+        assertThat(feira.getCategoria()).isEqualTo("Mercado");
+        assertThat(feira.getValorMedio()).isEqualByComparingTo("87.50");
+        assertThat(feira.getValores()).hasSize(3);
+        assertThat(feira.getValores().get(0)).isEqualByComparingTo("150.00");
+
+        GastoRecorrenteDTO netflix = todos.stream().filter(g -> g.getNome().equals("Netflix")).findFirst().orElseThrow();
+        assertThat(netflix.getValorMedio()).isEqualByComparingTo("39.90");
+        assertThat(netflix.getFrequencia()).isEqualTo("MONTHLY");
+
+        List<GastoRecorrenteDTO> lazer = analiseFinanceiraService.analisarGastosRecorrentes(6, 9101L);
+        assertThat(lazer).extracting(GastoRecorrenteDTO::getNome).containsExactly("Netflix");
+    }
+
+    @Test
+    void previsoesUsamTotaisMensaisEmOrdemCronologica() {
+        LocalDate hoje = LocalDate.now();
+        despesa("Feira", mercado, "100.00", hoje.minusMonths(2));
+        despesa("Feira", mercado, "150.00", hoje.minusMonths(1));
+        despesa("Padaria", mercado, "50.00", hoje.minusMonths(1));
+
+        List<PrevisaoGastoDTO> previsoes = analiseFinanceiraService.gerarPrevisoes(3, null);
+
+        assertThat(previsoes).hasSize(1);
+        PrevisaoGastoDTO previsao = previsoes.get(0);
+        assertThat(previsao.getCategoria()).isEqualTo("Mercado");
+        assertThat(previsao.getTendencia()).isEqualTo("AUMENTANDO");
+        assertThat(previsao.getValorPrevisto()).isEqualByComparingTo("400.00");
+    }
+
+    private CategoriaDespesa categoria(Long id, String nome) {
+        CategoriaDespesa categoria = new CategoriaDespesa();
+        categoria.setId(id);
+        categoria.setNome(nome);
+        categoria.setTenantId("tenantA");
+        return categoriaDespesaRepository.save(categoria);
+    }
+
+    private SubcategoriaDespesa subcategoria(Long id, String nome, CategoriaDespesa categoria) {
+        SubcategoriaDespesa subcategoria = new SubcategoriaDespesa();
+        subcategoria.setId(id);
+        subcategoria.setNome(nome);
+        subcategoria.setTenantId("tenantA");
+        subcategoria.setCategoria(categoria);
+        return subcategoriaDespesaRepository.save(subcategoria);
+    }
+
+    private void despesa(String nome, SubcategoriaDespesa subcategoria, String valor, LocalDate vencimento) {
+        despesaRepository.save(Despesa.builder()
+                .nome(nome)
+                .tenantId("tenantA")
+                .subcategoria(subcategoria)
+                .valorPrevisto(new BigDecimal(valor))
+                .dataVencimento(vencimento)
+                .build());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.config.CalendarioProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CalendarioDiasUteisTest {
+
+    private final CalendarioDiasUteis calendario = new CalendarioDiasUteis(new CalendarioProperties());
+
+    @Test
+    void deveConsiderarFeriadosNacionaisFixosEMoveis() {
+        assertThat(calendario.isDiaUtil(LocalDate.of(2026, 1, 1))).isFalse();
+        // Carnaval, Sexta-feira Santa e Corpus Christi de 2026 (Pascoa em 5 de abril)
+        assertThat(calendario.isDiaUtil(LocalDate.of(2026, 2, 16))).isFalse();
+        assertThat(calendario.isDiaUtil(LocalDate.of(2026, 2, 17))).isFalse();
+        assertThat(calendario.isDiaUtil(LocalDate.of(2026, 4, 3))).isFalse();
+        assertThat(calendario.isDiaUtil(LocalDate.of(2026, 6, 4))).isFalse();
+        assertThat(calendario.isFeriado(LocalDate.of(2026, 6, 4))).isTrue();
+
+        assertThat(calendario.isDiaUtil(LocalDate.of(2026, 2, 18))).isTrue();
+        assertThat(calendario.isDiaUtil(LocalDate.of(2026, 3, 28))).isFalse();
+        assertThat(calendario.isFeriado(LocalDate.of(2026, 3, 28))).isFalse();
+    }
+
+    @Test
+    void diaUtilAnteriorDevePularFimDeSemanaFeriadoEVirada() {
+        assertThat(calendario.diaUtilAnterior(LocalDate.of(2026, 3, 30))).isEqualTo(LocalDate.of(2026, 3, 27));
+        assertThat(calendario.diaUtilAnterior(LocalDate.of(2026, 4, 6))).isEqualTo(LocalDate.of(2026, 4, 2));
+        assertThat(calendario.diaUtilAnterior(LocalDate.of(2026, 1, 2))).isEqualTo(LocalDate.of(2025, 12, 31));
+    }
+
+    @Test
+    void ultimoDiaUtilDoMesDeveIgnorarFimDeSemanaEFeriado() {
+        assertThat(calendario.ultimoDiaUtilDoMes(YearMonth.of(2026, 5))).isEqualTo(LocalDate.of(2026, 5, 29));
+        assertThat(calendario.ultimoDiaUtilDoMes(YearMonth.of(2026, 3))).isEqualTo(LocalDate.of(2026, 3, 31));
+        // 31/10/2027 e domingo e 29/10 sexta-feira
+        assertThat(calendario.ultimoDiaUtilDoMes(YearMonth.of(2027, 10))).isEqualTo(LocalDate.of(2027, 10, 29));
+    }
+
+    @Test
+    void diasUteisEntreDeveBaterComAContagemDiaADia() {
+        LocalDate inicio = LocalDate.of(2024, 6, 1);
+        LocalDate fim = LocalDate.of(2027, 2, 10);
+        List<LocalDate> esperado = inicio.datesUntil(fim.plusDays(1)).filter(calendario::isDiaUtil).toList();
+
+        assertThat(calendario.diasUteisEntre(inicio, fim)).isEqualTo(esperado.size());
+        assertThat(calendario.diasUteis(inicio, fim)).containsExactlyElementsOf(esperado);
+        assertThat(calendario.diasUteisEntre(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31))).isEqualTo(22);
+        assertThat(calendario.diasUteisEntre(fim, inicio)).isZero();
+        assertThat(esperado).noneMatch(dia -> dia.getDayOfWeek() == DayOfWeek.SATURDAY || dia.getDayOfWeek() == DayOfWeek.SUNDAY);
+    }
+
+    @Test
+    void deveAceitarFeriadosRegionaisConfigurados() {
+        CalendarioProperties properties = new CalendarioProperties();
+        properties.setFeriadosRegionais(List.of("01-25", " 2026-07-09 "));
+        CalendarioDiasUteis regional = new CalendarioDiasUteis(properties);
+
+        assertThat(regional.isDiaUtil(LocalDate.of(2027, 1, 25))).isFalse();
+        assertThat(regional.isDiaUtil(LocalDate.of(2026, 7, 9))).isFalse();
+        assertThat(regional.isDiaUtil(LocalDate.of(2027, 7, 9))).isTrue();
+        assertThat(regional.diaUtilAnterior(LocalDate.of(2026, 7, 10))).isEqualTo(LocalDate.of(2026, 7, 8));
+        assertThat(calendario.isDiaUtil(LocalDate.of(2027, 1, 25))).isTrue();
+    }
+
+    @Test
+    void feriadoRegionalInvalidoDeveSerRejeitado() {
+        CalendarioProperties properties = new CalendarioProperties();
+        properties.setFeriadosRegionais(List.of("25/01"));
+
+        assertThatThrownBy(() -> new CalendarioDiasUteis(properties))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.GeracaoFaturaCartao;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.GeracaoFaturaCartaoRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompetenciaSnapshotServiceTest {
+
+    @Mock
+    private CartaoCreditoRepository cartaoCreditoRepository;
+    @Mock
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+    @Mock
+    private GeracaoFaturaCartaoRepository geracaoFaturaCartaoRepository;
+    @Mock
+    private DespesaService despesaService;
+
+    @InjectMocks
+    private CompetenciaSnapshotService competenciaSnapshotService;
+
+    @Test
+    void obterDeveMontarSnapshotComUmaConsultaPorFonte() {
+        CartaoCredito visa = cartao(1L, "Visa Infinite");
+        CartaoCredito inter = cartao(2L, "Cartao Inter");
+        CartaoCredito nubank = cartao(3L, "Nubank");
+        List<CartaoCredito> cartoes = List.of(visa, inter, nubank);
+        GeracaoFaturaCartao geracaoInter = GeracaoFaturaCartao.builder().id(9L).cartaoCredito(inter).ano(2026).mes(3).build();
+
+        when(cartaoCreditoRepository.findByTenantId("tenantA")).thenReturn(cartoes);
+        when(lancamentoCartaoRepository.somarFaturasPorCartaoECompetencia("tenantA", 202603, 202603)).thenReturn(List.of(
+                new Object[]{1L, 202603, new BigDecimal("900.00"), new BigDecimal("100.00")},
+                new Object[]{2L, 202603, new BigDecimal("400.00"), BigDecimal.ZERO}
+        ));
+        when(geracaoFaturaCartaoRepository.findByTenantIdAndAnoAndMesOrderByGeradoEmDesc("tenantA", 2026, 3))
+                .thenReturn(List.of(geracaoInter));
+        when(despesaService.buscarChavesFaturasLancadasLegacy(cartoes, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 1)))
+                .thenReturn(Set.of(GeracaoFaturaCartaoService.chave(1L, 3)));
+
+        CompetenciaSnapshot snapshot = competenciaSnapshotService.obter("tenantA", YearMonth.of(2026, 3));
+
+        assertThat(snapshot.getCartoes()).containsExactly(visa, inter, nubank);
+        assertThat(snapshot.valorFatura(1L)).isEqualByComparingTo("900.00");
+        assertThat(snapshot.valorProprio(1L)).isEqualByComparingTo("800.00");
+        assertThat(snapshot.valorFatura(3L)).isEqualByComparingTo("0");
+        assertThat(snapshot.isFaturaLancadaComoDespesa(1L)).isTrue();
+        assertThat(snapshot.isFaturaLancadaComoDespesa(2L)).isFalse();
+        assertThat(snapshot.isFaturaLancada(2L)).isTrue();
+        assertThat(snapshot.geracao(2L)).isSameAs(geracaoInter);
+        assertThat(snapshot.isFaturaLancada(3L)).isFalse();
+    }
+
+    @Test
+    void obterSemCartoesNaoDeveConsultarFaturas() {
+        when(cartaoCreditoRepository.findByTenantId("tenantA")).thenReturn(List.of());
+
+        CompetenciaSnapshot snapshot = competenciaSnapshotService.obter("tenantA", YearMonth.of(2026, 3));
+
+        assertThat(snapshot.getCartoes()).isEmpty();
+        verify(lancamentoCartaoRepository, never()).somarFaturasPorCartaoECompetencia(any(), any(), any());
+        verify(despesaService, never()).buscarChavesFaturasLancadasLegacy(any(), any(), any());
+    }
+
+    private CartaoCredito cartao(Long id, String nome) {
+        CartaoCredito cartao = new CartaoCredito();
+        cartao.setId(id);
+        cartao.setNome(nome);
+        cartao.setTenantId("tenantA");
+        return cartao;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.conciliacao.ConciliacaoOfxJobDTO;
+import com.example.orcamento.dto.conciliacao.ConciliacaoOfxRelatorioDTO;
+import com.example.orcamento.dto.conciliacao.EtapaConciliacaoOfx;
+import com.example.orcamento.dto.conciliacao.StatusConciliacaoOfxJob;
+import com.example.orcamento.security.TenantContext;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConciliacaoOfxJobServiceTest {
+
+    @Mock
+    private ConciliacaoOfxService conciliacaoOfxService;
+
+    private ConciliacaoOfxJobService conciliacaoOfxJobService;
+
+    @BeforeEach
+    void setUp() {
+        conciliacaoOfxJobService = new ConciliacaoOfxJobService(conciliacaoOfxService);
+        conciliacaoOfxJobService.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        conciliacaoOfxJobService.encerrar();
+        TenantContext.clear();
+    }
+
+    @Test
+    void submeterDeveExecutarConciliacaoForaDaRequisicaoComOTenantDoUsuario() throws Exception {
+        TenantContext.setTenantId("tenantA");
+        AtomicReference<String> tenantNaExecucao = new AtomicReference<>();
+        AtomicReference<String> conteudoLido = new AtomicReference<>();
+        ConciliacaoOfxRelatorioDTO relatorio = ConciliacaoOfxRelatorioDTO.builder().contaCorrenteId(2L).build();
+        when(conciliacaoOfxService.conciliar(eq(2L), eq(2), any(), any(), any(), eq(false), any()))
+                .thenAnswer(invocation -> {
+                    tenantNaExecucao.set(TenantContext.getTenantId());
+                    conteudoLido.set(new String(invocation.<MultipartFile>getArgument(4).getBytes(), StandardCharsets.US_ASCII));
+                    invocation.<Consumer<EtapaConciliacaoOfx>>getArgument(6).accept(EtapaConciliacaoOfx.CONCILIANDO);
+                    return relatorio;
+                });
+
+        ConciliacaoOfxJobDTO submetido = conciliacaoOfxJobService.submeter(
+                2L, 2, BigDecimal.ZERO, new BigDecimal("1000.00"), false,
+                new MockMultipartFile("file", "extrato.ofx", "application/x-ofx", "<OFX></OFX>".getBytes(StandardCharsets.US_ASCII)));
+
+        assertThat(submetido.getId()).isNotBlank();
+        assertThat(submetido.getNomeArquivo()).isEqualTo("extrato.ofx");
+
+        ConciliacaoOfxJobDTO concluido = aguardarFim(submetido.getId());
+        assertThat(concluido.getStatus()).isEqualTo(StatusConciliacaoOfxJob.CONCLUIDO);
+        assertThat(concluido.getPercentual()).isEqualTo(100);
+        assertThat(concluido.getRelatorio()).isSameAs(relatorio);
+        assertThat(tenantNaExecucao.get()).isEqualTo("tenantA");
+        assertThat(conteudoLido.get()).isEqualTo("<OFX></OFX>");
+    }
+
+    @Test
+    void jobComErroDeveExporMensagemEFicarInvisivelParaOutroTenant() throws Exception {
+        TenantContext.setTenantId("tenantA");
+        when(conciliacaoOfxService.conciliar(any(), any(), any(), any(), any(), anyBoolean(), any()))
+                .thenThrow(new IllegalArgumentException("Nao foi possivel identificar o periodo do OFX"));
+
+        String jobId = conciliacaoOfxJobService.submeter(
+                2L, 2, BigDecimal.ZERO, new BigDecimal("1000.00"), false,
+                new MockMultipartFile("file", "extrato.ofx", "application/x-ofx", "<OFX></OFX>".getBytes(StandardCharsets.US_ASCII))).getId();
+
+        ConciliacaoOfxJobDTO finalizado = aguardarFim(jobId);
+        assertThat(finalizado.getStatus()).isEqualTo(StatusConciliacaoOfxJob.ERRO);
+        assertThat(finalizado.getMensagemErro()).contains("periodo");
+        assertThat(finalizado.getRelatorio()).isNull();
+
+        TenantContext.setTenantId("tenantB");
+        assertThatThrownBy(() -> conciliacaoOfxJobService.buscar(jobId))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void jobInterrompidoPorErrorDeveSerFinalizadoComoErro() throws Exception {
+        TenantContext.setTenantId("tenantA");
+        when(conciliacaoOfxService.conciliar(any(), any(), any(), any(), any(), anyBoolean(), any()))
+                .thenThrow(new StackOverflowError());
+
+        String jobId = conciliacaoOfxJobService.submeter(
+                2L, 2, BigDecimal.ZERO, new BigDecimal("1000.00"), false,
+                new MockMultipartFile("file", "extrato.ofx", "application/x-ofx", "<OFX></OFX>".getBytes(StandardCharsets.US_ASCII))).getId();
+
+        ConciliacaoOfxJobDTO finalizado = aguardarFim(jobId);
+        assertThat(finalizado.getStatus()).isEqualTo(StatusConciliacaoOfxJob.ERRO);
+        assertThat(finalizado.getFinalizadoEm()).isNotNull();
+        assertThat(finalizado.getMensagemErro()).isEqualTo("Erro interno ao processar o arquivo OFX");
+    }
+
+    @Test
+    void submeterSemArquivoDeveFalharNaRequisicao() {
+        TenantContext.setTenantId("tenantA");
+
+        assertThatThrownBy(() -> conciliacaoOfxJobService.submeter(
+                2L, 2, BigDecimal.ZERO, BigDecimal.ZERO, false,
+                new MockMultipartFile("file", "vazio.ofx", "application/x-ofx", new byte[0])))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ConciliacaoOfxJobDTO aguardarFim(String jobId) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        ConciliacaoOfxJobDTO job = conciliacaoOfxJobService.buscar(jobId);
+        while (job.getFinalizadoEm() == null && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+            job = conciliacaoOfxJobService.buscar(jobId);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.conciliacao.ConciliacaoOfxRelatorioDTO;
+import com.example.orcamento.dto.conciliacao.MovimentoOfxDTO;
+import com.example.orcamento.model.ConciliacaoOfxProcessamento;
+import com.example.orcamento.model.ConciliacaoOfxRelatorio;
+import com.example.orcamento.repository.ConciliacaoOfxRelatorioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConciliacaoOfxRelatorioArmazenamentoServiceTest {
+
+    @Mock
+    private ConciliacaoOfxRelatorioRepository conciliacaoOfxRelatorioRepository;
+
+    @Test
+    void relatorioSalvoCompactadoDeveSerLidoDeVolta() {
+        ConciliacaoOfxRelatorioArmazenamentoService service = new ConciliacaoOfxRelatorioArmazenamentoService(
+                conciliacaoOfxRelatorioRepository, new ObjectMapper().findAndRegisterModules());
+        ConciliacaoOfxProcessamento processamento = ConciliacaoOfxProcessamento.builder().id(10L).tenantId("tenantA").build();
+        ConciliacaoOfxRelatorioDTO relatorio = ConciliacaoOfxRelatorioDTO.builder()
+                .contaCorrenteId(2L)
+                .periodoInicio(LocalDate.of(2026, 3, 1))
+                .toleranciaValor(new BigDecimal("0.50"))
+                .bancoSemPagamento(List.of(MovimentoOfxDTO.builder()
+                        .data(LocalDate.of(2026, 3, 5))
+                        .valor(new BigDecimal("-10.00"))
+                        .fitId("A1")
+                        .memo("PIX")
+                        .build()))
+                .build();
+
+        service.salvar(processamento, relatorio);
+
+        ArgumentCaptor<ConciliacaoOfxRelatorio> salvo = ArgumentCaptor.forClass(ConciliacaoOfxRelatorio.class);
+        verify(conciliacaoOfxRelatorioRepository).save(salvo.capture());
+        assertThat(salvo.getValue().getProcessamentoId()).isEqualTo(10L);
+        assertThat(salvo.getValue().getRelatorioJsonGzip()).startsWith((byte) 0x1f, (byte) 0x8b);
+
+        when(conciliacaoOfxRelatorioRepository.findByProcessamentoIdAndTenantId(10L, "tenantA"))
+                .thenReturn(Optional.of(salvo.getValue()));
+
+        assertThat(service.buscar(processamento)).contains(relatorio);
+    }
+}
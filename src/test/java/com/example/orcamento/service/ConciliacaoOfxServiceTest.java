@@ -28,7 +28,9 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +46,8 @@ class ConciliacaoOfxServiceTest {
     private ReceitaRepository receitaRepository;
     @Mock
     private MovimentacaoRepository movimentacaoRepository;
+    @Mock
+    private ConciliacaoOfxRelatorioArmazenamentoService relatorioArmazenamentoService;
 
     @InjectMocks
     private ConciliacaoOfxService conciliacaoOfxService;
@@ -257,4 +261,42 @@ class ConciliacaoOfxServiceTest {
         assertThat(relatorio.getArquivoJaProcessado()).isTrue();
         assertThat(relatorio.getUltimoProcessamentoEm()).isEqualTo(LocalDateTime.of(2026, 3, 31, 12, 0));
     }
+
+    @Test
+    void conciliarDeveReaproveitarRelatorioDoMesmoArquivoComMesmasTolerancias() {
+        TenantContext.setTenantId("tenantA");
+        ContaCorrente contaCorrente = new ContaCorrente(2L, "0001", "10962115", "077", "Inter", BigDecimal.ZERO, 1L, "tenantA", true);
+        ConciliacaoOfxProcessamento anterior = ConciliacaoOfxProcessamento.builder()
+                .id(50L)
+                .tenantId("tenantA")
+                .status("PROCESSADO")
+                .toleranciaDias(2)
+                .toleranciaValor(new BigDecimal("0.00"))
+                .toleranciaValorMinimo(new BigDecimal("1000.00"))
+                .processadoEm(LocalDateTime.of(2026, 3, 31, 12, 0))
+                .build();
+        when(contaCorrenteService.buscarPorId(2L)).thenReturn(Optional.of(contaCorrente));
+        when(conciliacaoOfxProcessamentoRepository.findTopByTenantIdAndContaCorrenteIdAndHashArquivoOrderByProcessadoEmDesc(eq("tenantA"), eq(2L), any()))
+                .thenReturn(Optional.of(anterior));
+        when(relatorioArmazenamentoService.buscar(anterior)).thenReturn(Optional.of(ConciliacaoOfxRelatorioDTO.builder()
+                .contaCorrenteId(2L)
+                .bancoIdOfx("077")
+                .arquivoJaProcessado(false)
+                .build()));
+
+        ConciliacaoOfxRelatorioDTO relatorio = conciliacaoOfxService.conciliar(
+                2L,
+                2,
+                BigDecimal.ZERO,
+                new BigDecimal("1000.00"),
+                new MockMultipartFile("file", "inter.ofx", "application/x-ofx",
+                        "<OFX><DTSTART>20260301<DTEND>20260330</OFX>".getBytes(StandardCharsets.ISO_8859_1))
+        );
+
+        assertThat(relatorio.getBancoIdOfx()).isEqualTo("077");
+        assertThat(relatorio.getArquivoJaProcessado()).isTrue();
+        assertThat(relatorio.getUltimoProcessamentoEm()).isEqualTo(LocalDateTime.of(2026, 3, 31, 12, 0));
+        verifyNoInteractions(despesaRepository, receitaRepository, movimentacaoRepository);
+        verify(conciliacaoOfxProcessamentoRepository, never()).save(any());
+    }
 }
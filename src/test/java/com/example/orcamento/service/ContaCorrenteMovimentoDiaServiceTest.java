@@ -0,0 +1,224 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.SaldoDiarioContaDTO;
+import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.model.Movimentacao;
+import com.example.orcamento.model.TipoMovimentacao;
+import com.example.orcamento.repository.ContaCorrenteMovimentoDiaRepository;
+import com.example.orcamento.repository.ContaCorrenteRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.MovimentacaoRepository;
+import com.example.orcamento.security.TenantContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ContaCorrenteMovimentoDiaServiceTest {
+
+    private static final String TENANT = "tenantMovimentoDia";
+
+    @Autowired
+    private ContaCorrenteMovimentoDiaService contaCorrenteMovimentoDiaService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ContaCorrenteService contaCorrenteService;
+
+    @Autowired
+    private ContaCorrenteRepository contaCorrenteRepository;
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @Autowired
+    private ContaCorrenteMovimentoDiaRepository contaCorrenteMovimentoDiaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DespesaService despesaService;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    private ContaCorrente conta;
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+        TenantContext.setTenantId(TENANT);
+
+        conta = new ContaCorrente();
+        conta.setAgencia("0001");
+        conta.setNumeroConta("55555");
+        conta.setBanco("001");
+        conta.setNomeBanco("Banco Historico");
+        conta.setSaldo(new BigDecimal("1000.00"));
+        conta.setTenantId(TENANT);
+        conta = contaCorrenteRepository.save(conta);
+
+        // Saldo atual ao final: 1000 + 200 - 50 - 30 + 10 = 1130
+        registrar(TipoMovimentacao.ENTRADA, "200.00", LocalDate.of(2026, 3, 2));
+        registrar(TipoMovimentacao.SAIDA, "50.00", LocalDate.of(2026, 3, 4));
+        registrar(TipoMovimentacao.SAIDA, "30.00", LocalDate.of(2026, 3, 4));
+        registrar(TipoMovimentacao.ENTRADA, "10.00", LocalDate.of(2026, 3, 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparDados();
+        TenantContext.clear();
+    }
+
+    @Test
+    void saldoEmDeveDescontarOQueFoiMovimentadoDepoisDaData() {
+        assertThat(saldoEm(LocalDate.of(2026, 3, 1))).isEqualByComparingTo("1000.00");
+        assertThat(saldoEm(LocalDate.of(2026, 3, 3))).isEqualByComparingTo("1200.00");
+        assertThat(saldoEm(LocalDate.of(2026, 3, 4))).isEqualByComparingTo("1120.00");
+        assertThat(saldoEm(LocalDate.of(2026, 12, 31))).isEqualByComparingTo("1130.00");
+    }
+
+    @Test
+    void saldosDiariosDevemCobrirCadaDiaDoPeriodo() {
+        List<SaldoDiarioContaDTO> saldos = contaCorrenteMovimentoDiaService
+                .saldosDiarios(conta.getId(), LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 5));
+
+        assertThat(saldos).extracting(SaldoDiarioContaDTO::getData).containsExactly(
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 3),
+                LocalDate.of(2026, 3, 4), LocalDate.of(2026, 3, 5));
+        assertThat(saldos).extracting(saldo -> saldo.getSaldo().setScale(2))
+                .containsExactly(new BigDecimal("1000.00"), new BigDecimal("1200.00"), new BigDecimal("1200.00"),
+                        new BigDecimal("1120.00"), new BigDecimal("1120.00"));
+    }
+
+    @Test
+    void serieDeUmAnoNaoDeveCustarUmaConsultaPorDia() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            contaCorrenteMovimentoDiaService.saldosDiarios(conta.getId(), LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 7));
+            long consultasUmaSemana = statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            List<SaldoDiarioContaDTO> ano = contaCorrenteMovimentoDiaService
+                    .saldosDiarios(conta.getId(), LocalDate.of(2025, 6, 1), LocalDate.of(2026, 5, 31));
+            long consultasUmAno = statistics.getPrepareStatementCount();
+
+            assertThat(ano).hasSize(365);
+            assertThat(consultasUmAno).isEqualTo(consultasUmaSemana);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void desfazerMovimentacoesDeveManterHistoricoCoerenteComOSaldo() {
+        List<Movimentacao> doDia4 = movimentacaoRepository.findByContaCorrenteIdAndTenantIdAndDataRecebimentoBetween(
+                conta.getId(), TENANT, LocalDate.of(2026, 3, 4), LocalDate.of(2026, 3, 4));
+
+        movimentacaoService.desfazerMovimentacoes(doDia4);
+
+        assertThat(contaCorrenteRepository.findById(conta.getId()).orElseThrow().getSaldo()).isEqualByComparingTo("1210.00");
+        assertThat(saldoEm(LocalDate.of(2026, 3, 1))).isEqualByComparingTo("1000.00");
+        assertThat(saldoEm(LocalDate.of(2026, 3, 4))).isEqualByComparingTo("1200.00");
+    }
+
+    @Test
+    void ajusteManualDoSaldoNaoDeveDeslocarOHistorico() {
+        ContaCorrente ajustada = new ContaCorrente();
+        ajustada.setAgencia(conta.getAgencia());
+        ajustada.setNumeroConta(conta.getNumeroConta());
+        ajustada.setNomeBanco(conta.getNomeBanco());
+        ajustada.setContaAtiva(true);
+        ajustada.setSaldo(new BigDecimal("1500.00"));
+
+        contaCorrenteService.atualizarConta(conta.getId(), ajustada);
+
+        assertThat(contaCorrenteRepository.findById(conta.getId()).orElseThrow().getSaldo()).isEqualByComparingTo("1500.00");
+        assertThat(saldoEm(LocalDate.now())).isEqualByComparingTo("1500.00");
+        assertThat(saldoEm(LocalDate.now().minusDays(1))).isEqualByComparingTo("1130.00");
+        assertThat(saldoEm(LocalDate.of(2026, 3, 4))).isEqualByComparingTo("1120.00");
+    }
+
+    @Test
+    void excluirDespesaPagaEmFeriadoDeveEstornarNaMesmaData() {
+        // Paga em 25/12, antes de feriados serem bloqueados nas movimentacoes
+        Despesa despesa = despesaRepository.save(Despesa.builder()
+                .nome("Ceia")
+                .tenantId(TENANT)
+                .valorPrevisto(new BigDecimal("100.00"))
+                .valorPago(new BigDecimal("100.00"))
+                .dataVencimento(LocalDate.of(2025, 12, 25))
+                .dataPagamento(LocalDate.of(2025, 12, 25))
+                .contaCorrente(conta)
+                .build());
+
+        despesaService.excluirDespesa(despesa.getId());
+
+        assertThat(despesaRepository.findByTenantId(TENANT)).isEmpty();
+        assertThat(contaCorrenteRepository.findById(conta.getId()).orElseThrow().getSaldo()).isEqualByComparingTo("1230.00");
+        assertThat(movimentacaoRepository.findByContaCorrenteIdAndTenantIdAndDataRecebimentoBetween(
+                conta.getId(), TENANT, LocalDate.of(2025, 12, 25), LocalDate.of(2025, 12, 25)))
+                .extracting(Movimentacao::getTipo)
+                .containsExactly(TipoMovimentacao.ENTRADA);
+    }
+
+    @Test
+    void movimentacaoNovaEmFeriadoContinuaBloqueada() {
+        assertThatThrownBy(() -> registrar(TipoMovimentacao.SAIDA, "10.00", LocalDate.of(2025, 12, 25)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("dia útil");
+    }
+
+    @Test
+    void periodoInvertidoDeveSerRejeitado() {
+        assertThatThrownBy(() -> contaCorrenteMovimentoDiaService
+                .saldosDiarios(conta.getId(), LocalDate.of(2026, 3, 5), LocalDate.of(2026, 3, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private BigDecimal saldoEm(LocalDate data) {
+        return contaCorrenteMovimentoDiaService.saldoEm(conta.getId(), data).getSaldo();
+    }
+
+    private void registrar(TipoMovimentacao tipo, String valor, LocalDate dataRecebimento) {
+        movimentacaoService.registrarMovimentacao(Movimentacao.builder()
+                .tipo(tipo)
+                .valor(new BigDecimal(valor))
+                .contaCorrente(conta)
+                .descricao("Movimentacao " + tipo + " " + dataRecebimento)
+                .dataRecebimento(dataRecebimento)
+                .dataCadastro(LocalDateTime.now())
+                .build());
+    }
+
+    private void limparDados() {
+        movimentacaoRepository.deleteAll(movimentacaoRepository.findByTenantId(TENANT));
+        despesaRepository.deleteAll(despesaRepository.findByTenantId(TENANT));
+        contaCorrenteMovimentoDiaRepository.deleteAll(contaCorrenteMovimentoDiaRepository.findAll().stream()
+                .filter(movimento -> TENANT.equals(movimento.getTenantId()))
+                .toList());
+        contaCorrenteRepository.deleteAll(contaCorrenteRepository.findByTenantId(TENANT));
+    }
+}
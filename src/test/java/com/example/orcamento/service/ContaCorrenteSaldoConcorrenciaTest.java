@@ -0,0 +1,186 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.model.Movimentacao;
+import com.example.orcamento.model.TipoMovimentacao;
+import com.example.orcamento.repository.ContaCorrenteRepository;
+import com.example.orcamento.repository.MovimentacaoRepository;
+import com.example.orcamento.security.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Varias threads movimentando as mesmas contas ao mesmo tempo: nenhuma atualizacao de saldo pode se
+ * perder e transferencias em sentidos opostos nao podem travar uma a outra. Tambem confere que a
+ * transferencia devolve as contas com o saldo ja atualizado.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContaCorrenteSaldoConcorrenciaTest {
+
+    private static final String TENANT = "tenantSaldoConcorrente";
+    private static final int THREADS = 16;
+    // Terca-feira: transferencias so sao aceitas em dia util
+    private static final LocalDate DATA_UTIL = LocalDate.of(2026, 3, 10);
+
+    @Autowired
+    private ContaCorrenteService contaCorrenteService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ContaCorrenteRepository contaCorrenteRepository;
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+        TenantContext.setTenantId(TENANT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparDados();
+        TenantContext.clear();
+    }
+
+    @Test
+    void atualizacoesConcorrentesNaMesmaContaNaoDevemSePerder() throws Exception {
+        Long contaId = criarConta("1000.00");
+        int operacoesPorThread = 50;
+
+        executarEmParalelo(indice -> {
+            for (int i = 0; i < operacoesPorThread; i++) {
+                // Metade das threads credita 3, a outra metade debita 1
+                boolean entrada = indice % 2 == 0;
+                contaCorrenteService.atualizarSaldo(contaId, entrada ? new BigDecimal("3.00") : new BigDecimal("1.00"), entrada, LocalDateTime.now());
+            }
+        });
+
+        BigDecimal esperado = new BigDecimal("1000.00")
+                .add(new BigDecimal("3.00").multiply(BigDecimal.valueOf((long) THREADS / 2 * operacoesPorThread)))
+                .subtract(new BigDecimal("1.00").multiply(BigDecimal.valueOf((long) THREADS / 2 * operacoesPorThread)));
+        assertThat(saldo(contaId)).isEqualByComparingTo(esperado);
+    }
+
+    @Test
+    void transferenciasOpostasSimultaneasDevemConservarOTotal() throws Exception {
+        Long contaA = criarConta("5000.00");
+        Long contaB = criarConta("5000.00");
+        int transferenciasPorThread = 10;
+
+        executarEmParalelo(indice -> {
+            for (int i = 0; i < transferenciasPorThread; i++) {
+                if (indice % 2 == 0) {
+                    movimentacaoService.transferirEntreContas(contaA, contaB, new BigDecimal("7.00"), DATA_UTIL, null);
+                } else {
+                    movimentacaoService.transferirEntreContas(contaB, contaA, new BigDecimal("5.00"), DATA_UTIL, null);
+                }
+            }
+        });
+
+        BigDecimal transferidoDeAParaB = new BigDecimal("7.00").multiply(BigDecimal.valueOf((long) THREADS / 2 * transferenciasPorThread));
+        BigDecimal transferidoDeBParaA = new BigDecimal("5.00").multiply(BigDecimal.valueOf((long) THREADS / 2 * transferenciasPorThread));
+        assertThat(saldo(contaA)).isEqualByComparingTo(new BigDecimal("5000.00").subtract(transferidoDeAParaB).add(transferidoDeBParaA));
+        assertThat(saldo(contaB)).isEqualByComparingTo(new BigDecimal("5000.00").add(transferidoDeAParaB).subtract(transferidoDeBParaA));
+        assertThat(movimentacaoRepository.findByTenantId(TENANT)).hasSize(THREADS * transferenciasPorThread * 2);
+    }
+
+    @Test
+    void transferenciaDeveDevolverOsSaldosJaAtualizados() {
+        Long contaA = criarConta("300.00");
+        Long contaB = criarConta("50.00");
+
+        List<Movimentacao> par = movimentacaoService.transferirEntreContas(contaA, contaB, new BigDecimal("120.00"), DATA_UTIL, null);
+
+        Movimentacao debito = par.stream().filter(m -> m.getTipo() == TipoMovimentacao.SAIDA).findFirst().orElseThrow();
+        Movimentacao credito = par.stream().filter(m -> m.getTipo() == TipoMovimentacao.ENTRADA).findFirst().orElseThrow();
+        assertThat(debito.getContaCorrente().getSaldo()).isEqualByComparingTo("180.00");
+        assertThat(credito.getContaCorrente().getSaldo()).isEqualByComparingTo("170.00");
+    }
+
+    @Test
+    void atualizarSaldoDeContaDeOutroTenantDeveFalhar() {
+        Long contaId = criarConta("100.00");
+        TenantContext.setTenantId("outroTenant");
+
+        assertThatThrownBy(() -> contaCorrenteService.atualizarSaldo(contaId, BigDecimal.TEN, true, LocalDateTime.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(saldo(contaId)).isEqualByComparingTo("100.00");
+    }
+
+    private void executarEmParalelo(Tarefa tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Void>> resultados = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int indice = t;
+                Callable<Void> execucao = () -> {
+                    TenantContext.setTenantId(TENANT);
+                    try {
+                        largada.await();
+                        tarefa.executar(indice);
+                        return null;
+                    } finally {
+                        TenantContext.clear();
+                    }
+                };
+                resultados.add(executor.submit(execucao));
+            }
+            largada.countDown();
+            for (Future<Void> resultado : resultados) {
+                resultado.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long criarConta(String saldoInicial) {
+        ContaCorrente conta = new ContaCorrente();
+        conta.setAgencia("0001");
+        conta.setNumeroConta("12345");
+        conta.setBanco("001");
+        conta.setNomeBanco("Banco Concorrente");
+        conta.setSaldo(new BigDecimal(saldoInicial));
+        conta.setTenantId(TENANT);
+        return contaCorrenteRepository.save(conta).getId();
+    }
+
+    private BigDecimal saldo(Long contaId) {
+        return contaCorrenteRepository.findById(contaId).orElseThrow().getSaldo();
+    }
+
+    private void limparDados() {
+        movimentacaoRepository.deleteAll(movimentacaoRepository.findByTenantId(TENANT));
+        contaCorrenteRepository.deleteAll(contaCorrenteRepository.findByTenantId(TENANT));
+    }
+
+    @FunctionalInterface
+    private interface Tarefa {
+        void executar(int indice) throws Exception;
+    }
+}
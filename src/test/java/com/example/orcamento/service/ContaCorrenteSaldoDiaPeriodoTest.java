@@ -0,0 +1,231 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.ContaCorrenteSaldoDiaResponseDTO;
+import com.example.orcamento.dto.FechamentoPeriodoContaDTO;
+import com.example.orcamento.dto.FecharSaldoDiaRequestDTO;
+import com.example.orcamento.dto.FecharSaldoPeriodoRequestDTO;
+import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.model.Movimentacao;
+import com.example.orcamento.model.TipoMovimentacao;
+import com.example.orcamento.repository.ContaCorrenteMovimentoDiaRepository;
+import com.example.orcamento.repository.ContaCorrenteRepository;
+import com.example.orcamento.repository.ContaCorrenteSaldoDiaRepository;
+import com.example.orcamento.repository.MovimentacaoRepository;
+import com.example.orcamento.security.TenantContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ContaCorrenteSaldoDiaPeriodoTest {
+
+    private static final String TENANT = "tenantSaldoPeriodo";
+    // Sexta-feira anterior ao periodo: ultimo dia util fechado antes de marco
+    private static final LocalDate ULTIMO_DIA_FECHADO = LocalDate.of(2026, 2, 27);
+    private static final LocalDate INICIO = LocalDate.of(2026, 3, 1);
+    private static final LocalDate FIM = LocalDate.of(2026, 3, 31);
+    private static final int DIAS_UTEIS_MARCO = 22;
+
+    @Autowired
+    private ContaCorrenteSaldoDiaService contaCorrenteSaldoDiaService;
+
+    @Autowired
+    private ContaCorrenteSaldoDiaLoteService contaCorrenteSaldoDiaLoteService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ContaCorrenteRepository contaCorrenteRepository;
+
+    @Autowired
+    private ContaCorrenteSaldoDiaRepository contaCorrenteSaldoDiaRepository;
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @Autowired
+    private ContaCorrenteMovimentoDiaRepository contaCorrenteMovimentoDiaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+        TenantContext.setTenantId(TENANT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparDados();
+        TenantContext.clear();
+    }
+
+    @Test
+    void fecharPeriodoDeveTerOMesmoResultadoQueFecharDiaADia() {
+        ContaCorrente diaADia = criarContaComMovimentacoes(true);
+        ContaCorrente periodo = criarContaComMovimentacoes(true);
+
+        List<ContaCorrenteSaldoDiaResponseDTO> esperado = new ArrayList<>();
+        for (LocalDate dia = INICIO; !dia.isAfter(FIM); dia = dia.plusDays(1)) {
+            if (dia.getDayOfWeek().getValue() <= 5) {
+                FecharSaldoDiaRequestDTO request = new FecharSaldoDiaRequestDTO();
+                request.setData(dia);
+                esperado.add(contaCorrenteSaldoDiaService.fecharDia(diaADia.getId(), request));
+            }
+        }
+
+        List<ContaCorrenteSaldoDiaResponseDTO> fechados = contaCorrenteSaldoDiaService.fecharPeriodo(periodo.getId(), periodo());
+
+        assertThat(fechados).hasSize(DIAS_UTEIS_MARCO);
+        assertThat(fechados).extracting(this::resumo).containsExactlyElementsOf(esperado.stream().map(this::resumo).toList());
+        // 1000 + 200 - 50 - 30 + 10 + 15
+        assertThat(fechados.get(fechados.size() - 1).getSaldoFechamento()).isEqualByComparingTo("1145.00");
+    }
+
+    @Test
+    void fecharPeriodoNaoDeveCustarConsultasPorDia() {
+        ContaCorrente conta = criarContaComMovimentacoes(true);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            contaCorrenteSaldoDiaService.fecharPeriodo(conta.getId(), periodo());
+
+            // Leituras fixas, proximo bloco de ids e um unico lote de INSERT para os 22 dias
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void fecharPeriodoNovamenteDeveRecalcularSemDuplicarDias() {
+        ContaCorrente conta = criarContaComMovimentacoes(true);
+        contaCorrenteSaldoDiaService.fecharPeriodo(conta.getId(), periodo());
+        registrar(conta, TipoMovimentacao.SAIDA, "100.00", LocalDate.of(2026, 3, 16));
+
+        List<ContaCorrenteSaldoDiaResponseDTO> refeitos = contaCorrenteSaldoDiaService.fecharPeriodo(conta.getId(), periodo());
+
+        assertThat(refeitos.get(refeitos.size() - 1).getSaldoFechamento()).isEqualByComparingTo("1045.00");
+        assertThat(contaCorrenteSaldoDiaRepository
+                .findByContaCorrenteIdAndTenantIdAndDataBetweenOrderByDataDesc(conta.getId(), TENANT, INICIO, FIM))
+                .hasSize(DIAS_UTEIS_MARCO);
+    }
+
+    @Test
+    void fecharPeriodoDeveExigirDiaUtilAnteriorFechado() {
+        ContaCorrente conta = criarContaComMovimentacoes(true);
+        FecharSaldoPeriodoRequestDTO request = periodo();
+        request.setDataInicio(LocalDate.of(2026, 3, 3));
+
+        assertThatThrownBy(() -> contaCorrenteSaldoDiaService.fecharPeriodo(conta.getId(), request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ultimo dia util anterior");
+    }
+
+    @Test
+    void fecharPeriodoContasAtivasDeveFecharCadaContaEReportarAsBloqueadas() {
+        ContaCorrente primeira = criarContaComMovimentacoes(true);
+        ContaCorrente segunda = criarContaComMovimentacoes(true);
+        ContaCorrente semFechamentoAnterior = criarContaComMovimentacoes(false);
+        ContaCorrente inativa = criarContaComMovimentacoes(true);
+        inativa.setContaAtiva(false);
+        contaCorrenteRepository.save(inativa);
+
+        List<FechamentoPeriodoContaDTO> resultados = contaCorrenteSaldoDiaLoteService.fecharPeriodoContasAtivas(periodo());
+
+        assertThat(resultados).extracting(FechamentoPeriodoContaDTO::getContaCorrenteId)
+                .containsExactlyInAnyOrder(primeira.getId(), segunda.getId(), semFechamentoAnterior.getId());
+        assertThat(resultados).filteredOn(resultado -> resultado.getErro() == null)
+                .hasSize(2)
+                .allSatisfy(resultado -> {
+                    assertThat(resultado.getDiasFechados()).isEqualTo(DIAS_UTEIS_MARCO);
+                    assertThat(resultado.getUltimoDiaFechado()).isEqualTo(FIM);
+                    assertThat(resultado.getSaldoFechamento()).isEqualByComparingTo("1145.00");
+                });
+        assertThat(resultados).filteredOn(resultado -> resultado.getContaCorrenteId().equals(semFechamentoAnterior.getId()))
+                .singleElement()
+                .satisfies(resultado -> assertThat(resultado.getErro()).contains("saldo de abertura"));
+        assertThat(contaCorrenteSaldoDiaRepository
+                .findByContaCorrenteIdAndTenantIdAndDataBetweenOrderByDataDesc(inativa.getId(), TENANT, INICIO, FIM))
+                .isEmpty();
+    }
+
+    private ContaCorrente criarContaComMovimentacoes(boolean comFechamentoAnterior) {
+        ContaCorrente conta = new ContaCorrente();
+        conta.setAgencia("0001");
+        conta.setNumeroConta("77777");
+        conta.setBanco("001");
+        conta.setNomeBanco("Banco Periodo");
+        conta.setSaldo(new BigDecimal("1000.00"));
+        conta.setTenantId(TENANT);
+        conta = contaCorrenteRepository.save(conta);
+
+        if (comFechamentoAnterior) {
+            FecharSaldoDiaRequestDTO request = new FecharSaldoDiaRequestDTO();
+            request.setData(ULTIMO_DIA_FECHADO);
+            request.setSaldoAbertura(new BigDecimal("1000.00"));
+            contaCorrenteSaldoDiaService.fecharDia(conta.getId(), request);
+        }
+
+        registrar(conta, TipoMovimentacao.ENTRADA, "200.00", LocalDate.of(2026, 3, 2));
+        registrar(conta, TipoMovimentacao.SAIDA, "50.00", LocalDate.of(2026, 3, 4));
+        registrar(conta, TipoMovimentacao.SAIDA, "30.00", LocalDate.of(2026, 3, 4));
+        registrar(conta, TipoMovimentacao.ENTRADA, "10.00", LocalDate.of(2026, 3, 6));
+        registrar(conta, TipoMovimentacao.ENTRADA, "15.00", LocalDate.of(2026, 3, 31));
+        return conta;
+    }
+
+    private void registrar(ContaCorrente conta, TipoMovimentacao tipo, String valor, LocalDate dataRecebimento) {
+        movimentacaoService.registrarMovimentacao(Movimentacao.builder()
+                .tipo(tipo)
+                .valor(new BigDecimal(valor))
+                .contaCorrente(conta)
+                .descricao("Movimentacao " + tipo + " " + dataRecebimento)
+                .dataRecebimento(dataRecebimento)
+                .dataCadastro(LocalDateTime.now())
+                .build());
+    }
+
+    private static FecharSaldoPeriodoRequestDTO periodo() {
+        FecharSaldoPeriodoRequestDTO request = new FecharSaldoPeriodoRequestDTO();
+        request.setDataInicio(INICIO);
+        request.setDataFim(FIM);
+        return request;
+    }
+
+    private String resumo(ContaCorrenteSaldoDiaResponseDTO saldoDia) {
+        return saldoDia.getData() + " " + saldoDia.getSaldoAbertura().setScale(2) + " " + saldoDia.getTotalEntradas().setScale(2)
+                + " " + saldoDia.getTotalSaidas().setScale(2) + " " + saldoDia.getSaldoFechamento().setScale(2);
+    }
+
+    private void limparDados() {
+        List<ContaCorrente> contas = contaCorrenteRepository.findByTenantId(TENANT);
+        contas.forEach(conta -> contaCorrenteSaldoDiaRepository.deleteAll(contaCorrenteSaldoDiaRepository
+                .findByContaCorrenteIdAndTenantIdAndDataBetweenOrderByDataDesc(conta.getId(), TENANT, LocalDate.of(2000, 1, 1), LocalDate.of(2100, 12, 31))));
+        movimentacaoRepository.deleteAll(movimentacaoRepository.findByTenantId(TENANT));
+        contaCorrenteMovimentoDiaRepository.deleteAll(contaCorrenteMovimentoDiaRepository.findAll().stream()
+                .filter(movimento -> TENANT.equals(movimento.getTenantId()))
+                .toList());
+        contaCorrenteRepository.deleteAll(contas);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.orcamento.service;
 
+import com.example.orcamento.config.CalendarioProperties;
 import com.example.orcamento.dto.FecharSaldoDiaRequestDTO;
 import com.example.orcamento.model.ContaCorrente;
 import com.example.orcamento.repository.ContaCorrenteSaldoDiaRepository;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -28,6 +30,8 @@ class ContaCorrenteSaldoDiaServiceTest {
     private ContaCorrenteSaldoDiaRepository contaCorrenteSaldoDiaRepository;
     @Mock
     private MovimentacaoRepository movimentacaoRepository;
+    @Spy
+    private CalendarioDiasUteis calendarioDiasUteis = new CalendarioDiasUteis(new CalendarioProperties());
 
     @InjectMocks
     private ContaCorrenteSaldoDiaService contaCorrenteSaldoDiaService;
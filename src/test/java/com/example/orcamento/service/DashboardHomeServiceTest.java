@@ -6,9 +6,7 @@ import com.example.orcamento.model.CartaoCredito;
 import com.example.orcamento.model.ContaCorrente;
 import com.example.orcamento.model.Despesa;
 import com.example.orcamento.model.StatusCartao;
-import com.example.orcamento.repository.CartaoCreditoRepository;
 import com.example.orcamento.repository.DespesaRepository;
-import com.example.orcamento.repository.LancamentoCartaoRepository;
 import com.example.orcamento.security.TenantContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +19,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
@@ -33,13 +33,9 @@ class DashboardHomeServiceTest {
     @Mock
     private ContaCorrenteService contaCorrenteService;
     @Mock
-    private CartaoCreditoRepository cartaoCreditoRepository;
-    @Mock
-    private LancamentoCartaoRepository lancamentoCartaoRepository;
-    @Mock
     private DespesaRepository despesaRepository;
     @Mock
-    private DespesaService despesaService;
+    private CompetenciaSnapshotService competenciaSnapshotService;
 
     @InjectMocks
     private DashboardHomeService dashboardHomeService;
@@ -67,12 +63,16 @@ class DashboardHomeServiceTest {
         cartao.setStatus(StatusCartao.ATIVO);
         cartao.setTenantId("tenantA");
 
-        when(cartaoCreditoRepository.findByTenantId("tenantA")).thenReturn(List.of(cartao));
-        when(lancamentoCartaoRepository.getFaturaDoMes(10L, "MARCO/2026", "tenantA")).thenReturn(new BigDecimal("1200.00"));
-        when(lancamentoCartaoRepository.getFaturaDoMesTerceiros(10L, "MARCO/2026", "tenantA")).thenReturn(new BigDecimal("200.00"));
+        when(competenciaSnapshotService.obter("tenantA", YearMonth.of(2026, 3))).thenReturn(new CompetenciaSnapshot(
+                YearMonth.of(2026, 3),
+                List.of(cartao),
+                Map.of(10L, new BigDecimal("1200.00")),
+                Map.of(10L, new BigDecimal("200.00")),
+                Map.of(),
+                Set.of(10L)
+        ));
         when(despesaRepository.findByDataVencimentoBetweenAndDataPagamentoIsNull("tenantA", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)))
                 .thenReturn(List.of());
-        when(despesaService.verificarFaturaLancada("Visa Infinite", 3, 2026)).thenReturn(true);
 
         DashboardHomeDTO dashboard = dashboardHomeService.obterDashboard(2026, 3);
 
@@ -104,22 +104,14 @@ class DashboardHomeServiceTest {
         cartaoNaoLancado.setDiaVencimento(LocalDate.now().getDayOfMonth());
         cartaoNaoLancado.setStatus(StatusCartao.ATIVO);
         cartaoNaoLancado.setTenantId("tenantA");
-        when(cartaoCreditoRepository.findByTenantId("tenantA")).thenReturn(List.of(cartaoNaoLancado));
-        String mesAnoFatura = competenciaAtual.getMonth()
-                .getDisplayName(java.time.format.TextStyle.FULL, new java.util.Locale("pt", "BR"))
-                .toUpperCase(java.util.Locale.ROOT)
-                .replace('Ç', 'C')
-                .replace('Ã', 'A')
-                .replace('É', 'E')
-                .replace('Ê', 'E')
-                .replace('Í', 'I')
-                .replace('Ó', 'O')
-                .replace('Ô', 'O')
-                .replace('Õ', 'O')
-                .replace('Ú', 'U') + "/" + competenciaAtual.getYear();
-        when(lancamentoCartaoRepository.getFaturaDoMes(10L, mesAnoFatura, "tenantA")).thenReturn(new BigDecimal("1611.63"));
-        when(lancamentoCartaoRepository.getFaturaDoMesTerceiros(10L, mesAnoFatura, "tenantA")).thenReturn(BigDecimal.ZERO);
-        when(despesaService.verificarFaturaLancada("Visa Infinite", competenciaAtual.getMonthValue(), competenciaAtual.getYear())).thenReturn(false);
+        when(competenciaSnapshotService.obter("tenantA", competenciaAtual)).thenReturn(new CompetenciaSnapshot(
+                competenciaAtual,
+                List.of(cartaoNaoLancado),
+                Map.of(10L, new BigDecimal("1611.63")),
+                Map.of(),
+                Map.of(),
+                Set.of()
+        ));
 
         Despesa vencida = Despesa.builder()
                 .id(1L)
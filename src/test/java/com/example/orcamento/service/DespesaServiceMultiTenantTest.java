@@ -1,5 +1,6 @@
 package com.example.orcamento.service;
 
+import com.example.orcamento.model.CartaoCredito;
 import com.example.orcamento.repository.DespesaRepository;
 import com.example.orcamento.repository.LancamentoCartaoRepository;
 import com.example.orcamento.repository.MovimentacaoRepository;
@@ -13,8 +14,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -69,4 +74,25 @@ class DespesaServiceMultiTenantTest {
 
         verify(despesaRepository).findByIdAndTenantId(20L, "tenantA");
     }
+
+    @Test
+    void buscarChavesFaturasLancadasLegacyDeveIgnorarAcentosEMaiusculas() {
+        TenantContext.setTenantId("tenantA");
+        CartaoCredito nubank = new CartaoCredito();
+        nubank.setId(1L);
+        nubank.setNome("nubank");
+        CartaoCredito inter = new CartaoCredito();
+        inter.setId(2L);
+        inter.setNome("Inter");
+        LocalDate inicio = LocalDate.of(2026, 1, 1);
+        LocalDate fim = LocalDate.of(2027, 1, 1);
+        when(despesaRepository.findNomeEVencimentoDeFaturasLancadas("tenantA", inicio, fim)).thenReturn(List.of(
+                new Object[]{"FATURA CARTÃO Nubank", LocalDate.of(2026, 3, 10)},
+                new Object[]{"Fatura Cartao Itau", LocalDate.of(2026, 3, 10)}
+        ));
+
+        Set<String> chaves = despesaService.buscarChavesFaturasLancadasLegacy(List.of(nubank, inter), 2026);
+
+        assertThat(chaves).containsExactly(GeracaoFaturaCartaoService.chave(1L, 3));
+    }
 }
@@ -1,21 +1,14 @@
 package com.example.orcamento.service;
 
+import com.example.orcamento.config.CalendarioProperties;
 import com.example.orcamento.dto.FechamentoMensalResponseDTO;
-import com.example.orcamento.model.ContaCorrente;
+import com.example.orcamento.model.AgregadoMensal;
 import com.example.orcamento.model.CartaoCredito;
-import com.example.orcamento.model.Despesa;
 import com.example.orcamento.model.FechamentoMensal;
 import com.example.orcamento.model.FechamentoMensalHistorico;
-import com.example.orcamento.model.LancamentoCartao;
-import com.example.orcamento.model.Receita;
-import com.example.orcamento.model.enums.FormaDePagamento;
-import com.example.orcamento.repository.CartaoCreditoRepository;
 import com.example.orcamento.repository.ContaCorrenteSaldoDiaRepository;
-import com.example.orcamento.repository.DespesaRepository;
 import com.example.orcamento.repository.FechamentoMensalHistoricoRepository;
 import com.example.orcamento.repository.FechamentoMensalRepository;
-import com.example.orcamento.repository.LancamentoCartaoRepository;
-import com.example.orcamento.repository.ReceitaRepository;
 import com.example.orcamento.security.TenantContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -24,15 +17,23 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,15 +47,13 @@ class FechamentoMensalServiceTest {
     @Mock
     private ContaCorrenteSaldoDiaRepository contaCorrenteSaldoDiaRepository;
     @Mock
-    private ReceitaRepository receitaRepository;
-    @Mock
-    private DespesaRepository despesaRepository;
-    @Mock
-    private LancamentoCartaoRepository lancamentoCartaoRepository;
-    @Mock
-    private CartaoCreditoRepository cartaoCreditoRepository;
+    private CompetenciaSnapshotService competenciaSnapshotService;
     @Mock
     private FechamentoMensalHistoricoRepository fechamentoMensalHistoricoRepository;
+    @Mock
+    private AgregadoMensalService agregadoMensalService;
+    @Spy
+    private CalendarioDiasUteis calendarioDiasUteis = new CalendarioDiasUteis(new CalendarioProperties());
 
     @InjectMocks
     private FechamentoMensalService fechamentoMensalService;
@@ -70,50 +69,11 @@ class FechamentoMensalServiceTest {
         TenantContext.setTenantId("tenantA");
 
         when(fechamentoMensalRepository.findByTenantIdAndAnoAndMes("tenantA", 2026, 3)).thenReturn(Optional.empty());
-        when(fechamentoMensalRepository.findByTenantIdAndAnoAndMes("tenantA", 2026, 2)).thenReturn(Optional.empty());
-        when(contaCorrenteService.listarTodos()).thenReturn(List.of(
-                new ContaCorrente(1L, "0001", "123", "001", "Banco X", BigDecimal.TEN, 1L, "tenantA", true)
-        ));
 
-        Receita receita = Receita.builder()
-                .id(1L)
-                .tenantId("tenantA")
-                .descricao("Salario")
-                .valor(new BigDecimal("1000.00"))
-                .dataRecebimento(LocalDate.of(2026, 3, 5))
-                .isPrevista(false)
-                .build();
-        when(receitaRepository.findByDataRecebimentoBetweenAndTenantId(
-                LocalDate.of(2026, 3, 1),
-                LocalDate.of(2026, 3, 31),
-                "tenantA")
-        ).thenReturn(List.of(receita));
-
-        Despesa despesaDebito = Despesa.builder()
-                .id(1L)
-                .tenantId("tenantA")
-                .nome("Aluguel")
-                .valorPrevisto(new BigDecimal("500.00"))
-                .valorPago(new BigDecimal("500.00"))
-                .dataVencimento(LocalDate.of(2026, 3, 10))
-                .formaDePagamento(FormaDePagamento.DEBITO)
-                .build();
-        Despesa despesaCredito = Despesa.builder()
-                .id(2L)
-                .tenantId("tenantA")
-                .nome("Mercado")
-                .valorPrevisto(new BigDecimal("300.00"))
-                .valorPago(new BigDecimal("300.00"))
-                .dataVencimento(LocalDate.of(2026, 3, 15))
-                .formaDePagamento(FormaDePagamento.CREDITO)
-                .build();
-        when(despesaRepository.findByTenantIdAndDataVencimentoBetween(
-                "tenantA",
-                LocalDate.of(2026, 3, 1),
-                LocalDate.of(2026, 3, 31))
-        ).thenReturn(List.of(despesaDebito, despesaCredito));
-        when(lancamentoCartaoRepository.findByMesAnoFaturaAndTenantId("MARCO/2026", "tenantA")).thenReturn(List.of());
-        when(cartaoCreditoRepository.findByTenantId("tenantA")).thenReturn(List.of());
+        when(agregadoMensalService.obterTotais("tenantA", YearMonth.of(2026, 3))).thenReturn(agregado(
+                "1000.00", "800.00", "800.00", "500.00", "300.00", "0", "0", "0"
+        ));
+        when(competenciaSnapshotService.obter("tenantA", YearMonth.of(2026, 3))).thenReturn(snapshotVazio(YearMonth.of(2026, 3)));
 
         FechamentoMensalResponseDTO resumo = fechamentoMensalService.obterResumoMensal(2026, 3);
 
@@ -130,48 +90,9 @@ class FechamentoMensalServiceTest {
         TenantContext.setTenantId("tenantA");
 
         when(fechamentoMensalRepository.findByTenantIdAndAnoAndMes("tenantA", 2026, 4)).thenReturn(Optional.empty());
-        when(fechamentoMensalRepository.findByTenantIdAndAnoAndMes("tenantA", 2026, 3)).thenReturn(Optional.empty());
-        when(contaCorrenteService.listarTodos()).thenReturn(List.of());
-        when(receitaRepository.findByDataRecebimentoBetweenAndTenantId(
-                LocalDate.of(2026, 4, 1),
-                LocalDate.of(2026, 4, 30),
-                "tenantA")
-        ).thenReturn(List.of());
-
-        Despesa faturaLancada = Despesa.builder()
-                .id(10L)
-                .tenantId("tenantA")
-                .nome("Fatura Cartão Visa Infinite")
-                .valorPrevisto(new BigDecimal("1000.00"))
-                .dataVencimento(LocalDate.of(2026, 4, 2))
-                .build();
-        Despesa despesaNormal = Despesa.builder()
-                .id(11L)
-                .tenantId("tenantA")
-                .nome("Aluguel")
-                .valorPrevisto(new BigDecimal("500.00"))
-                .dataVencimento(LocalDate.of(2026, 4, 10))
-                .build();
-        when(despesaRepository.findByTenantIdAndDataVencimentoBetween(
-                "tenantA",
-                LocalDate.of(2026, 4, 1),
-                LocalDate.of(2026, 4, 30))
-        ).thenReturn(List.of(faturaLancada, despesaNormal));
-
-        LancamentoCartao lancamentoVisa = LancamentoCartao.builder()
-                .valorTotal(new BigDecimal("1000.00"))
-                .proprietario("Proprio")
-                .build();
-        LancamentoCartao lancamentoInterProprio = LancamentoCartao.builder()
-                .valorTotal(new BigDecimal("500.00"))
-                .proprietario("Proprio")
-                .build();
-        LancamentoCartao lancamentoInterTerceiro = LancamentoCartao.builder()
-                .valorTotal(new BigDecimal("200.00"))
-                .proprietario("Terceiros")
-                .build();
-        when(lancamentoCartaoRepository.findByMesAnoFaturaAndTenantId("ABRIL/2026", "tenantA"))
-                .thenReturn(List.of(lancamentoVisa, lancamentoInterProprio, lancamentoInterTerceiro));
+        when(agregadoMensalService.obterTotais("tenantA", YearMonth.of(2026, 4))).thenReturn(agregado(
+                "0", "1500.00", "0", "0", "0", "1000.00", "1700.00", "200.00"
+        ));
 
         CartaoCredito visa = new CartaoCredito();
         visa.setId(1L);
@@ -179,11 +100,14 @@ class FechamentoMensalServiceTest {
         CartaoCredito inter = new CartaoCredito();
         inter.setId(2L);
         inter.setNome("Cartão Inter");
-        when(cartaoCreditoRepository.findByTenantId("tenantA")).thenReturn(List.of(visa, inter));
-        when(despesaRepository.existsByNomeLikeAndMesAndAno("tenantA", "Fatura Cartao Visa Infinite", 4, 2026)).thenReturn(true);
-        when(despesaRepository.existsByNomeLikeAndMesAndAno("tenantA", "Fatura Cartao Cartão Inter", 4, 2026)).thenReturn(false);
-        when(lancamentoCartaoRepository.getFaturaDoMes(2L, "ABRIL/2026", "tenantA")).thenReturn(new BigDecimal("700.00"));
-        when(lancamentoCartaoRepository.getFaturaDoMesTerceiros(2L, "ABRIL/2026", "tenantA")).thenReturn(new BigDecimal("200.00"));
+        when(competenciaSnapshotService.obter("tenantA", YearMonth.of(2026, 4))).thenReturn(new CompetenciaSnapshot(
+                YearMonth.of(2026, 4),
+                List.of(visa, inter),
+                Map.of(1L, new BigDecimal("1000.00"), 2L, new BigDecimal("700.00")),
+                Map.of(2L, new BigDecimal("200.00")),
+                Map.of(),
+                Set.of(1L)
+        ));
 
         FechamentoMensalResponseDTO resumo = fechamentoMensalService.obterResumoMensal(2026, 4);
 
@@ -193,6 +117,48 @@ class FechamentoMensalServiceTest {
         assertThat(resumo.getTotalFaturasNaoLancadas()).isEqualByComparingTo("500.00");
     }
 
+    @Test
+    void listarProjecaoDeveCaminharUmaVezAPartirDoUltimoFechamento() {
+        TenantContext.setTenantId("tenantA");
+        YearMonth mesAtual = YearMonth.now();
+
+        when(fechamentoMensalRepository.findByTenantIdOrderByAnoDescMesDesc("tenantA")).thenReturn(List.of(
+                FechamentoMensal.builder()
+                        .tenantId("tenantA")
+                        .ano(mesAtual.getYear())
+                        .mes(mesAtual.getMonthValue())
+                        .saldoFinal(new BigDecimal("100.00"))
+                        .build()
+        ));
+        when(agregadoMensalService.obterTotais(eq("tenantA"), any(YearMonth.class))).thenReturn(agregado(
+                "50.00", "0", "40.00", "40.00", "0", "0", "0", "0"
+        ));
+        when(competenciaSnapshotService.obter(eq("tenantA"), any(YearMonth.class)))
+                .thenAnswer(invocation -> snapshotVazio(invocation.getArgument(1)));
+
+        YearMonth alvo = mesAtual.plusMonths(3);
+        List<FechamentoMensalResponseDTO> projecao = fechamentoMensalService.listarProjecao(alvo.getYear(), alvo.getMonthValue());
+
+        assertThat(projecao).extracting(FechamentoMensalResponseDTO::getSaldoInicial)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100.00"), new BigDecimal("110.00"), new BigDecimal("120.00"));
+        assertThat(projecao).extracting(FechamentoMensalResponseDTO::getSaldoFinal)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("110.00"), new BigDecimal("120.00"), new BigDecimal("130.00"));
+        verify(agregadoMensalService, times(3)).obterTotais(eq("tenantA"), any(YearMonth.class));
+        verify(fechamentoMensalRepository, never()).findByTenantIdAndAnoAndMes(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void listarProjecaoDeveRespeitarHorizonteMaximo() {
+        TenantContext.setTenantId("tenantA");
+        YearMonth alvo = YearMonth.now().plusMonths(25);
+
+        assertThatThrownBy(() -> fechamentoMensalService.listarProjecao(alvo.getYear(), alvo.getMonthValue()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("24 meses");
+    }
+
     @Test
     void fecharMesDevePreencherAuditoriaERegistrarHistorico() {
         TenantContext.setTenantId("tenantA");
@@ -203,18 +169,10 @@ class FechamentoMensalServiceTest {
         when(fechamentoMensalRepository.findByTenantIdAndAnoAndMes("tenantA", 2026, 3)).thenReturn(Optional.empty());
         when(fechamentoMensalRepository.findByTenantIdAndAnoAndMes("tenantA", 2026, 2)).thenReturn(Optional.empty());
         when(contaCorrenteService.listarTodos()).thenReturn(List.of());
-        when(receitaRepository.findByDataRecebimentoBetweenAndTenantId(
-                LocalDate.of(2026, 3, 1),
-                LocalDate.of(2026, 3, 31),
-                "tenantA")
-        ).thenReturn(List.of());
-        when(despesaRepository.findByTenantIdAndDataVencimentoBetween(
-                "tenantA",
-                LocalDate.of(2026, 3, 1),
-                LocalDate.of(2026, 3, 31))
-        ).thenReturn(List.of());
-        when(lancamentoCartaoRepository.findByMesAnoFaturaAndTenantId("MARCO/2026", "tenantA")).thenReturn(List.of());
-        when(cartaoCreditoRepository.findByTenantId("tenantA")).thenReturn(List.of());
+        when(agregadoMensalService.obterTotais("tenantA", YearMonth.of(2026, 3))).thenReturn(agregado(
+                "0", "0", "0", "0", "0", "0", "0", "0"
+        ));
+        when(competenciaSnapshotService.obter("tenantA", YearMonth.of(2026, 3))).thenReturn(snapshotVazio(YearMonth.of(2026, 3)));
         when(fechamentoMensalRepository.save(any(FechamentoMensal.class))).thenAnswer(invocation -> {
             FechamentoMensal fechamento = invocation.getArgument(0);
             fechamento.setId(99L);
@@ -226,6 +184,7 @@ class FechamentoMensalServiceTest {
         assertThat(response.getFechadoPor()).isEqualTo("usuario-a");
         assertThat(response.getFechadoEm()).isNotNull();
         assertThat(response.getUltimoReprocessamentoPor()).isNull();
+        verify(agregadoMensalService).recalcular("tenantA", YearMonth.of(2026, 3));
         verify(fechamentoMensalHistoricoRepository).save(any(FechamentoMensalHistorico.class));
     }
 
@@ -249,4 +208,31 @@ class FechamentoMensalServiceTest {
 
         verify(fechamentoMensalHistoricoRepository).save(any(FechamentoMensalHistorico.class));
     }
+
+    private AgregadoMensal agregado(
+            String receitasRealizadas,
+            String despesasDoMes,
+            String despesasPagas,
+            String despesasPagasNoCaixa,
+            String despesasPagasCartao,
+            String despesasFaturaCartao,
+            String totalFaturas,
+            String totalTerceirosFaturas
+    ) {
+        return AgregadoMensal.builder()
+                .tenantId("tenantA")
+                .receitasRealizadas(new BigDecimal(receitasRealizadas))
+                .despesasDoMes(new BigDecimal(despesasDoMes))
+                .despesasPagas(new BigDecimal(despesasPagas))
+                .despesasPagasNoCaixa(new BigDecimal(despesasPagasNoCaixa))
+                .despesasPagasCartao(new BigDecimal(despesasPagasCartao))
+                .despesasFaturaCartao(new BigDecimal(despesasFaturaCartao))
+                .totalFaturas(new BigDecimal(totalFaturas))
+                .totalTerceirosFaturas(new BigDecimal(totalTerceirosFaturas))
+                .build();
+    }
+
+    private CompetenciaSnapshot snapshotVazio(YearMonth competencia) {
+        return new CompetenciaSnapshot(competencia, List.of(), Map.of(), Map.of(), Map.of(), Set.of());
+    }
 }
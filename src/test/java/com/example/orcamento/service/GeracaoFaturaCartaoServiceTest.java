@@ -48,6 +48,8 @@ class GeracaoFaturaCartaoServiceTest {
     private DespesaService despesaService;
     @Mock
     private SubcategoriaDespesaRepository subcategoriaDespesaRepository;
+    @Mock
+    private AgregadoMensalService agregadoMensalService;
 
     @InjectMocks
     private GeracaoFaturaCartaoService geracaoFaturaCartaoService;
@@ -91,8 +93,8 @@ class GeracaoFaturaCartaoServiceTest {
                 .build();
 
         when(cartaoCreditoRepository.findByIdAndTenantId(1L, "tenantA")).thenReturn(Optional.of(cartao));
-        when(lancamentoCartaoRepository.getFaturaDoMes(1L, "ABRIL/2026", "tenantA")).thenReturn(new BigDecimal("1500.00"));
-        when(lancamentoCartaoRepository.getFaturaDoMesTerceiros(1L, "ABRIL/2026", "tenantA")).thenReturn(new BigDecimal("200.00"));
+        when(lancamentoCartaoRepository.getFaturaDoMes(1L, 202604, "tenantA")).thenReturn(new BigDecimal("1500.00"));
+        when(lancamentoCartaoRepository.getFaturaDoMesTerceiros(1L, 202604, "tenantA")).thenReturn(new BigDecimal("200.00"));
         when(geracaoFaturaCartaoRepository.findByTenantIdAndCartaoCreditoIdAndAnoAndMes("tenantA", 1L, 2026, 4))
                 .thenReturn(Optional.empty());
         when(subcategoriaDespesaRepository.findByNomeAndCategoriaNomeAndTenantId(
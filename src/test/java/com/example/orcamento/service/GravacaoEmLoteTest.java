@@ -0,0 +1,199 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.DespesaParceladaDTO;
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.CategoriaDespesa;
+import com.example.orcamento.model.Compra;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.model.StatusCartao;
+import com.example.orcamento.model.SubcategoriaDespesa;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.CategoriaDespesaRepository;
+import com.example.orcamento.repository.CompraRepository;
+import com.example.orcamento.repository.DespesaParceladaRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.repository.SubcategoriaDespesaRepository;
+import com.example.orcamento.security.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parcelas geradas em massa precisam sair em lotes de INSERT: o numero de comandos preparados nao
+ * pode acompanhar o numero de parcelas.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GravacaoEmLoteTest {
+
+    private static final String TENANT = "tenantGravacaoEmLote";
+    private static final int PARCELAS = 48;
+    private static final long CATEGORIA_ID = 25L;
+    private static final long SUBCATEGORIA_ID = 2501L;
+
+    @Autowired
+    private CompraService compraService;
+
+    @Autowired
+    private DespesaParceladaService despesaParceladaService;
+
+    @Autowired
+    private CartaoCreditoRepository cartaoCreditoRepository;
+
+    @Autowired
+    private CompraRepository compraRepository;
+
+    @Autowired
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private DespesaParceladaRepository despesaParceladaRepository;
+
+    @Autowired
+    private CategoriaDespesaRepository categoriaDespesaRepository;
+
+    @Autowired
+    private SubcategoriaDespesaRepository subcategoriaDespesaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private SubcategoriaDespesa subcategoria;
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+        TenantContext.setTenantId(TENANT);
+
+        CategoriaDespesa categoria = new CategoriaDespesa();
+        categoria.setId(CATEGORIA_ID);
+        categoria.setNome("Moradia");
+        categoria.setTenantId(TENANT);
+        categoriaDespesaRepository.save(categoria);
+        subcategoria = new SubcategoriaDespesa();
+        subcategoria.setId(SUBCATEGORIA_ID);
+        subcategoria.setNome("Financiamento");
+        subcategoria.setTenantId(TENANT);
+        subcategoria.setCategoria(categoria);
+        subcategoria = subcategoriaDespesaRepository.save(subcategoria);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        limparDados();
+        TenantContext.clear();
+    }
+
+    @Test
+    void compraParceladaDeveGravarAsParcelasEmLote() {
+        CartaoCredito cartao = new CartaoCredito();
+        cartao.setNome("Cartao Lote");
+        cartao.setLimite(new BigDecimal("50000.00"));
+        cartao.setDiaVencimento(10);
+        cartao.setStatus(StatusCartao.ATIVO);
+        cartao.setTenantId(TENANT);
+        cartao = cartaoCreditoRepository.save(cartao);
+
+        Compra compra = new Compra();
+        compra.setDescricao("Financiamento");
+        compra.setValorTotal(new BigDecimal("4800.00"));
+        compra.setNumeroParcelas(PARCELAS);
+        compra.setDataCompra(LocalDate.of(2026, 1, 10));
+        compra.setCartaoCredito(cartao);
+        compra.setSubcategoria(subcategoria);
+        compra.setProprietario("Proprio");
+
+        long comandos = medirComandos(() -> compraService.cadastrarCompraParcelada(compra, "FEVEREIRO", PARCELAS));
+
+        List<LancamentoCartao> parcelas = lancamentoCartaoRepository.findByTenantId(TENANT);
+        assertThat(parcelas).hasSize(PARCELAS);
+        assertThat(parcelas).extracting(LancamentoCartao::getId).doesNotHaveDuplicates();
+        // Fevereiro/2026 ate janeiro/2030, uma fatura por mes
+        assertThat(parcelas).extracting(LancamentoCartao::getCompetencia)
+                .doesNotHaveDuplicates()
+                .contains(202602, 202612, 202701, 203001)
+                .allMatch(competencia -> competencia >= 202602 && competencia <= 203001);
+        assertThat(comandos).isLessThan(10);
+    }
+
+    @Test
+    void despesaParceladaDeveGravarAsParcelasEmLote() {
+        DespesaParceladaDTO dto = new DespesaParceladaDTO();
+        dto.setDescricao("Reforma");
+        dto.setValorTotal(new BigDecimal("10000.00"));
+        dto.setNumeroParcelas(PARCELAS);
+        dto.setDataInicial(LocalDate.of(2026, 1, 10));
+        dto.setMesPrimeiraParcela(Month.FEBRUARY);
+        dto.setSubcategoriaId(subcategoria.getId());
+        dto.setProprietario("Proprio");
+
+        long comandos = medirComandos(() -> despesaParceladaService.salvarDespesaParcelada(dto));
+
+        List<Despesa> parcelas = despesaRepository.findByTenantId(TENANT);
+        assertThat(parcelas).hasSize(PARCELAS);
+        assertThat(parcelas).extracting(Despesa::getId).doesNotHaveDuplicates();
+        assertThat(parcelas.stream().map(Despesa::getValorPrevisto).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo("10000.00");
+        assertThat(comandos).isLessThan(10);
+    }
+
+    // Conta os comandos ate o flush das parcelas; o recalculo dos agregados no commit fica de fora
+    private long medirComandos(Runnable gravacao) {
+        long[] comandos = new long[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            statistics.clear();
+            gravacao.run();
+            entityManager.flush();
+            comandos[0] = statistics.getPrepareStatementCount();
+        });
+        return comandos[0];
+    }
+
+    private void limparDados() {
+        lancamentoCartaoRepository.deleteAll(lancamentoCartaoRepository.findByTenantId(TENANT));
+        compraRepository.deleteAll(compraRepository.findAll().stream()
+                .filter(compra -> TENANT.equals(compra.getTenantId()))
+                .toList());
+        cartaoCreditoRepository.deleteAll(cartaoCreditoRepository.findByTenantId(TENANT));
+        despesaRepository.deleteAll(despesaRepository.findByTenantId(TENANT));
+        despesaParceladaRepository.deleteAll(despesaParceladaRepository.findAll().stream()
+                .filter(despesaParcelada -> TENANT.equals(despesaParcelada.getTenantId()))
+                .toList());
+        subcategoriaDespesaRepository.deleteAll(subcategoriaDespesaRepository.findAll().stream()
+                .filter(subcategoria -> TENANT.equals(subcategoria.getTenantId()))
+                .toList());
+        categoriaDespesaRepository.deleteAll(categoriaDespesaRepository.findByTenantId(TENANT));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.orcamento.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceConciliacaoOfxTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2026, 1, 1);
+
+    @Test
+    void buscarDeveDevolverOsMesmosCandidatosDaVarreduraLinear() {
+        Random random = new Random(42);
+        List<Candidato> candidatos = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            candidatos.add(new Candidato(
+                    (long) i,
+                    random.nextInt(50) == 0 ? null : INICIO.plusDays(random.nextInt(365)),
+                    random.nextInt(50) == 0 ? null : valorAleatorio(random)
+            ));
+        }
+        IndiceConciliacaoOfx<Candidato> indice = new IndiceConciliacaoOfx<>(candidatos, Candidato::data, Candidato::valor);
+
+        int[] toleranciasDias = {0, 2, 5};
+        BigDecimal[] toleranciasValor = {BigDecimal.ZERO, new BigDecimal("0.50"), new BigDecimal("3.999")};
+        BigDecimal[] minimos = {BigDecimal.ZERO, new BigDecimal("100.00"), new BigDecimal("1000.00")};
+
+        for (int consulta = 0; consulta < 500; consulta++) {
+            LocalDate data = INICIO.plusDays(random.nextInt(365));
+            BigDecimal valor = random.nextBoolean()
+                    ? candidatos.get(random.nextInt(candidatos.size())).valor()
+                    : valorAleatorio(random);
+            if (valor == null) {
+                continue;
+            }
+            if (random.nextBoolean()) {
+                valor = valor.negate();
+            }
+            long idExcluido = random.nextInt(candidatos.size());
+            for (int dias : toleranciasDias) {
+                for (BigDecimal toleranciaValor : toleranciasValor) {
+                    for (BigDecimal minimo : minimos) {
+                        BigDecimal valorMovimento = valor;
+                        Predicate<Candidato> filtro = c -> c.id() != idExcluido
+                                && dentroDaToleranciaValor(valorMovimento, c.valor(), toleranciaValor, minimo);
+
+                        List<Candidato> esperado = candidatos.stream()
+                                .filter(c -> c.data() != null)
+                                .filter(c -> Math.abs(ChronoUnit.DAYS.between(data, c.data())) <= dias)
+                                .filter(filtro)
+                                .toList();
+                        List<Candidato> obtido = indice.buscar(
+                                data, valorMovimento, dias, IndiceConciliacaoOfx.toleranciaEmCentavos(toleranciaValor), filtro);
+
+                        assertThat(obtido).containsExactlyElementsOf(esperado);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void buscarSemDataOuValorNaoDeveRetornarCandidatos() {
+        IndiceConciliacaoOfx<Candidato> indice = new IndiceConciliacaoOfx<>(
+                List.of(new Candidato(1L, INICIO, new BigDecimal("10.00"))), Candidato::data, Candidato::valor);
+
+        assertThat(indice.buscar(null, new BigDecimal("10.00"), 2, 0, c -> true)).isEmpty();
+        assertThat(indice.buscar(INICIO, null, 2, 0, c -> true)).isEmpty();
+        assertThat(indice.buscar(INICIO, new BigDecimal("-10.0"), 0, 0, c -> true)).hasSize(1);
+    }
+
+    private static BigDecimal valorAleatorio(Random random) {
+        return BigDecimal.valueOf(random.nextInt(200_000), 2).add(random.nextInt(10) == 0 ? new BigDecimal("0.005") : BigDecimal.ZERO);
+    }
+
+    private static boolean dentroDaToleranciaValor(BigDecimal valor1, BigDecimal valor2, BigDecimal tolerancia, BigDecimal minimo) {
+        if (valor1 == null || valor2 == null) {
+            return false;
+        }
+        BigDecimal v1 = valor1.abs().setScale(2, RoundingMode.HALF_UP);
+        BigDecimal v2 = valor2.abs().setScale(2, RoundingMode.HALF_UP);
+        BigDecimal diferenca = v1.subtract(v2).abs();
+        if (v1.max(v2).compareTo(minimo) >= 0) {
+            return diferenca.compareTo(tolerancia) <= 0;
+        }
+        return diferenca.signum() == 0;
+    }
+
+    private record Candidato(Long id, LocalDate data, BigDecimal valor) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.orcamento.service;
+
+import com.example.orcamento.dto.conciliacao.MovimentoOfxDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LeitorOfxTest {
+
+    @Test
+    void deveLerSgmlComUmaTagPorLinhaECalcularHashDoArquivo() throws Exception {
+        byte[] arquivo = ("OFXHEADER:100\r\nDATA:OFXSGML\r\nCHARSET:1252\r\n\r\n"
+                + "<OFX>\r\n<BANKACCTFROM>\r\n<BANKID>0341\r\n<ACCTID>12345-6\r\n</BANKACCTFROM>\r\n"
+                + "<BANKTRANLIST>\r\n<DTSTART>20260301000000[-3:BRT]\r\n<DTEND>20260331\r\n"
+                + "<STMTTRN>\r\n<TRNTYPE>DEBIT\r\n<DTPOSTED>20260305120000[-3:BRT]\r\n<TRNAMT>-150.25\r\n"
+                + "<FITID>abc1\r\n<MEMO>  PAGAMENTO ÁGUA  \r\n</STMTTRN>\r\n"
+                + "</BANKTRANLIST>\r\n</OFX>\r\n").getBytes(Charset.forName("windows-1252"));
+
+        LeitorOfx.Extrato extrato = LeitorOfx.ler(new ByteArrayInputStream(arquivo));
+
+        assertThat(extrato.bankId()).isEqualTo("0341");
+        assertThat(extrato.accountId()).isEqualTo("12345-6");
+        assertThat(extrato.periodoInicio()).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(extrato.periodoFim()).isEqualTo(LocalDate.of(2026, 3, 31));
+        assertThat(extrato.movimentos()).containsExactly(MovimentoOfxDTO.builder()
+                .data(LocalDate.of(2026, 3, 5))
+                .valor(new BigDecimal("-150.25"))
+                .fitId("abc1")
+                .memo("PAGAMENTO ÁGUA")
+                .build());
+        assertThat(extrato.hashSha256())
+                .isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(arquivo)))
+                .isEqualTo(LeitorOfx.sha256(new ByteArrayInputStream(arquivo)));
+    }
+
+    @Test
+    void deveLerSgmlEmUmaUnicaLinha() throws Exception {
+        byte[] arquivo = ("OFXHEADER:100 DATA:OFXSGML <OFX><BANKID>001<ACCTID>99<DTSTART>20260101<DTEND>20260131"
+                + "<STMTTRN><DTPOSTED>20260110<TRNAMT>10.00<FITID>1<MEMO>A</STMTTRN>"
+                + "<STMTTRN><DTPOSTED>20260111<TRNAMT>-2.5<FITID>2<MEMO>B</STMTTRN></OFX>")
+                .getBytes(StandardCharsets.US_ASCII);
+
+        LeitorOfx.Extrato extrato = LeitorOfx.ler(new ByteArrayInputStream(arquivo));
+
+        assertThat(extrato.bankId()).isEqualTo("001");
+        assertThat(extrato.movimentos()).extracting(MovimentoOfxDTO::getFitId).containsExactly("1", "2");
+        assertThat(extrato.movimentos()).extracting(MovimentoOfxDTO::getValor)
+                .containsExactly(new BigDecimal("10.00"), new BigDecimal("-2.5"));
+    }
+
+    @Test
+    void deveLerOfx2XmlEmUtf8ComEntidades() throws Exception {
+        byte[] arquivo = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<?OFX OFXHEADER=\"200\" VERSION=\"220\"?>\n"
+                + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS>\n"
+                + "  <BANKACCTFROM><BANKID>260</BANKID><ACCTID>777</ACCTID></BANKACCTFROM>\n"
+                + "  <BANKTRANLIST><DTSTART>20260201000000</DTSTART><DTEND>20260228000000</DTEND>\n"
+                + "    <STMTTRN type=\"x\">\n"
+                + "      <DTPOSTED>20260215</DTPOSTED>\n"
+                + "      <TRNAMT>-42.10</TRNAMT>\n"
+                + "      <FITID>x-1</FITID>\n"
+                + "      <MEMO>Padaria P&amp;B – Conceição</MEMO>\n"
+                + "    </STMTTRN>\n"
+                + "  </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n")
+                .getBytes(StandardCharsets.UTF_8);
+
+        LeitorOfx.Extrato extrato = LeitorOfx.ler(new ByteArrayInputStream(arquivo));
+
+        assertThat(extrato.accountId()).isEqualTo("777");
+        assertThat(extrato.periodoFim()).isEqualTo(LocalDate.of(2026, 2, 28));
+        assertThat(extrato.movimentos()).singleElement().satisfies(movimento -> {
+            assertThat(movimento.getData()).isEqualTo(LocalDate.of(2026, 2, 15));
+            assertThat(movimento.getValor()).isEqualByComparingTo("-42.10");
+            assertThat(movimento.getMemo()).isEqualTo("Padaria P&B – Conceição");
+        });
+    }
+
+    @Test
+    void deveFalharQuandoOPeriodoNaoEstaPresente() {
+        byte[] arquivo = "<OFX><STMTTRN><DTPOSTED>20260110<TRNAMT>1</STMTTRN></OFX>".getBytes(StandardCharsets.US_ASCII);
+
+        assertThatThrownBy(() -> LeitorOfx.ler(new ByteArrayInputStream(arquivo)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("periodo");
+    }
+}
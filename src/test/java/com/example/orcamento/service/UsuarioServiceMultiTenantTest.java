@@ -4,6 +4,7 @@ import com.example.orcamento.model.Usuario;
 import com.example.orcamento.repository.UsuarioRepository;
 import com.example.orcamento.security.JwtUtil;
 import com.example.orcamento.security.TenantContext;
+import com.example.orcamento.security.UsuarioStatusCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,8 @@ class UsuarioServiceMultiTenantTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private EmailService emailService;
+    @Mock
+    private UsuarioStatusCache usuarioStatusCache;
 
     @InjectMocks
     private UsuarioService usuarioService;
@@ -0,0 +1,54 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.model.Transaction;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Corpus de linhas de fatura por banco ({@code faturas/<modelo>.txt}) com a saida esperada de cada
+ * extrator ({@code faturas/<modelo>.golden}, uma transacao por linha). Os arquivos golden foram
+ * gerados com os parsers baseados em regex; mudancas no tokenizador nao podem alterar a saida.
+ *
+ * <p>Para regravar depois de uma mudanca intencional de comportamento:
+ * {@code mvn test -Dtest=FaturaGoldenTest -Dfaturas.golden.atualizar=true}</p>
+ */
+class FaturaGoldenTest {
+
+    private static final Path CORPUS = Path.of("src/test/resources/faturas");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bradesco", "itau", "cartao3", "inter", "santander", "zaffari", "genial"})
+    void deveManterASaidaDoCorpusDoBanco(String modelo) throws IOException {
+        List<String> linhas = ler(modelo + ".txt");
+
+        List<String> obtido = FaturaPdfFixture.registro().getExtractor(modelo).extrairDasLinhas(linhas).stream()
+                .map(FaturaGoldenTest::formatar)
+                .toList();
+
+        if (Boolean.getBoolean("faturas.golden.atualizar")) {
+            Files.write(CORPUS.resolve(modelo + ".golden"), obtido, StandardCharsets.UTF_8);
+        }
+        assertThat(obtido).isNotEmpty().containsExactlyElementsOf(ler(modelo + ".golden"));
+    }
+
+    private static List<String> ler(String arquivo) throws IOException {
+        try (InputStream entrada = FaturaGoldenTest.class.getResourceAsStream("/faturas/" + arquivo)) {
+            assertThat(entrada).as(arquivo).isNotNull();
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+
+    private static String formatar(Transaction transacao) {
+        return String.join("|", transacao.getDataCompra(), transacao.getEstabelecimento(),
+                String.valueOf(transacao.getParcela()), transacao.getValor());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.config.FileStorageProperties;
+import com.example.orcamento.model.Transaction;
+import com.example.orcamento.security.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FaturaPdfCacheTest {
+
+    private static final PdfCartaoExtractor EXTRATOR = new SantanderPdfExtractor();
+
+    @TempDir
+    Path uploads;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        TenantContext.setTenantId("tenantA");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void deveDevolverOResultadoDoMesmoArquivoSomenteParaOMesmoTenantEModelo() throws Exception {
+        FaturaPdfCache cache = novoCache(false);
+        String hash = FaturaPdfCache.sha256(new ByteArrayInputStream("%PDF-1.4 fatura".getBytes(StandardCharsets.US_ASCII)));
+        FaturaPdfAnalisada analise = analise("LOJA A", "10.00");
+
+        assertThat(cache.buscar("santander", EXTRATOR, hash)).isEmpty();
+        cache.guardar("santander", EXTRATOR, hash, analise);
+
+        assertThat(cache.buscar("SANTANDER", EXTRATOR, hash)).containsSame(analise);
+        assertThat(cache.buscar("genial", EXTRATOR, hash)).isEmpty();
+        TenantContext.setTenantId("tenantB");
+        assertThat(cache.buscar("santander", EXTRATOR, hash)).isEmpty();
+
+        assertThat(contador("hit_memoria")).isEqualTo(1);
+        assertThat(contador("miss")).isEqualTo(3);
+        assertThat(meterRegistry.get("pdf.fatura.cache.entradas").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void deveRemoverAEntradaUsadaHaMaisTempoQuandoAMemoriaEnche() {
+        FaturaPdfCache cache = novoCache(false);
+        ReflectionTestUtils.setField(cache, "maxEntradasMemoria", 2);
+        cache.guardar("itau", EXTRATOR, "a", analise("A", "1.00"));
+        cache.guardar("itau", EXTRATOR, "b", analise("B", "2.00"));
+        cache.buscar("itau", EXTRATOR, "a");
+        cache.guardar("itau", EXTRATOR, "c", analise("C", "3.00"));
+
+        assertThat(cache.buscar("itau", EXTRATOR, "a")).isPresent();
+        assertThat(cache.buscar("itau", EXTRATOR, "b")).isEmpty();
+        assertThat(cache.buscar("itau", EXTRATOR, "c")).isPresent();
+        assertThat(meterRegistry.get("pdf.fatura.cache.remocoes").tag("motivo", "tamanho").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void camadaEmDiscoDeveSobreviverAoReinicioERespeitarIdadeETamanho() throws Exception {
+        novoCache(true).guardar("itau", EXTRATOR, "a", analise("LOJA A", "10.00"));
+
+        FaturaPdfCache reiniciado = novoCache(true);
+        assertThat(reiniciado.buscar("itau", EXTRATOR, "a")).hasValueSatisfying(analise -> {
+            assertThat(analise.total()).isEqualTo("10.00");
+            assertThat(analise.transacoes()).extracting(Transaction::getEstabelecimento).containsExactly("LOJA A");
+        });
+        assertThat(contador("hit_disco")).isEqualTo(1);
+
+        Path diretorio = uploads.resolve("cache").resolve("faturas-pdf");
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            Path arquivo = arquivos.findFirst().orElseThrow();
+            assertThat(arquivo.getFileName().toString()).doesNotContain("tenantA").endsWith(".json.gz");
+            Files.setLastModifiedTime(arquivo, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        }
+        assertThat(novoCache(true).buscar("itau", EXTRATOR, "a")).isEmpty();
+
+        FaturaPdfCache limitado = novoCache(true);
+        ReflectionTestUtils.setField(limitado, "maxBytesDisco", DataSize.ofBytes(1));
+        limitado.guardar("itau", EXTRATOR, "b", analise("LOJA B", "20.00"));
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            assertThat(arquivos.filter(arquivo -> arquivo.toString().endsWith(".json.gz"))).isEmpty();
+        }
+    }
+
+    @Test
+    void novaVersaoDoExtratorNaoDeveReaproveitarAnaliseAntiga() {
+        FaturaPdfCache cache = novoCache(false);
+        cache.guardar("santander", new ExtratorVersionado(1), "a", analise("LOJA A", "10.00"));
+
+        assertThat(cache.buscar("santander", new ExtratorVersionado(2), "a")).isEmpty();
+        assertThat(cache.buscar("santander", EXTRATOR, "a")).isEmpty();
+        assertThat(cache.buscar("santander", new ExtratorVersionado(1), "a")).isPresent();
+    }
+
+    private FaturaPdfCache novoCache(boolean disco) {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(uploads.toString());
+        FaturaPdfCache cache = new FaturaPdfCache(properties, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(cache, "discoHabilitado", disco);
+        cache.iniciar();
+        return cache;
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("pdf.fatura.cache").tag("resultado", resultado).counter().count();
+    }
+
+    private static FaturaPdfAnalisada analise(String estabelecimento, String valor) {
+        return FaturaPdfAnalisada.de(List.of(new Transaction("01/03", estabelecimento, null, valor)));
+    }
+
+    private record ExtratorVersionado(int versao) implements PdfCartaoExtractor {
+
+        @Override
+        public List<Transaction> extrairDasLinhas(Iterable<String> linhas) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.orcamento.service.extractor;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gera faturas PDF sinteticas: cabecalhos das secoes de movimentacao dos extratores na primeira
+ * pagina, uma compra por linha no formato {@code dd/MM ESTABELECIMENTO [nn/nn] 1.234,56} e o rodape
+ * de resumo na ultima pagina. Usado pelos testes e pelo benchmark de extracao.
+ */
+final class FaturaPdfFixture {
+
+    static final List<String> CABECALHO = List.of(
+            "Detalhamento da Fatura",
+            "Nacionais em Reais (R$)",
+            "TRANSAÇÕES REALIZADAS PELO TITULAR");
+    static final String RODAPE = "Resumo da Fatura";
+
+    private FaturaPdfFixture() {
+    }
+
+    static byte[] gerar(int paginas, int comprasPorPagina, String... linhasFinais) throws IOException {
+        return gerar(CABECALHO, paginas, comprasPorPagina, linhasFinais);
+    }
+
+    /** Como {@link #gerar(int, int, String...)}, com outro cabecalho na primeira pagina. */
+    static byte[] gerar(List<String> cabecalho, int paginas, int comprasPorPagina, String... linhasFinais) throws IOException {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream saida = new ByteArrayOutputStream()) {
+            for (int pagina = 0; pagina < paginas; pagina++) {
+                List<String> linhas = new ArrayList<>();
+                if (pagina == 0) {
+                    linhas.addAll(cabecalho);
+                }
+                for (int i = 0; i < comprasPorPagina; i++) {
+                    linhas.add(compra(pagina * comprasPorPagina + i));
+                }
+                if (pagina == paginas - 1) {
+                    linhas.add(RODAPE);
+                    linhas.addAll(List.of(linhasFinais));
+                }
+                escreverPagina(document, linhas);
+            }
+            document.save(saida);
+            return saida.toByteArray();
+        }
+    }
+
+    /** Registro com todos os extratores, como o Spring monta a partir dos {@code @Component}. */
+    static PdfCartaoExtractorRegistry registro() {
+        return new PdfCartaoExtractorRegistry(List.of(
+                new BradescoAmazonPrimePdfExtractor(),
+                new PdfCartaoExtractorCartao1(),
+                new PdfCartaoExtractorCartao3(),
+                new PdfCartaoExtractorCartao5(),
+                new SantanderPdfExtractor(),
+                new ZaffariCardPdfExtractor(),
+                new GenialPdfExtractor()));
+    }
+
+    static String compra(int indice) {
+        String parcela = indice % 3 == 0 ? String.format(" %02d/12", indice % 12 + 1) : "";
+        return String.format("%02d/%02d LOJA %05d%s %d,%02d",
+                indice % 28 + 1, indice % 12 + 1, indice, parcela, indice % 900 + 10, indice % 100);
+    }
+
+    private static void escreverPagina(PDDocument document, List<String> linhas) throws IOException {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        try (PDPageContentStream conteudo = new PDPageContentStream(document, page)) {
+            conteudo.beginText();
+            conteudo.setFont(PDType1Font.HELVETICA, 9);
+            conteudo.setLeading(12);
+            conteudo.newLineAtOffset(40, 800);
+            for (String linha : linhas) {
+                conteudo.showText(linha);
+                conteudo.newLine();
+            }
+            conteudo.endText();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.security.TenantContext;
+import com.example.orcamento.service.CartaoCreditoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PdfCartaoExtractorServiceTest {
+
+    @Mock
+    private CartaoCreditoService cartaoCreditoService;
+
+    private static final List<String> CABECALHO_ITAU = List.of("Itaú Cartões", "Lançamentos: compras e saques");
+
+    private final PdfCartaoExtractorRegistry registry = FaturaPdfFixture.registro();
+    private PdfCartaoExtractorService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PdfCartaoExtractorService(registry, cartaoCreditoService);
+        TenantContext.setTenantId("tenantA");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "bradesco, bradesco",
+            "itau, itau",
+            "inter, inter",
+            "santander, santander",
+            "zaffari, zaffari",
+            "genial, genial",
+            "cartao3, ''"})
+    void deveDetectarOModeloPeloCabecalhoDoCorpus(String corpus, String esperado) throws IOException {
+        List<String> primeiraPagina;
+        try (InputStream entrada = getClass().getResourceAsStream("/faturas/" + corpus + ".txt")) {
+            primeiraPagina = new String(entrada.readAllBytes(), StandardCharsets.UTF_8).lines().limit(3).toList();
+        }
+
+        assertThat(registry.detectar(primeiraPagina, null).orElse("")).isEqualTo(esperado);
+    }
+
+    @Test
+    void deveLerSomenteAPrimeiraPaginaEDesempatarPeloModeloDoCartao() throws IOException {
+        // Pagina 1 tem um marcador de Santander, Bradesco e Zaffari; "Genial" so aparece na ultima pagina.
+        byte[] pdf = FaturaPdfFixture.gerar(3, 5, "Genial");
+
+        assertThat(registry.detectar(new ByteArrayInputStream(pdf), null)).isEmpty();
+        assertThat(registry.detectar(new ByteArrayInputStream(pdf), "genial")).isEmpty();
+        assertThat(registry.detectar(new ByteArrayInputStream(pdf), "SANTANDER")).contains("santander");
+    }
+
+    @Test
+    void deveGuardarADeteccaoPorCartaoEDescartarQuandoNadaForExtraido() throws IOException {
+        when(cartaoCreditoService.buscarPorId(7L)).thenReturn(cartao("generico"));
+        AtomicInteger leituras = new AtomicInteger();
+        InputStreamSource pdf = () -> {
+            leituras.incrementAndGet();
+            return new ByteArrayInputStream(FaturaPdfFixture.gerar(2, 5, "Santander"));
+        };
+        // A pagina 1 da fixture empata entre tres bancos; com o marcador de marca, Santander vence.
+        InputStreamSource santander = () -> {
+            leituras.incrementAndGet();
+            return new ByteArrayInputStream(FaturaPdfFixture.gerar(1, 5, "Santander"));
+        };
+
+        assertThat(service.resolverModelo(7L, null, santander)).isEqualTo("santander");
+        assertThat(service.resolverModelo(7L, " ", pdf)).isEqualTo("santander");
+        assertThat(leituras).hasValue(1);
+
+        TenantContext.setTenantId("tenantB");
+        when(cartaoCreditoService.buscarPorId(7L)).thenReturn(cartao("itau"));
+        assertThat(service.resolverModelo(7L, null, pdf)).isEqualTo("itau");
+        assertThat(leituras).hasValue(2);
+
+        TenantContext.setTenantId("tenantA");
+        service.descartarDeteccao(7L);
+        when(cartaoCreditoService.buscarPorId(7L)).thenReturn(cartao("generico"));
+        assertThat(service.resolverModelo(7L, null, santander)).isEqualTo("santander");
+        assertThat(leituras).hasValue(3);
+    }
+
+    @Test
+    void cartaoConfiguradoComoCartao3DeveUsarOProprioExtratorMesmoComFaturaParecidaComItau() throws IOException {
+        when(cartaoCreditoService.buscarPorId(7L)).thenReturn(cartao("cartao3"));
+        byte[] fatura = FaturaPdfFixture.gerar(CABECALHO_ITAU, 1, 5);
+        AtomicInteger leituras = new AtomicInteger();
+        InputStreamSource pdf = () -> {
+            leituras.incrementAndGet();
+            return new ByteArrayInputStream(fatura);
+        };
+
+        // Pela primeira pagina sozinha a fatura seria atribuida ao Itau
+        assertThat(registry.detectar(new ByteArrayInputStream(fatura), null)).contains("itau");
+
+        assertThat(service.resolverModelo(7L, null, pdf)).isEqualTo("cartao3");
+        assertThat(service.resolverModelo(7L, null, pdf)).isEqualTo("cartao3");
+        assertThat(service.getExtractor("cartao3")).isInstanceOf(PdfCartaoExtractorCartao3.class);
+        // cartao3 nao declara marcadores: a fatura nao precisa ser lida para manter o modelo do cartao
+        assertThat(leituras).hasValue(0);
+    }
+
+    @Test
+    void modeloConfiguradoDeveVencerQuandoSeusMarcadoresAparecemNaFatura() throws IOException {
+        when(cartaoCreditoService.buscarPorId(7L)).thenReturn(cartao("itau"));
+        byte[] fatura = FaturaPdfFixture.gerar(CABECALHO_ITAU, 1, 5);
+
+        assertThat(service.resolverModelo(7L, null, () -> new ByteArrayInputStream(fatura))).isEqualTo("itau");
+    }
+
+    @Test
+    void faturaRecusadaPeloModeloConfiguradoDeveSerDetectadaEDescartadaQuandoOCartaoMuda() throws IOException {
+        when(cartaoCreditoService.buscarPorId(7L)).thenReturn(cartao("santander"));
+        AtomicInteger leituras = new AtomicInteger();
+        InputStreamSource itau = () -> {
+            leituras.incrementAndGet();
+            return new ByteArrayInputStream(FaturaPdfFixture.gerar(CABECALHO_ITAU, 1, 5));
+        };
+
+        assertThat(service.resolverModelo(7L, null, itau)).isEqualTo("itau");
+        assertThat(service.resolverModelo(7L, null, itau)).isEqualTo("itau");
+        assertThat(leituras).hasValue(1);
+
+        // Ao trocar o modelo do cartao a deteccao guardada deixa de valer, mesmo sem descartarDeteccao
+        when(cartaoCreditoService.buscarPorId(7L)).thenReturn(cartao("cartao3"));
+        assertThat(service.resolverModelo(7L, null, itau)).isEqualTo("cartao3");
+        when(cartaoCreditoService.buscarPorId(7L)).thenReturn(cartao("zaffari"));
+        assertThat(service.resolverModelo(7L, null, itau)).isEqualTo("itau");
+        assertThat(leituras).hasValue(2);
+    }
+
+    @Test
+    void modeloInformadoNaRequisicaoNaoLeOPdfNemOCartao() throws IOException {
+        MockMultipartFile arquivo = new MockMultipartFile("file", "fatura.pdf", "application/pdf", new byte[0]);
+
+        assertThat(service.resolverModelo(7L, "zaffari", arquivo)).isEqualTo("zaffari");
+        assertThat(service.getExtractor("ZAFFARI")).isInstanceOf(ZaffariCardPdfExtractor.class);
+        assertThat(service.getExtractor("desconhecido")).isInstanceOf(PdfCartaoExtractorGenerico.class);
+        verify(cartaoCreditoService, never()).buscarPorId(any());
+    }
+
+    @Test
+    void naoDeveAceitarDoisExtratoresParaOMesmoModelo() {
+        assertThatThrownBy(() -> new PdfCartaoExtractorRegistry(List.of(new PdfCartaoExtractorCartao1(), new PdfCartaoExtractorCartao1())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("itau");
+    }
+
+    private static CartaoCredito cartao(String modeloImportacao) {
+        CartaoCredito cartao = new CartaoCredito();
+        cartao.setModeloImportacao(modeloImportacao);
+        return cartao;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.orcamento.service.extractor;
+
+import com.example.orcamento.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfExtracaoPipelineTest {
+
+    private PdfExtracaoPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new PdfExtracaoPipeline();
+        ReflectionTestUtils.setField(pipeline, "threads", 3);
+        ReflectionTestUtils.setField(pipeline, "paginasPorIntervalo", 2);
+        ReflectionTestUtils.setField(pipeline, "limitePorExtrator", 1);
+        ReflectionTestUtils.setField(pipeline, "esperaLimite", Duration.ofMillis(50));
+        pipeline.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.encerrar();
+    }
+
+    @Test
+    void deveEntregarAsLinhasNaOrdemDasPaginasComOMesmoResultadoDaLeituraSequencial() throws Exception {
+        byte[] pdf = FaturaPdfFixture.gerar(7, 40);
+        SantanderPdfExtractor extractor = new SantanderPdfExtractor();
+
+        List<Transaction> paralelo = pipeline.extrair(extractor, new ByteArrayInputStream(pdf));
+        List<Transaction> sequencial = extractor.extrair(new ByteArrayInputStream(pdf));
+
+        assertThat(paralelo).hasSize(7 * 40);
+        assertThat(paralelo).extracting(Transaction::getEstabelecimento)
+                .startsWith("LOJA 00000", "LOJA 00001")
+                .endsWith("LOJA 00279");
+        assertThat(paralelo).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(sequencial);
+        assertThat(paralelo.get(3).getParcela()).isEqualTo("04/12");
+        assertThat(paralelo.get(3).getValor()).isEqualTo("13.03");
+    }
+
+    @Test
+    void deveDescartarFaturaComMarcadorNaUltimaPagina() throws Exception {
+        byte[] pdf = FaturaPdfFixture.gerar(5, 30, "00 01290 VK045 28/03/2025");
+
+        assertThat(pipeline.extrair(new PdfCartaoExtractorCartao3(), new ByteArrayInputStream(pdf))).isEmpty();
+        assertThat(pipeline.extrair(new PdfCartaoExtractorCartao3(), new ByteArrayInputStream(FaturaPdfFixture.gerar(5, 30))))
+                .isNotEmpty();
+    }
+
+    @Test
+    void deveLimitarExtracoesSimultaneasDoMesmoExtrator() throws Exception {
+        byte[] pdf = FaturaPdfFixture.gerar(1, 5);
+        CountDownLatch consumindo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        PdfCartaoExtractor lento = linhas -> {
+            consumindo.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Transaction> transacoes = new ArrayList<>();
+            linhas.forEach(linha -> transacoes.add(new Transaction(null, linha, null, "0")));
+            return transacoes;
+        };
+
+        CompletableFuture<List<Transaction>> primeira = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pipeline.extrair(lento, new ByteArrayInputStream(pdf));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(consumindo.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> pipeline.extrair(lento, new ByteArrayInputStream(pdf)))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(pipeline.extrair(new SantanderPdfExtractor(), new ByteArrayInputStream(pdf))).hasSize(5);
+
+        liberar.countDown();
+        assertThat(primeira.get(5, TimeUnit.SECONDS)).hasSize(FaturaPdfFixture.CABECALHO.size() + 5 + 1);
+    }
+}
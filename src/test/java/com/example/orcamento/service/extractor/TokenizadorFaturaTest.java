@@ -0,0 +1,67 @@
+package com.example.orcamento.service.extractor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenizadorFaturaTest {
+
+    private static final List<String> CASOS = List.of(
+            "", " ", "  \t ", "a", "1/2", "1/2 X", "12/34", "12/3", "123/45", "1/", "/12", "01/02 LOJA 10,00",
+            "4/10 MERCADO 1.265,53", " \t 05/10  PARC=112REDLAR   HIP07/12\t45,10 \r", "1,00", ",00", "1,0", "12,345",
+            "1.234,56", "1234,56", "12.34,56", "1.234.567,89", ".123,45", "1..234,56", "a\u000Bb\fc", "x\u0001 y",
+            "06/10 ESTORNO - 30,00", "06/10 ESTORNO -  30,00", "23/08 REDLAR HIP 07/12 191,62  ", "07/12 A 1,00",
+            "10/10 LOJA 02/05 A 99,90", "11/11 - 5,00", "12/12 X Y 07/1208/12 5,00", "１２/03 UNICODE 1,00");
+
+    private static final Random ALEATORIO = new Random(42);
+    private static final String ALFABETO = "0123456789/,.- \tA";
+
+    @Test
+    void deveReproduzirAsExpressoesRegularesSubstituidas() {
+        for (String caso : casos()) {
+            assertThat(TokenizadorFatura.normalizarEspacos(caso)).as(caso).isEqualTo(caso.trim().replaceAll("\\s+", " "));
+            assertThat(TokenizadorFatura.colapsarEspacos(caso)).as(caso).isEqualTo(caso.trim().replaceAll(" +", " "));
+            assertThat(TokenizadorFatura.comecaComDiaMes(caso)).as(caso).isEqualTo(caso.matches("^\\d{1,2}/\\d{1,2}.*"));
+            assertThat(TokenizadorFatura.comecaComDiaMesCompleto(caso)).as(caso).isEqualTo(caso.matches("^\\d{2}/\\d{2}.*"));
+            assertThat(TokenizadorFatura.ehParcela(caso)).as(caso).isEqualTo(caso.matches("\\d{2}/\\d{2}"));
+            assertThat(TokenizadorFatura.ehValor(caso)).as(caso).isEqualTo(caso.matches("\\d+,\\d{2}"));
+            assertThat(TokenizadorFatura.ehValorComMilhar(caso)).as(caso).isEqualTo(caso.matches("\\d{1,3}(?:\\.\\d{3})*,\\d{2}"));
+            Matcher parcela = Pattern.compile("\\d{2}/\\d{2}").matcher(caso);
+            assertThat(TokenizadorFatura.encontrarParcela(caso)).as(caso).isEqualTo(parcela.find() ? parcela.group() : null);
+        }
+    }
+
+    @Test
+    void lerCompraDeveSepararDataEstabelecimentoParcelaEValor() {
+        assertThat(TokenizadorFatura.lerCompra("23/08 REDLAR HIP 07/12 191,62", false))
+                .extracting("dataCompra", "estabelecimento", "parcela", "valor")
+                .containsExactly("23/08", "REDLAR HIP", "07/12", "191,62");
+        assertThat(TokenizadorFatura.lerCompra("05/10 PARC=112REDLAR HIP07/12 45,10", false))
+                .extracting("estabelecimento", "parcela")
+                .containsExactly("PARC=112REDLAR HIP", "07/12");
+        assertThat(TokenizadorFatura.lerCompra("06/10 ESTORNO LOJA - 1.030,00", true))
+                .extracting("estabelecimento", "parcela", "valor")
+                .containsExactly("ESTORNO LOJA", null, "-1.030,00");
+        assertThat(TokenizadorFatura.lerCompra("06/10 ESTORNO LOJA 1.030,00", false)).isNull();
+        assertThat(TokenizadorFatura.lerCompra("08/10 SO DUAS", false)).isNull();
+    }
+
+    private static List<String> casos() {
+        List<String> casos = new ArrayList<>(CASOS);
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder caso = new StringBuilder();
+            int tamanho = ALEATORIO.nextInt(14);
+            for (int j = 0; j < tamanho; j++) {
+                caso.append(ALFABETO.charAt(ALEATORIO.nextInt(ALFABETO.length())));
+            }
+            casos.add(caso.toString());
+        }
+        return casos;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.orcamento.specification;
+
+import com.example.orcamento.model.CartaoCredito;
+import com.example.orcamento.model.Despesa;
+import com.example.orcamento.model.LancamentoCartao;
+import com.example.orcamento.model.StatusCartao;
+import com.example.orcamento.repository.CartaoCreditoRepository;
+import com.example.orcamento.repository.DespesaRepository;
+import com.example.orcamento.repository.LancamentoCartaoRepository;
+import com.example.orcamento.security.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Os filtros textuais de despesas e lancamentos casam por inicio de palavra sobre as colunas
+ * normalizadas, sem diferenciar acentos nem caixa.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BuscaTextoIntegrationTest {
+
+    private static final String TENANT = "tenantBuscaTexto";
+
+    @Autowired
+    private DespesaRepository despesaRepository;
+
+    @Autowired
+    private LancamentoCartaoRepository lancamentoCartaoRepository;
+
+    @Autowired
+    private CartaoCreditoRepository cartaoCreditoRepository;
+
+    @BeforeEach
+    void setUp() {
+        limparDados();
+        TenantContext.setTenantId(TENANT);
+
+        criarDespesa("Farmácia São João", "Remédios do mês");
+        criarDespesa("Conta de Luz", "Energia elétrica");
+        criarDespesa("Açougue", null);
+        criarDespesa("XP Investimentos", "Aporte do mês");
+
+        CartaoCredito cartao = new CartaoCredito();
+        cartao.setNome("Cartao Busca");
+        cartao.setLimite(new BigDecimal("5000.00"));
+        cartao.setDiaVencimento(10);
+        cartao.setStatus(StatusCartao.ATIVO);
+        cartao.setTenantId(TENANT);
+        cartao = cartaoCreditoRepository.save(cartao);
+        criarLancamento("MERCADOLIVRE*LOJA", "Presente de aniversário", cartao);
+        criarLancamento("Pão de Açúcar", null, cartao);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparDados();
+        TenantContext.clear();
+    }
+
+    @Test
+    void filtroDeNomeDaDespesaDeveIgnorarAcentosECaixa() {
+        assertThat(nomesDespesas(Map.of("nome", "farmacia sao"))).containsExactly("Farmácia São João");
+        assertThat(nomesDespesas(Map.of("nome", "AÇOU"))).containsExactly("Açougue");
+        assertThat(nomesDespesas(Map.of("detalhes", "eletr"))).containsExactly("Conta de Luz");
+    }
+
+    @Test
+    void filtroDeveCasarPorInicioDePalavraEExigirTodosOsTermos() {
+        assertThat(nomesDespesas(Map.of("nome", "joao"))).containsExactly("Farmácia São João");
+        assertThat(nomesDespesas(Map.of("nome", "oao"))).isEmpty();
+        assertThat(nomesDespesas(Map.of("nome", "farmacia luz"))).isEmpty();
+    }
+
+    @Test
+    void termosForaDoIndiceFulltextDevemFiltrarPorInicioDePalavra() {
+        assertThat(BuscaTexto.indexado("luz")).isTrue();
+        assertThat(BuscaTexto.indexado("xp")).isFalse();
+        assertThat(BuscaTexto.indexado("com")).isFalse();
+
+        assertThat(nomesDespesas(Map.of("nome", "conta de luz"))).containsExactly("Conta de Luz");
+        assertThat(nomesDespesas(Map.of("nome", "xp"))).containsExactly("XP Investimentos");
+        assertThat(nomesDespesas(Map.of("nome", "xp invest"))).containsExactly("XP Investimentos");
+        assertThat(nomesDespesas(Map.of("nome", "xp luz"))).isEmpty();
+        assertThat(nomesDespesas(Map.of("nome", "de"))).containsExactly("Conta de Luz");
+        assertThat(descricoesLancamentos(Map.of("descricao", "pao de acu"))).containsExactly("Pão de Açúcar");
+    }
+
+    @Test
+    void filtroDeDescricaoDoLancamentoDeveUsarAColunaNormalizada() {
+        assertThat(descricoesLancamentos(Map.of("descricao", "acucar"))).containsExactly("Pão de Açúcar");
+        assertThat(descricoesLancamentos(Map.of("descricao", "loja"))).containsExactly("MERCADOLIVRE*LOJA");
+        assertThat(descricoesLancamentos(Map.of("detalhes", "aniversario"))).containsExactly("MERCADOLIVRE*LOJA");
+    }
+
+    @Test
+    void colunasDeBuscaDevemAcompanharAAtualizacaoDoTexto() {
+        Despesa despesa = despesaRepository.findAll(DespesaSpecification.comFiltros(TENANT, Map.of("nome", "luz"))).get(0);
+        despesa.setNome("Conta de Água");
+        despesaRepository.save(despesa);
+
+        assertThat(nomesDespesas(Map.of("nome", "luz"))).isEmpty();
+        assertThat(nomesDespesas(Map.of("nome", "agua"))).containsExactly("Conta de Água");
+    }
+
+    private List<String> nomesDespesas(Map<String, Object> filtros) {
+        return despesaRepository.findAll(DespesaSpecification.comFiltros(TENANT, filtros)).stream()
+                .map(Despesa::getNome)
+                .toList();
+    }
+
+    private List<String> descricoesLancamentos(Map<String, Object> filtros) {
+        return lancamentoCartaoRepository.findAll(LancamentoCartaoSpecification.comFiltros(filtros)).stream()
+                .map(LancamentoCartao::getDescricao)
+                .toList();
+    }
+
+    private void criarDespesa(String nome, String detalhes) {
+        despesaRepository.save(Despesa.builder()
+                .nome(nome)
+                .detalhes(detalhes)
+                .tenantId(TENANT)
+                .valorPrevisto(new BigDecimal("100.00"))
+                .dataVencimento(LocalDate.of(2026, 3, 10))
+                .build());
+    }
+
+    private void criarLancamento(String descricao, String detalhes, CartaoCredito cartao) {
+        lancamentoCartaoRepository.save(LancamentoCartao.builder()
+                .descricao(descricao)
+                .detalhes(detalhes)
+                .valorTotal(new BigDecimal("50.00"))
+                .parcelaAtual(1)
+                .totalParcelas(1)
+                .dataCompra(LocalDate.of(2026, 3, 5))
+                .mesAnoFatura("ABRIL/2026")
+                .cartaoCredito(cartao)
+                .proprietario("Proprio")
+                .dataRegistro(LocalDateTime.now())
+                .tenantId(TENANT)
+                .build());
+    }
+
+    private void limparDados() {
+        lancamentoCartaoRepository.deleteAll(lancamentoCartaoRepository.findByTenantId(TENANT));
+        despesaRepository.deleteAll(despesaRepository.findByTenantId(TENANT));
+        cartaoCreditoRepository.deleteAll(cartaoCreditoRepository.findByTenantId(TENANT));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.orcamento.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompetenciaFaturaTest {
+
+    @Test
+    void deveConverterEntreStringLegadaEInteiro() {
+        assertThat(CompetenciaFatura.formatar(YearMonth.of(2026, 3))).isEqualTo("MARCO/2026");
+        assertThat(CompetenciaFatura.paraInteiro(YearMonth.of(2026, 3))).isEqualTo(202603);
+        assertThat(CompetenciaFatura.deInteiro(202612)).isEqualTo(YearMonth.of(2026, 12));
+        assertThat(CompetenciaFatura.paraInteiro("MARCO/2026")).isEqualTo(202603);
+    }
+
+    @Test
+    void parseDeveTolerarAcentosCaixaEEspacos() {
+        assertThat(CompetenciaFatura.parse(" Março / 2026 ")).isEqualTo(YearMonth.of(2026, 3));
+        assertThat(CompetenciaFatura.parse("dezembro/2025")).isEqualTo(YearMonth.of(2025, 12));
+    }
+
+    @Test
+    void parseDeveRetornarNuloParaFormatoInvalido() {
+        assertThat(CompetenciaFatura.parse(null)).isNull();
+        assertThat(CompetenciaFatura.parse("2025-07")).isNull();
+        assertThat(CompetenciaFatura.parse("MARCO/abc")).isNull();
+        assertThat(CompetenciaFatura.paraInteiro("FOO/2026")).isNull();
+    }
+
+    @Test
+    void numeroDoMesDeveUsarAMesmaToleranciaDoParse() {
+        assertThat(CompetenciaFatura.numeroDoMes("FEVEREIRO")).isEqualTo(2);
+        assertThat(CompetenciaFatura.numeroDoMes(" março ")).isEqualTo(3);
+        assertThat(CompetenciaFatura.numeroDoMes("FEV")).isNull();
+        assertThat(CompetenciaFatura.numeroDoMes(null)).isNull();
+    }
+}
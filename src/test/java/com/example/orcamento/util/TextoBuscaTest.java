@@ -0,0 +1,21 @@
+package com.example.orcamento.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextoBuscaTest {
+
+    @Test
+    void normalizarDeveRemoverAcentosCaixaEPontuacao() {
+        assertThat(TextoBusca.normalizar("  Açaí da ESQUINA - Parcela 1/3 ")).isEqualTo("acai da esquina parcela 1 3");
+        assertThat(TextoBusca.normalizar("MERCADO*LIVRE")).isEqualTo("mercado livre");
+        assertThat(TextoBusca.normalizar(null)).isNull();
+    }
+
+    @Test
+    void termosDevemIgnorarConsultaSemPalavras() {
+        assertThat(TextoBusca.termos("Farmácia  São João")).containsExactly("farmacia", "sao", "joao");
+        assertThat(TextoBusca.termos(" -- ")).isEmpty();
+    }
+}
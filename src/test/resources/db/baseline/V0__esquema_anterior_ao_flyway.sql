@@ -0,0 +1,89 @@
+-- Tabelas que ja existiam quando o Flyway foi adotado (baseline-version 0 em hml/prod) e que as
+-- migrations alteram ou leem. So existe nos testes, para que V1 em diante rode sobre o H2 como roda
+-- sobre o banco de producao. Colunas conforme as entidades da epoca; as chaves estrangeiras para
+-- tabelas que nenhuma migration toca ficaram de fora.
+CREATE TABLE conta_corrente (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    agencia VARCHAR(255) NOT NULL,
+    numero_conta VARCHAR(255) NOT NULL,
+    banco VARCHAR(255) NOT NULL,
+    nome_banco VARCHAR(255) NOT NULL,
+    saldo DECIMAL(38,2) NOT NULL,
+    usuario_id BIGINT NULL,
+    tenant_id VARCHAR(255) NOT NULL,
+    conta_ativa BIT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE despesas (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nome VARCHAR(255) NOT NULL,
+    tenant_id VARCHAR(255) NOT NULL,
+    valor_previsto DECIMAL(38,2) NOT NULL,
+    valor_pago DECIMAL(38,2) NULL,
+    data_vencimento DATE NOT NULL,
+    data_pagamento DATE NULL,
+    parcela INT NULL,
+    detalhes VARCHAR(255) NULL,
+    conta_corrente_id BIGINT NULL,
+    meta_economia_id BIGINT NULL,
+    despesa_parcelada_id BIGINT NULL,
+    subcategoria_id BIGINT NULL,
+    classificacao VARCHAR(255) NULL,
+    variabilidade VARCHAR(255) NULL,
+    forma_pagamento VARCHAR(255) NULL,
+    anexo VARCHAR(255) NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE lancamentos_cartao (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    descricao VARCHAR(255) NOT NULL,
+    valor_total DECIMAL(38,2) NOT NULL,
+    parcela_atual INT NOT NULL,
+    total_parcelas INT NOT NULL,
+    data_compra DATE NOT NULL,
+    detalhes VARCHAR(255) NULL,
+    mes_ano_fatura VARCHAR(255) NOT NULL,
+    cartao_credito_id BIGINT NOT NULL,
+    proprietario VARCHAR(255) NOT NULL,
+    data_registro DATETIME(6) NOT NULL,
+    tenant_id VARCHAR(255) NOT NULL,
+    compra_id BIGINT NULL,
+    pago_terceiro BIT NULL,
+    subcategoria_id BIGINT NULL,
+    classificacao VARCHAR(255) NULL,
+    variabilidade VARCHAR(255) NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE movimentacoes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    tenant_id VARCHAR(255) NOT NULL,
+    tipo VARCHAR(255) NOT NULL,
+    valor DECIMAL(38,2) NOT NULL,
+    data_cadastro DATETIME(6) NOT NULL,
+    data_recebimento DATE NOT NULL,
+    descricao VARCHAR(255) NULL,
+    transferencia_id VARCHAR(255) NULL,
+    transferencia_original_id VARCHAR(255) NULL,
+    conta_corrente_id BIGINT NOT NULL,
+    despesa_id BIGINT NULL,
+    receita_id BIGINT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_movimentacoes_conta_corrente FOREIGN KEY (conta_corrente_id) REFERENCES conta_corrente (id)
+);
+
+CREATE TABLE conta_corrente_saldo_dia (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    data DATE NOT NULL,
+    saldo_abertura DECIMAL(19,2) NOT NULL,
+    total_entradas DECIMAL(19,2) NOT NULL,
+    total_saidas DECIMAL(19,2) NOT NULL,
+    saldo_fechamento DECIMAL(19,2) NOT NULL,
+    calculado_em DATETIME(6) NOT NULL,
+    tenant_id VARCHAR(255) NOT NULL,
+    conta_corrente_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_conta_corrente_saldo_dia_tenant_conta_data UNIQUE (tenant_id, conta_corrente_id, data)
+);